@@ -0,0 +1,100 @@
+package com.example.salonmanagement.service.impl;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark tìm giờ trống trên BookingCalendar: mọi nhân viên trong 7 ngày,
+ * lịch đã kín khoảng 60% giờ mở cửa (08:00 - 21:00)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BookingAvailabilityBenchmark {
+
+    private static final int DAYS = 7;
+
+    @Param({"50", "300"})
+    int staffCount;
+
+    @Param({"5", "15"})
+    int slotMinutes;
+
+    @Param({"30", "90"})
+    int durationMinutes;
+
+    private BookingCalendar calendar;
+    private LocalDate firstDay;
+    private int slotCount;
+    private List<LocalTime> sink;
+
+    @Setup
+    public void setUp() {
+        calendar = new BookingCalendar();
+        calendar.configure(slotMinutes, LocalTime.of(8, 0), LocalTime.of(21, 0));
+        firstDay = LocalDate.now().plusDays(1);
+        slotCount = calendar.slotsFor(durationMinutes);
+        sink = new ArrayList<>(256);
+
+        SplittableRandom random = new SplittableRandom(42);
+        int open = calendar.slotFloor(LocalTime.of(8, 0));
+        int close = calendar.slotFloor(LocalTime.of(21, 0));
+        for (int d = 0; d < DAYS; d++) {
+            LocalDate date = firstDay.plusDays(d);
+            calendar.markLoaded(date);
+            for (int staff = 1; staff <= staffCount; staff++) {
+                // Đặt các lịch hẹn 30-120 phút cho tới khi kín khoảng 60% giờ mở cửa
+                int booked = 0;
+                while (booked < (close - open) * 6 / 10) {
+                    int length = calendar.slotsFor(random.nextInt(30, 121));
+                    int from = random.nextInt(open, close - length + 1);
+                    if (calendar.tryReserve(staff, date, from, length)) {
+                        booked += length;
+                    }
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public int allStaffForWeek() {
+        int found = 0;
+        for (int d = 0; d < DAYS; d++) {
+            LocalDate date = firstDay.plusDays(d);
+            for (int staff = 1; staff <= staffCount; staff++) {
+                sink.clear();
+                calendar.findFreeStarts(staff, date, slotCount, 0, sink);
+                found += sink.size();
+            }
+        }
+        return found;
+    }
+
+    @Benchmark
+    public boolean reserveAndRelease() {
+        LocalDate date = firstDay.plusDays(3);
+        int from = calendar.slotFloor(LocalTime.of(20, 0));
+        boolean reserved = calendar.tryReserve(staffCount + 1, date, from, slotCount / 2 + 1);
+        calendar.release(staffCount + 1, date, from, slotCount / 2 + 1);
+        return reserved;
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.salonmanagement.service.impl;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark thông lượng giữ chỗ + bỏ giữ chỗ với BookingReservations dùng chung (số luồng = số core)
+ * So sánh với -t 1, -t 2, ... để xem độ co giãn theo số core;
+ * tính không trùng giờ khi chạy song song được kiểm tra trong BookingReservationsTests
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(Threads.MAX)
+@Fork(1)
+public class BookingReservationBenchmark {
+
+    private static final int STAFF = 100;
+    private static final int DAYS = 7;
+
+    private final BookingCalendar calendar = new BookingCalendar();
+    private final BookingReservations reservations = new BookingReservations();
+    private final LocalDate firstDay = LocalDate.now().plusDays(1);
+    private int open;
+    private int close;
+
+    @Setup
+    public void setUp() {
+        calendar.configure(15, LocalTime.of(8, 0), LocalTime.of(21, 0));
+        reservations.configure(calendar, Duration.ofMinutes(5));
+        for (int d = 0; d < DAYS; d++) {
+            calendar.markLoaded(firstDay.plusDays(d));
+        }
+        open = calendar.slotFloor(LocalTime.of(8, 0));
+        close = calendar.slotFloor(LocalTime.of(21, 0));
+    }
+
+    @State(Scope.Thread)
+    public static class ThreadState {
+        final SplittableRandom random = new SplittableRandom(System.nanoTime());
+    }
+
+    @Benchmark
+    public boolean holdAndCancel(ThreadState state) {
+        SplittableRandom random = state.random;
+        int count = random.nextInt(1, 9);
+        BookingReservations.Hold hold = reservations.hold(random.nextInt(STAFF), firstDay.plusDays(random.nextInt(DAYS)),
+                random.nextInt(open, close - count + 1), count, null);
+        return hold != null && reservations.cancel(hold.getToken());
+    }
+}
@@ -0,0 +1,151 @@
+package com.example.salonmanagement.service.impl;
+
+import com.example.salonmanagement.SalonManagementApplication;
+import com.example.salonmanagement.dto.PromotionDTO;
+import com.example.salonmanagement.entity.PromotionEntity;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.support.NoOpCacheManager;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import javax.sql.DataSource;
+
+/**
+ * Sinh dữ liệu khuyến mãi giả lập, cố định theo seed để các lần chạy so sánh được với nhau
+ */
+final class PromotionBenchmarkData {
+
+    static final String[] WORDS = {
+            "Khuyến mãi", "Giảm giá", "Ưu đãi", "Tri ân", "Cắt tóc", "Nhuộm", "Uốn", "Gội đầu",
+            "Làm móng", "Chăm sóc da", "Mùa hè", "Tết", "Sinh nhật", "Cuối tuần", "Khách mới", "VIP"
+    };
+
+    private static final PromotionEntity.PromotionStatus[] STATUSES = PromotionEntity.PromotionStatus.values();
+
+    private static final LocalDate BASE_DATE = LocalDate.of(2024, 1, 1);
+
+    private static final String INSERT_SQL = "INSERT INTO promotion " +
+            "(name, discount_percent, start_date, end_date, description, status, version, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, 0, CURRENT_TIMESTAMP)";
+
+    private static final int SEED_BATCH_SIZE = 10_000;
+
+    private PromotionBenchmarkData() {}
+
+    /**
+     * Khuyến mãi thứ i (tên duy nhất nhờ hậu tố số thứ tự)
+     */
+    static PromotionDTO promotion(int i) {
+        SplittableRandom random = new SplittableRandom(i);
+        String name = WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)] + " " + i;
+        BigDecimal discount = BigDecimal.valueOf(random.nextInt(1, 10000), 2);
+        LocalDate startDate = BASE_DATE.plusDays(random.nextInt(1000));
+        LocalDate endDate = startDate.plusDays(random.nextInt(1, 365));
+        String description = random.nextInt(4) == 0 ? null
+                : "Áp dụng cho dịch vụ " + WORDS[random.nextInt(WORDS.length)].toLowerCase();
+        return new PromotionDTO(null, name, discount, startDate, endDate, description,
+                STATUSES[random.nextInt(STATUSES.length)]);
+    }
+
+    static PromotionEntity entity(int i) {
+        PromotionDTO promotion = promotion(i);
+        PromotionEntity entity = new PromotionEntity(promotion.getName(), promotion.getDiscountPercent(),
+                promotion.getStartDate(), promotion.getEndDate(), promotion.getDescription(), promotion.getStatus());
+        entity.setIdPromotion(i);
+        return entity;
+    }
+
+    /**
+     * Khởi động ứng dụng trên H2 nhúng (chế độ MySQL), cache tắt
+     * Có thể trỏ sang MySQL bằng -Dbenchmark.datasource.url/username/password
+     * (chỉ dùng database riêng cho benchmark: bảng bị tạo lại và xóa khi kết thúc)
+     * - Thuộc tính được truyền dạng tham số dòng lệnh (--key=value), ưu tiên cao hơn application.properties;
+     *   SpringApplicationBuilder.properties() chỉ là giá trị mặc định và bị application.properties ghi đè
+     * - Kiểm tra ngay sau khi khởi động rằng ứng dụng thật sự dùng database benchmark và cache đã tắt
+     */
+    static ConfigurableApplicationContext startApplication(WebApplicationType webApplicationType,
+                                                           String... extraProperties) {
+        String url = System.getProperty("benchmark.datasource.url",
+                "jdbc:h2:mem:promotion-bench;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+        List<String> properties = new ArrayList<>(List.of(
+                "spring.datasource.url=" + url,
+                "spring.datasource.username=" + System.getProperty("benchmark.datasource.username", "sa"),
+                "spring.datasource.password=" + System.getProperty("benchmark.datasource.password", ""),
+                "spring.jpa.hibernate.ddl-auto=create-drop",
+                "spring.jpa.show-sql=false",
+                "spring.cache.type=none",
+                "spring.devtools.restart.enabled=false",
+                "spring.main.banner-mode=off",
+                "logging.level.root=WARN"));
+        if (!System.getProperties().containsKey("benchmark.datasource.url")) {
+            properties.add("spring.datasource.driver-class-name=org.h2.Driver");
+        }
+        properties.addAll(List.of(extraProperties));
+        String[] args = properties.stream().map(property -> "--" + property).toArray(String[]::new);
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(SalonManagementApplication.class)
+                .web(webApplicationType)
+                .run(args);
+        try {
+            checkEnvironment(context, url);
+        } catch (RuntimeException e) {
+            context.close();
+            throw e;
+        }
+        return context;
+    }
+
+    private static void checkEnvironment(ConfigurableApplicationContext context, String expectedUrl) {
+        String actualUrl;
+        try (Connection connection = context.getBean(DataSource.class).getConnection()) {
+            actualUrl = connection.getMetaData().getURL();
+        } catch (SQLException e) {
+            throw new IllegalStateException("Cannot connect to the benchmark database " + expectedUrl, e);
+        }
+        // jdbc:h2 / jdbc:mysql ...: metadata có thể viết lại phần sau của URL
+        String expectedPrefix = expectedUrl.substring(0, expectedUrl.indexOf(':', "jdbc:".length()) + 1);
+        if (!actualUrl.startsWith(expectedPrefix)) {
+            throw new IllegalStateException("Benchmark expected " + expectedUrl + " but the application connected to "
+                    + actualUrl);
+        }
+        if (!System.getProperties().containsKey("benchmark.datasource.url") && !actualUrl.startsWith("jdbc:h2:")) {
+            throw new IllegalStateException("Benchmark must run on embedded H2, got " + actualUrl);
+        }
+        if (!(context.getBean(CacheManager.class) instanceof NoOpCacheManager)) {
+            throw new IllegalStateException("Benchmark expected spring.cache.type=none but got "
+                    + context.getBean(CacheManager.class).getClass().getName());
+        }
+    }
+
+    /**
+     * Nạp rows khuyến mãi bằng JDBC batch
+     */
+    static void seed(JdbcTemplate jdbcTemplate, int rows) {
+        List<Object[]> batch = new ArrayList<>(SEED_BATCH_SIZE);
+        for (int i = 1; i <= rows; i++) {
+            PromotionDTO promotion = promotion(i);
+            batch.add(new Object[] {
+                    promotion.getName(),
+                    promotion.getDiscountPercent(),
+                    Date.valueOf(promotion.getStartDate()),
+                    Date.valueOf(promotion.getEndDate()),
+                    promotion.getDescription(),
+                    promotion.getStatus().name()
+            });
+            if (batch.size() == SEED_BATCH_SIZE || i == rows) {
+                jdbcTemplate.batchUpdate(INSERT_SQL, batch);
+                batch.clear();
+            }
+        }
+    }
+}
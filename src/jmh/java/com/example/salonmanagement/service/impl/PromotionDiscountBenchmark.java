@@ -0,0 +1,110 @@
+package com.example.salonmanagement.service.impl;
+
+import com.example.salonmanagement.dto.PromotionDTO;
+import com.example.salonmanagement.entity.PromotionEntity;
+import com.example.salonmanagement.util.DiscountUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark báo giá giỏ hàng: bảng giảm giá đã biên dịch (long, basis point)
+ * so với cách làm trực tiếp duyệt khuyến mãi và tính bằng BigDecimal cho từng dòng
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PromotionDiscountBenchmark {
+
+    private static final BigDecimal HUNDRED = BigDecimal.valueOf(100);
+
+    @Param({"100", "1000"})
+    int promotionCount;
+
+    @Param({"5", "200"})
+    int cartSize;
+
+    private List<PromotionDTO> promotions;
+    private DiscountUtil.DiscountTable table;
+
+    private LocalDate[] dates;
+    private BigDecimal[] prices;
+    private long[] days;
+    private long[] amounts;
+    private long[] discounts;
+    private int[] promotionIds;
+
+    @Setup
+    public void setUp() {
+        promotions = new ArrayList<>(promotionCount);
+        for (int i = 1; i <= promotionCount; i++) {
+            PromotionDTO promotion = PromotionBenchmarkData.promotion(i);
+            promotion.setIdPromotion(i);
+            promotions.add(promotion);
+        }
+        table = DiscountUtil.compile(promotions);
+
+        // Giỏ hàng trong cùng một tuần, giá làm tròn nghìn đồng như bảng giá dịch vụ
+        SplittableRandom random = new SplittableRandom(cartSize);
+        LocalDate checkout = LocalDate.of(2025, 6, 1);
+        dates = new LocalDate[cartSize];
+        prices = new BigDecimal[cartSize];
+        days = new long[cartSize];
+        amounts = new long[cartSize];
+        discounts = new long[cartSize];
+        promotionIds = new int[cartSize];
+        for (int i = 0; i < cartSize; i++) {
+            dates[i] = checkout.plusDays(random.nextInt(7));
+            prices[i] = BigDecimal.valueOf(random.nextInt(50, 2000) * 1000L);
+            days[i] = dates[i].toEpochDay();
+            amounts[i] = prices[i].longValueExact();
+        }
+    }
+
+    @Benchmark
+    public long compiledTable() {
+        return table.price(days, amounts, cartSize, discounts, promotionIds);
+    }
+
+    @Benchmark
+    public BigDecimal naiveBigDecimal() {
+        BigDecimal totalDiscount = BigDecimal.ZERO;
+        for (int i = 0; i < cartSize; i++) {
+            BigDecimal best = BigDecimal.ZERO;
+            for (PromotionDTO promotion : promotions) {
+                if (promotion.getStatus() == PromotionEntity.PromotionStatus.ACTIVE
+                        && !dates[i].isBefore(promotion.getStartDate())
+                        && !dates[i].isAfter(promotion.getEndDate())
+                        && promotion.getDiscountPercent().compareTo(best) > 0) {
+                    best = promotion.getDiscountPercent();
+                }
+            }
+            totalDiscount = totalDiscount.add(prices[i].multiply(best).divide(HUNDRED, 0, RoundingMode.HALF_UP));
+        }
+        return totalDiscount;
+    }
+
+    @Benchmark
+    public DiscountUtil.DiscountTable compile() {
+        return DiscountUtil.compile(promotions);
+    }
+}
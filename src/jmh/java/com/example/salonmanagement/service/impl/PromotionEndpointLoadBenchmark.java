@@ -0,0 +1,115 @@
+package com.example.salonmanagement.service.impl;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Kiểm thử tải GET /api/promotions/paginated: thread Tomcat thường (platform) so với virtual thread
+ *
+ * Mặc định 32 client (-t để đổi). Pool Hikari giữ 20 connection như khi chạy thật, còn
+ * connection-timeout được nâng lên 60 giây trong trial: khi số client vượt số connection,
+ * request xếp hàng chờ connection và thời gian chờ hiện trong p50/p99 thay vì làm trial lỗi
+ * sau 5 giây như cấu hình thật.
+ *
+ * Chế độ virtual cần Java 21 (./mvnw -P benchmark,java21 verify
+ * -Djmh.args="PromotionEndpointLoadBenchmark -t 512"); trên Java 17 trial virtual dừng ngay
+ * thay vì đo lại thread thường.
+ * Để thấy khác biệt khi chờ I/O thật, trỏ sang MySQL bằng cách thêm vào jmh.args
+ * "-jvmArgsAppend -Dbenchmark.datasource.url=..." (xem PromotionBenchmarkData.startApplication)
+ *
+ * Kết quả đo (2026-10-17, 1 vCPU, Temurin 17.0.9, H2 nhúng, 100.000 khuyến mãi, pool 20):
+ * <pre>
+ * threading  clients  thrpt (ops/ms)    p50 (ms)  p90 (ms)  p99 (ms)
+ * platform   32       0.140 ± 0.128     222.4     417.2     788.5
+ * platform   512      0.200 ± 0.162    2223.0    4362.1    6597.7
+ * virtual    32, 512  không đo được: trial dừng vì JDK 17 không có virtual thread
+ * </pre>
+ * Với 512 client, p99 6,6 giây vượt connection-timeout 5s của cấu hình thật: đó là lý do lần đo trước
+ * lỗi, không phải do thread Tomcat. Thông lượng gần như không đổi vì 1 vCPU và truy vấn offset trên H2
+ * là giới hạn. Chưa có số đo virtual thread (máy đo chỉ có JDK 17), nên phần so sánh platform/virtual
+ * chưa thực hiện được; cần chạy lại hai chế độ với Java 21 trên máy nhiều lõi.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(32)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx2g", "-Djdk.tracePinnedThreads=short"})
+public class PromotionEndpointLoadBenchmark {
+
+    private static final int ROWS = 100_000;
+    private static final int PAGE_SIZE = 20;
+
+    @Param({"platform", "virtual"})
+    String threading;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private String baseUrl;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = PromotionBenchmarkData.startApplication(WebApplicationType.SERVLET,
+                "server.port=0",
+                "spring.datasource.hikari.connection-timeout=60000",
+                "spring.threads.virtual.enabled=" + threading.equals("virtual"));
+        // Thuộc tính của trial phải thắng application.properties (server.port=8081, virtual tắt, timeout 5s)
+        boolean virtual = Threading.VIRTUAL.isActive(context.getEnvironment());
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        if (virtual != threading.equals("virtual") || port == 8081) {
+            context.close();
+            throw new IllegalStateException("Trial " + threading + " started with virtual threads " + virtual
+                    + " on port " + port + (threading.equals("virtual") ? " (virtual threads need Java 21)" : ""));
+        }
+        PromotionBenchmarkData.seed(context.getBean(JdbcTemplate.class), ROWS);
+
+        baseUrl = "http://localhost:" + port + "/api/promotions/paginated?size=" + PAGE_SIZE + "&page=";
+        client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int paginated() throws IOException, InterruptedException {
+        int page = ThreadLocalRandom.current().nextInt(ROWS / PAGE_SIZE);
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + page)).GET().build();
+        HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("HTTP " + response.statusCode());
+        }
+        return response.body().length;
+    }
+}
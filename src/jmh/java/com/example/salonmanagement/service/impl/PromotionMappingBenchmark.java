@@ -0,0 +1,90 @@
+package com.example.salonmanagement.service.impl;
+
+import com.example.salonmanagement.dto.PromotionDTO;
+import com.example.salonmanagement.entity.PromotionEntity;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark các đường xử lý không cần database: chuyển đổi Entity -> DTO, validation
+ * và serialize Page<PromotionDTO> thành JSON như controller trả về
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PromotionMappingBenchmark {
+
+    @Param({"20", "100"})
+    int pageSize;
+
+    private PromotionService promotionService;
+    private PromotionEntity entity;
+    private PromotionDTO promotion;
+    private Page<PromotionDTO> page;
+    private ObjectMapper objectMapper;
+
+    @Setup
+    public void setUp() {
+        // Các phương thức được đo không dùng tới bean nào được inject
+        promotionService = new PromotionService();
+        entity = PromotionBenchmarkData.entity(42);
+        promotion = PromotionBenchmarkData.promotion(42);
+
+        List<PromotionDTO> content = new ArrayList<>(pageSize);
+        for (int i = 1; i <= pageSize; i++) {
+            PromotionDTO dto = PromotionBenchmarkData.promotion(i);
+            dto.setIdPromotion(i);
+            content.add(dto);
+        }
+        page = new PageImpl<>(content, PageRequest.of(0, pageSize), 100_000);
+
+        // Cùng cấu hình ngày tháng với ObjectMapper của Spring Boot
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+    }
+
+    @Benchmark
+    public PromotionDTO convertToDTO() {
+        return promotionService.convertToDTO(entity);
+    }
+
+    @Benchmark
+    public PromotionDTO validatePromotionData() {
+        promotionService.validatePromotionData(promotion);
+        return promotion;
+    }
+
+    @Benchmark
+    public boolean isValidBusinessLogic() {
+        return promotion.isValidBusinessLogic();
+    }
+
+    @Benchmark
+    public byte[] serializePage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(page);
+    }
+}
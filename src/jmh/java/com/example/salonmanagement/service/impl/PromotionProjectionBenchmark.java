@@ -0,0 +1,89 @@
+package com.example.salonmanagement.service.impl;
+
+import com.example.salonmanagement.dto.PromotionDTO;
+import com.example.salonmanagement.repository.PromotionRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Đọc toàn bộ khuyến mãi thành PromotionDTO: nạp entity rồi convertToDTO (cách cũ của getAllPromotions)
+ * so với projection DTO_SELECT, cả hai trong transaction readOnly như PromotionService
+ *
+ * Đo cấp phát bộ nhớ bằng profiler GC của JMH:
+ * ./mvnw -P benchmark verify -Djmh.args="PromotionProjectionBenchmark -prof gc"
+ *
+ * Kết quả đo (2026-10-17, 1 vCPU, Temurin 17.0.9, H2 nhúng, -prof gc):
+ * <pre>
+ * rows    benchmark          time (us/op)         gc.alloc.rate.norm (B/op)
+ * 1000    entityThenConvert   5497 ±  6225         1626241
+ * 1000    dtoProjection       1060 ±  1068          476498
+ * 10000   entityThenConvert  40446 ± 17738        15973615
+ * 10000   dtoProjection       9494 ±  9200         4699980
+ * </pre>
+ * Projection cấp phát ít hơn khoảng 3,4 lần (không tạo entity, entry trong persistence context
+ * và bản sao DTO); thời gian trên 1 vCPU dao động mạnh nhưng cùng chiều
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx2g"})
+public class PromotionProjectionBenchmark {
+
+    @Param({"1000", "10000"})
+    int rows;
+
+    private ConfigurableApplicationContext context;
+    private PromotionService promotionService;
+    private PromotionRepository promotionRepository;
+    private TransactionTemplate readOnly;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = PromotionBenchmarkData.startApplication(WebApplicationType.NONE);
+        promotionService = context.getBean(PromotionService.class);
+        promotionRepository = context.getBean(PromotionRepository.class);
+        readOnly = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnly.setReadOnly(true);
+
+        PromotionBenchmarkData.seed(context.getBean(JdbcTemplate.class), rows);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<PromotionDTO> entityThenConvert() {
+        return readOnly.execute(status -> promotionRepository.findAll().stream()
+                .map(promotionService::convertToDTO)
+                .collect(Collectors.toList()));
+    }
+
+    @Benchmark
+    public List<PromotionDTO> dtoProjection() {
+        return readOnly.execute(status -> promotionRepository.findAllAsDTO());
+    }
+}
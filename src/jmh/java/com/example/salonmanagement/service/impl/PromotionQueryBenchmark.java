@@ -0,0 +1,128 @@
+package com.example.salonmanagement.service.impl;
+
+import com.example.salonmanagement.dto.PromotionDTO;
+import com.example.salonmanagement.dto.PromotionSliceDTO;
+import com.example.salonmanagement.entity.PromotionEntity;
+import com.example.salonmanagement.repository.PromotionRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Benchmark các đường đọc qua database: phân trang offset / keyset và tìm kiếm
+ * (chỉ mục trigram so với LIKE '%keyword%'), trên H2 nhúng với 1k, 100k và 1M dòng
+ *
+ * Cache bị tắt (spring.cache.type=none) để đo chi phí thật của mỗi lần đọc
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx4g"})
+public class PromotionQueryBenchmark {
+
+    private static final int PAGE_SIZE = 20;
+    private static final String KEYWORD = "chăm sóc";
+
+    @Param({"1000", "100000", "1000000"})
+    int rows;
+
+    private ConfigurableApplicationContext context;
+    private PromotionService promotionService;
+    private PromotionRepository promotionRepository;
+    private TransactionTemplate readOnly;
+    private int middlePage;
+    private String middleCursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = PromotionBenchmarkData.startApplication(WebApplicationType.NONE);
+        promotionService = context.getBean(PromotionService.class);
+        promotionRepository = context.getBean(PromotionRepository.class);
+        readOnly = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnly.setReadOnly(true);
+
+        PromotionBenchmarkData.seed(context.getBean(JdbcTemplate.class), rows);
+        promotionService.loadPromotionIndexes();
+
+        // Con trỏ keyset trỏ vào dòng cuối của trang trước middlePage: hai cách cùng đọc một trang
+        middlePage = rows / PAGE_SIZE / 2;
+        PromotionDTO middle = promotionService
+                .getAllPromotionsWithPagination(middlePage * PAGE_SIZE - 1, 1).getContent().get(0);
+        middleCursor = PromotionCursor.after(PromotionCursor.SortKey.ID, middle).encode();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Page<PromotionDTO> offsetFirstPage() {
+        return promotionService.getAllPromotionsWithPagination(0, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public Page<PromotionDTO> offsetMiddlePage() {
+        return promotionService.getAllPromotionsWithPagination(middlePage, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public PromotionSliceDTO keysetMiddlePage() {
+        return promotionService.getPromotionsAfterCursor(null, "id", middleCursor, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public Page<PromotionDTO> statusFirstPage() {
+        return promotionService.getPromotionsByStatusWithPagination(PromotionEntity.PromotionStatus.ACTIVE, 0, PAGE_SIZE);
+    }
+
+    // Tìm kiếm: chỉ mục và LIKE cùng trả về trang đầu (hoặc toàn bộ kết quả) dạng PromotionDTO,
+    // đường LIKE chạy trong transaction readOnly và chuyển entity sang DTO như PromotionService khi chỉ mục chưa nạp
+
+    @Benchmark
+    public Page<PromotionDTO> searchIndexPage() {
+        return promotionService.searchPromotionsWithPagination(KEYWORD, 0, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public Page<PromotionDTO> searchLikePage() {
+        return readOnly.execute(status -> promotionRepository
+                .searchPromotionsWithPagination(KEYWORD, PageRequest.of(0, PAGE_SIZE))
+                .map(promotionService::convertToDTO));
+    }
+
+    @Benchmark
+    public List<PromotionDTO> searchIndexAll() {
+        return promotionService.searchPromotions(KEYWORD);
+    }
+
+    @Benchmark
+    public List<PromotionDTO> searchLikeAll() {
+        return readOnly.execute(status -> promotionRepository.searchPromotions(KEYWORD).stream()
+                .map(promotionService::convertToDTO)
+                .collect(Collectors.toList()));
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.salonmanagement.config;
+
+import com.example.salonmanagement.service.impl.PromotionVersionTracker;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.interceptor.CacheResolver;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Cấu hình cache cho các truy vấn đọc khuyến mãi
+ * Cache Caffeine (giới hạn kích thước + TTL) được khai báo trong application.properties,
+ * số liệu hit/miss/eviction được Spring Boot Actuator xuất tự động
+ *
+ * FEATURE 15: Cache đọc khuyến mãi
+ * - Cache interceptor chạy ngoài transaction nên cache hit không mở transaction
+ *   và giá trị chỉ được đưa vào cache sau khi transaction đọc đã kết thúc
+ * - Giá trị cache gắn phiên bản và là bản sao chỉ đọc (VersionedPromotionCacheResolver)
+ */
+@Configuration
+@EnableCaching(order = Ordered.HIGHEST_PRECEDENCE)
+public class CacheConfig {
+
+    public static final String PROMOTIONS_ALL = "promotions.all";
+    public static final String PROMOTIONS_BY_ID = "promotions.byId";
+    public static final String PROMOTIONS_BY_STATUS = "promotions.byStatus";
+    public static final String PROMOTIONS_SORTED = "promotions.sorted";
+
+    public static final String VERSIONED_PROMOTION_CACHE_RESOLVER = "versionedPromotionCacheResolver";
+
+    @Bean(VERSIONED_PROMOTION_CACHE_RESOLVER)
+    public CacheResolver versionedPromotionCacheResolver(CacheManager cacheManager,
+                                                         PromotionVersionTracker promotionVersionTracker) {
+        return new VersionedPromotionCacheResolver(cacheManager, promotionVersionTracker);
+    }
+}
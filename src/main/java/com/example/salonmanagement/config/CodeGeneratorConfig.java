@@ -0,0 +1,54 @@
+package com.example.salonmanagement.config;
+
+import com.example.salonmanagement.util.CodeGenerator;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+
+/**
+ * Khai báo CodeGenerator dùng chung cho toàn ứng dụng
+ *
+ * FEATURE 26: Sinh mã không trùng
+ * - Mỗi node phải có app.code-generator.node-id riêng (0..1023) để mã không trùng giữa các node
+ * - Không cấu hình thì suy ra từ hostname + PID (chỉ phù hợp khi chạy một node)
+ * - Gauge code.generator.clock.drift cho biết thời gian logic đang đi trước đồng hồ bao nhiêu mili giây
+ */
+@Configuration
+public class CodeGeneratorConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(CodeGeneratorConfig.class);
+
+    @Bean
+    public CodeGenerator codeGenerator(@Value("${app.code-generator.node-id:-1}") int nodeId,
+                                       MeterRegistry meterRegistry) {
+        if (nodeId < 0) {
+            nodeId = derivedNodeId();
+            log.warn("app.code-generator.node-id is not set, using derived node id {}; "
+                    + "configure a distinct id per node when running more than one instance", nodeId);
+        }
+        CodeGenerator generator = new CodeGenerator(nodeId);
+        Gauge.builder("code.generator.clock.drift", generator, CodeGenerator::clockDriftMillis)
+                .baseUnit("milliseconds")
+                .description("How far the code generator's logical clock runs ahead of the system clock")
+                .register(meterRegistry);
+        return generator;
+    }
+
+    private static int derivedNodeId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            host = "localhost";
+        }
+        int hash = (host + '/' + ProcessHandle.current().pid()).hashCode();
+        return (hash ^ (hash >>> 16)) & CodeGenerator.MAX_NODE_ID;
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.salonmanagement.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * Định tuyến DataSource đọc/ghi: transaction readOnly đi tới replica, còn lại đi tới primary
+ * Chỉ bật khi cấu hình app.datasource.replica.jdbc-url, nếu không Spring Boot dùng DataSource mặc định
+ *
+ * FEATURE 17: Định tuyến transaction chỉ đọc sang replica
+ * - Primary dùng cấu hình spring.datasource.* như cũ
+ * - Replica dùng app.datasource.replica.* (thuộc tính của HikariDataSource)
+ * - LazyConnectionDataSourceProxy chỉ lấy connection thật ở câu lệnh đầu tiên,
+ *   sau khi transaction đã đánh dấu connection là readOnly
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.datasource.replica", name = "jdbc-url")
+public class DataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    @ConfigurationProperties("app.datasource.replica")
+    public HikariDataSource replicaDataSource() {
+        return new HikariDataSource();
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primaryDataSource,
+                                 @Qualifier("replicaDataSource") DataSource replicaDataSource) {
+        return readWriteRouting(primaryDataSource, replicaDataSource);
+    }
+
+    /**
+     * Tạo DataSource định tuyến theo cờ readOnly của connection
+     * FEATURE 17: Định tuyến transaction chỉ đọc sang replica
+     */
+    public static DataSource readWriteRouting(DataSource primaryDataSource, DataSource replicaDataSource) {
+        LazyConnectionDataSourceProxy routing = new LazyConnectionDataSourceProxy(primaryDataSource);
+        routing.setReadOnlyDataSource(replicaDataSource);
+        return routing;
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.salonmanagement.config;
+
+import com.example.salonmanagement.service.impl.PromotionVersionTracker;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+
+/**
+ * Trả 304 Not Modified cho GET /api/promotions/** trước khi vào controller
+ * khi If-None-Match / If-Modified-Since khớp phiên bản hiện tại
+ *
+ * FEATURE 23: HTTP conditional GET
+ * - Không truy vấn database, không serialize JSON cho request không có thay đổi
+ * - Cache-Control: no-cache để trình duyệt luôn hỏi lại (kèm ETag) thay vì dùng bản cũ
+ * - Endpoint tính theo ngày hôm nay (active, expiring-soon) dùng dateRelative(): ETag kèm ngày hiện tại
+ *   và Last-Modified không sớm hơn đầu ngày, nên sang ngày mới client nhận danh sách mới dù không có lần ghi nào
+ */
+@Component
+public class PromotionConditionalGetInterceptor implements HandlerInterceptor {
+
+    @Autowired
+    private PromotionVersionTracker promotionVersionTracker;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        return checkModified(request, response, false);
+    }
+
+    /**
+     * Interceptor cho endpoint có kết quả phụ thuộc LocalDate.now()
+     */
+    public HandlerInterceptor dateRelative() {
+        return new HandlerInterceptor() {
+            @Override
+            public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+                return checkModified(request, response, true);
+            }
+        };
+    }
+
+    private boolean checkModified(HttpServletRequest request, HttpServletResponse response, boolean dateRelative) {
+        if (!HttpMethod.GET.matches(request.getMethod()) && !HttpMethod.HEAD.matches(request.getMethod())) {
+            return true;
+        }
+        // Đọc phiên bản trước khi controller đọc dữ liệu: dữ liệu có thể mới hơn ETag, không bao giờ cũ hơn
+        String eTag = promotionVersionTracker.eTag();
+        long lastModified = promotionVersionTracker.lastModified();
+        if (dateRelative) {
+            LocalDate today = LocalDate.now();
+            eTag = eTag.substring(0, eTag.length() - 1) + "-" + today + "\"";
+            lastModified = Math.max(lastModified, today.atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli());
+        }
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+        return !new ServletWebRequest(request, response).checkNotModified(eTag, lastModified);
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.salonmanagement.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Optional;
+import java.util.StringJoiner;
+
+/**
+ * Đo kích thước kết quả và bắt truy vấn chậm cho mọi phương thức của PromotionRepository
+ * (thời gian mỗi phương thức đã có sẵn ở metric spring.data.repository.invocations)
+ *
+ * FEATURE 21: Metrics cho khuyến mãi
+ * - promotion.repository.result.size{method}: số dòng trả về (List, Page/Slice, Optional)
+ * - promotion.repository.slow{method}: số lần vượt ngưỡng, kèm log WARN có giá trị tham số
+ */
+@Aspect
+@Component
+public class PromotionRepositoryMetricsAspect {
+
+    private static final Logger log = LoggerFactory.getLogger(PromotionRepositoryMetricsAspect.class);
+
+    public static final String RESULT_SIZE = "promotion.repository.result.size";
+    public static final String SLOW_QUERIES = "promotion.repository.slow";
+
+    // Giới hạn độ dài mỗi tham số khi ghi log (ví dụ danh sách tên khi nhập hàng loạt)
+    private static final int MAX_ARGUMENT_LENGTH = 200;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.metrics.slow-query-threshold:200ms}")
+    private Duration slowQueryThreshold;
+
+    @Around("execution(* com.example.salonmanagement.repository.PromotionRepository+.*(..))")
+    public Object measure(ProceedingJoinPoint joinPoint) throws Throwable {
+        long start = System.nanoTime();
+        Object result = joinPoint.proceed();
+        long elapsed = System.nanoTime() - start;
+
+        String method = joinPoint.getSignature().getName();
+        int size = resultSize(result);
+        if (size >= 0) {
+            DistributionSummary.builder(RESULT_SIZE)
+                    .tag("method", method)
+                    .baseUnit("rows")
+                    .register(meterRegistry)
+                    .record(size);
+        }
+        if (elapsed > slowQueryThreshold.toNanos()) {
+            meterRegistry.counter(SLOW_QUERIES, "method", method).increment();
+            log.warn("Slow promotion query {} took {} ms, rows={}, params={}",
+                    method, elapsed / 1_000_000, size, describe(joinPoint.getArgs()));
+        }
+        return result;
+    }
+
+    // -1 nếu kết quả không phải tập dòng (count, exists, Stream đọc sau, UPDATE ...)
+    private static int resultSize(Object result) {
+        if (result instanceof Collection<?> collection) {
+            return collection.size();
+        }
+        if (result instanceof Slice<?> slice) {
+            return slice.getNumberOfElements();
+        }
+        if (result instanceof Optional<?> optional) {
+            return optional.isPresent() ? 1 : 0;
+        }
+        return -1;
+    }
+
+    private static String describe(Object[] args) {
+        StringJoiner joiner = new StringJoiner(", ", "[", "]");
+        for (Object arg : args) {
+            String value = String.valueOf(arg);
+            joiner.add(value.length() > MAX_ARGUMENT_LENGTH ? value.substring(0, MAX_ARGUMENT_LENGTH) + "..." : value);
+        }
+        return joiner.toString();
+    }
+}
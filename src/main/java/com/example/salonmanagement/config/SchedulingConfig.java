@@ -0,0 +1,17 @@
+package com.example.salonmanagement.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Bật lập lịch tác vụ nền; Spring Boot tự cấu hình ThreadPoolTaskScheduler (spring.task.scheduling.*)
+ * Mọi tác vụ @Scheduled và PromotionLifecycleService dùng chung scheduler này, nên
+ * spring.task.scheduling.pool.size phải đủ để tác vụ dài (xét hạng thành viên, ghi lô) không
+ * chặn tác vụ chu kỳ ngắn (đọc phiên bản dùng chung mỗi giây, heartbeat SSE)
+ *
+ * FEATURE 20: Vòng đời khuyến mãi tự động
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
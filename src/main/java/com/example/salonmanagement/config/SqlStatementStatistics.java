@@ -0,0 +1,259 @@
+package com.example.salonmanagement.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * Bộ gom thống kê câu lệnh SQL theo "hình dạng" (SQL đã chuẩn hóa: literal -> ?, danh sách IN gộp lại)
+ *
+ * FEATURE 22: Thống kê SQL thay cho spring.jpa.show-sql
+ * - Mỗi hình dạng giữ count / tổng thời gian / số dòng bằng LongAdder (striped, không khóa)
+ *   và thời gian lớn nhất bằng CAS; luồng request không ghi I/O
+ * - Ghi log lấy mẫu (tùy chọn): câu lệnh được chọn ngẫu nhiên theo tỉ lệ, đưa vào hàng đợi có giới hạn
+ *   và được một thread nền ghi log; hàng đợi đầy thì bỏ mẫu chứ không chặn request
+ */
+public class SqlStatementStatistics implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(SqlStatementStatistics.class);
+
+    // Giới hạn số hình dạng và số SQL gốc được nhớ, phòng SQL sinh động không giới hạn
+    static final int MAX_SHAPES = 1000;
+    static final String OTHER_SHAPE = "<other>";
+    private static final int MAX_NORMALIZED_CACHE = 10_000;
+    private static final int SAMPLE_QUEUE_CAPACITY = 1024;
+
+    private static final Pattern PLACEHOLDER_LIST = Pattern.compile("\\(\\?(?:\\s*,\\s*\\?)+\\)");
+
+    private final Map<String, ShapeStatistics> shapes = new ConcurrentHashMap<>();
+    private final Map<String, ShapeStatistics> bySql = new ConcurrentHashMap<>();
+
+    private final double sampleRate;
+    private final BlockingQueue<Sample> samples;
+    private final Thread sampleWriter;
+    private final LongAdder droppedSamples = new LongAdder();
+
+    public SqlStatementStatistics(double sampleRate) {
+        this.sampleRate = sampleRate;
+        if (sampleRate > 0) {
+            samples = new ArrayBlockingQueue<>(SAMPLE_QUEUE_CAPACITY);
+            sampleWriter = new Thread(this::writeSamples, "sql-stats-log");
+            sampleWriter.setDaemon(true);
+            sampleWriter.start();
+        } else {
+            samples = null;
+            sampleWriter = null;
+        }
+    }
+
+    /**
+     * Thống kê cho một câu SQL gốc; kết quả chuẩn hóa được nhớ lại nên lần sau chỉ là một lần tra map
+     */
+    public ShapeStatistics forSql(String sql) {
+        ShapeStatistics statistics = bySql.get(sql);
+        if (statistics != null) {
+            return statistics;
+        }
+        String shape = normalize(sql);
+        statistics = shapes.get(shape);
+        if (statistics == null) {
+            statistics = shapes.size() < MAX_SHAPES
+                    ? shapes.computeIfAbsent(shape, ShapeStatistics::new)
+                    : shapes.computeIfAbsent(OTHER_SHAPE, ShapeStatistics::new);
+        }
+        if (bySql.size() >= MAX_NORMALIZED_CACHE) {
+            bySql.clear();
+        }
+        bySql.put(sql, statistics);
+        return statistics;
+    }
+
+    /**
+     * Ghi nhận một lần thực thi (rows = số dòng bị ảnh hưởng, hoặc 0 với SELECT — số dòng đọc được
+     * cộng thêm khi duyệt ResultSet)
+     */
+    public void record(ShapeStatistics statistics, long elapsedNanos, long rows) {
+        statistics.record(elapsedNanos, rows);
+        if (samples != null && ThreadLocalRandom.current().nextDouble() < sampleRate) {
+            if (!samples.offer(new Sample(statistics.sql, elapsedNanos, rows))) {
+                droppedSamples.increment();
+            }
+        }
+    }
+
+    /**
+     * Các hình dạng có tổng thời gian lớn nhất
+     */
+    public List<ShapeStatistics> top(int limit) {
+        List<ShapeStatistics> result = new ArrayList<>(shapes.values());
+        result.sort(Comparator.comparingLong(ShapeStatistics::getTotalNanos).reversed());
+        return result.size() > limit ? new ArrayList<>(result.subList(0, limit)) : result;
+    }
+
+    public int getShapeCount() {
+        return shapes.size();
+    }
+
+    public long getDroppedSamples() {
+        return droppedSamples.sum();
+    }
+
+    public void reset() {
+        shapes.clear();
+        bySql.clear();
+    }
+
+    @Override
+    public void destroy() {
+        if (sampleWriter != null) {
+            sampleWriter.interrupt();
+        }
+    }
+
+    private void writeSamples() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                Sample sample = samples.take();
+                log.info("SQL {} ms rows={} : {}",
+                        TimeUnit.NANOSECONDS.toMillis(sample.elapsedNanos), sample.rows, sample.sql);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Chuẩn hóa SQL: literal chuỗi/số -> ?, gộp khoảng trắng, danh sách (?, ?, ...) -> (?...)
+     */
+    static String normalize(String sql) {
+        int length = sql.length();
+        StringBuilder out = new StringBuilder(length);
+        boolean pendingSpace = false;
+        int i = 0;
+        while (i < length) {
+            char c = sql.charAt(i);
+            if (Character.isWhitespace(c)) {
+                pendingSpace = out.length() > 0;
+                i++;
+                continue;
+            }
+            if (pendingSpace) {
+                out.append(' ');
+                pendingSpace = false;
+            }
+            if (c == '\'') {
+                // Literal chuỗi, '' là dấu nháy được escape
+                i++;
+                while (i < length) {
+                    if (sql.charAt(i) == '\'') {
+                        if (i + 1 < length && sql.charAt(i + 1) == '\'') {
+                            i += 2;
+                            continue;
+                        }
+                        break;
+                    }
+                    i++;
+                }
+                out.append('?');
+                i++;
+            } else if (Character.isDigit(c) && !endsWithIdentifier(out)) {
+                while (i < length && (Character.isDigit(sql.charAt(i)) || sql.charAt(i) == '.')) {
+                    i++;
+                }
+                out.append('?');
+            } else {
+                out.append(c);
+                i++;
+            }
+        }
+        String normalized = out.toString();
+        return normalized.indexOf(',') >= 0 && normalized.indexOf('?') >= 0
+                ? PLACEHOLDER_LIST.matcher(normalized).replaceAll("(?...)")
+                : normalized;
+    }
+
+    // Chữ số đứng sau chữ cái / _ là một phần của tên (ví dụ alias p1_0), không phải literal
+    private static boolean endsWithIdentifier(StringBuilder out) {
+        if (out.length() == 0) {
+            return false;
+        }
+        char last = out.charAt(out.length() - 1);
+        return Character.isLetterOrDigit(last) || last == '_' || last == '$' || last == '`' || last == '"';
+    }
+
+    /**
+     * Bộ đếm của một hình dạng SQL
+     */
+    public static final class ShapeStatistics {
+        private final String sql;
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAdder rows = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+
+        ShapeStatistics(String sql) {
+            this.sql = sql;
+        }
+
+        void record(long elapsedNanos, long affectedRows) {
+            count.increment();
+            totalNanos.add(elapsedNanos);
+            addRows(affectedRows);
+            long max = maxNanos.get();
+            while (elapsedNanos > max && !maxNanos.compareAndSet(max, elapsedNanos)) {
+                max = maxNanos.get();
+            }
+        }
+
+        void addRows(long fetchedRows) {
+            if (fetchedRows > 0) {
+                rows.add(fetchedRows);
+            }
+        }
+
+        public String getSql() {
+            return sql;
+        }
+
+        public long getCount() {
+            return count.sum();
+        }
+
+        public long getTotalNanos() {
+            return totalNanos.sum();
+        }
+
+        public long getMaxNanos() {
+            return maxNanos.get();
+        }
+
+        public long getRows() {
+            return rows.sum();
+        }
+    }
+
+    private static final class Sample {
+        final String sql;
+        final long elapsedNanos;
+        final long rows;
+
+        Sample(String sql, long elapsedNanos, long rows) {
+            this.sql = sql;
+            this.elapsedNanos = elapsedNanos;
+            this.rows = rows;
+        }
+    }
+}
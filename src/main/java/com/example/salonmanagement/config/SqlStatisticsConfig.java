@@ -0,0 +1,58 @@
+package com.example.salonmanagement.config;
+
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * Bật thống kê SQL (tùy chọn, app.sql-stats.enabled=true)
+ *
+ * FEATURE 22: Thống kê SQL thay cho spring.jpa.show-sql
+ * - Bọc DataSource chính bằng SqlStatisticsDataSource
+ * - Bật Hibernate statistics (hibernate.generate_statistics)
+ * - Xem tại /actuator/sqlstats, xóa số liệu bằng DELETE /actuator/sqlstats
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.sql-stats", name = "enabled", havingValue = "true")
+public class SqlStatisticsConfig {
+
+    @Bean
+    public SqlStatementStatistics sqlStatementStatistics(@Value("${app.sql-stats.log-sample-rate:0}") double sampleRate) {
+        return new SqlStatementStatistics(sampleRate);
+    }
+
+    /**
+     * Chỉ bọc bean "dataSource" (DataSource mà JPA/JdbcTemplate dùng); khi có replica,
+     * bean này là DataSource định tuyến nên primary và replica không bị đếm hai lần
+     */
+    @Bean
+    public static BeanPostProcessor sqlStatisticsDataSourcePostProcessor(
+            ObjectProvider<SqlStatementStatistics> statistics) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
+                if (bean instanceof DataSource dataSource && beanName.equals("dataSource")) {
+                    return new SqlStatisticsDataSource(dataSource, statistics.getObject());
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer hibernateStatisticsCustomizer() {
+        return properties -> properties.put("hibernate.generate_statistics", "true");
+    }
+
+    @Bean
+    public SqlStatisticsEndpoint sqlStatisticsEndpoint() {
+        return new SqlStatisticsEndpoint();
+    }
+}
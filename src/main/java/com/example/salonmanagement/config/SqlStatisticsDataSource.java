@@ -0,0 +1,208 @@
+package com.example.salonmanagement.config;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * DataSource bọc ngoài để đo mọi câu lệnh JDBC (Hibernate, JdbcTemplate nhập hàng loạt, ...)
+ *
+ * FEATURE 22: Thống kê SQL thay cho spring.jpa.show-sql
+ * - Thời gian đo quanh execute*(): với SELECT là tới khi có ResultSet đầu tiên
+ * - Số dòng: update count của INSERT/UPDATE/DELETE/batch, hoặc số lần next() thành công của ResultSet
+ */
+public class SqlStatisticsDataSource extends DelegatingDataSource {
+
+    private final SqlStatementStatistics statistics;
+
+    public SqlStatisticsDataSource(DataSource targetDataSource, SqlStatementStatistics statistics) {
+        super(targetDataSource);
+        this.statistics = statistics;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return wrap(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return wrap(super.getConnection(username, password));
+    }
+
+    private Connection wrap(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[] {Connection.class}, new ConnectionHandler(connection));
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+
+    // equals/hashCode theo identity của proxy: Hibernate giữ Statement/ResultSet trong HashMap
+    private static Object invokeObjectMethod(Object proxy, Object target, Method method, Object[] args)
+            throws Throwable {
+        switch (method.getName()) {
+            case "equals":
+                return proxy == args[0];
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            default:
+                return invoke(target, method, args);
+        }
+    }
+
+    private final class ConnectionHandler implements InvocationHandler {
+        private final Connection target;
+
+        ConnectionHandler(Connection target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (method.getDeclaringClass() == Object.class) {
+                return invokeObjectMethod(proxy, target, method, args);
+            }
+            Object result = SqlStatisticsDataSource.invoke(target, method, args);
+            String name = method.getName();
+            if (result instanceof CallableStatement && name.equals("prepareCall")) {
+                return wrapStatement(CallableStatement.class, (Statement) result, (String) args[0]);
+            }
+            if (result instanceof PreparedStatement && name.equals("prepareStatement")) {
+                return wrapStatement(PreparedStatement.class, (Statement) result, (String) args[0]);
+            }
+            if (result instanceof Statement && name.equals("createStatement")) {
+                return wrapStatement(Statement.class, (Statement) result, null);
+            }
+            return result;
+        }
+
+        private Object wrapStatement(Class<? extends Statement> type, Statement statement, String sql) {
+            return Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                    new Class<?>[] {type}, new StatementHandler(statement, sql));
+        }
+    }
+
+    private final class StatementHandler implements InvocationHandler {
+        private final Statement target;
+        // Null với Statement thường: SQL được truyền vào lúc execute
+        private final SqlStatementStatistics.ShapeStatistics prepared;
+
+        StatementHandler(Statement target, String sql) {
+            this.target = target;
+            this.prepared = sql == null ? null : statistics.forSql(sql);
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (method.getDeclaringClass() == Object.class) {
+                return invokeObjectMethod(proxy, target, method, args);
+            }
+            String name = method.getName();
+            if (!name.startsWith("execute")) {
+                Object result = SqlStatisticsDataSource.invoke(target, method, args);
+                if (result instanceof ResultSet && name.equals("getResultSet")) {
+                    return wrapResultSet((ResultSet) result, prepared);
+                }
+                return result;
+            }
+
+            SqlStatementStatistics.ShapeStatistics shape = prepared;
+            if (shape == null) {
+                if (args == null || !(args[0] instanceof String)) {
+                    return SqlStatisticsDataSource.invoke(target, method, args);
+                }
+                shape = statistics.forSql((String) args[0]);
+            }
+
+            long start = System.nanoTime();
+            Object result = SqlStatisticsDataSource.invoke(target, method, args);
+            long elapsed = System.nanoTime() - start;
+
+            statistics.record(shape, elapsed, affectedRows(result));
+            if (result instanceof ResultSet) {
+                return wrapResultSet((ResultSet) result, shape);
+            }
+            return result;
+        }
+
+        private long affectedRows(Object result) {
+            if (result instanceof Integer || result instanceof Long) {
+                return ((Number) result).longValue();
+            }
+            long rows = 0;
+            if (result instanceof int[]) {
+                for (int count : (int[]) result) {
+                    rows += Math.max(count, 0);
+                }
+            } else if (result instanceof long[]) {
+                for (long count : (long[]) result) {
+                    rows += Math.max(count, 0);
+                }
+            }
+            return rows;
+        }
+
+        private Object wrapResultSet(ResultSet resultSet, SqlStatementStatistics.ShapeStatistics shape) {
+            if (shape == null) {
+                return resultSet;
+            }
+            return Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                    new Class<?>[] {ResultSet.class}, new ResultSetHandler(resultSet, shape));
+        }
+    }
+
+    private static final class ResultSetHandler implements InvocationHandler {
+        private final ResultSet target;
+        private final SqlStatementStatistics.ShapeStatistics shape;
+        private long rows;
+        private boolean reported;
+
+        ResultSetHandler(ResultSet target, SqlStatementStatistics.ShapeStatistics shape) {
+            this.target = target;
+            this.shape = shape;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (method.getDeclaringClass() == Object.class) {
+                return invokeObjectMethod(proxy, target, method, args);
+            }
+            Object result = SqlStatisticsDataSource.invoke(target, method, args);
+            String name = method.getName();
+            if (name.equals("next")) {
+                if (Boolean.TRUE.equals(result)) {
+                    rows++;
+                } else {
+                    report();
+                }
+            } else if (name.equals("close")) {
+                report();
+            }
+            return result;
+        }
+
+        // Cộng số dòng đã đọc một lần, khi duyệt hết hoặc khi đóng ResultSet
+        private void report() {
+            if (!reported) {
+                reported = true;
+                shape.addRows(rows);
+            }
+        }
+    }
+}
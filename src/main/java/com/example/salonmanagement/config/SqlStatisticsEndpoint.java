@@ -0,0 +1,102 @@
+package com.example.salonmanagement.config;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.QueryStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Actuator endpoint /actuator/sqlstats: thống kê theo hình dạng SQL và Hibernate statistics
+ *
+ * FEATURE 22: Thống kê SQL thay cho spring.jpa.show-sql
+ */
+@Endpoint(id = "sqlstats")
+public class SqlStatisticsEndpoint {
+
+    private static final int TOP_LIMIT = 50;
+
+    @Autowired
+    private SqlStatementStatistics sqlStatementStatistics;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @ReadOperation
+    public Map<String, Object> sqlStats() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("shapeCount", sqlStatementStatistics.getShapeCount());
+        result.put("droppedLogSamples", sqlStatementStatistics.getDroppedSamples());
+
+        List<Map<String, Object>> statements = new ArrayList<>();
+        for (SqlStatementStatistics.ShapeStatistics shape : sqlStatementStatistics.top(TOP_LIMIT)) {
+            long count = shape.getCount();
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("sql", shape.getSql());
+            row.put("count", count);
+            row.put("totalMs", TimeUnit.NANOSECONDS.toMillis(shape.getTotalNanos()));
+            row.put("avgUs", count == 0 ? 0 : TimeUnit.NANOSECONDS.toMicros(shape.getTotalNanos() / count));
+            row.put("maxUs", TimeUnit.NANOSECONDS.toMicros(shape.getMaxNanos()));
+            row.put("rows", shape.getRows());
+            statements.add(row);
+        }
+        result.put("statements", statements);
+        result.put("hibernate", hibernateStatistics(statistics()));
+        return result;
+    }
+
+    @DeleteOperation
+    public void reset() {
+        sqlStatementStatistics.reset();
+        statistics().clear();
+    }
+
+    private Statistics statistics() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    private static Map<String, Object> hibernateStatistics(Statistics statistics) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("sessionOpenCount", statistics.getSessionOpenCount());
+        result.put("transactionCount", statistics.getTransactionCount());
+        result.put("prepareStatementCount", statistics.getPrepareStatementCount());
+        result.put("queryExecutionCount", statistics.getQueryExecutionCount());
+        result.put("queryExecutionMaxTimeMs", statistics.getQueryExecutionMaxTime());
+        result.put("queryExecutionMaxTimeQuery", statistics.getQueryExecutionMaxTimeQueryString());
+        result.put("entityLoadCount", statistics.getEntityLoadCount());
+        result.put("entityFetchCount", statistics.getEntityFetchCount());
+        result.put("entityInsertCount", statistics.getEntityInsertCount());
+        result.put("entityUpdateCount", statistics.getEntityUpdateCount());
+        result.put("entityDeleteCount", statistics.getEntityDeleteCount());
+        result.put("collectionFetchCount", statistics.getCollectionFetchCount());
+        result.put("flushCount", statistics.getFlushCount());
+        result.put("optimisticFailureCount", statistics.getOptimisticFailureCount());
+
+        // Thống kê theo câu HQL/JPQL, sắp xếp theo tổng thời gian
+        List<Map<String, Object>> queries = new ArrayList<>();
+        for (String query : statistics.getQueries()) {
+            QueryStatistics queryStatistics = statistics.getQueryStatistics(query);
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("query", query);
+            row.put("count", queryStatistics.getExecutionCount());
+            row.put("totalMs", queryStatistics.getExecutionTotalTime());
+            row.put("avgMs", queryStatistics.getExecutionAvgTime());
+            row.put("maxMs", queryStatistics.getExecutionMaxTime());
+            row.put("rows", queryStatistics.getExecutionRowCount());
+            queries.add(row);
+        }
+        queries.sort(Comparator.comparing((Map<String, Object> row) -> (Long) row.get("totalMs")).reversed());
+        result.put("queries", queries.size() > TOP_LIMIT ? queries.subList(0, TOP_LIMIT) : queries);
+        return result;
+    }
+}
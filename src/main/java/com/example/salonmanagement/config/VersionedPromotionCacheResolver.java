@@ -0,0 +1,169 @@
+package com.example.salonmanagement.config;
+
+import com.example.salonmanagement.dto.PromotionDTO;
+import com.example.salonmanagement.service.impl.PromotionVersionTracker;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.interceptor.CacheOperationInvocationContext;
+import org.springframework.cache.interceptor.SimpleCacheResolver;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Bọc các cache khuyến mãi để mỗi giá trị mang theo phiên bản (ETag) của tập khuyến mãi lúc bắt đầu nạp
+ *
+ * FEATURE 15: Cache đọc khuyến mãi
+ * - Request đọc trượt cache trước khi một transaction ghi commit có thể nạp dữ liệu cũ rồi put sau khi
+ *   afterCommit đã evict; giá trị đó mang phiên bản cũ nên không bao giờ được trả về, thay vì sống hết TTL
+ * - Phiên bản được đọc trước khi nạp (cache interceptor chạy ngoài transaction), PromotionVersionTracker
+ *   tăng phiên bản sau khi evict, nên cửa sổ còn lại chỉ là vài micro giây giữa evict và changed()
+ * - Giá trị đưa vào cache là bản sao chỉ đọc (PromotionDTO.readOnlyCopy, List.copyOf), không ai sửa được
+ *   đối tượng dùng chung giữa các request
+ * - Lần ghi trên node khác làm phiên bản đổi khi PromotionVersionTracker.refresh() đọc được; khi bật replica
+ *   (FEATURE 17) giá trị nạp từ replica vẫn có thể trễ bằng độ trễ sao chép
+ * - Cache Caffeine gốc vẫn nằm trong CacheManager nên evict/clear và số liệu Actuator không đổi
+ * - Các @Cacheable dùng sync = true để đi qua get(key, loader) (các lần nạp đồng thời không được gộp);
+ *   put() trực tiếp chỉ gắn được phiên bản lúc put
+ */
+public class VersionedPromotionCacheResolver extends SimpleCacheResolver {
+
+    private final PromotionVersionTracker promotionVersionTracker;
+    private final Map<String, Cache> caches = new ConcurrentHashMap<>();
+
+    public VersionedPromotionCacheResolver(CacheManager cacheManager, PromotionVersionTracker promotionVersionTracker) {
+        super(cacheManager);
+        this.promotionVersionTracker = promotionVersionTracker;
+    }
+
+    @Override
+    public Collection<? extends Cache> resolveCaches(CacheOperationInvocationContext<?> context) {
+        Collection<? extends Cache> resolved = super.resolveCaches(context);
+        List<Cache> versioned = new ArrayList<>(resolved.size());
+        for (Cache cache : resolved) {
+            versioned.add(caches.computeIfAbsent(cache.getName(), name -> new VersionedCache(cache)));
+        }
+        return versioned;
+    }
+
+    /**
+     * Bản sao không sửa được của giá trị cache
+     */
+    static Object readOnly(Object value) {
+        if (value instanceof PromotionDTO) {
+            return ((PromotionDTO) value).readOnlyCopy();
+        }
+        if (value instanceof List) {
+            List<Object> copy = new ArrayList<>(((List<?>) value).size());
+            for (Object element : (List<?>) value) {
+                copy.add(readOnly(element));
+            }
+            return List.copyOf(copy);
+        }
+        return value;
+    }
+
+    private final class VersionedCache implements Cache {
+
+        private final Cache delegate;
+
+        VersionedCache(Cache delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public String getName() {
+            return delegate.getName();
+        }
+
+        @Override
+        public Object getNativeCache() {
+            return delegate.getNativeCache();
+        }
+
+        @Override
+        public ValueWrapper get(Object key) {
+            Versioned entry = current(key, promotionVersionTracker.eTag());
+            return entry != null ? new SimpleValueWrapper(entry.value) : null;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> T get(Object key, Class<T> type) {
+            ValueWrapper wrapper = get(key);
+            Object value = wrapper != null ? wrapper.get() : null;
+            if (value != null && type != null && !type.isInstance(value)) {
+                throw new IllegalStateException("Cached value is not of required type [" + type.getName() + "]: " + value);
+            }
+            return (T) value;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> T get(Object key, Callable<T> valueLoader) {
+            String version = promotionVersionTracker.eTag();
+            Versioned entry = current(key, version);
+            if (entry != null) {
+                return (T) entry.value;
+            }
+            T value;
+            try {
+                value = valueLoader.call();
+            } catch (Exception e) {
+                throw new ValueRetrievalException(key, valueLoader, e);
+            }
+            Object readOnly = readOnly(value);
+            delegate.put(key, new Versioned(version, readOnly));
+            return (T) readOnly;
+        }
+
+        @Override
+        public void put(Object key, Object value) {
+            delegate.put(key, new Versioned(promotionVersionTracker.eTag(), readOnly(value)));
+        }
+
+        @Override
+        public void evict(Object key) {
+            delegate.evict(key);
+        }
+
+        @Override
+        public boolean evictIfPresent(Object key) {
+            return delegate.evictIfPresent(key);
+        }
+
+        @Override
+        public void clear() {
+            delegate.clear();
+        }
+
+        @Override
+        public boolean invalidate() {
+            return delegate.invalidate();
+        }
+
+        private Versioned current(Object key, String version) {
+            ValueWrapper wrapper = delegate.get(key);
+            if (wrapper == null || !(wrapper.get() instanceof Versioned)) {
+                return null;
+            }
+            Versioned entry = (Versioned) wrapper.get();
+            return entry.version.equals(version) ? entry : null;
+        }
+    }
+
+    private static final class Versioned {
+        final String version;
+        final Object value;
+
+        Versioned(String version, Object value) {
+            this.version = version;
+            this.value = value;
+        }
+    }
+}
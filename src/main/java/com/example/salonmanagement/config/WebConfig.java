@@ -1,4 +1,32 @@
 package com.example.salonmanagement.config;
 
-public class WebConfig {
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Cấu hình Spring MVC
+ *
+ * FEATURE 23: HTTP conditional GET cho API khuyến mãi (trừ export và luồng SSE)
+ * - Doanh thu theo khuyến mãi đổi theo từng lô thanh toán, không theo phiên bản tập khuyến mãi,
+ *   nên không đi qua interceptor
+ * - active và expiring-soon tính theo ngày hôm nay nên ETag của chúng kèm thêm ngày hiện tại
+ */
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    @Autowired
+    private PromotionConditionalGetInterceptor promotionConditionalGetInterceptor;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(promotionConditionalGetInterceptor)
+                .addPathPatterns("/api/promotions/**")
+                .excludePathPatterns("/api/promotions/export", "/api/promotions/stream", "/api/promotions/*/revenue",
+                        "/api/promotions/active", "/api/promotions/expiring-soon");
+        // Kết quả đổi khi sang ngày mới dù tập khuyến mãi không đổi
+        registry.addInterceptor(promotionConditionalGetInterceptor.dateRelative())
+                .addPathPatterns("/api/promotions/active", "/api/promotions/expiring-soon");
+    }
 }
@@ -1,4 +1,207 @@
 package com.example.salonmanagement.controller;
 
+import com.example.salonmanagement.dto.BookingAvailabilityDTO;
+import com.example.salonmanagement.dto.BookingDTO;
+import com.example.salonmanagement.dto.BookingHoldDTO;
+import com.example.salonmanagement.service.impl.BookingService;
+import jakarta.validation.Valid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+
+/**
+ * Controller cho Booking
+ * Cung cấp các REST endpoints cho đặt lịch hẹn
+ *
+ * FEATURE 27: Lịch đặt chỗ dạng bitmap
+ * FEATURE 28: Giữ chỗ và đặt lịch song song
+ */
+@RestController
+@RequestMapping("/api/bookings")
+@CrossOrigin(origins = "*")
 public class BookingController {
+    
+    private static final Logger log = LoggerFactory.getLogger(BookingController.class);
+    
+    @Autowired
+    private BookingService bookingService;
+    
+    /**
+     * Tìm giờ trống của các nhân viên cho dịch vụ dài duration phút
+     * FEATURE 27: Lịch đặt chỗ dạng bitmap
+     * FEATURE 29: Không truyền staffIds thì tìm theo chuyên môn/chi nhánh
+     * Endpoint: GET /api/bookings/availability?staffIds=1,2&date=2025-06-01&days=7&duration=60
+     *           GET /api/bookings/availability?specialty=COLOR&branch=1&duration=60
+     */
+    @GetMapping("/availability")
+    public ResponseEntity<?> findAvailability(@RequestParam(required = false) List<Integer> staffIds,
+                                              @RequestParam(required = false) String specialty,
+                                              @RequestParam(required = false) Integer branch,
+                                              @RequestParam(required = false)
+                                              @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+                                              @RequestParam(defaultValue = "1") int days,
+                                              @RequestParam int duration) {
+        try {
+            List<BookingAvailabilityDTO> availability = bookingService.findAvailability(
+                    staffIds, specialty, branch, date != null ? date : LocalDate.now(), days, duration);
+            return ResponseEntity.ok(availability);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (Exception e) {
+            return serverError(e).body("Lỗi server: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Lấy lịch hẹn trong ngày
+     * FEATURE 27: Lịch đặt chỗ dạng bitmap
+     * Endpoint: GET /api/bookings?date=2025-06-01
+     */
+    @GetMapping
+    public ResponseEntity<List<BookingDTO>> getBookingsByDate(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        try {
+            return ResponseEntity.ok(bookingService.getBookingsByDate(date != null ? date : LocalDate.now()));
+        } catch (Exception e) {
+            return serverError(e).build();
+        }
+    }
+    
+    /**
+     * Lấy lịch hẹn theo ID
+     * FEATURE 27: Lịch đặt chỗ dạng bitmap
+     * Endpoint: GET /api/bookings/{id}
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<BookingDTO> getBookingById(@PathVariable Integer id) {
+        try {
+            Optional<BookingDTO> booking = bookingService.getBookingById(id);
+            return booking.map(ResponseEntity::ok).orElseGet(() -> ResponseEntity.notFound().build());
+        } catch (Exception e) {
+            return serverError(e).build();
+        }
+    }
+    
+    /**
+     * Lấy lịch hẹn theo mã
+     * FEATURE 27: Lịch đặt chỗ dạng bitmap
+     * Endpoint: GET /api/bookings/code/{code}
+     */
+    @GetMapping("/code/{code}")
+    public ResponseEntity<BookingDTO> getBookingByCode(@PathVariable String code) {
+        try {
+            Optional<BookingDTO> booking = bookingService.getBookingByCode(code);
+            return booking.map(ResponseEntity::ok).orElseGet(() -> ResponseEntity.notFound().build());
+        } catch (Exception e) {
+            return serverError(e).build();
+        }
+    }
+    
+    /**
+     * Tạo lịch hẹn mới
+     * FEATURE 27: Lịch đặt chỗ dạng bitmap
+     * Endpoint: POST /api/bookings (409 nếu khung giờ đã có người đặt)
+     */
+    @PostMapping
+    public ResponseEntity<?> createBooking(@Valid @RequestBody BookingDTO bookingDTO) {
+        try {
+            BookingDTO saved = bookingService.createBooking(bookingDTO);
+            return ResponseEntity.status(HttpStatus.CREATED).body(saved);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        } catch (Exception e) {
+            return serverError(e).body("Lỗi server: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Giữ khung giờ chờ khách xác nhận
+     * FEATURE 28: Giữ chỗ và đặt lịch song song
+     * Endpoint: POST /api/bookings/holds (409 nếu khung giờ đã có người đặt hoặc đang giữ)
+     */
+    @PostMapping("/holds")
+    public ResponseEntity<?> holdBooking(@Valid @RequestBody BookingDTO bookingDTO) {
+        try {
+            BookingHoldDTO hold = bookingService.holdBooking(bookingDTO);
+            return ResponseEntity.status(HttpStatus.CREATED).body(hold);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        } catch (Exception e) {
+            return serverError(e).body("Lỗi server: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Xác nhận giữ chỗ thành lịch hẹn
+     * FEATURE 28: Giữ chỗ và đặt lịch song song
+     * Endpoint: POST /api/bookings/holds/{token}/confirm (410 nếu giữ chỗ đã hết hạn)
+     */
+    @PostMapping("/holds/{token}/confirm")
+    public ResponseEntity<?> confirmHold(@PathVariable String token) {
+        try {
+            BookingDTO saved = bookingService.confirmHold(token);
+            return ResponseEntity.status(HttpStatus.CREATED).body(saved);
+        } catch (NoSuchElementException e) {
+            return ResponseEntity.status(HttpStatus.GONE).body(e.getMessage());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        } catch (Exception e) {
+            return serverError(e).body("Lỗi server: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Bỏ giữ chỗ
+     * FEATURE 28: Giữ chỗ và đặt lịch song song
+     * Endpoint: DELETE /api/bookings/holds/{token}
+     */
+    @DeleteMapping("/holds/{token}")
+    public ResponseEntity<Void> releaseHold(@PathVariable String token) {
+        try {
+            if (bookingService.releaseHold(token)) {
+                return ResponseEntity.noContent().build();
+            }
+            return ResponseEntity.notFound().build();
+        } catch (Exception e) {
+            return serverError(e).build();
+        }
+    }
+    
+    /**
+     * Hủy lịch hẹn
+     * FEATURE 27: Lịch đặt chỗ dạng bitmap
+     * Endpoint: PUT /api/bookings/{id}/cancel
+     */
+    @PutMapping("/{id}/cancel")
+    public ResponseEntity<?> cancelBooking(@PathVariable Integer id) {
+        try {
+            Optional<BookingDTO> cancelled = bookingService.cancelBooking(id);
+            if (cancelled.isPresent()) {
+                return ResponseEntity.ok(cancelled.get());
+            }
+            return ResponseEntity.notFound().build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (Exception e) {
+            return serverError(e).body("Lỗi server: " + e.getMessage());
+        }
+    }
+    
+    private ResponseEntity.BodyBuilder serverError(Exception e) {
+        log.error("Booking API request failed", e);
+        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR);
+    }
 }
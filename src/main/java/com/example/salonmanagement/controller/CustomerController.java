@@ -1,4 +1,165 @@
 package com.example.salonmanagement.controller;
 
+import com.example.salonmanagement.dto.CustomerDTO;
+import com.example.salonmanagement.dto.LoyaltyAccrualDTO;
+import com.example.salonmanagement.service.impl.CustomerService;
+import jakarta.validation.Valid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Controller cho Customer
+ * Cung cấp các REST endpoints cho khách hàng, điểm tích lũy và hạng thành viên
+ *
+ * FEATURE 33: Tích điểm thành viên
+ * - Điểm chỉ đọc qua API: điểm được cộng/trừ tự động từ thanh toán và hoàn tiền
+ *
+ * FEATURE 34: Gợi ý khách hàng theo số điện thoại / họ tên
+ */
+@RestController
+@RequestMapping("/api/customers")
+@CrossOrigin(origins = "*")
 public class CustomerController {
+    
+    private static final Logger log = LoggerFactory.getLogger(CustomerController.class);
+    
+    @Autowired
+    private CustomerService customerService;
+    
+    /**
+     * Lấy danh sách khách hàng với phân trang
+     * FEATURE 33: Tích điểm thành viên
+     * Endpoint: GET /api/customers?page=0&size=20
+     */
+    @GetMapping
+    public ResponseEntity<?> getCustomers(@RequestParam(defaultValue = "0") int page,
+                                          @RequestParam(defaultValue = "20") int size) {
+        try {
+            if (page < 0) {
+                return ResponseEntity.badRequest().body("Số trang phải >= 0");
+            }
+            if (size <= 0 || size > 100) {
+                return ResponseEntity.badRequest().body("Kích thước trang phải từ 1 đến 100");
+            }
+            Page<CustomerDTO> customers = customerService.getCustomersWithPagination(page, size);
+            return ResponseEntity.ok(customers);
+        } catch (Exception e) {
+            return serverError(e).body("Lỗi server: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Gợi ý khách hàng theo đầu/đuôi số điện thoại hoặc họ tên (không dấu) cho quầy lễ tân
+     * FEATURE 34: Gợi ý khách hàng theo số điện thoại / họ tên
+     * Endpoint: GET /api/customers/lookup?q=0912&limit=10
+     */
+    @GetMapping("/lookup")
+    public ResponseEntity<?> lookupCustomers(@RequestParam String q,
+                                             @RequestParam(defaultValue = "10") int limit) {
+        try {
+            if (q.isBlank()) {
+                return ResponseEntity.badRequest().body("Từ khóa không được để trống");
+            }
+            if (limit <= 0 || limit > 50) {
+                return ResponseEntity.badRequest().body("Số gợi ý phải từ 1 đến 50");
+            }
+            return ResponseEntity.ok(customerService.lookupCustomers(q, limit));
+        } catch (Exception e) {
+            return serverError(e).body("Lỗi server: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Lấy khách hàng theo ID
+     * FEATURE 33: Tích điểm thành viên
+     * Endpoint: GET /api/customers/{id}
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<CustomerDTO> getCustomerById(@PathVariable Integer id) {
+        try {
+            Optional<CustomerDTO> customer = customerService.getCustomerById(id);
+            return customer.map(ResponseEntity::ok).orElseGet(() -> ResponseEntity.notFound().build());
+        } catch (Exception e) {
+            return serverError(e).build();
+        }
+    }
+    
+    /**
+     * Lấy khách hàng theo số điện thoại
+     * FEATURE 33: Tích điểm thành viên
+     * Endpoint: GET /api/customers/phone/{phone}
+     */
+    @GetMapping("/phone/{phone}")
+    public ResponseEntity<CustomerDTO> getCustomerByPhone(@PathVariable String phone) {
+        try {
+            Optional<CustomerDTO> customer = customerService.getCustomerByPhone(phone);
+            return customer.map(ResponseEntity::ok).orElseGet(() -> ResponseEntity.notFound().build());
+        } catch (Exception e) {
+            return serverError(e).build();
+        }
+    }
+    
+    /**
+     * Lịch sử điểm gần nhất của khách hàng
+     * FEATURE 33: Tích điểm thành viên
+     * Endpoint: GET /api/customers/{id}/points
+     */
+    @GetMapping("/{id}/points")
+    public ResponseEntity<List<LoyaltyAccrualDTO>> getPointHistory(@PathVariable Integer id) {
+        try {
+            Optional<List<LoyaltyAccrualDTO>> history = customerService.getPointHistory(id);
+            return history.map(ResponseEntity::ok).orElseGet(() -> ResponseEntity.notFound().build());
+        } catch (Exception e) {
+            return serverError(e).build();
+        }
+    }
+    
+    /**
+     * Thêm khách hàng mới
+     * FEATURE 33: Tích điểm thành viên
+     * Endpoint: POST /api/customers
+     */
+    @PostMapping
+    public ResponseEntity<?> createCustomer(@Valid @RequestBody CustomerDTO customerDTO) {
+        try {
+            return ResponseEntity.status(HttpStatus.CREATED).body(customerService.createCustomer(customerDTO));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (Exception e) {
+            return serverError(e).body("Lỗi server: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Sửa thông tin khách hàng
+     * FEATURE 33: Tích điểm thành viên
+     * Endpoint: PUT /api/customers/{id}
+     */
+    @PutMapping("/{id}")
+    public ResponseEntity<?> updateCustomer(@PathVariable Integer id, @Valid @RequestBody CustomerDTO customerDTO) {
+        try {
+            Optional<CustomerDTO> updated = customerService.updateCustomer(id, customerDTO);
+            if (updated.isPresent()) {
+                return ResponseEntity.ok(updated.get());
+            }
+            return ResponseEntity.notFound().build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (Exception e) {
+            return serverError(e).body("Lỗi server: " + e.getMessage());
+        }
+    }
+    
+    private ResponseEntity.BodyBuilder serverError(Exception e) {
+        log.error("Customer API request failed", e);
+        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR);
+    }
 }
@@ -1,4 +1,132 @@
 package com.example.salonmanagement.controller;
 
+import com.example.salonmanagement.dto.PaymentDTO;
+import com.example.salonmanagement.service.impl.PaymentService;
+import jakarta.validation.Valid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Controller cho Payment
+ * Cung cấp các REST endpoints cho ghi nhận thanh toán, hoàn tiền và tra cứu sổ cái
+ *
+ * FEATURE 30: Sổ cái thanh toán ghi theo lô
+ * - Ghi nhận/hoàn tiền trả 202 Accepted: bút toán đã bền vững trong WAL, sẽ vào database theo lô
+ * - Sổ cái quá tải hoặc WAL lỗi trả 503 để client thử lại
+ */
+@RestController
+@RequestMapping("/api/payments")
+@CrossOrigin(origins = "*")
 public class PaymentController {
+    
+    private static final Logger log = LoggerFactory.getLogger(PaymentController.class);
+    
+    @Autowired
+    private PaymentService paymentService;
+    
+    /**
+     * Ghi nhận thanh toán
+     * FEATURE 30: Sổ cái thanh toán ghi theo lô
+     * Endpoint: POST /api/payments
+     */
+    @PostMapping
+    public ResponseEntity<?> recordPayment(@Valid @RequestBody PaymentDTO paymentDTO) {
+        try {
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(paymentService.recordPayment(paymentDTO));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(e.getMessage());
+        } catch (Exception e) {
+            return serverError(e).body("Lỗi server: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Hoàn toàn bộ một thanh toán (mỗi thanh toán chỉ hoàn một lần)
+     * FEATURE 30: Sổ cái thanh toán ghi theo lô
+     * Endpoint: POST /api/payments/{code}/refund?note=... (ghi chú tối đa 255 ký tự, dài hơn trả 400)
+     */
+    @PostMapping("/{code}/refund")
+    public ResponseEntity<?> refundPayment(@PathVariable String code, @RequestParam(required = false) String note) {
+        try {
+            Optional<PaymentDTO> refund = paymentService.refundPayment(code, note);
+            if (refund.isPresent()) {
+                return ResponseEntity.status(HttpStatus.ACCEPTED).body(refund.get());
+            }
+            return ResponseEntity.notFound().build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(e.getMessage());
+        } catch (Exception e) {
+            return serverError(e).body("Lỗi server: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Lấy bút toán theo mã (kể cả bút toán chưa vào database)
+     * FEATURE 30: Sổ cái thanh toán ghi theo lô
+     * Endpoint: GET /api/payments/{code}
+     */
+    @GetMapping("/{code}")
+    public ResponseEntity<PaymentDTO> getPaymentByCode(@PathVariable String code) {
+        try {
+            Optional<PaymentDTO> payment = paymentService.getPaymentByCode(code);
+            return payment.map(ResponseEntity::ok).orElseGet(() -> ResponseEntity.notFound().build());
+        } catch (Exception e) {
+            return serverError(e).build();
+        }
+    }
+    
+    /**
+     * Bút toán theo ngày hoặc theo lịch hẹn
+     * FEATURE 30: Sổ cái thanh toán ghi theo lô
+     * Endpoint: GET /api/payments?date=2025-06-01 hoặc GET /api/payments?booking=12
+     */
+    @GetMapping
+    public ResponseEntity<List<PaymentDTO>> getPayments(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @RequestParam(required = false) Integer booking) {
+        try {
+            if (booking != null) {
+                return ResponseEntity.ok(paymentService.getPaymentsByBooking(booking));
+            }
+            return ResponseEntity.ok(paymentService.getPaymentsByDate(date != null ? date : LocalDate.now()));
+        } catch (Exception e) {
+            return serverError(e).build();
+        }
+    }
+    
+    /**
+     * Trạng thái sổ cái: số bút toán chờ ghi vào database, đã ghi, WAL còn hoạt động
+     * FEATURE 30: Sổ cái thanh toán ghi theo lô
+     * Endpoint: GET /api/payments/ledger
+     */
+    @GetMapping("/ledger")
+    public ResponseEntity<Map<String, Object>> getLedgerStatus() {
+        try {
+            return ResponseEntity.ok(paymentService.getLedgerStatus());
+        } catch (Exception e) {
+            return serverError(e).build();
+        }
+    }
+    
+    private ResponseEntity.BodyBuilder serverError(Exception e) {
+        log.error("Payment API request failed", e);
+        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR);
+    }
 }
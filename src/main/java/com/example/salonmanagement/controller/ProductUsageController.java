@@ -1,4 +1,175 @@
 package com.example.salonmanagement.controller;
 
+import com.example.salonmanagement.dto.ProductDTO;
+import com.example.salonmanagement.dto.ProductUsageDTO;
+import com.example.salonmanagement.service.impl.ProductUsageService;
+import jakarta.validation.Valid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Controller cho ProductUsage
+ * Cung cấp các REST endpoints cho sản phẩm tiêu hao, ghi nhận lượng dùng và cảnh báo tồn kho
+ *
+ * FEATURE 32: Theo dõi sản phẩm tiêu hao
+ * - Ghi nhận lượng dùng trả 202 Accepted: lượng dùng được ghi vào database ở lần flush kế tiếp
+ */
+@RestController
+@RequestMapping("/api/product-usage")
+@CrossOrigin(origins = "*")
 public class ProductUsageController {
+    
+    private static final Logger log = LoggerFactory.getLogger(ProductUsageController.class);
+    
+    @Autowired
+    private ProductUsageService productUsageService;
+    
+    /**
+     * Ghi nhận lượng sản phẩm đã dùng cho một hoặc nhiều dịch vụ
+     * FEATURE 32: Theo dõi sản phẩm tiêu hao
+     * Endpoint: POST /api/product-usage  [{"idProduct": 1, "idService": 2, "quantity": 30}, ...]
+     */
+    @PostMapping
+    public ResponseEntity<?> recordUsage(@RequestBody List<ProductUsageDTO> usages) {
+        try {
+            int recorded = productUsageService.recordUsage(usages);
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(Map.of("recorded", recorded));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (Exception e) {
+            return serverError(e).body("Lỗi server: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Lượng dùng theo ngày, sản phẩm và dịch vụ
+     * FEATURE 32: Theo dõi sản phẩm tiêu hao
+     * Endpoint: GET /api/product-usage?from=2025-06-01&to=2025-06-30&product=1
+     */
+    @GetMapping
+    public ResponseEntity<?> getUsage(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                      @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                      @RequestParam(required = false) Integer product) {
+        try {
+            return ResponseEntity.ok(productUsageService.getUsage(product, from, to));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (Exception e) {
+            return serverError(e).body("Lỗi server: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Lấy danh sách sản phẩm kèm tồn kho
+     * FEATURE 32: Theo dõi sản phẩm tiêu hao
+     * Endpoint: GET /api/product-usage/products
+     */
+    @GetMapping("/products")
+    public ResponseEntity<List<ProductDTO>> getAllProducts() {
+        try {
+            return ResponseEntity.ok(productUsageService.getAllProducts());
+        } catch (Exception e) {
+            return serverError(e).build();
+        }
+    }
+    
+    /**
+     * Lấy sản phẩm theo ID
+     * FEATURE 32: Theo dõi sản phẩm tiêu hao
+     * Endpoint: GET /api/product-usage/products/{id}
+     */
+    @GetMapping("/products/{id}")
+    public ResponseEntity<ProductDTO> getProductById(@PathVariable Integer id) {
+        try {
+            Optional<ProductDTO> product = productUsageService.getProductById(id);
+            return product.map(ResponseEntity::ok).orElseGet(() -> ResponseEntity.notFound().build());
+        } catch (Exception e) {
+            return serverError(e).build();
+        }
+    }
+    
+    /**
+     * Sản phẩm sắp hết hàng (tồn kho bằng hoặc dưới ngưỡng cảnh báo)
+     * FEATURE 32: Theo dõi sản phẩm tiêu hao
+     * Endpoint: GET /api/product-usage/low-stock
+     */
+    @GetMapping("/low-stock")
+    public ResponseEntity<List<ProductDTO>> getLowStockProducts() {
+        try {
+            return ResponseEntity.ok(productUsageService.getLowStockProducts());
+        } catch (Exception e) {
+            return serverError(e).build();
+        }
+    }
+    
+    /**
+     * Thêm sản phẩm mới
+     * FEATURE 32: Theo dõi sản phẩm tiêu hao
+     * Endpoint: POST /api/product-usage/products
+     */
+    @PostMapping("/products")
+    public ResponseEntity<?> createProduct(@Valid @RequestBody ProductDTO productDTO) {
+        try {
+            return ResponseEntity.status(HttpStatus.CREATED).body(productUsageService.createProduct(productDTO));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (Exception e) {
+            return serverError(e).body("Lỗi server: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Sửa tên, đơn vị, ngưỡng cảnh báo của sản phẩm
+     * FEATURE 32: Theo dõi sản phẩm tiêu hao
+     * Endpoint: PUT /api/product-usage/products/{id}
+     */
+    @PutMapping("/products/{id}")
+    public ResponseEntity<?> updateProduct(@PathVariable Integer id, @Valid @RequestBody ProductDTO productDTO) {
+        try {
+            Optional<ProductDTO> updated = productUsageService.updateProduct(id, productDTO);
+            if (updated.isPresent()) {
+                return ResponseEntity.ok(updated.get());
+            }
+            return ResponseEntity.notFound().build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (Exception e) {
+            return serverError(e).body("Lỗi server: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Nhập thêm hàng
+     * FEATURE 32: Theo dõi sản phẩm tiêu hao
+     * Endpoint: POST /api/product-usage/products/{id}/restock?quantity=1000
+     */
+    @PostMapping("/products/{id}/restock")
+    public ResponseEntity<?> restockProduct(@PathVariable Integer id, @RequestParam long quantity) {
+        try {
+            Optional<ProductDTO> restocked = productUsageService.restockProduct(id, quantity);
+            if (restocked.isPresent()) {
+                return ResponseEntity.ok(restocked.get());
+            }
+            return ResponseEntity.notFound().build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (Exception e) {
+            return serverError(e).body("Lỗi server: " + e.getMessage());
+        }
+    }
+    
+    private ResponseEntity.BodyBuilder serverError(Exception e) {
+        log.error("Product usage API request failed", e);
+        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR);
+    }
 }
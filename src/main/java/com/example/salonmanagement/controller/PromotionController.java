@@ -1,15 +1,40 @@
 package com.example.salonmanagement.controller;
 
+import com.example.salonmanagement.dto.CartQuoteDTO;
 import com.example.salonmanagement.dto.PromotionDTO;
+import com.example.salonmanagement.dto.PromotionImportResultDTO;
+import com.example.salonmanagement.dto.PromotionSliceDTO;
+import com.example.salonmanagement.dto.RevenueDTO;
 import com.example.salonmanagement.entity.PromotionEntity;
+import com.example.salonmanagement.service.impl.PromotionChangeBroadcaster;
+import com.example.salonmanagement.service.impl.PromotionExportService;
+import com.example.salonmanagement.service.impl.PromotionImportService;
+import com.example.salonmanagement.service.impl.PromotionMetrics;
 import com.example.salonmanagement.service.impl.PromotionService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.validation.FieldError;
+import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.filter.ServerHttpObservationFilter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 
@@ -25,9 +50,23 @@ import java.util.Optional;
 @CrossOrigin(origins = "*")
 public class PromotionController {
     
+    private static final Logger log = LoggerFactory.getLogger(PromotionController.class);
+    
     @Autowired
     private PromotionService promotionService;
     
+    @Autowired
+    private PromotionImportService promotionImportService;
+    
+    @Autowired
+    private PromotionExportService promotionExportService;
+    
+    @Autowired
+    private PromotionMetrics promotionMetrics;
+    
+    @Autowired
+    private PromotionChangeBroadcaster promotionChangeBroadcaster;
+    
     /**
      * Lấy danh sách tất cả khuyến mãi
      * FEATURE 1: Lấy danh sách khuyến mãi
@@ -39,7 +78,7 @@ public class PromotionController {
             List<PromotionDTO> promotions = promotionService.getAllPromotions();
             return ResponseEntity.ok(promotions);
         } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+            return serverError(e).build();
         }
     }
     
@@ -58,7 +97,30 @@ public class PromotionController {
                 return ResponseEntity.notFound().build();
             }
         } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+            return serverError(e).build();
+        }
+    }
+    
+    /**
+     * Doanh thu và tổng giảm giá của khuyến mãi theo ngày/tuần/tháng
+     * FEATURE 31: Tổng hợp doanh thu tăng dần
+     * Endpoint: GET /api/promotions/{id}/revenue?granularity=WEEK&from=2025-06-01&to=2025-06-30
+     */
+    @GetMapping("/{id}/revenue")
+    public ResponseEntity<?> getPromotionRevenue(@PathVariable Integer id,
+                                                 @RequestParam(defaultValue = "DAY") RevenueDTO.Granularity granularity,
+                                                 @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                 @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        try {
+            Optional<List<RevenueDTO>> revenue = promotionService.getPromotionRevenue(id, granularity, from, to);
+            if (revenue.isPresent()) {
+                return ResponseEntity.ok(revenue.get());
+            }
+            return ResponseEntity.notFound().build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (Exception e) {
+            return serverError(e).body("Lỗi server: " + e.getMessage());
         }
     }
     
@@ -76,7 +138,7 @@ public class PromotionController {
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().build();
         } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+            return serverError(e).build();
         }
     }
     
@@ -91,7 +153,7 @@ public class PromotionController {
             List<PromotionDTO> promotions = promotionService.getActivePromotions();
             return ResponseEntity.ok(promotions);
         } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+            return serverError(e).build();
         }
     }
     
@@ -106,7 +168,7 @@ public class PromotionController {
             List<PromotionDTO> promotions = promotionService.getPromotionsExpiringSoon();
             return ResponseEntity.ok(promotions);
         } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+            return serverError(e).build();
         }
     }
     
@@ -125,7 +187,7 @@ public class PromotionController {
             List<PromotionDTO> promotions = promotionService.getPromotionsSortedByName();
             return ResponseEntity.ok(promotions);
         } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+            return serverError(e).build();
         }
     }
     
@@ -140,7 +202,7 @@ public class PromotionController {
             List<PromotionDTO> promotions = promotionService.getPromotionsSortedByStartDate();
             return ResponseEntity.ok(promotions);
         } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+            return serverError(e).build();
         }
     }
     
@@ -155,7 +217,7 @@ public class PromotionController {
             List<PromotionDTO> promotions = promotionService.getPromotionsSortedByEndDate();
             return ResponseEntity.ok(promotions);
         } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+            return serverError(e).build();
         }
     }
     
@@ -191,7 +253,7 @@ public class PromotionController {
             Page<PromotionDTO> promotions = promotionService.getAllPromotionsWithPagination(page, size);
             return ResponseEntity.ok(promotions);
         } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Lỗi server: " + e.getMessage());
+            return serverError(e).body("Lỗi server: " + e.getMessage());
         }
     }
     
@@ -212,7 +274,66 @@ public class PromotionController {
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().build();
         } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+            return serverError(e).build();
+        }
+    }
+    
+    // ========================================
+    // FEATURE 14: Phân trang theo con trỏ (keyset)
+    // ========================================
+    
+    /**
+     * Lấy lát khuyến mãi tiếp theo theo con trỏ
+     * FEATURE 14: Phân trang theo con trỏ
+     * Endpoint: GET /api/promotions/paginated/keyset?after=...&size=10&sort=id
+     */
+    @GetMapping("/paginated/keyset")
+    public ResponseEntity<?> getPromotionsAfterCursor(
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "id") String sort) {
+        return keysetResponse(null, sort, after, size);
+    }
+    
+    /**
+     * Lấy lát khuyến mãi tiếp theo theo trạng thái và con trỏ
+     * FEATURE 14: Phân trang theo con trỏ
+     * Endpoint: GET /api/promotions/status/{status}/paginated/keyset?after=...&size=10&sort=id
+     */
+    @GetMapping("/status/{status}/paginated/keyset")
+    public ResponseEntity<?> getPromotionsByStatusAfterCursor(
+            @PathVariable String status,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "id") String sort) {
+        PromotionEntity.PromotionStatus promotionStatus;
+        try {
+            promotionStatus = PromotionEntity.PromotionStatus.valueOf(status.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Trạng thái không hợp lệ");
+        }
+        return keysetResponse(promotionStatus, sort, after, size);
+    }
+    
+    private ResponseEntity<?> keysetResponse(PromotionEntity.PromotionStatus status, String sort,
+                                             String after, int size) {
+        try {
+            // Kiểm tra size hợp lệ
+            if (size <= 0) {
+                return ResponseEntity.badRequest().body("Kích thước trang phải > 0");
+            }
+            
+            // Giới hạn size tối đa để tránh load quá nhiều dữ liệu
+            if (size > 100) {
+                return ResponseEntity.badRequest().body("Kích thước trang không được vượt quá 100");
+            }
+            
+            PromotionSliceDTO slice = promotionService.getPromotionsAfterCursor(status, sort, after, size);
+            return ResponseEntity.ok(slice);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (Exception e) {
+            return serverError(e).body("Lỗi server: " + e.getMessage());
         }
     }
     
@@ -234,7 +355,9 @@ public class PromotionController {
             }
             
             // Kiểm tra business logic validation
-            if (!promotionDTO.isValidBusinessLogic()) {
+            String businessRule = promotionDTO.findBusinessRuleViolation();
+            if (businessRule != null) {
+                promotionMetrics.validationRejected(businessRule, PromotionMetrics.SOURCE_API);
                 return ResponseEntity.badRequest().body("Dữ liệu khuyến mãi không hợp lệ theo quy tắc nghiệp vụ");
             }
             
@@ -243,7 +366,107 @@ public class PromotionController {
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body(e.getMessage());
         } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Lỗi server: " + e.getMessage());
+            return serverError(e).body("Lỗi server: " + e.getMessage());
+        }
+    }
+    
+    // ========================================
+    // FEATURE 18: Nhập khuyến mãi hàng loạt
+    // ========================================
+    
+    /**
+     * Nhập hàng loạt khuyến mãi từ JSON array
+     * FEATURE 18: Nhập khuyến mãi hàng loạt
+     * Endpoint: POST /api/promotions/import (Content-Type: application/json)
+     */
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> importPromotionsJson(InputStream body) {
+        try {
+            PromotionImportResultDTO result = promotionImportService.importJson(body);
+            return ResponseEntity.ok(result);
+        } catch (IllegalArgumentException | IOException e) {
+            return ResponseEntity.badRequest().body("Dữ liệu nhập không hợp lệ: " + e.getMessage());
+        } catch (Exception e) {
+            return serverError(e).body("Lỗi server: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Nhập hàng loạt khuyến mãi từ CSV
+     * FEATURE 18: Nhập khuyến mãi hàng loạt
+     * Endpoint: POST /api/promotions/import (Content-Type: text/csv)
+     */
+    @PostMapping(value = "/import", consumes = "text/csv")
+    public ResponseEntity<?> importPromotionsCsv(InputStream body) {
+        try {
+            PromotionImportResultDTO result = promotionImportService.importCsv(body);
+            return ResponseEntity.ok(result);
+        } catch (IllegalArgumentException | IOException e) {
+            return ResponseEntity.badRequest().body("Dữ liệu nhập không hợp lệ: " + e.getMessage());
+        } catch (Exception e) {
+            return serverError(e).body("Lỗi server: " + e.getMessage());
+        }
+    }
+    
+    // ========================================
+    // FEATURE 19: Xuất khuyến mãi dạng luồng
+    // ========================================
+    
+    /**
+     * Xuất tất cả khuyến mãi dạng CSV hoặc NDJSON, ghi trực tiếp ra response
+     * FEATURE 19: Xuất khuyến mãi dạng luồng
+     * Endpoint: GET /api/promotions/export?format=csv|ndjson
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportPromotions(@RequestParam(defaultValue = "csv") String format) {
+        if ("csv".equalsIgnoreCase(format)) {
+            return ResponseEntity.ok()
+                    .contentType(new MediaType("text", "csv", StandardCharsets.UTF_8))
+                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"promotions.csv\"")
+                    .body(promotionExportService::writeCsv);
+        }
+        if ("ndjson".equalsIgnoreCase(format)) {
+            return ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_NDJSON)
+                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"promotions.ndjson\"")
+                    .body(promotionExportService::writeNdjson);
+        }
+        return ResponseEntity.badRequest().build();
+    }
+    
+    // ========================================
+    // FEATURE 24: Luồng thay đổi khuyến mãi (SSE)
+    // ========================================
+    
+    /**
+     * Luồng sự kiện thay đổi khuyến mãi (thêm/sửa/xóa/nhập/chuyển trạng thái) thay cho polling
+     * FEATURE 24: Luồng thay đổi khuyến mãi
+     * Endpoint: GET /api/promotions/stream (header Last-Event-ID hoặc ?lastEventId= để tiếp tục)
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamPromotionChanges(
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventIdHeader,
+            @RequestParam(value = "lastEventId", required = false) String lastEventId) {
+        return promotionChangeBroadcaster.subscribe(lastEventIdHeader != null ? lastEventIdHeader : lastEventId);
+    }
+    
+    // ========================================
+    // FEATURE 25: Bộ tính giảm giá
+    // ========================================
+    
+    /**
+     * Báo giá giỏ hàng hoặc các lịch hẹn trong ngày với khuyến mãi tốt nhất cho từng dòng
+     * FEATURE 25: Bộ tính giảm giá
+     * Endpoint: POST /api/promotions/quote
+     */
+    @PostMapping("/quote")
+    public ResponseEntity<?> quoteCart(@Valid @RequestBody CartQuoteDTO cart) {
+        try {
+            return ResponseEntity.ok(promotionService.quoteCart(cart));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (Exception e) {
+            return serverError(e).body("Lỗi server: " + e.getMessage());
         }
     }
     
@@ -270,7 +493,9 @@ public class PromotionController {
             }
             
             // Kiểm tra business logic validation
-            if (!promotionDTO.isValidBusinessLogic()) {
+            String businessRule = promotionDTO.findBusinessRuleViolation();
+            if (businessRule != null) {
+                promotionMetrics.validationRejected(businessRule, PromotionMetrics.SOURCE_API);
                 return ResponseEntity.badRequest().body("Dữ liệu khuyến mãi không hợp lệ theo quy tắc nghiệp vụ");
             }
             
@@ -279,7 +504,7 @@ public class PromotionController {
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body(e.getMessage());
         } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Lỗi server: " + e.getMessage());
+            return serverError(e).body("Lỗi server: " + e.getMessage());
         }
     }
     
@@ -307,7 +532,7 @@ public class PromotionController {
                 return ResponseEntity.notFound().build();
             }
         } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Lỗi server: " + e.getMessage());
+            return serverError(e).body("Lỗi server: " + e.getMessage());
         }
     }
     
@@ -346,7 +571,7 @@ public class PromotionController {
             List<PromotionDTO> promotions = promotionService.searchPromotions(keyword.trim());
             return ResponseEntity.ok(promotions);
         } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Lỗi server: " + e.getMessage());
+            return serverError(e).body("Lỗi server: " + e.getMessage());
         }
     }
     
@@ -364,7 +589,42 @@ public class PromotionController {
             Page<PromotionDTO> promotions = promotionService.searchPromotionsWithPagination(keyword, page, size);
             return ResponseEntity.ok(promotions);
         } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+            return serverError(e).build();
+        }
+    }
+    
+    // ========================================
+    // FEATURE 21: Metrics cho khuyến mãi
+    // ========================================
+    
+    /**
+     * Lỗi Bean Validation (@Valid): đếm theo từng trường/ràng buộc rồi ném lại chính exception đó,
+     * để Spring trả về 400 với body lỗi mặc định như trước khi có metrics
+     * FEATURE 21: Metrics cho khuyến mãi
+     */
+    @ExceptionHandler(MethodArgumentNotValidException.class)
+    public void countValidationErrors(MethodArgumentNotValidException e) throws MethodArgumentNotValidException {
+        // Chỉ đếm lỗi validation của khuyến mãi, không đếm lỗi của giỏ hàng báo giá (FEATURE 25)
+        if (e.getBindingResult().getTarget() instanceof PromotionDTO) {
+            for (FieldError error : e.getBindingResult().getFieldErrors()) {
+                promotionMetrics.validationRejected(PromotionMetrics.rule(error), PromotionMetrics.SOURCE_API);
+            }
+        }
+        throw e;
+    }
+    
+    /**
+     * Lỗi không mong muốn: ghi log và gắn exception vào observation của request,
+     * để http.server.requests có tag exception thay vì chỉ thấy status 500
+     * FEATURE 21: Metrics cho khuyến mãi
+     */
+    private ResponseEntity.BodyBuilder serverError(Exception e) {
+        log.error("Promotion API request failed", e);
+        if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes) {
+            HttpServletRequest request = attributes.getRequest();
+            ServerHttpObservationFilter.findObservationContext(request)
+                    .ifPresent(context -> context.setError(e));
         }
+        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR);
     }
 }
\ No newline at end of file
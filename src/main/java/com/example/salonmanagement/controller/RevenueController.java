@@ -0,0 +1,59 @@
+package com.example.salonmanagement.controller;
+
+import com.example.salonmanagement.dto.RevenueDTO;
+import com.example.salonmanagement.entity.RevenueRollupEntity;
+import com.example.salonmanagement.service.impl.RevenueService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+
+/**
+ * Controller cho báo cáo doanh thu
+ * Cung cấp REST endpoint đọc tổng doanh thu theo ngày/tuần/tháng cho toàn salon,
+ * từng nhân viên, từng dịch vụ, từng khuyến mãi
+ *
+ * FEATURE 31: Tổng hợp doanh thu tăng dần
+ */
+@RestController
+@RequestMapping("/api/revenue")
+@CrossOrigin(origins = "*")
+public class RevenueController {
+    
+    private static final Logger log = LoggerFactory.getLogger(RevenueController.class);
+    
+    @Autowired
+    private RevenueService revenueService;
+    
+    /**
+     * Doanh thu theo chiều, gộp theo ngày/tuần/tháng
+     * FEATURE 31: Tổng hợp doanh thu tăng dần
+     * Endpoint: GET /api/revenue?dimension=STAFF&id=3&granularity=MONTH&from=2025-01-01&to=2025-06-30
+     * (bỏ id để lấy mọi nhân viên/dịch vụ/khuyến mãi)
+     */
+    @GetMapping
+    public ResponseEntity<?> getRevenue(
+            @RequestParam(defaultValue = "TOTAL") RevenueRollupEntity.Dimension dimension,
+            @RequestParam(required = false) Integer id,
+            @RequestParam(defaultValue = "DAY") RevenueDTO.Granularity granularity,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        try {
+            return ResponseEntity.ok(revenueService.getRevenue(dimension, id, granularity, from, to));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (Exception e) {
+            return serverError(e).body("Lỗi server: " + e.getMessage());
+        }
+    }
+    
+    private ResponseEntity.BodyBuilder serverError(Exception e) {
+        log.error("Revenue API request failed", e);
+        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR);
+    }
+}
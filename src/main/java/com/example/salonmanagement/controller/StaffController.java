@@ -1,4 +1,140 @@
 package com.example.salonmanagement.controller;
 
+import com.example.salonmanagement.dto.StaffDTO;
+import com.example.salonmanagement.service.impl.StaffService;
+import jakarta.validation.Valid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Controller cho Staff
+ * Cung cấp các REST endpoints cho nhân viên, ca làm và tìm nhân viên rảnh
+ *
+ * FEATURE 29: Chỉ mục lịch làm việc của nhân viên
+ */
+@RestController
+@RequestMapping("/api/staff")
+@CrossOrigin(origins = "*")
 public class StaffController {
+    
+    private static final Logger log = LoggerFactory.getLogger(StaffController.class);
+    
+    @Autowired
+    private StaffService staffService;
+    
+    /**
+     * Tìm nhân viên có chuyên môn, đang trong ca và còn trống
+     * FEATURE 29: Chỉ mục lịch làm việc của nhân viên
+     * Endpoint: GET /api/staff/available?specialty=COLOR&branch=1&at=2025-06-01T10:00&duration=60
+     */
+    @GetMapping("/available")
+    public ResponseEntity<?> findAvailableStaff(@RequestParam(required = false) String specialty,
+                                                @RequestParam(required = false) Integer branch,
+                                                @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime at,
+                                                @RequestParam int duration) {
+        try {
+            return ResponseEntity.ok(staffService.findAvailableStaff(specialty, branch, at, duration));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (Exception e) {
+            return serverError(e).body("Lỗi server: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Lấy danh sách nhân viên (kèm ca làm)
+     * FEATURE 29: Chỉ mục lịch làm việc của nhân viên
+     * Endpoint: GET /api/staff?branch=1
+     */
+    @GetMapping
+    public ResponseEntity<List<StaffDTO>> getAllStaff(@RequestParam(required = false) Integer branch) {
+        try {
+            return ResponseEntity.ok(staffService.getAllStaff(branch));
+        } catch (Exception e) {
+            return serverError(e).build();
+        }
+    }
+    
+    /**
+     * Lấy nhân viên theo ID
+     * FEATURE 29: Chỉ mục lịch làm việc của nhân viên
+     * Endpoint: GET /api/staff/{id}
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<StaffDTO> getStaffById(@PathVariable Integer id) {
+        try {
+            Optional<StaffDTO> staff = staffService.getStaffById(id);
+            return staff.map(ResponseEntity::ok).orElseGet(() -> ResponseEntity.notFound().build());
+        } catch (Exception e) {
+            return serverError(e).build();
+        }
+    }
+    
+    /**
+     * Tạo nhân viên mới
+     * FEATURE 29: Chỉ mục lịch làm việc của nhân viên
+     * Endpoint: POST /api/staff
+     */
+    @PostMapping
+    public ResponseEntity<?> createStaff(@Valid @RequestBody StaffDTO staffDTO) {
+        try {
+            StaffDTO saved = staffService.createStaff(staffDTO);
+            return ResponseEntity.status(HttpStatus.CREATED).body(saved);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (Exception e) {
+            return serverError(e).body("Lỗi server: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Cập nhật nhân viên và ca làm
+     * FEATURE 29: Chỉ mục lịch làm việc của nhân viên
+     * Endpoint: PUT /api/staff/{id}
+     */
+    @PutMapping("/{id}")
+    public ResponseEntity<?> updateStaff(@PathVariable Integer id, @Valid @RequestBody StaffDTO staffDTO) {
+        try {
+            Optional<StaffDTO> updated = staffService.updateStaff(id, staffDTO);
+            if (updated.isPresent()) {
+                return ResponseEntity.ok(updated.get());
+            }
+            return ResponseEntity.notFound().build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (Exception e) {
+            return serverError(e).body("Lỗi server: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Cho nhân viên nghỉ (chuyển INACTIVE, không xóa dữ liệu)
+     * FEATURE 29: Chỉ mục lịch làm việc của nhân viên
+     * Endpoint: DELETE /api/staff/{id}
+     */
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> deactivateStaff(@PathVariable Integer id) {
+        try {
+            if (staffService.deactivateStaff(id)) {
+                return ResponseEntity.noContent().build();
+            }
+            return ResponseEntity.notFound().build();
+        } catch (Exception e) {
+            return serverError(e).build();
+        }
+    }
+    
+    private ResponseEntity.BodyBuilder serverError(Exception e) {
+        log.error("Staff API request failed", e);
+        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR);
+    }
 }
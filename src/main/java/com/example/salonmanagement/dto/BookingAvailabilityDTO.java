@@ -0,0 +1,54 @@
+package com.example.salonmanagement.dto;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+/**
+ * Các giờ bắt đầu còn trống của một nhân viên trong một ngày
+ *
+ * FEATURE 27: Lịch đặt chỗ dạng bitmap
+ */
+public class BookingAvailabilityDTO {
+    
+    private Integer idStaff;
+    
+    private LocalDate date;
+    
+    private List<LocalTime> startTimes;
+    
+    // Constructor mặc định
+    public BookingAvailabilityDTO() {}
+    
+    // Constructor với tham số
+    public BookingAvailabilityDTO(Integer idStaff, LocalDate date, List<LocalTime> startTimes) {
+        this.idStaff = idStaff;
+        this.date = date;
+        this.startTimes = startTimes;
+    }
+    
+    // Getters và Setters
+    public Integer getIdStaff() {
+        return idStaff;
+    }
+    
+    public void setIdStaff(Integer idStaff) {
+        this.idStaff = idStaff;
+    }
+    
+    public LocalDate getDate() {
+        return date;
+    }
+    
+    public void setDate(LocalDate date) {
+        this.date = date;
+    }
+    
+    public List<LocalTime> getStartTimes() {
+        return startTimes;
+    }
+    
+    public void setStartTimes(List<LocalTime> startTimes) {
+        this.startTimes = startTimes;
+    }
+}
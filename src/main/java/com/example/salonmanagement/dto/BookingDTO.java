@@ -1,4 +1,140 @@
 package com.example.salonmanagement.dto;
 
+import com.example.salonmanagement.entity.BookingEntity;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * DTO (Data Transfer Object) cho Booking
+ * Khi tạo lịch hẹn chỉ cần nhân viên, ngày, giờ bắt đầu và thời lượng dịch vụ;
+ * mã lịch hẹn, giờ kết thúc và trạng thái do hệ thống điền
+ *
+ * FEATURE 27: Lịch đặt chỗ dạng bitmap
+ */
 public class BookingDTO {
+    
+    private Integer idBooking;
+    
+    private String code;
+    
+    private Integer idCustomer;
+    
+    @NotNull(message = "Nhân viên không được để trống")
+    private Integer idStaff;
+    
+    private Integer idService;
+    
+    @NotNull(message = "Ngày hẹn không được để trống")
+    private LocalDate bookingDate;
+    
+    @NotNull(message = "Giờ bắt đầu không được để trống")
+    private LocalTime startTime;
+    
+    @NotNull(message = "Thời lượng dịch vụ không được để trống")
+    @Min(value = 1, message = "Thời lượng dịch vụ phải lớn hơn 0")
+    @Max(value = 720, message = "Thời lượng dịch vụ không được vượt quá 12 giờ")
+    private Integer durationMinutes;
+    
+    private LocalTime endTime;
+    
+    private BookingEntity.BookingStatus status;
+    
+    @Size(max = 255, message = "Ghi chú không được vượt quá 255 ký tự")
+    private String note;
+    
+    // Constructor mặc định
+    public BookingDTO() {}
+    
+    // Getters và Setters
+    public Integer getIdBooking() {
+        return idBooking;
+    }
+    
+    public void setIdBooking(Integer idBooking) {
+        this.idBooking = idBooking;
+    }
+    
+    public String getCode() {
+        return code;
+    }
+    
+    public void setCode(String code) {
+        this.code = code;
+    }
+    
+    public Integer getIdCustomer() {
+        return idCustomer;
+    }
+    
+    public void setIdCustomer(Integer idCustomer) {
+        this.idCustomer = idCustomer;
+    }
+    
+    public Integer getIdStaff() {
+        return idStaff;
+    }
+    
+    public void setIdStaff(Integer idStaff) {
+        this.idStaff = idStaff;
+    }
+    
+    public Integer getIdService() {
+        return idService;
+    }
+    
+    public void setIdService(Integer idService) {
+        this.idService = idService;
+    }
+    
+    public LocalDate getBookingDate() {
+        return bookingDate;
+    }
+    
+    public void setBookingDate(LocalDate bookingDate) {
+        this.bookingDate = bookingDate;
+    }
+    
+    public LocalTime getStartTime() {
+        return startTime;
+    }
+    
+    public void setStartTime(LocalTime startTime) {
+        this.startTime = startTime;
+    }
+    
+    public Integer getDurationMinutes() {
+        return durationMinutes;
+    }
+    
+    public void setDurationMinutes(Integer durationMinutes) {
+        this.durationMinutes = durationMinutes;
+    }
+    
+    public LocalTime getEndTime() {
+        return endTime;
+    }
+    
+    public void setEndTime(LocalTime endTime) {
+        this.endTime = endTime;
+    }
+    
+    public BookingEntity.BookingStatus getStatus() {
+        return status;
+    }
+    
+    public void setStatus(BookingEntity.BookingStatus status) {
+        this.status = status;
+    }
+    
+    public String getNote() {
+        return note;
+    }
+    
+    public void setNote(String note) {
+        this.note = note;
+    }
 }
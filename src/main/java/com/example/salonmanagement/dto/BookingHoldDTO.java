@@ -0,0 +1,89 @@
+package com.example.salonmanagement.dto;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+/**
+ * Khung giờ đang được giữ chờ khách xác nhận
+ *
+ * FEATURE 28: Giữ chỗ và đặt lịch song song
+ * - Gửi token lên POST /api/bookings/holds/{token}/confirm trước expiresAt để tạo lịch hẹn
+ */
+public class BookingHoldDTO {
+    
+    private String token;
+    
+    private Integer idStaff;
+    
+    private LocalDate bookingDate;
+    
+    private LocalTime startTime;
+    
+    private LocalTime endTime;
+    
+    private LocalDateTime expiresAt;
+    
+    // Constructor mặc định
+    public BookingHoldDTO() {}
+    
+    // Constructor với tham số
+    public BookingHoldDTO(String token, Integer idStaff, LocalDate bookingDate,
+                          LocalTime startTime, LocalTime endTime, LocalDateTime expiresAt) {
+        this.token = token;
+        this.idStaff = idStaff;
+        this.bookingDate = bookingDate;
+        this.startTime = startTime;
+        this.endTime = endTime;
+        this.expiresAt = expiresAt;
+    }
+    
+    // Getters và Setters
+    public String getToken() {
+        return token;
+    }
+    
+    public void setToken(String token) {
+        this.token = token;
+    }
+    
+    public Integer getIdStaff() {
+        return idStaff;
+    }
+    
+    public void setIdStaff(Integer idStaff) {
+        this.idStaff = idStaff;
+    }
+    
+    public LocalDate getBookingDate() {
+        return bookingDate;
+    }
+    
+    public void setBookingDate(LocalDate bookingDate) {
+        this.bookingDate = bookingDate;
+    }
+    
+    public LocalTime getStartTime() {
+        return startTime;
+    }
+    
+    public void setStartTime(LocalTime startTime) {
+        this.startTime = startTime;
+    }
+    
+    public LocalTime getEndTime() {
+        return endTime;
+    }
+    
+    public void setEndTime(LocalTime endTime) {
+        this.endTime = endTime;
+    }
+    
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+    
+    public void setExpiresAt(LocalDateTime expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+}
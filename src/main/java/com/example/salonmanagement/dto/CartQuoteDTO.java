@@ -0,0 +1,181 @@
+package com.example.salonmanagement.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DTO báo giá giỏ hàng: request gồm các dòng (ngày, đơn giá, số lượng),
+ * response điền thêm khuyến mãi áp dụng và số tiền của từng dòng
+ * Số tiền trả về tính bằng đồng
+ *
+ * FEATURE 25: Bộ tính giảm giá
+ * - Báo giá cả giỏ hàng hoặc các lịch hẹn trong ngày bằng một lần gọi
+ */
+public class CartQuoteDTO {
+    
+    // Giới hạn số dòng của một lần báo giá
+    public static final int MAX_ITEMS = 1000;
+    
+    // Ngày áp dụng cho các dòng không ghi ngày (mặc định hôm nay)
+    private LocalDate date;
+    
+    @Valid
+    @NotEmpty(message = "Giỏ hàng không được để trống")
+    @Size(max = MAX_ITEMS, message = "Giỏ hàng không được vượt quá 1000 dòng")
+    private List<Item> items = new ArrayList<>();
+    
+    private long subtotal;
+    
+    private long totalDiscount;
+    
+    private long total;
+    
+    // Constructor mặc định
+    public CartQuoteDTO() {}
+    
+    // Getters và Setters
+    public LocalDate getDate() {
+        return date;
+    }
+    
+    public void setDate(LocalDate date) {
+        this.date = date;
+    }
+    
+    public List<Item> getItems() {
+        return items;
+    }
+    
+    public void setItems(List<Item> items) {
+        this.items = items;
+    }
+    
+    public long getSubtotal() {
+        return subtotal;
+    }
+    
+    public void setSubtotal(long subtotal) {
+        this.subtotal = subtotal;
+    }
+    
+    public long getTotalDiscount() {
+        return totalDiscount;
+    }
+    
+    public void setTotalDiscount(long totalDiscount) {
+        this.totalDiscount = totalDiscount;
+    }
+    
+    public long getTotal() {
+        return total;
+    }
+    
+    public void setTotal(long total) {
+        this.total = total;
+    }
+    
+    /**
+     * Một dòng của giỏ hàng
+     */
+    public static class Item {
+        
+        private LocalDate date;
+        
+        @NotNull(message = "Đơn giá không được để trống")
+        @DecimalMin(value = "0", message = "Đơn giá không được âm")
+        private BigDecimal unitPrice;
+        
+        @Min(value = 1, message = "Số lượng phải lớn hơn 0")
+        private int quantity = 1;
+        
+        private Integer idPromotion;
+        
+        private BigDecimal discountPercent;
+        
+        private long amount;
+        
+        private long discountAmount;
+        
+        private long total;
+        
+        public Item() {}
+        
+        public Item(LocalDate date, BigDecimal unitPrice, int quantity) {
+            this.date = date;
+            this.unitPrice = unitPrice;
+            this.quantity = quantity;
+        }
+        
+        public LocalDate getDate() {
+            return date;
+        }
+        
+        public void setDate(LocalDate date) {
+            this.date = date;
+        }
+        
+        public BigDecimal getUnitPrice() {
+            return unitPrice;
+        }
+        
+        public void setUnitPrice(BigDecimal unitPrice) {
+            this.unitPrice = unitPrice;
+        }
+        
+        public int getQuantity() {
+            return quantity;
+        }
+        
+        public void setQuantity(int quantity) {
+            this.quantity = quantity;
+        }
+        
+        public Integer getIdPromotion() {
+            return idPromotion;
+        }
+        
+        public void setIdPromotion(Integer idPromotion) {
+            this.idPromotion = idPromotion;
+        }
+        
+        public BigDecimal getDiscountPercent() {
+            return discountPercent;
+        }
+        
+        public void setDiscountPercent(BigDecimal discountPercent) {
+            this.discountPercent = discountPercent;
+        }
+        
+        public long getAmount() {
+            return amount;
+        }
+        
+        public void setAmount(long amount) {
+            this.amount = amount;
+        }
+        
+        public long getDiscountAmount() {
+            return discountAmount;
+        }
+        
+        public void setDiscountAmount(long discountAmount) {
+            this.discountAmount = discountAmount;
+        }
+        
+        public long getTotal() {
+            return total;
+        }
+        
+        public void setTotal(long total) {
+            this.total = total;
+        }
+    }
+}
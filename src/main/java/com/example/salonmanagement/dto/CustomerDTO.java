@@ -0,0 +1,116 @@
+package com.example.salonmanagement.dto;
+
+import com.example.salonmanagement.entity.CustomerEntity;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import java.time.LocalDateTime;
+
+/**
+ * DTO (Data Transfer Object) cho Customer
+ *
+ * FEATURE 33: Tích điểm thành viên
+ * - points và tier chỉ đọc; khi tạo/sửa khách hàng hai trường này bị bỏ qua
+ * - pendingPoints là điểm của các thanh toán đã ghi nhật ký nhưng chưa cộng vào points
+ *
+ * FEATURE 34: Gợi ý khách hàng theo số điện thoại / họ tên
+ * - Kết quả gợi ý chỉ có thông tin nhận diện; points và tier lấy qua GET /api/customers/{id}
+ */
+public class CustomerDTO {
+    
+    private Integer idCustomer;
+    
+    @NotBlank(message = "Họ tên khách hàng không được để trống")
+    @Size(max = 100, message = "Họ tên khách hàng không được vượt quá 100 ký tự")
+    private String fullName;
+    
+    @NotBlank(message = "Số điện thoại không được để trống")
+    @Size(max = 20, message = "Số điện thoại không được vượt quá 20 ký tự")
+    private String phone;
+    
+    @Size(max = 100, message = "Email không được vượt quá 100 ký tự")
+    private String email;
+    
+    private Long points;
+    
+    private long pendingPoints;
+    
+    private CustomerEntity.MembershipTier tier;
+    
+    private LocalDateTime createdAt;
+    
+    // Constructor mặc định
+    public CustomerDTO() {}
+    
+    // Constructor cho projection nạp chỉ mục gợi ý (chỉ thông tin nhận diện, không có điểm và hạng)
+    public CustomerDTO(Integer idCustomer, String fullName, String phone, String email) {
+        this.idCustomer = idCustomer;
+        this.fullName = fullName;
+        this.phone = phone;
+        this.email = email;
+    }
+    
+    // Getters và Setters
+    public Integer getIdCustomer() {
+        return idCustomer;
+    }
+    
+    public void setIdCustomer(Integer idCustomer) {
+        this.idCustomer = idCustomer;
+    }
+    
+    public String getFullName() {
+        return fullName;
+    }
+    
+    public void setFullName(String fullName) {
+        this.fullName = fullName;
+    }
+    
+    public String getPhone() {
+        return phone;
+    }
+    
+    public void setPhone(String phone) {
+        this.phone = phone;
+    }
+    
+    public String getEmail() {
+        return email;
+    }
+    
+    public void setEmail(String email) {
+        this.email = email;
+    }
+    
+    public Long getPoints() {
+        return points;
+    }
+    
+    public void setPoints(Long points) {
+        this.points = points;
+    }
+    
+    public long getPendingPoints() {
+        return pendingPoints;
+    }
+    
+    public void setPendingPoints(long pendingPoints) {
+        this.pendingPoints = pendingPoints;
+    }
+    
+    public CustomerEntity.MembershipTier getTier() {
+        return tier;
+    }
+    
+    public void setTier(CustomerEntity.MembershipTier tier) {
+        this.tier = tier;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.salonmanagement.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO cho một dòng nhật ký điểm của khách hàng
+ *
+ * FEATURE 33: Tích điểm thành viên
+ * - points âm với bút toán hoàn tiền
+ * - applied = false nghĩa là điểm chưa được cộng vào số dư (lô cộng điểm kế tiếp sẽ cộng)
+ */
+public class LoyaltyAccrualDTO {
+    
+    private String paymentCode;
+    
+    private Long points;
+    
+    private LocalDateTime accruedAt;
+    
+    private boolean applied;
+    
+    // Constructor mặc định
+    public LoyaltyAccrualDTO() {}
+    
+    // Constructor với tham số
+    public LoyaltyAccrualDTO(String paymentCode, Long points, LocalDateTime accruedAt, boolean applied) {
+        this.paymentCode = paymentCode;
+        this.points = points;
+        this.accruedAt = accruedAt;
+        this.applied = applied;
+    }
+    
+    // Getters và Setters
+    public String getPaymentCode() {
+        return paymentCode;
+    }
+    
+    public void setPaymentCode(String paymentCode) {
+        this.paymentCode = paymentCode;
+    }
+    
+    public Long getPoints() {
+        return points;
+    }
+    
+    public void setPoints(Long points) {
+        this.points = points;
+    }
+    
+    public LocalDateTime getAccruedAt() {
+        return accruedAt;
+    }
+    
+    public void setAccruedAt(LocalDateTime accruedAt) {
+        this.accruedAt = accruedAt;
+    }
+    
+    public boolean isApplied() {
+        return applied;
+    }
+    
+    public void setApplied(boolean applied) {
+        this.applied = applied;
+    }
+}
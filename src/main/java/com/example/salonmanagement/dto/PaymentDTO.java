@@ -1,4 +1,184 @@
 package com.example.salonmanagement.dto;
 
+import com.example.salonmanagement.entity.PaymentEntity;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Digits;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * DTO (Data Transfer Object) cho Payment
+ * Khi ghi nhận thanh toán chỉ cần số tiền và phương thức; mã, loại bút toán,
+ * thời điểm thanh toán do hệ thống điền
+ *
+ * FEATURE 30: Sổ cái thanh toán ghi theo lô
+ * - recorded = false nghĩa là bút toán đã bền vững trong write-ahead log nhưng chưa vào database
+ */
 public class PaymentDTO {
+    
+    // Độ dài tối đa của ghi chú (cột payment.note)
+    public static final int NOTE_MAX_LENGTH = 255;
+    
+    private Long idPayment;
+    
+    private String code;
+    
+    private PaymentEntity.EntryType entryType;
+    
+    @NotNull(message = "Phương thức thanh toán không được để trống")
+    private PaymentEntity.PaymentMethod method;
+    
+    @NotNull(message = "Số tiền không được để trống")
+    @DecimalMin(value = "0.01", message = "Số tiền phải lớn hơn 0")
+    @Digits(integer = 13, fraction = 2, message = "Số tiền không hợp lệ")
+    private BigDecimal amount;
+    
+    @DecimalMin(value = "0", message = "Số tiền giảm giá không được âm")
+    @Digits(integer = 13, fraction = 2, message = "Số tiền giảm giá không hợp lệ")
+    private BigDecimal discountAmount;
+    
+    private Integer idBooking;
+    
+    private Integer idCustomer;
+    
+    private Integer idStaff;
+    
+    private Integer idService;
+    
+    private Integer idPromotion;
+    
+    private String refundOf;
+    
+    @Size(max = NOTE_MAX_LENGTH, message = "Ghi chú không được vượt quá 255 ký tự")
+    private String note;
+    
+    private LocalDateTime paidAt;
+    
+    private boolean recorded;
+    
+    // Constructor mặc định
+    public PaymentDTO() {}
+    
+    // Getters và Setters
+    public Long getIdPayment() {
+        return idPayment;
+    }
+    
+    public void setIdPayment(Long idPayment) {
+        this.idPayment = idPayment;
+    }
+    
+    public String getCode() {
+        return code;
+    }
+    
+    public void setCode(String code) {
+        this.code = code;
+    }
+    
+    public PaymentEntity.EntryType getEntryType() {
+        return entryType;
+    }
+    
+    public void setEntryType(PaymentEntity.EntryType entryType) {
+        this.entryType = entryType;
+    }
+    
+    public PaymentEntity.PaymentMethod getMethod() {
+        return method;
+    }
+    
+    public void setMethod(PaymentEntity.PaymentMethod method) {
+        this.method = method;
+    }
+    
+    public BigDecimal getAmount() {
+        return amount;
+    }
+    
+    public void setAmount(BigDecimal amount) {
+        this.amount = amount;
+    }
+    
+    public BigDecimal getDiscountAmount() {
+        return discountAmount;
+    }
+    
+    public void setDiscountAmount(BigDecimal discountAmount) {
+        this.discountAmount = discountAmount;
+    }
+    
+    public Integer getIdBooking() {
+        return idBooking;
+    }
+    
+    public void setIdBooking(Integer idBooking) {
+        this.idBooking = idBooking;
+    }
+    
+    public Integer getIdCustomer() {
+        return idCustomer;
+    }
+    
+    public void setIdCustomer(Integer idCustomer) {
+        this.idCustomer = idCustomer;
+    }
+    
+    public Integer getIdStaff() {
+        return idStaff;
+    }
+    
+    public void setIdStaff(Integer idStaff) {
+        this.idStaff = idStaff;
+    }
+    
+    public Integer getIdService() {
+        return idService;
+    }
+    
+    public void setIdService(Integer idService) {
+        this.idService = idService;
+    }
+    
+    public Integer getIdPromotion() {
+        return idPromotion;
+    }
+    
+    public void setIdPromotion(Integer idPromotion) {
+        this.idPromotion = idPromotion;
+    }
+    
+    public String getRefundOf() {
+        return refundOf;
+    }
+    
+    public void setRefundOf(String refundOf) {
+        this.refundOf = refundOf;
+    }
+    
+    public String getNote() {
+        return note;
+    }
+    
+    public void setNote(String note) {
+        this.note = note;
+    }
+    
+    public LocalDateTime getPaidAt() {
+        return paidAt;
+    }
+    
+    public void setPaidAt(LocalDateTime paidAt) {
+        this.paidAt = paidAt;
+    }
+    
+    public boolean isRecorded() {
+        return recorded;
+    }
+    
+    public void setRecorded(boolean recorded) {
+        this.recorded = recorded;
+    }
 }
@@ -0,0 +1,108 @@
+package com.example.salonmanagement.dto;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+/**
+ * DTO cho sản phẩm tiêu hao và tồn kho
+ *
+ * FEATURE 32: Theo dõi sản phẩm tiêu hao
+ * - stockQuantity khi đọc đã trừ lượng dùng chưa flush (pendingUsage) nên luôn là số mới nhất
+ * - stockQuantity chỉ dùng khi tạo sản phẩm; sau đó thay đổi bằng restock
+ */
+public class ProductDTO {
+    
+    private Integer idProduct;
+    
+    @NotBlank(message = "Tên sản phẩm không được để trống")
+    @Size(max = 100, message = "Tên sản phẩm không được vượt quá 100 ký tự")
+    private String name;
+    
+    @NotBlank(message = "Đơn vị không được để trống")
+    @Size(max = 20, message = "Đơn vị không được vượt quá 20 ký tự")
+    private String unit;
+    
+    @Min(value = 0, message = "Tồn kho không được âm")
+    private Long stockQuantity;
+    
+    @NotNull(message = "Ngưỡng cảnh báo tồn kho không được để trống")
+    @Min(value = 0, message = "Ngưỡng cảnh báo tồn kho không được âm")
+    private Long lowStockThreshold;
+    
+    private Long totalUsed;
+    
+    // Lượng đã dùng trong bộ nhớ, chưa ghi vào database
+    private long pendingUsage;
+    
+    private boolean lowStock;
+    
+    // Constructor mặc định
+    public ProductDTO() {}
+    
+    // Getters và Setters
+    public Integer getIdProduct() {
+        return idProduct;
+    }
+    
+    public void setIdProduct(Integer idProduct) {
+        this.idProduct = idProduct;
+    }
+    
+    public String getName() {
+        return name;
+    }
+    
+    public void setName(String name) {
+        this.name = name;
+    }
+    
+    public String getUnit() {
+        return unit;
+    }
+    
+    public void setUnit(String unit) {
+        this.unit = unit;
+    }
+    
+    public Long getStockQuantity() {
+        return stockQuantity;
+    }
+    
+    public void setStockQuantity(Long stockQuantity) {
+        this.stockQuantity = stockQuantity;
+    }
+    
+    public Long getLowStockThreshold() {
+        return lowStockThreshold;
+    }
+    
+    public void setLowStockThreshold(Long lowStockThreshold) {
+        this.lowStockThreshold = lowStockThreshold;
+    }
+    
+    public Long getTotalUsed() {
+        return totalUsed;
+    }
+    
+    public void setTotalUsed(Long totalUsed) {
+        this.totalUsed = totalUsed;
+    }
+    
+    public long getPendingUsage() {
+        return pendingUsage;
+    }
+    
+    public void setPendingUsage(long pendingUsage) {
+        this.pendingUsage = pendingUsage;
+    }
+    
+    public boolean isLowStock() {
+        return lowStock;
+    }
+    
+    public void setLowStock(boolean lowStock) {
+        this.lowStock = lowStock;
+    }
+}
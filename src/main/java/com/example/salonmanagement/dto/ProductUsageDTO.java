@@ -0,0 +1,80 @@
+package com.example.salonmanagement.dto;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import java.time.LocalDate;
+
+/**
+ * DTO cho lượng sản phẩm đã dùng
+ * Khi ghi nhận: sản phẩm, dịch vụ (tùy chọn) và lượng dùng; khi đọc báo cáo: tổng theo ngày
+ *
+ * FEATURE 32: Theo dõi sản phẩm tiêu hao
+ */
+public class ProductUsageDTO {
+    
+    @NotNull(message = "Sản phẩm không được để trống")
+    private Integer idProduct;
+    
+    private Integer idService;
+    
+    @NotNull(message = "Lượng dùng không được để trống")
+    @Min(value = 1, message = "Lượng dùng phải lớn hơn 0")
+    @Max(value = 1_000_000, message = "Lượng dùng không hợp lệ")
+    private Long quantity;
+    
+    private LocalDate usageDate;
+    
+    private Integer useCount;
+    
+    // Constructor mặc định
+    public ProductUsageDTO() {}
+    
+    // Constructor với tham số
+    public ProductUsageDTO(Integer idProduct, Integer idService, Long quantity) {
+        this.idProduct = idProduct;
+        this.idService = idService;
+        this.quantity = quantity;
+    }
+    
+    // Getters và Setters
+    public Integer getIdProduct() {
+        return idProduct;
+    }
+    
+    public void setIdProduct(Integer idProduct) {
+        this.idProduct = idProduct;
+    }
+    
+    public Integer getIdService() {
+        return idService;
+    }
+    
+    public void setIdService(Integer idService) {
+        this.idService = idService;
+    }
+    
+    public Long getQuantity() {
+        return quantity;
+    }
+    
+    public void setQuantity(Long quantity) {
+        this.quantity = quantity;
+    }
+    
+    public LocalDate getUsageDate() {
+        return usageDate;
+    }
+    
+    public void setUsageDate(LocalDate usageDate) {
+        this.usageDate = usageDate;
+    }
+    
+    public Integer getUseCount() {
+        return useCount;
+    }
+    
+    public void setUseCount(Integer useCount) {
+        this.useCount = useCount;
+    }
+}
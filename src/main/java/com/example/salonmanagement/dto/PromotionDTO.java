@@ -37,6 +37,9 @@ public class PromotionDTO {
     @NotNull(message = "Trạng thái không được để trống")
     private PromotionEntity.PromotionStatus status;
     
+    // FEATURE 15: Bản sao chỉ đọc nằm trong cache, dùng chung giữa các request
+    private boolean readOnly;
+    
     // Constructor mặc định
     public PromotionDTO() {}
     
@@ -53,12 +56,32 @@ public class PromotionDTO {
         this.status = status;
     }
     
+    /**
+     * Bản sao không sửa được, dùng làm giá trị trong cache
+     * FEATURE 15: Cache đọc khuyến mãi - setter của bản sao ném UnsupportedOperationException
+     */
+    public PromotionDTO readOnlyCopy() {
+        if (readOnly) {
+            return this;
+        }
+        PromotionDTO copy = new PromotionDTO(idPromotion, name, discountPercent, startDate, endDate, description, status);
+        copy.readOnly = true;
+        return copy;
+    }
+    
+    private void checkWritable() {
+        if (readOnly) {
+            throw new UnsupportedOperationException("Khuyến mãi trong cache là bản chỉ đọc");
+        }
+    }
+    
     // Getters và Setters
     public Integer getIdPromotion() {
         return idPromotion;
     }
     
     public void setIdPromotion(Integer idPromotion) {
+        checkWritable();
         this.idPromotion = idPromotion;
     }
     
@@ -67,6 +90,7 @@ public class PromotionDTO {
     }
     
     public void setName(String name) {
+        checkWritable();
         this.name = name;
     }
     
@@ -75,6 +99,7 @@ public class PromotionDTO {
     }
     
     public void setDiscountPercent(BigDecimal discountPercent) {
+        checkWritable();
         this.discountPercent = discountPercent;
     }
     
@@ -83,6 +108,7 @@ public class PromotionDTO {
     }
     
     public void setStartDate(LocalDate startDate) {
+        checkWritable();
         this.startDate = startDate;
     }
     
@@ -91,6 +117,7 @@ public class PromotionDTO {
     }
     
     public void setEndDate(LocalDate endDate) {
+        checkWritable();
         this.endDate = endDate;
     }
     
@@ -99,6 +126,7 @@ public class PromotionDTO {
     }
     
     public void setDescription(String description) {
+        checkWritable();
         this.description = description;
     }
     
@@ -107,6 +135,7 @@ public class PromotionDTO {
     }
     
     public void setStatus(PromotionEntity.PromotionStatus status) {
+        checkWritable();
         this.status = status;
     }
     
@@ -145,16 +174,25 @@ public class PromotionDTO {
      * FEATURE 5: Validation cho thêm khuyến mãi mới
      */
     public boolean isValidBusinessLogic() {
+        return findBusinessRuleViolation() == null;
+    }
+    
+    /**
+     * Tìm quy tắc business logic bị vi phạm
+     * @return tên quy tắc bị vi phạm (dùng làm tag metric), null nếu dữ liệu hợp lệ
+     * FEATURE 21: Metrics - đếm số lần từ chối theo quy tắc
+     */
+    public String findBusinessRuleViolation() {
         // Kiểm tra ngày kết thúc phải sau ngày bắt đầu
         if (startDate != null && endDate != null && endDate.isBefore(startDate)) {
-            return false;
+            return "date.end-before-start";
         }
         
         // Kiểm tra khuyến mãi không được kéo dài quá 1 năm
         if (startDate != null && endDate != null) {
             LocalDate maxEndDate = startDate.plusYears(1);
             if (endDate.isAfter(maxEndDate)) {
-                return false;
+                return "date.longer-than-one-year";
             }
         }
         
@@ -162,15 +200,15 @@ public class PromotionDTO {
         if (startDate != null) {
             LocalDate maxStartDate = LocalDate.now().plusYears(2);
             if (startDate.isAfter(maxStartDate)) {
-                return false;
+                return "date.start-too-far";
             }
         }
         
         // Kiểm tra tên không chứa ký tự đặc biệt nguy hiểm
         if (name != null && (name.contains("<") || name.contains(">") || name.contains("script"))) {
-            return false;
+            return "name.unsafe-characters";
         }
         
-        return true;
+        return null;
     }
 }
\ No newline at end of file
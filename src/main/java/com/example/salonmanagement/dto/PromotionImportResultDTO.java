@@ -0,0 +1,126 @@
+package com.example.salonmanagement.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DTO báo cáo kết quả nhập hàng loạt khuyến mãi
+ * 
+ * FEATURE 18: Nhập khuyến mãi hàng loạt
+ * - Tổng số dòng, số dòng đã nhập và lỗi của từng dòng
+ */
+public class PromotionImportResultDTO {
+    
+    // Giới hạn số lỗi trả về để báo cáo không phình to theo kích thước file
+    public static final int MAX_REPORTED_ERRORS = 1000;
+    
+    private int totalRows;
+    
+    private int importedRows;
+    
+    private int failedRows;
+    
+    private List<RowError> errors = new ArrayList<>();
+    
+    private boolean errorsTruncated;
+    
+    // Constructor mặc định
+    public PromotionImportResultDTO() {}
+    
+    /**
+     * Ghi nhận lỗi của một dòng (số dòng tính từ 1, không tính dòng tiêu đề CSV)
+     */
+    public void addError(int row, String name, String message) {
+        failedRows++;
+        if (errors.size() < MAX_REPORTED_ERRORS) {
+            errors.add(new RowError(row, name, message));
+        } else {
+            errorsTruncated = true;
+        }
+    }
+    
+    // Getters và Setters
+    public int getTotalRows() {
+        return totalRows;
+    }
+    
+    public void setTotalRows(int totalRows) {
+        this.totalRows = totalRows;
+    }
+    
+    public int getImportedRows() {
+        return importedRows;
+    }
+    
+    public void setImportedRows(int importedRows) {
+        this.importedRows = importedRows;
+    }
+    
+    public int getFailedRows() {
+        return failedRows;
+    }
+    
+    public void setFailedRows(int failedRows) {
+        this.failedRows = failedRows;
+    }
+    
+    public List<RowError> getErrors() {
+        return errors;
+    }
+    
+    public void setErrors(List<RowError> errors) {
+        this.errors = errors;
+    }
+    
+    public boolean isErrorsTruncated() {
+        return errorsTruncated;
+    }
+    
+    public void setErrorsTruncated(boolean errorsTruncated) {
+        this.errorsTruncated = errorsTruncated;
+    }
+    
+    /**
+     * Lỗi của một dòng dữ liệu
+     */
+    public static class RowError {
+        
+        private int row;
+        
+        private String name;
+        
+        private String message;
+        
+        public RowError() {}
+        
+        public RowError(int row, String name, String message) {
+            this.row = row;
+            this.name = name;
+            this.message = message;
+        }
+        
+        public int getRow() {
+            return row;
+        }
+        
+        public void setRow(int row) {
+            this.row = row;
+        }
+        
+        public String getName() {
+            return name;
+        }
+        
+        public void setName(String name) {
+            this.name = name;
+        }
+        
+        public String getMessage() {
+            return message;
+        }
+        
+        public void setMessage(String message) {
+            this.message = message;
+        }
+    }
+}
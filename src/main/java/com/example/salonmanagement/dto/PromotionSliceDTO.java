@@ -0,0 +1,65 @@
+package com.example.salonmanagement.dto;
+
+import java.util.List;
+
+/**
+ * DTO cho một lát (slice) khuyến mãi khi phân trang theo con trỏ
+ * Không có tổng số phần tử nên không cần truy vấn COUNT(*)
+ * 
+ * FEATURE 14: Phân trang theo con trỏ (keyset)
+ */
+public class PromotionSliceDTO {
+    
+    private List<PromotionDTO> content;
+    
+    // Con trỏ mờ (opaque) để lấy lát tiếp theo, null nếu đã hết dữ liệu
+    private String nextCursor;
+    
+    private boolean hasNext;
+    
+    private int size;
+    
+    // Constructor mặc định
+    public PromotionSliceDTO() {}
+    
+    // Constructor với tham số
+    public PromotionSliceDTO(List<PromotionDTO> content, String nextCursor, boolean hasNext, int size) {
+        this.content = content;
+        this.nextCursor = nextCursor;
+        this.hasNext = hasNext;
+        this.size = size;
+    }
+    
+    // Getters và Setters
+    public List<PromotionDTO> getContent() {
+        return content;
+    }
+    
+    public void setContent(List<PromotionDTO> content) {
+        this.content = content;
+    }
+    
+    public String getNextCursor() {
+        return nextCursor;
+    }
+    
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+    
+    public boolean isHasNext() {
+        return hasNext;
+    }
+    
+    public void setHasNext(boolean hasNext) {
+        this.hasNext = hasNext;
+    }
+    
+    public int getSize() {
+        return size;
+    }
+    
+    public void setSize(int size) {
+        this.size = size;
+    }
+}
@@ -0,0 +1,133 @@
+package com.example.salonmanagement.dto;
+
+import com.example.salonmanagement.entity.RevenueRollupEntity;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * DTO cho một ô báo cáo doanh thu: tổng của một (chiều, ID) trong một ngày, tuần hoặc tháng
+ *
+ * FEATURE 31: Tổng hợp doanh thu tăng dần
+ */
+public class RevenueDTO {
+    
+    private LocalDate bucketStart;
+    private Granularity granularity;
+    private RevenueRollupEntity.Dimension dimension;
+    private Integer dimensionId;
+    private BigDecimal grossAmount = BigDecimal.ZERO;
+    private BigDecimal refundAmount = BigDecimal.ZERO;
+    private BigDecimal discountAmount = BigDecimal.ZERO;
+    private int paymentCount;
+    private int refundCount;
+    
+    // Constructor mặc định
+    public RevenueDTO() {}
+    
+    // Constructor với tham số
+    public RevenueDTO(LocalDate bucketStart, Granularity granularity, RevenueRollupEntity.Dimension dimension,
+                      Integer dimensionId) {
+        this.bucketStart = bucketStart;
+        this.granularity = granularity;
+        this.dimension = dimension;
+        this.dimensionId = dimensionId;
+    }
+    
+    /**
+     * Cộng một dòng tổng theo ngày vào ô này
+     */
+    public void add(RevenueRollupEntity rollup) {
+        grossAmount = grossAmount.add(rollup.getGrossAmount());
+        refundAmount = refundAmount.add(rollup.getRefundAmount());
+        discountAmount = discountAmount.add(rollup.getDiscountAmount());
+        paymentCount += rollup.getPaymentCount();
+        refundCount += rollup.getRefundCount();
+    }
+    
+    // Getters và Setters
+    public LocalDate getBucketStart() {
+        return bucketStart;
+    }
+    
+    public void setBucketStart(LocalDate bucketStart) {
+        this.bucketStart = bucketStart;
+    }
+    
+    public Granularity getGranularity() {
+        return granularity;
+    }
+    
+    public void setGranularity(Granularity granularity) {
+        this.granularity = granularity;
+    }
+    
+    public RevenueRollupEntity.Dimension getDimension() {
+        return dimension;
+    }
+    
+    public void setDimension(RevenueRollupEntity.Dimension dimension) {
+        this.dimension = dimension;
+    }
+    
+    public Integer getDimensionId() {
+        return dimensionId;
+    }
+    
+    public void setDimensionId(Integer dimensionId) {
+        this.dimensionId = dimensionId;
+    }
+    
+    public BigDecimal getGrossAmount() {
+        return grossAmount;
+    }
+    
+    public void setGrossAmount(BigDecimal grossAmount) {
+        this.grossAmount = grossAmount;
+    }
+    
+    public BigDecimal getRefundAmount() {
+        return refundAmount;
+    }
+    
+    public void setRefundAmount(BigDecimal refundAmount) {
+        this.refundAmount = refundAmount;
+    }
+    
+    /**
+     * Doanh thu thuần = tiền thu - tiền hoàn
+     */
+    public BigDecimal getNetAmount() {
+        return grossAmount.subtract(refundAmount);
+    }
+    
+    public BigDecimal getDiscountAmount() {
+        return discountAmount;
+    }
+    
+    public void setDiscountAmount(BigDecimal discountAmount) {
+        this.discountAmount = discountAmount;
+    }
+    
+    public int getPaymentCount() {
+        return paymentCount;
+    }
+    
+    public void setPaymentCount(int paymentCount) {
+        this.paymentCount = paymentCount;
+    }
+    
+    public int getRefundCount() {
+        return refundCount;
+    }
+    
+    public void setRefundCount(int refundCount) {
+        this.refundCount = refundCount;
+    }
+    
+    // Enum độ chi tiết của báo cáo
+    public enum Granularity {
+        DAY,
+        WEEK,
+        MONTH
+    }
+}
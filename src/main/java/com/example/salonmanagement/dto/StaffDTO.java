@@ -0,0 +1,123 @@
+package com.example.salonmanagement.dto;
+
+import com.example.salonmanagement.entity.StaffEntity;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DTO (Data Transfer Object) cho Staff
+ *
+ * FEATURE 29: Chỉ mục lịch làm việc của nhân viên
+ * - specialties là danh sách mã chuyên môn (CUT, COLOR, NAIL...), không phân biệt hoa thường
+ * - shifts là các ca làm lặp lại hằng tuần
+ */
+public class StaffDTO {
+    
+    private Integer idStaff;
+    
+    @NotBlank(message = "Họ tên nhân viên không được để trống")
+    @Size(max = 100, message = "Họ tên nhân viên không được vượt quá 100 ký tự")
+    private String fullName;
+    
+    @Size(max = 20, message = "Số điện thoại không được vượt quá 20 ký tự")
+    private String phone;
+    
+    @Size(max = 50, message = "Chức vụ không được vượt quá 50 ký tự")
+    private String position;
+    
+    @NotNull(message = "Chi nhánh không được để trống")
+    private Integer idBranch;
+    
+    private List<String> specialties = new ArrayList<>();
+    
+    @DecimalMin(value = "0", message = "Lương không được âm")
+    private BigDecimal salary;
+    
+    private StaffEntity.StaffStatus status;
+    
+    @Valid
+    @Size(max = 50, message = "Không được quá 50 ca làm mỗi tuần")
+    private List<StaffShiftDTO> shifts = new ArrayList<>();
+    
+    // Constructor mặc định
+    public StaffDTO() {}
+    
+    // Getters và Setters
+    public Integer getIdStaff() {
+        return idStaff;
+    }
+    
+    public void setIdStaff(Integer idStaff) {
+        this.idStaff = idStaff;
+    }
+    
+    public String getFullName() {
+        return fullName;
+    }
+    
+    public void setFullName(String fullName) {
+        this.fullName = fullName;
+    }
+    
+    public String getPhone() {
+        return phone;
+    }
+    
+    public void setPhone(String phone) {
+        this.phone = phone;
+    }
+    
+    public String getPosition() {
+        return position;
+    }
+    
+    public void setPosition(String position) {
+        this.position = position;
+    }
+    
+    public Integer getIdBranch() {
+        return idBranch;
+    }
+    
+    public void setIdBranch(Integer idBranch) {
+        this.idBranch = idBranch;
+    }
+    
+    public List<String> getSpecialties() {
+        return specialties;
+    }
+    
+    public void setSpecialties(List<String> specialties) {
+        this.specialties = specialties;
+    }
+    
+    public BigDecimal getSalary() {
+        return salary;
+    }
+    
+    public void setSalary(BigDecimal salary) {
+        this.salary = salary;
+    }
+    
+    public StaffEntity.StaffStatus getStatus() {
+        return status;
+    }
+    
+    public void setStatus(StaffEntity.StaffStatus status) {
+        this.status = status;
+    }
+    
+    public List<StaffShiftDTO> getShifts() {
+        return shifts;
+    }
+    
+    public void setShifts(List<StaffShiftDTO> shifts) {
+        this.shifts = shifts;
+    }
+}
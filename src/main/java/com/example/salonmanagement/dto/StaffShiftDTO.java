@@ -0,0 +1,60 @@
+package com.example.salonmanagement.dto;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import java.time.LocalTime;
+
+/**
+ * DTO cho ca làm hằng tuần của nhân viên
+ *
+ * FEATURE 29: Chỉ mục lịch làm việc của nhân viên
+ */
+public class StaffShiftDTO {
+    
+    @NotNull(message = "Thứ trong tuần không được để trống")
+    @Min(value = 1, message = "Thứ trong tuần phải từ 1 (thứ Hai) đến 7 (Chủ nhật)")
+    @Max(value = 7, message = "Thứ trong tuần phải từ 1 (thứ Hai) đến 7 (Chủ nhật)")
+    private Integer dayOfWeek;
+    
+    @NotNull(message = "Giờ bắt đầu ca không được để trống")
+    private LocalTime startTime;
+    
+    @NotNull(message = "Giờ kết thúc ca không được để trống")
+    private LocalTime endTime;
+    
+    // Constructor mặc định
+    public StaffShiftDTO() {}
+    
+    // Constructor với tham số
+    public StaffShiftDTO(Integer dayOfWeek, LocalTime startTime, LocalTime endTime) {
+        this.dayOfWeek = dayOfWeek;
+        this.startTime = startTime;
+        this.endTime = endTime;
+    }
+    
+    // Getters và Setters
+    public Integer getDayOfWeek() {
+        return dayOfWeek;
+    }
+    
+    public void setDayOfWeek(Integer dayOfWeek) {
+        this.dayOfWeek = dayOfWeek;
+    }
+    
+    public LocalTime getStartTime() {
+        return startTime;
+    }
+    
+    public void setStartTime(LocalTime startTime) {
+        this.startTime = startTime;
+    }
+    
+    public LocalTime getEndTime() {
+        return endTime;
+    }
+    
+    public void setEndTime(LocalTime endTime) {
+        this.endTime = endTime;
+    }
+}
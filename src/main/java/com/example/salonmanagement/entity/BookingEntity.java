@@ -1,4 +1,184 @@
 package com.example.salonmanagement.entity;
 
+import jakarta.persistence.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+/**
+ * Entity class cho bảng booking (lịch hẹn khách - dịch vụ - nhân viên)
+ *
+ * FEATURE 27: Lịch đặt chỗ dạng bitmap
+ * - Lịch hẹn giữ giờ bắt đầu/kết thúc thật, khung giờ của bitmap được tính lại khi nạp
+ *   nên đổi độ dài khung giờ (app.booking.slot-minutes) không cần chuyển đổi dữ liệu
+ * - Chỉ mục (bookingDate, idStaff) phục vụ nạp lịch theo ngày; chống trùng giờ nằm ở bảng booking_slot (FEATURE 28)
+ */
+@Entity
+@Table(name = "booking",
+       indexes = @Index(name = "idx_booking_date_staff", columnList = "bookingDate, idStaff"),
+       uniqueConstraints = @UniqueConstraint(name = "uk_booking_code", columnNames = "code"))
 public class BookingEntity {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "idBooking")
+    private Integer idBooking;
+    
+    // Mã lịch hẹn đọc được cho khách (CodeGenerator.PREFIX_BOOKING)
+    @Column(name = "code", length = 20, nullable = false)
+    private String code;
+    
+    @Column(name = "idCustomer")
+    private Integer idCustomer;
+    
+    @Column(name = "idStaff", nullable = false)
+    private Integer idStaff;
+    
+    @Column(name = "idService")
+    private Integer idService;
+    
+    @Column(name = "bookingDate", nullable = false)
+    private LocalDate bookingDate;
+    
+    @Column(name = "startTime", nullable = false)
+    private LocalTime startTime;
+    
+    @Column(name = "endTime", nullable = false)
+    private LocalTime endTime;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false)
+    private BookingStatus status;
+    
+    @Column(name = "note", length = 255)
+    private String note;
+    
+    @Version
+    @Column(name = "version", nullable = false)
+    private long version;
+    
+    @Column(name = "createdAt")
+    private LocalDateTime createdAt;
+    
+    // Constructor mặc định
+    public BookingEntity() {}
+    
+    // Constructor với tham số
+    public BookingEntity(String code, Integer idCustomer, Integer idStaff, Integer idService,
+                         LocalDate bookingDate, LocalTime startTime, LocalTime endTime,
+                         BookingStatus status, String note) {
+        this.code = code;
+        this.idCustomer = idCustomer;
+        this.idStaff = idStaff;
+        this.idService = idService;
+        this.bookingDate = bookingDate;
+        this.startTime = startTime;
+        this.endTime = endTime;
+        this.status = status;
+        this.note = note;
+    }
+    
+    // Getters và Setters
+    public Integer getIdBooking() {
+        return idBooking;
+    }
+    
+    public void setIdBooking(Integer idBooking) {
+        this.idBooking = idBooking;
+    }
+    
+    public String getCode() {
+        return code;
+    }
+    
+    public void setCode(String code) {
+        this.code = code;
+    }
+    
+    public Integer getIdCustomer() {
+        return idCustomer;
+    }
+    
+    public void setIdCustomer(Integer idCustomer) {
+        this.idCustomer = idCustomer;
+    }
+    
+    public Integer getIdStaff() {
+        return idStaff;
+    }
+    
+    public void setIdStaff(Integer idStaff) {
+        this.idStaff = idStaff;
+    }
+    
+    public Integer getIdService() {
+        return idService;
+    }
+    
+    public void setIdService(Integer idService) {
+        this.idService = idService;
+    }
+    
+    public LocalDate getBookingDate() {
+        return bookingDate;
+    }
+    
+    public void setBookingDate(LocalDate bookingDate) {
+        this.bookingDate = bookingDate;
+    }
+    
+    public LocalTime getStartTime() {
+        return startTime;
+    }
+    
+    public void setStartTime(LocalTime startTime) {
+        this.startTime = startTime;
+    }
+    
+    public LocalTime getEndTime() {
+        return endTime;
+    }
+    
+    public void setEndTime(LocalTime endTime) {
+        this.endTime = endTime;
+    }
+    
+    public BookingStatus getStatus() {
+        return status;
+    }
+    
+    public void setStatus(BookingStatus status) {
+        this.status = status;
+    }
+    
+    public String getNote() {
+        return note;
+    }
+    
+    public void setNote(String note) {
+        this.note = note;
+    }
+    
+    public long getVersion() {
+        return version;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    @PrePersist
+    void touchCreatedAt() {
+        if (createdAt == null) {
+            createdAt = LocalDateTime.now();
+        }
+    }
+    
+    // Enum cho trạng thái lịch hẹn
+    // Lịch hẹn CANCELLED không chiếm khung giờ
+    public enum BookingStatus {
+        CONFIRMED,  // Đã xác nhận
+        COMPLETED,  // Đã phục vụ xong
+        CANCELLED   // Đã hủy
+    }
 }
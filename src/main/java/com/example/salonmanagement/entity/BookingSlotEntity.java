@@ -0,0 +1,96 @@
+package com.example.salonmanagement.entity;
+
+import jakarta.persistence.*;
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.Objects;
+
+/**
+ * Entity class cho bảng booking_slot: mỗi dòng là một đơn vị 5 phút đã thuộc về một lịch hẹn
+ * Khóa chính (idStaff, slotDate, slotMinute) là ràng buộc duy nhất chống đặt trùng giờ,
+ * kể cả khi nhiều node cùng ghi
+ *
+ * FEATURE 28: Giữ chỗ và đặt lịch song song
+ */
+@Entity
+@Table(name = "booking_slot", indexes = @Index(name = "idx_booking_slot_booking", columnList = "idBooking"))
+@IdClass(BookingSlotEntity.Key.class)
+public class BookingSlotEntity {
+    
+    /** Độ dài một đơn vị (phút); app.booking.slot-minutes phải là bội số của giá trị này */
+    public static final int UNIT_MINUTES = 5;
+    
+    @Id
+    @Column(name = "idStaff")
+    private Integer idStaff;
+    
+    @Id
+    @Column(name = "slotDate")
+    private LocalDate slotDate;
+    
+    // Phút trong ngày của đơn vị (0, 5, 10, ...)
+    @Id
+    @Column(name = "slotMinute")
+    private Integer slotMinute;
+    
+    @Column(name = "idBooking", nullable = false)
+    private Integer idBooking;
+    
+    // Constructor mặc định
+    public BookingSlotEntity() {}
+    
+    // Getters
+    public Integer getIdStaff() {
+        return idStaff;
+    }
+    
+    public LocalDate getSlotDate() {
+        return slotDate;
+    }
+    
+    public Integer getSlotMinute() {
+        return slotMinute;
+    }
+    
+    public Integer getIdBooking() {
+        return idBooking;
+    }
+    
+    /**
+     * Khóa chính ghép
+     */
+    public static class Key implements Serializable {
+        
+        private Integer idStaff;
+        
+        private LocalDate slotDate;
+        
+        private Integer slotMinute;
+        
+        public Key() {}
+        
+        public Key(Integer idStaff, LocalDate slotDate, Integer slotMinute) {
+            this.idStaff = idStaff;
+            this.slotDate = slotDate;
+            this.slotMinute = slotMinute;
+        }
+        
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key other)) {
+                return false;
+            }
+            return Objects.equals(idStaff, other.idStaff)
+                    && Objects.equals(slotDate, other.slotDate)
+                    && Objects.equals(slotMinute, other.slotMinute);
+        }
+        
+        @Override
+        public int hashCode() {
+            return Objects.hash(idStaff, slotDate, slotMinute);
+        }
+    }
+}
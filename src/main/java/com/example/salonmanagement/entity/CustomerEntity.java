@@ -1,4 +1,125 @@
 package com.example.salonmanagement.entity;
 
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Entity class cho bảng customer (khách hàng)
+ *
+ * FEATURE 33: Tích điểm thành viên
+ * - Số điện thoại chỉ gồm chữ số và không trùng: quầy lễ tân tra khách theo số điện thoại
+ * - points chỉ được đổi bằng câu UPDATE tương đối (points = points + n) của LoyaltyPoints,
+ *   tier chỉ được đổi bởi lượt xét hạng hằng đêm, nên JPA không ghi đè hai cột này khi sửa thông tin
+ *
+ * FEATURE 34: Gợi ý khách hàng theo số điện thoại / họ tên
+ * - Chỉ mục updatedAt để mỗi node đọc các khách hàng vừa tạo/sửa vào chỉ mục gợi ý
+ */
+@Entity
+@Table(name = "customer",
+       indexes = @Index(name = "idx_customer_updated_at", columnList = "updatedAt"),
+       uniqueConstraints = @UniqueConstraint(name = "uk_customer_phone", columnNames = "phone"))
 public class CustomerEntity {
+    
+    /**
+     * Hạng thành viên, từ thấp đến cao
+     */
+    public enum MembershipTier {
+        MEMBER, SILVER, GOLD, DIAMOND
+    }
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "idCustomer")
+    private Integer idCustomer;
+    
+    @Column(name = "fullName", length = 100, nullable = false)
+    private String fullName;
+    
+    @Column(name = "phone", length = 20, nullable = false)
+    private String phone;
+    
+    @Column(name = "email", length = 100)
+    private String email;
+    
+    // Điểm tích lũy hiện có (đã trừ điểm của các lần hoàn tiền)
+    @Column(name = "points", nullable = false, updatable = false)
+    private Long points;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(name = "tier", length = 20, nullable = false, updatable = false)
+    private MembershipTier tier;
+    
+    @Column(name = "createdAt", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+    
+    @Column(name = "updatedAt")
+    private LocalDateTime updatedAt;
+    
+    // Constructor mặc định
+    public CustomerEntity() {}
+    
+    // Constructor với tham số
+    public CustomerEntity(String fullName, String phone, String email) {
+        this.fullName = fullName;
+        this.phone = phone;
+        this.email = email;
+        this.points = 0L;
+        this.tier = MembershipTier.MEMBER;
+    }
+    
+    // Getters và Setters
+    public Integer getIdCustomer() {
+        return idCustomer;
+    }
+    
+    public String getFullName() {
+        return fullName;
+    }
+    
+    public void setFullName(String fullName) {
+        this.fullName = fullName;
+    }
+    
+    public String getPhone() {
+        return phone;
+    }
+    
+    public void setPhone(String phone) {
+        this.phone = phone;
+    }
+    
+    public String getEmail() {
+        return email;
+    }
+    
+    public void setEmail(String email) {
+        this.email = email;
+    }
+    
+    public Long getPoints() {
+        return points;
+    }
+    
+    public MembershipTier getTier() {
+        return tier;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+    
+    @PrePersist
+    void onCreate() {
+        createdAt = LocalDateTime.now();
+        updatedAt = createdAt;
+    }
+    
+    @PreUpdate
+    void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
 }
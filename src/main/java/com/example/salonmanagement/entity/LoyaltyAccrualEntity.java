@@ -0,0 +1,64 @@
+package com.example.salonmanagement.entity;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entity class cho bảng loyalty_accrual (nhật ký cộng/trừ điểm, chỉ đọc qua JPA)
+ *
+ * FEATURE 33: Tích điểm thành viên
+ * - Khóa chính là mã bút toán thanh toán: một bút toán chỉ sinh tối đa một dòng điểm dù lô thanh toán
+ *   được ghi lại bao nhiêu lần (phát lại WAL, thử lại)
+ * - Bút toán hoàn tiền sinh dòng điểm âm với mã của chính nó
+ * - applied = đã cộng vào customer.points; accruedAt là thời điểm thanh toán, dùng để xét hạng
+ */
+@Entity
+@Immutable
+@Table(name = "loyalty_accrual", indexes = {
+        @Index(name = "idx_loyalty_accrual_customer", columnList = "idCustomer, accruedAt"),
+        @Index(name = "idx_loyalty_accrual_applied", columnList = "applied")
+})
+public class LoyaltyAccrualEntity {
+    
+    @Id
+    @Column(name = "paymentCode", length = 20)
+    private String paymentCode;
+    
+    @Column(name = "idCustomer", nullable = false)
+    private Integer idCustomer;
+    
+    @Column(name = "points", nullable = false)
+    private Long points;
+    
+    @Column(name = "accruedAt", nullable = false)
+    private LocalDateTime accruedAt;
+    
+    @Column(name = "applied", nullable = false)
+    private boolean applied;
+    
+    // Constructor mặc định
+    public LoyaltyAccrualEntity() {}
+    
+    // Getters
+    public String getPaymentCode() {
+        return paymentCode;
+    }
+    
+    public Integer getIdCustomer() {
+        return idCustomer;
+    }
+    
+    public Long getPoints() {
+        return points;
+    }
+    
+    public LocalDateTime getAccruedAt() {
+        return accruedAt;
+    }
+    
+    public boolean isApplied() {
+        return applied;
+    }
+}
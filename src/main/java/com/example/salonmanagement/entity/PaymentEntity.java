@@ -1,4 +1,156 @@
 package com.example.salonmanagement.entity;
 
+import jakarta.persistence.*;
+import org.hibernate.annotations.Immutable;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Entity class cho bảng payment: sổ cái thanh toán chỉ ghi thêm (append-only)
+ *
+ * FEATURE 30: Sổ cái thanh toán ghi theo lô
+ * - Không bao giờ sửa hay xóa dòng; hoàn tiền là một dòng REFUND với số tiền âm
+ * - Dòng được ghi bằng JDBC batch từ PaymentLedger, mã thanh toán (uk_payment_code) là khóa
+ *   idempotent khi phát lại write-ahead log sau sự cố
+ */
+@Entity
+@Immutable
+@Table(name = "payment",
+       indexes = {
+               @Index(name = "idx_payment_paid_at", columnList = "paidAt"),
+               @Index(name = "idx_payment_booking", columnList = "idBooking")
+       },
+       uniqueConstraints = @UniqueConstraint(name = "uk_payment_code", columnNames = "code"))
 public class PaymentEntity {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "idPayment")
+    private Long idPayment;
+    
+    // Mã thanh toán (CodeGenerator.PREFIX_PAYMENT); hoàn tiền dùng mã gốc + "R"
+    @Column(name = "code", length = 20, nullable = false)
+    private String code;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(name = "entryType", length = 10, nullable = false)
+    private EntryType entryType;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(name = "method", length = 10, nullable = false)
+    private PaymentMethod method;
+    
+    // Số tiền khách trả sau giảm giá; âm với REFUND
+    @Column(name = "amount", precision = 15, scale = 2, nullable = false)
+    private BigDecimal amount;
+    
+    @Column(name = "discountAmount", precision = 15, scale = 2, nullable = false)
+    private BigDecimal discountAmount;
+    
+    @Column(name = "idBooking")
+    private Integer idBooking;
+    
+    @Column(name = "idCustomer")
+    private Integer idCustomer;
+    
+    @Column(name = "idStaff")
+    private Integer idStaff;
+    
+    @Column(name = "idService")
+    private Integer idService;
+    
+    @Column(name = "idPromotion")
+    private Integer idPromotion;
+    
+    // Mã thanh toán gốc của dòng REFUND
+    @Column(name = "refundOf", length = 20)
+    private String refundOf;
+    
+    @Column(name = "note", length = 255)
+    private String note;
+    
+    // Thời điểm nhận thanh toán (lúc ghi write-ahead log)
+    @Column(name = "paidAt", nullable = false)
+    private LocalDateTime paidAt;
+    
+    // Thời điểm dòng được ghi vào database
+    @Column(name = "recordedAt", nullable = false)
+    private LocalDateTime recordedAt;
+    
+    // Constructor mặc định
+    public PaymentEntity() {}
+    
+    // Getters (entity chỉ đọc)
+    public Long getIdPayment() {
+        return idPayment;
+    }
+    
+    public String getCode() {
+        return code;
+    }
+    
+    public EntryType getEntryType() {
+        return entryType;
+    }
+    
+    public PaymentMethod getMethod() {
+        return method;
+    }
+    
+    public BigDecimal getAmount() {
+        return amount;
+    }
+    
+    public BigDecimal getDiscountAmount() {
+        return discountAmount;
+    }
+    
+    public Integer getIdBooking() {
+        return idBooking;
+    }
+    
+    public Integer getIdCustomer() {
+        return idCustomer;
+    }
+    
+    public Integer getIdStaff() {
+        return idStaff;
+    }
+    
+    public Integer getIdService() {
+        return idService;
+    }
+    
+    public Integer getIdPromotion() {
+        return idPromotion;
+    }
+    
+    public String getRefundOf() {
+        return refundOf;
+    }
+    
+    public String getNote() {
+        return note;
+    }
+    
+    public LocalDateTime getPaidAt() {
+        return paidAt;
+    }
+    
+    public LocalDateTime getRecordedAt() {
+        return recordedAt;
+    }
+    
+    // Enum cho loại bút toán
+    public enum EntryType {
+        PAYMENT,  // Thanh toán
+        REFUND    // Hoàn tiền (số tiền âm)
+    }
+    
+    // Enum cho phương thức thanh toán
+    public enum PaymentMethod {
+        CASH,      // Tiền mặt
+        CARD,      // Thẻ
+        TRANSFER   // Chuyển khoản
+    }
 }
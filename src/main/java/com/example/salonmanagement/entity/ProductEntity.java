@@ -0,0 +1,101 @@
+package com.example.salonmanagement.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Entity class cho bảng product (sản phẩm tiêu hao: thuốc nhuộm, dầu gội...)
+ *
+ * FEATURE 32: Theo dõi sản phẩm tiêu hao
+ * - Số lượng tính theo đơn vị nhỏ nhất của sản phẩm (ml, g, cái)
+ * - stockQuantity và totalUsed chỉ được đổi bằng câu UPDATE tương đối (cột = cột ± n) của
+ *   ProductUsageRecorder và restock, nên JPA không ghi đè hai cột này khi sửa thông tin sản phẩm
+ */
+@Entity
+@Table(name = "product")
+public class ProductEntity {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "idProduct")
+    private Integer idProduct;
+    
+    @Column(name = "name", length = 100, nullable = false)
+    private String name;
+    
+    @Column(name = "unit", length = 20, nullable = false)
+    private String unit;
+    
+    @Column(name = "stockQuantity", nullable = false, updatable = false)
+    private Long stockQuantity;
+    
+    // Cảnh báo khi tồn kho còn bằng hoặc ít hơn ngưỡng này
+    @Column(name = "lowStockThreshold", nullable = false)
+    private Long lowStockThreshold;
+    
+    // Tổng lượng đã dùng từ khi tạo sản phẩm
+    @Column(name = "totalUsed", nullable = false, updatable = false)
+    private Long totalUsed;
+    
+    @Column(name = "updatedAt")
+    private LocalDateTime updatedAt;
+    
+    // Constructor mặc định
+    public ProductEntity() {}
+    
+    // Constructor với tham số
+    public ProductEntity(String name, String unit, Long stockQuantity, Long lowStockThreshold) {
+        this.name = name;
+        this.unit = unit;
+        this.stockQuantity = stockQuantity;
+        this.lowStockThreshold = lowStockThreshold;
+        this.totalUsed = 0L;
+    }
+    
+    // Getters và Setters
+    public Integer getIdProduct() {
+        return idProduct;
+    }
+    
+    public String getName() {
+        return name;
+    }
+    
+    public void setName(String name) {
+        this.name = name;
+    }
+    
+    public String getUnit() {
+        return unit;
+    }
+    
+    public void setUnit(String unit) {
+        this.unit = unit;
+    }
+    
+    public Long getStockQuantity() {
+        return stockQuantity;
+    }
+    
+    public Long getLowStockThreshold() {
+        return lowStockThreshold;
+    }
+    
+    public void setLowStockThreshold(Long lowStockThreshold) {
+        this.lowStockThreshold = lowStockThreshold;
+    }
+    
+    public Long getTotalUsed() {
+        return totalUsed;
+    }
+    
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+    
+    @PrePersist
+    @PreUpdate
+    void touchUpdatedAt() {
+        updatedAt = LocalDateTime.now();
+    }
+}
@@ -1,4 +1,104 @@
 package com.example.salonmanagement.entity;
 
+import jakarta.persistence.*;
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.Objects;
+
+/**
+ * Entity class cho bảng product_usage: lượng sản phẩm đã dùng theo ngày, sản phẩm và dịch vụ
+ *
+ * FEATURE 32: Theo dõi sản phẩm tiêu hao
+ * - Mỗi lần flush cộng dồn vào dòng của ngày flush bằng INSERT ... ON DUPLICATE KEY UPDATE,
+ *   không có một dòng cho mỗi lần sử dụng
+ * - idService = NO_SERVICE với lượng dùng không gắn dịch vụ
+ */
+@Entity
+@Table(name = "product_usage", indexes = @Index(name = "idx_product_usage_product", columnList = "idProduct, usageDate"))
+@IdClass(ProductUsageEntity.Key.class)
 public class ProductUsageEntity {
+    
+    /** idService của lượng dùng không gắn dịch vụ */
+    public static final int NO_SERVICE = 0;
+    
+    @Id
+    @Column(name = "usageDate")
+    private LocalDate usageDate;
+    
+    @Id
+    @Column(name = "idProduct")
+    private Integer idProduct;
+    
+    @Id
+    @Column(name = "idService")
+    private Integer idService;
+    
+    @Column(name = "quantity", nullable = false)
+    private Long quantity;
+    
+    // Số lần ghi nhận sử dụng
+    @Column(name = "useCount", nullable = false)
+    private Integer useCount;
+    
+    // Constructor mặc định
+    public ProductUsageEntity() {}
+    
+    // Getters
+    public LocalDate getUsageDate() {
+        return usageDate;
+    }
+    
+    public Integer getIdProduct() {
+        return idProduct;
+    }
+    
+    public Integer getIdService() {
+        return idService;
+    }
+    
+    public Long getQuantity() {
+        return quantity;
+    }
+    
+    public Integer getUseCount() {
+        return useCount;
+    }
+    
+    /**
+     * Khóa chính ghép
+     */
+    public static class Key implements Serializable {
+        
+        private LocalDate usageDate;
+        
+        private Integer idProduct;
+        
+        private Integer idService;
+        
+        public Key() {}
+        
+        public Key(LocalDate usageDate, Integer idProduct, Integer idService) {
+            this.usageDate = usageDate;
+            this.idProduct = idProduct;
+            this.idService = idService;
+        }
+        
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key other)) {
+                return false;
+            }
+            return Objects.equals(usageDate, other.usageDate)
+                    && Objects.equals(idProduct, other.idProduct)
+                    && Objects.equals(idService, other.idService);
+        }
+        
+        @Override
+        public int hashCode() {
+            return Objects.hash(usageDate, idProduct, idService);
+        }
+    }
 }
@@ -0,0 +1,44 @@
+package com.example.salonmanagement.entity;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.Immutable;
+
+/**
+ * Entity class cho bảng promotion_catalog_version (một dòng duy nhất, chỉ ghi bằng SQL)
+ * 
+ * FEATURE 23: HTTP conditional GET
+ * - Phiên bản của cả tập khuyến mãi, dùng chung cho mọi node: mỗi transaction ghi khuyến mãi
+ *   (thêm, sửa, xóa, nhập hàng loạt, chuyển trạng thái) tăng version trong cùng transaction
+ * - lastModified (epoch millis) tăng ít nhất 1 giây mỗi lần ghi vì HTTP chỉ so sánh đến giây
+ */
+@Entity
+@Immutable
+@Table(name = "promotion_catalog_version")
+public class PromotionCatalogVersionEntity {
+    
+    @Id
+    @Column(name = "id")
+    private Integer id;
+    
+    @Column(name = "version", nullable = false)
+    private long version;
+    
+    @Column(name = "lastModified", nullable = false)
+    private long lastModified;
+    
+    // Constructor mặc định
+    public PromotionCatalogVersionEntity() {}
+    
+    // Getters
+    public Integer getId() {
+        return id;
+    }
+    
+    public long getVersion() {
+        return version;
+    }
+    
+    public long getLastModified() {
+        return lastModified;
+    }
+}
@@ -3,6 +3,7 @@ package com.example.salonmanagement.entity;
 import jakarta.persistence.*;
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 
 /**
  * Entity class cho bảng Promotion trong database
@@ -10,9 +11,29 @@ import java.time.LocalDate;
  * 
  * FEATURE 1: Lấy danh sách khuyến mãi
  * - Cấu trúc entity cơ bản để lưu trữ thông tin khuyến mãi
+ *
+ * FEATURE 14: Phân trang theo con trỏ (keyset)
+ * - Mỗi thứ tự sắp xếp có chỉ mục (cột sắp xếp, idPromotion), có hoặc không có status đứng đầu,
+ *   để truy vấn "sau con trỏ" là một lần seek trên chỉ mục, không quét bảng và filesort
+ * - Các chỉ mục này cũng phục vụ kiểm tra trùng tên khi nhập hàng loạt (name IN ...) và
+ *   các mốc MIN(startDate)/MIN(endDate) theo trạng thái của lịch chuyển trạng thái
+ *
+ * FEATURE 18: Nhập khuyến mãi hàng loạt
+ * - uk_promotion_name giữ tên duy nhất (không phân biệt hoa thường theo collation của MySQL)
+ *   cả khi hai lần nhập hoặc hai request thêm mới chạy đồng thời
  */
 @Entity
-@Table(name = "promotion")
+@Table(name = "promotion",
+       indexes = {
+               @Index(name = "idx_promotion_name", columnList = "name, idPromotion"),
+               @Index(name = "idx_promotion_start_date", columnList = "startDate, idPromotion"),
+               @Index(name = "idx_promotion_end_date", columnList = "endDate, idPromotion"),
+               @Index(name = "idx_promotion_status", columnList = "status, idPromotion"),
+               @Index(name = "idx_promotion_status_name", columnList = "status, name, idPromotion"),
+               @Index(name = "idx_promotion_status_start_date", columnList = "status, startDate, idPromotion"),
+               @Index(name = "idx_promotion_status_end_date", columnList = "status, endDate, idPromotion")
+       },
+       uniqueConstraints = @UniqueConstraint(name = "uk_promotion_name", columnNames = "name"))
 public class PromotionEntity {
     
     @Id
@@ -39,6 +60,14 @@ public class PromotionEntity {
     @Column(name = "status", nullable = false)
     private PromotionStatus status;
     
+    // FEATURE 23: Phiên bản tăng sau mỗi lần ghi (optimistic locking) và thời điểm sửa cuối
+    @Version
+    @Column(name = "version", nullable = false)
+    private long version;
+    
+    @Column(name = "updatedAt")
+    private LocalDateTime updatedAt;
+    
     // Constructor mặc định
     public PromotionEntity() {}
     
@@ -110,6 +139,21 @@ public class PromotionEntity {
         this.status = status;
     }
     
+    public long getVersion() {
+        return version;
+    }
+    
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+    
+    // FEATURE 23: Cập nhật thời điểm sửa cuối mỗi khi Hibernate ghi entity
+    @PrePersist
+    @PreUpdate
+    void touchUpdatedAt() {
+        updatedAt = LocalDateTime.now();
+    }
+    
     // Enum cho trạng thái khuyến mãi
     // FEATURE 1: Hỗ trợ lấy danh sách khuyến mãi theo trạng thái
     public enum PromotionStatus {
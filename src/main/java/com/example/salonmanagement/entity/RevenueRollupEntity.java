@@ -0,0 +1,140 @@
+package com.example.salonmanagement.entity;
+
+import jakarta.persistence.*;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Objects;
+
+/**
+ * Entity class cho bảng revenue_rollup: tổng doanh thu lũy kế theo ngày và theo chiều báo cáo
+ * Mỗi dòng là tổng của mọi bút toán trong một ngày cho một (chiều, ID): toàn salon,
+ * một nhân viên, một dịch vụ hoặc một khuyến mãi
+ *
+ * FEATURE 31: Tổng hợp doanh thu tăng dần
+ * - Được cộng dồn trong cùng transaction ghi bút toán (PaymentLedger), không quét lại bảng payment
+ * - Báo cáo tuần/tháng gộp các dòng ngày khi đọc: chi phí theo số ngày, không theo số bút toán
+ */
+@Entity
+@Table(name = "revenue_rollup",
+       indexes = @Index(name = "idx_revenue_rollup_dimension", columnList = "dimension, dimensionId, bucketDate"))
+@IdClass(RevenueRollupEntity.Key.class)
+public class RevenueRollupEntity {
+    
+    /** dimensionId của chiều TOTAL */
+    public static final int TOTAL_ID = 0;
+    
+    @Id
+    @Column(name = "bucketDate")
+    private LocalDate bucketDate;
+    
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(name = "dimension", length = 10)
+    private Dimension dimension;
+    
+    // ID nhân viên/dịch vụ/khuyến mãi; TOTAL_ID với chiều TOTAL
+    @Id
+    @Column(name = "dimensionId")
+    private Integer dimensionId;
+    
+    // Tổng tiền khách trả của các bút toán PAYMENT
+    @Column(name = "grossAmount", precision = 15, scale = 2, nullable = false)
+    private BigDecimal grossAmount;
+    
+    // Tổng tiền đã hoàn (số dương) của các bút toán REFUND
+    @Column(name = "refundAmount", precision = 15, scale = 2, nullable = false)
+    private BigDecimal refundAmount;
+    
+    // Tổng giảm giá đã áp dụng, trừ phần giảm giá của các thanh toán bị hoàn
+    @Column(name = "discountAmount", precision = 15, scale = 2, nullable = false)
+    private BigDecimal discountAmount;
+    
+    @Column(name = "paymentCount", nullable = false)
+    private Integer paymentCount;
+    
+    @Column(name = "refundCount", nullable = false)
+    private Integer refundCount;
+    
+    // Constructor mặc định
+    public RevenueRollupEntity() {}
+    
+    // Getters
+    public LocalDate getBucketDate() {
+        return bucketDate;
+    }
+    
+    public Dimension getDimension() {
+        return dimension;
+    }
+    
+    public Integer getDimensionId() {
+        return dimensionId;
+    }
+    
+    public BigDecimal getGrossAmount() {
+        return grossAmount;
+    }
+    
+    public BigDecimal getRefundAmount() {
+        return refundAmount;
+    }
+    
+    public BigDecimal getDiscountAmount() {
+        return discountAmount;
+    }
+    
+    public Integer getPaymentCount() {
+        return paymentCount;
+    }
+    
+    public Integer getRefundCount() {
+        return refundCount;
+    }
+    
+    // Enum chiều báo cáo
+    public enum Dimension {
+        TOTAL,
+        STAFF,
+        SERVICE,
+        PROMOTION
+    }
+    
+    /**
+     * Khóa chính ghép
+     */
+    public static class Key implements Serializable {
+        
+        private LocalDate bucketDate;
+        
+        private Dimension dimension;
+        
+        private Integer dimensionId;
+        
+        public Key() {}
+        
+        public Key(LocalDate bucketDate, Dimension dimension, Integer dimensionId) {
+            this.bucketDate = bucketDate;
+            this.dimension = dimension;
+            this.dimensionId = dimensionId;
+        }
+        
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key other)) {
+                return false;
+            }
+            return Objects.equals(bucketDate, other.bucketDate)
+                    && dimension == other.dimension
+                    && Objects.equals(dimensionId, other.dimensionId);
+        }
+        
+        @Override
+        public int hashCode() {
+            return Objects.hash(bucketDate, dimension, dimensionId);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.salonmanagement.entity;
+
+import jakarta.persistence.*;
+import java.time.Instant;
+
+/**
+ * Entity class cho bảng scheduler_lease
+ * Mỗi dòng là một "hợp đồng thuê" (lease) cho một tác vụ nền, đảm bảo khi chạy nhiều node
+ * thì tại một thời điểm chỉ một node thực hiện tác vụ đó
+ * 
+ * FEATURE 20: Vòng đời khuyến mãi tự động
+ */
+@Entity
+@Table(name = "scheduler_lease")
+public class SchedulerLeaseEntity {
+    
+    @Id
+    @Column(name = "name", length = 64)
+    private String name;
+    
+    @Column(name = "owner", length = 128)
+    private String owner;
+    
+    @Column(name = "leaseUntil", nullable = false)
+    private Instant leaseUntil;
+    
+    // Constructor mặc định
+    public SchedulerLeaseEntity() {}
+    
+    // Constructor với tham số
+    public SchedulerLeaseEntity(String name, String owner, Instant leaseUntil) {
+        this.name = name;
+        this.owner = owner;
+        this.leaseUntil = leaseUntil;
+    }
+    
+    // Getters và Setters
+    public String getName() {
+        return name;
+    }
+    
+    public void setName(String name) {
+        this.name = name;
+    }
+    
+    public String getOwner() {
+        return owner;
+    }
+    
+    public void setOwner(String owner) {
+        this.owner = owner;
+    }
+    
+    public Instant getLeaseUntil() {
+        return leaseUntil;
+    }
+    
+    public void setLeaseUntil(Instant leaseUntil) {
+        this.leaseUntil = leaseUntil;
+    }
+}
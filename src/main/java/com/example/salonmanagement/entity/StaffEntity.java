@@ -1,4 +1,141 @@
 package com.example.salonmanagement.entity;
 
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Entity class cho bảng staff (nhân viên)
+ *
+ * FEATURE 29: Chỉ mục lịch làm việc của nhân viên
+ * - Chuyên môn lưu thành danh sách mã viết hoa cách nhau bởi dấu phẩy (CUT,COLOR,...) để nạp
+ *   toàn bộ nhân viên vào chỉ mục bằng một truy vấn
+ * - idBranch cho salon nhiều chi nhánh
+ */
+@Entity
+@Table(name = "staff", indexes = @Index(name = "idx_staff_status", columnList = "status"))
 public class StaffEntity {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "idStaff")
+    private Integer idStaff;
+    
+    @Column(name = "fullName", length = 100, nullable = false)
+    private String fullName;
+    
+    @Column(name = "phone", length = 20)
+    private String phone;
+    
+    @Column(name = "position", length = 50)
+    private String position;
+    
+    @Column(name = "idBranch", nullable = false)
+    private Integer idBranch;
+    
+    @Column(name = "specialties", length = 255)
+    private String specialties;
+    
+    @Column(name = "salary", precision = 15, scale = 2)
+    private BigDecimal salary;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false)
+    private StaffStatus status;
+    
+    @Version
+    @Column(name = "version", nullable = false)
+    private long version;
+    
+    @Column(name = "updatedAt")
+    private LocalDateTime updatedAt;
+    
+    // Constructor mặc định
+    public StaffEntity() {}
+    
+    // Getters và Setters
+    public Integer getIdStaff() {
+        return idStaff;
+    }
+    
+    public void setIdStaff(Integer idStaff) {
+        this.idStaff = idStaff;
+    }
+    
+    public String getFullName() {
+        return fullName;
+    }
+    
+    public void setFullName(String fullName) {
+        this.fullName = fullName;
+    }
+    
+    public String getPhone() {
+        return phone;
+    }
+    
+    public void setPhone(String phone) {
+        this.phone = phone;
+    }
+    
+    public String getPosition() {
+        return position;
+    }
+    
+    public void setPosition(String position) {
+        this.position = position;
+    }
+    
+    public Integer getIdBranch() {
+        return idBranch;
+    }
+    
+    public void setIdBranch(Integer idBranch) {
+        this.idBranch = idBranch;
+    }
+    
+    public String getSpecialties() {
+        return specialties;
+    }
+    
+    public void setSpecialties(String specialties) {
+        this.specialties = specialties;
+    }
+    
+    public BigDecimal getSalary() {
+        return salary;
+    }
+    
+    public void setSalary(BigDecimal salary) {
+        this.salary = salary;
+    }
+    
+    public StaffStatus getStatus() {
+        return status;
+    }
+    
+    public void setStatus(StaffStatus status) {
+        this.status = status;
+    }
+    
+    public long getVersion() {
+        return version;
+    }
+    
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+    
+    @PrePersist
+    @PreUpdate
+    void touchUpdatedAt() {
+        updatedAt = LocalDateTime.now();
+    }
+    
+    // Enum cho trạng thái nhân viên
+    // Chỉ nhân viên ACTIVE có trong chỉ mục lịch làm việc
+    public enum StaffStatus {
+        ACTIVE,    // Đang làm việc
+        INACTIVE   // Đã nghỉ
+    }
 }
@@ -0,0 +1,81 @@
+package com.example.salonmanagement.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalTime;
+
+/**
+ * Entity class cho bảng staff_shift: ca làm lặp lại hằng tuần của nhân viên
+ * Một nhân viên có thể có nhiều ca trong cùng một ngày (ca sáng, ca chiều)
+ *
+ * FEATURE 29: Chỉ mục lịch làm việc của nhân viên
+ */
+@Entity
+@Table(name = "staff_shift", indexes = @Index(name = "idx_staff_shift_staff", columnList = "idStaff"))
+public class StaffShiftEntity {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "idShift")
+    private Integer idShift;
+    
+    @Column(name = "idStaff", nullable = false)
+    private Integer idStaff;
+    
+    // Thứ trong tuần theo ISO-8601: 1 = thứ Hai ... 7 = Chủ nhật
+    @Column(name = "dayOfWeek", nullable = false)
+    private Integer dayOfWeek;
+    
+    @Column(name = "startTime", nullable = false)
+    private LocalTime startTime;
+    
+    @Column(name = "endTime", nullable = false)
+    private LocalTime endTime;
+    
+    // Constructor mặc định
+    public StaffShiftEntity() {}
+    
+    // Constructor với tham số
+    public StaffShiftEntity(Integer idStaff, Integer dayOfWeek, LocalTime startTime, LocalTime endTime) {
+        this.idStaff = idStaff;
+        this.dayOfWeek = dayOfWeek;
+        this.startTime = startTime;
+        this.endTime = endTime;
+    }
+    
+    // Getters và Setters
+    public Integer getIdShift() {
+        return idShift;
+    }
+    
+    public Integer getIdStaff() {
+        return idStaff;
+    }
+    
+    public void setIdStaff(Integer idStaff) {
+        this.idStaff = idStaff;
+    }
+    
+    public Integer getDayOfWeek() {
+        return dayOfWeek;
+    }
+    
+    public void setDayOfWeek(Integer dayOfWeek) {
+        this.dayOfWeek = dayOfWeek;
+    }
+    
+    public LocalTime getStartTime() {
+        return startTime;
+    }
+    
+    public void setStartTime(LocalTime startTime) {
+        this.startTime = startTime;
+    }
+    
+    public LocalTime getEndTime() {
+        return endTime;
+    }
+    
+    public void setEndTime(LocalTime endTime) {
+        this.endTime = endTime;
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.salonmanagement.event;
+
+/**
+ * Sự kiện tồn kho sản phẩm xuống bằng hoặc dưới ngưỡng cảnh báo
+ * Chỉ phát một lần khi tồn kho vượt qua ngưỡng, phát lại sau khi nhập thêm hàng rồi lại xuống ngưỡng
+ *
+ * FEATURE 32: Theo dõi sản phẩm tiêu hao
+ */
+public class ProductLowStockEvent {
+    
+    private final Integer idProduct;
+    
+    private final String name;
+    
+    // Tồn kho trong database ngay sau lần flush lượng dùng
+    private final long stockQuantity;
+    
+    private final long lowStockThreshold;
+    
+    public ProductLowStockEvent(Integer idProduct, String name, long stockQuantity, long lowStockThreshold) {
+        this.idProduct = idProduct;
+        this.name = name;
+        this.stockQuantity = stockQuantity;
+        this.lowStockThreshold = lowStockThreshold;
+    }
+    
+    public Integer getIdProduct() {
+        return idProduct;
+    }
+    
+    public String getName() {
+        return name;
+    }
+    
+    public long getStockQuantity() {
+        return stockQuantity;
+    }
+    
+    public long getLowStockThreshold() {
+        return lowStockThreshold;
+    }
+}
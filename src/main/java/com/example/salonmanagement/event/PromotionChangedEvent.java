@@ -0,0 +1,55 @@
+package com.example.salonmanagement.event;
+
+import com.example.salonmanagement.dto.PromotionDTO;
+
+/**
+ * Sự kiện thay đổi khuyến mãi, được phát sau khi transaction ghi đã commit
+ * 
+ * FEATURE 20: Vòng đời khuyến mãi tự động
+ * - Bộ lập lịch vòng đời lắng nghe để tính lại mốc chuyển trạng thái tiếp theo
+ */
+public class PromotionChangedEvent {
+    
+    public enum Type {
+        CREATED,            // Thêm mới
+        UPDATED,            // Chỉnh sửa
+        DELETED,            // Xóa
+        IMPORTED,           // Nhập hàng loạt
+        STATUS_TRANSITION,  // Bộ lập lịch chuyển trạng thái hàng loạt
+        REMOTE              // Thay đổi do node khác ghi, phát hiện qua promotion_catalog_version
+    }
+    
+    private final Type type;
+    
+    // null với IMPORTED, STATUS_TRANSITION và REMOTE
+    private final Integer idPromotion;
+    
+    // null với DELETED, IMPORTED, STATUS_TRANSITION và REMOTE
+    private final PromotionDTO promotion;
+    
+    // Số khuyến mãi bị ảnh hưởng
+    private final int affectedCount;
+    
+    public PromotionChangedEvent(Type type, Integer idPromotion, PromotionDTO promotion, int affectedCount) {
+        this.type = type;
+        this.idPromotion = idPromotion;
+        this.promotion = promotion;
+        this.affectedCount = affectedCount;
+    }
+    
+    public Type getType() {
+        return type;
+    }
+    
+    public Integer getIdPromotion() {
+        return idPromotion;
+    }
+    
+    public PromotionDTO getPromotion() {
+        return promotion;
+    }
+    
+    public int getAffectedCount() {
+        return affectedCount;
+    }
+}
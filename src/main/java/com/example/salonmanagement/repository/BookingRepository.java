@@ -1,4 +1,64 @@
 package com.example.salonmanagement.repository;
 
-public class BookingRepository {
+import com.example.salonmanagement.entity.BookingEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repository interface cho BookingEntity
+ *
+ * FEATURE 27: Lịch đặt chỗ dạng bitmap
+ * - Nạp khung giờ đã đặt của cả ngày bằng một truy vấn để dựng bitmap
+ *
+ * FEATURE 28: Giữ chỗ và đặt lịch song song
+ * - claimSlots (BookingSlotClaims) ghi từng đơn vị 5 phút vào booking_slot cùng transaction
+ *   với lịch hẹn; khóa chính của booking_slot là ràng buộc chống trùng giờ cuối cùng
+ */
+@Repository
+public interface BookingRepository extends JpaRepository<BookingEntity, Integer>, BookingSlotClaims {
+    
+    /**
+     * Khoảng giờ đã đặt (chưa hủy) của mọi nhân viên trong ngày, chỉ lấy 3 cột
+     * FEATURE 27: Lịch đặt chỗ dạng bitmap
+     */
+    @Query("SELECT b.idStaff AS idStaff, b.startTime AS startTime, b.endTime AS endTime " +
+           "FROM BookingEntity b WHERE b.bookingDate = :date AND b.status <> 'CANCELLED'")
+    List<OccupiedSlot> findOccupiedSlots(@Param("date") LocalDate date);
+    
+    /**
+     * Trả các đơn vị giờ của lịch hẹn (khi hủy)
+     * FEATURE 28: Giữ chỗ và đặt lịch song song
+     */
+    @Modifying
+    @Query(value = "DELETE FROM booking_slot WHERE id_booking = :idBooking", nativeQuery = true)
+    int releaseSlots(@Param("idBooking") Integer idBooking);
+    
+    /**
+     * Tìm lịch hẹn theo mã
+     */
+    Optional<BookingEntity> findByCode(String code);
+    
+    /**
+     * Lịch hẹn trong ngày, theo nhân viên rồi giờ bắt đầu
+     */
+    List<BookingEntity> findByBookingDateOrderByIdStaffAscStartTimeAsc(LocalDate bookingDate);
+    
+    /**
+     * Projection khung giờ đã đặt
+     */
+    interface OccupiedSlot {
+        Integer getIdStaff();
+        
+        LocalTime getStartTime();
+        
+        LocalTime getEndTime();
+    }
 }
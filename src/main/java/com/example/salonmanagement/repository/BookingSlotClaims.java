@@ -0,0 +1,19 @@
+package com.example.salonmanagement.repository;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * Ghi các đơn vị 5 phút của lịch hẹn vào bảng booking_slot (một câu INSERT nhiều dòng)
+ *
+ * FEATURE 28: Giữ chỗ và đặt lịch song song
+ * - Đơn vị nào đã thuộc lịch hẹn khác thì vi phạm khóa chính và cả câu lệnh thất bại
+ *   (DataIntegrityViolationException), transaction rollback nên không có lịch hẹn trùng giờ
+ */
+public interface BookingSlotClaims {
+    
+    /**
+     * Chiếm các đơn vị [startTime, endTime) của nhân viên cho lịch hẹn idBooking
+     */
+    void claimSlots(Integer idBooking, Integer idStaff, LocalDate date, LocalTime startTime, LocalTime endTime);
+}
@@ -0,0 +1,37 @@
+package com.example.salonmanagement.repository;
+
+import com.example.salonmanagement.entity.BookingSlotEntity;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Cài đặt BookingSlotClaims bằng JDBC batch (rewriteBatchedStatements gộp thành một câu INSERT)
+ *
+ * FEATURE 28: Giữ chỗ và đặt lịch song song
+ */
+public class BookingSlotClaimsImpl implements BookingSlotClaims {
+    
+    private static final String INSERT_SQL =
+            "INSERT INTO booking_slot (id_staff, slot_date, slot_minute, id_booking) VALUES (?, ?, ?, ?)";
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Override
+    public void claimSlots(Integer idBooking, Integer idStaff, LocalDate date, LocalTime startTime, LocalTime endTime) {
+        int from = startTime.toSecondOfDay() / 60;
+        int to = endTime.toSecondOfDay() / 60;
+        Date slotDate = Date.valueOf(date);
+        List<Object[]> rows = new ArrayList<>();
+        for (int minute = from; minute < to; minute += BookingSlotEntity.UNIT_MINUTES) {
+            rows.add(new Object[]{idStaff, slotDate, minute, idBooking});
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+    }
+}
@@ -1,4 +1,58 @@
 package com.example.salonmanagement.repository;
 
-public class CustomerRepository {
+import com.example.salonmanagement.dto.CustomerDTO;
+import com.example.salonmanagement.entity.CustomerEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repository interface cho CustomerEntity
+ *
+ * FEATURE 33: Tích điểm thành viên
+ * FEATURE 34: Gợi ý khách hàng theo số điện thoại / họ tên
+ */
+@Repository
+public interface CustomerRepository extends JpaRepository<CustomerEntity, Integer> {
+    
+    /**
+     * Tìm khách hàng theo số điện thoại (đã chuẩn hóa, chỉ gồm chữ số)
+     */
+    Optional<CustomerEntity> findByPhone(String phone);
+    
+    /**
+     * Kiểm tra số điện thoại đã thuộc khách hàng khác chưa
+     */
+    boolean existsByPhoneAndIdCustomerNot(String phone, Integer idCustomer);
+    
+    /**
+     * Thông tin nhận diện của mọi khách hàng, nạp chỉ mục gợi ý khi khởi động
+     * FEATURE 34: Projection trực tiếp sang DTO, không nạp entity
+     */
+    @Query("SELECT new com.example.salonmanagement.dto.CustomerDTO(c.idCustomer, c.fullName, c.phone, c.email) " +
+           "FROM CustomerEntity c")
+    List<CustomerDTO> findAllForLookup();
+    
+    /**
+     * Thông tin nhận diện của khách hàng được tạo/sửa từ since (theo chỉ mục idx_customer_updated_at)
+     * FEATURE 34: Làm mới chỉ mục gợi ý với thay đổi của node khác
+     */
+    @Query("SELECT new com.example.salonmanagement.dto.CustomerDTO(c.idCustomer, c.fullName, c.phone, c.email) " +
+           "FROM CustomerEntity c WHERE c.updatedAt >= :since")
+    List<CustomerDTO> findForLookupUpdatedSince(@Param("since") LocalDateTime since);
+    
+    /**
+     * Gợi ý theo đầu số điện thoại khi chỉ mục chưa nạp xong
+     */
+    List<CustomerEntity> findTop50ByPhoneStartingWithOrderByPhoneAsc(String phone);
+    
+    /**
+     * Gợi ý theo họ tên khi chỉ mục chưa nạp xong (phân biệt dấu, không dùng được chỉ mục database)
+     */
+    List<CustomerEntity> findTop50ByFullNameContainingOrderByFullNameAsc(String fullName);
 }
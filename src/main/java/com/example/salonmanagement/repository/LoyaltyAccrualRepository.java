@@ -0,0 +1,30 @@
+package com.example.salonmanagement.repository;
+
+import com.example.salonmanagement.entity.LoyaltyAccrualEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Repository interface cho LoyaltyAccrualEntity
+ *
+ * FEATURE 33: Tích điểm thành viên
+ */
+@Repository
+public interface LoyaltyAccrualRepository extends JpaRepository<LoyaltyAccrualEntity, String> {
+    
+    /**
+     * Lịch sử điểm gần nhất của một khách hàng
+     */
+    List<LoyaltyAccrualEntity> findTop50ByIdCustomerOrderByAccruedAtDesc(Integer idCustomer);
+    
+    /**
+     * Tổng điểm đã ghi nhật ký nhưng chưa cộng vào customer.points
+     */
+    @Query("SELECT COALESCE(SUM(a.points), 0) FROM LoyaltyAccrualEntity a " +
+           "WHERE a.idCustomer = :idCustomer AND a.applied = false")
+    long sumPendingPoints(@Param("idCustomer") Integer idCustomer);
+}
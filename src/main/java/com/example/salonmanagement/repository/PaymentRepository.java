@@ -1,4 +1,34 @@
 package com.example.salonmanagement.repository;
 
-public class PaymentRepository {
+import com.example.salonmanagement.entity.PaymentEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repository interface cho PaymentEntity (chỉ đọc; ghi bằng JDBC batch trong PaymentLedger)
+ *
+ * FEATURE 30: Sổ cái thanh toán ghi theo lô
+ */
+@Repository
+public interface PaymentRepository extends JpaRepository<PaymentEntity, Long> {
+    
+    /**
+     * Tìm bút toán theo mã
+     */
+    Optional<PaymentEntity> findByCode(String code);
+    
+    /**
+     * Bút toán trong khoảng [from, to), theo thời điểm thanh toán
+     */
+    List<PaymentEntity> findByPaidAtGreaterThanEqualAndPaidAtLessThanOrderByPaidAtAsc(LocalDateTime from,
+                                                                                    LocalDateTime to);
+    
+    /**
+     * Bút toán của một lịch hẹn
+     */
+    List<PaymentEntity> findByIdBookingOrderByPaidAtAsc(Integer idBooking);
 }
@@ -0,0 +1,32 @@
+package com.example.salonmanagement.repository;
+
+import com.example.salonmanagement.entity.ProductEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Repository interface cho ProductEntity
+ *
+ * FEATURE 32: Theo dõi sản phẩm tiêu hao
+ */
+@Repository
+public interface ProductRepository extends JpaRepository<ProductEntity, Integer> {
+    
+    /**
+     * Sản phẩm theo tên
+     */
+    List<ProductEntity> findAllByOrderByNameAsc();
+    
+    /**
+     * Nhập thêm hàng (cộng tương đối, không ghi đè lượng tiêu hao đang được flush)
+     */
+    @Modifying
+    @Query(value = "UPDATE product SET stock_quantity = stock_quantity + :quantity, updated_at = CURRENT_TIMESTAMP " +
+            "WHERE id_product = :idProduct", nativeQuery = true)
+    int restock(@Param("idProduct") Integer idProduct, @Param("quantity") long quantity);
+}
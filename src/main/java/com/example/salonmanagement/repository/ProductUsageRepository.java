@@ -1,4 +1,28 @@
 package com.example.salonmanagement.repository;
 
-public class ProductUsageRepository {
+import com.example.salonmanagement.entity.ProductUsageEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Repository interface cho ProductUsageEntity (chỉ đọc; ghi bằng JDBC batch trong ProductUsageRecorder)
+ *
+ * FEATURE 32: Theo dõi sản phẩm tiêu hao
+ */
+@Repository
+public interface ProductUsageRepository extends JpaRepository<ProductUsageEntity, ProductUsageEntity.Key> {
+    
+    /**
+     * Lượng dùng của mọi sản phẩm trong khoảng [from, to]
+     */
+    List<ProductUsageEntity> findByUsageDateBetweenOrderByUsageDateAscIdProductAsc(LocalDate from, LocalDate to);
+    
+    /**
+     * Lượng dùng của một sản phẩm trong khoảng [from, to]
+     */
+    List<ProductUsageEntity> findByIdProductAndUsageDateBetweenOrderByUsageDateAsc(Integer idProduct,
+                                                                                   LocalDate from, LocalDate to);
 }
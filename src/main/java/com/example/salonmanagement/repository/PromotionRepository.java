@@ -1,15 +1,23 @@
 package com.example.salonmanagement.repository;
 
+import com.example.salonmanagement.dto.PromotionDTO;
 import com.example.salonmanagement.entity.PromotionEntity;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Repository interface cho PromotionEntity
@@ -117,4 +125,233 @@ public interface PromotionRepository extends JpaRepository<PromotionEntity, Inte
            "LOWER(p.name) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
            "LOWER(p.description) LIKE LOWER(CONCAT('%', :keyword, '%'))")
     Page<PromotionEntity> searchPromotionsWithPagination(@Param("keyword") String keyword, Pageable pageable);
+    
+    // ========================================
+    // FEATURE 14: Phân trang theo con trỏ (keyset)
+    // ========================================
+    
+    /**
+     * Trang tiếp theo sau idPromotion, sắp xếp theo idPromotion
+     * FEATURE 14: Phân trang theo con trỏ, trả về Slice nên không chạy COUNT(*)
+     * Các truy vấn con trỏ đều chọn thẳng vào PromotionDTO (FEATURE 16), không nạp entity
+     */
+    @Query(DTO_SELECT + " WHERE p.idPromotion > :afterId ORDER BY p.idPromotion")
+    Slice<PromotionDTO> findNextById(@Param("afterId") Integer afterId, Pageable pageable);
+    
+    /**
+     * Trang tiếp theo sau (name, idPromotion)
+     * FEATURE 14: Phân trang theo con trỏ
+     */
+    @Query(DTO_SELECT + " WHERE " +
+           "p.name > :name OR (p.name = :name AND p.idPromotion > :afterId) " +
+           "ORDER BY p.name, p.idPromotion")
+    Slice<PromotionDTO> findNextByName(@Param("name") String name, @Param("afterId") Integer afterId,
+                                          Pageable pageable);
+    
+    /**
+     * Trang tiếp theo sau (startDate, idPromotion)
+     * FEATURE 14: Phân trang theo con trỏ
+     */
+    @Query(DTO_SELECT + " WHERE " +
+           "p.startDate > :startDate OR (p.startDate = :startDate AND p.idPromotion > :afterId) " +
+           "ORDER BY p.startDate, p.idPromotion")
+    Slice<PromotionDTO> findNextByStartDate(@Param("startDate") LocalDate startDate,
+                                               @Param("afterId") Integer afterId, Pageable pageable);
+    
+    /**
+     * Trang tiếp theo sau (endDate, idPromotion)
+     * FEATURE 14: Phân trang theo con trỏ
+     */
+    @Query(DTO_SELECT + " WHERE " +
+           "p.endDate > :endDate OR (p.endDate = :endDate AND p.idPromotion > :afterId) " +
+           "ORDER BY p.endDate, p.idPromotion")
+    Slice<PromotionDTO> findNextByEndDate(@Param("endDate") LocalDate endDate,
+                                             @Param("afterId") Integer afterId, Pageable pageable);
+    
+    /**
+     * Trang tiếp theo theo trạng thái, sắp xếp theo idPromotion
+     * FEATURE 14: Phân trang theo con trỏ
+     */
+    @Query(DTO_SELECT + " WHERE p.status = :status AND p.idPromotion > :afterId " +
+           "ORDER BY p.idPromotion")
+    Slice<PromotionDTO> findNextByStatusAndId(@Param("status") PromotionEntity.PromotionStatus status,
+                                                 @Param("afterId") Integer afterId, Pageable pageable);
+    
+    /**
+     * Trang tiếp theo theo trạng thái, sau (name, idPromotion)
+     * FEATURE 14: Phân trang theo con trỏ
+     */
+    @Query(DTO_SELECT + " WHERE p.status = :status AND " +
+           "(p.name > :name OR (p.name = :name AND p.idPromotion > :afterId)) " +
+           "ORDER BY p.name, p.idPromotion")
+    Slice<PromotionDTO> findNextByStatusAndName(@Param("status") PromotionEntity.PromotionStatus status,
+                                                   @Param("name") String name,
+                                                   @Param("afterId") Integer afterId, Pageable pageable);
+    
+    /**
+     * Trang tiếp theo theo trạng thái, sau (startDate, idPromotion)
+     * FEATURE 14: Phân trang theo con trỏ
+     */
+    @Query(DTO_SELECT + " WHERE p.status = :status AND " +
+           "(p.startDate > :startDate OR (p.startDate = :startDate AND p.idPromotion > :afterId)) " +
+           "ORDER BY p.startDate, p.idPromotion")
+    Slice<PromotionDTO> findNextByStatusAndStartDate(@Param("status") PromotionEntity.PromotionStatus status,
+                                                        @Param("startDate") LocalDate startDate,
+                                                        @Param("afterId") Integer afterId, Pageable pageable);
+    
+    /**
+     * Trang tiếp theo theo trạng thái, sau (endDate, idPromotion)
+     * FEATURE 14: Phân trang theo con trỏ
+     */
+    @Query(DTO_SELECT + " WHERE p.status = :status AND " +
+           "(p.endDate > :endDate OR (p.endDate = :endDate AND p.idPromotion > :afterId)) " +
+           "ORDER BY p.endDate, p.idPromotion")
+    Slice<PromotionDTO> findNextByStatusAndEndDate(@Param("status") PromotionEntity.PromotionStatus status,
+                                                      @Param("endDate") LocalDate endDate,
+                                                      @Param("afterId") Integer afterId, Pageable pageable);
+    
+    // ========================================
+    // FEATURE 16: Projection trực tiếp sang DTO
+    // ========================================
+    
+    /**
+     * Constructor expression chọn thẳng vào PromotionDTO: kết quả không phải entity được quản lý
+     * nên Hibernate không giữ snapshot dirty-checking hay first-level cache cho chúng
+     * FEATURE 16: Projection trực tiếp sang DTO
+     */
+    String DTO_SELECT = "SELECT new com.example.salonmanagement.dto.PromotionDTO(" +
+            "p.idPromotion, p.name, p.discountPercent, p.startDate, p.endDate, p.description, p.status) " +
+            "FROM PromotionEntity p";
+    
+    /**
+     * Lấy tất cả khuyến mãi dạng DTO
+     * FEATURE 16: Projection trực tiếp sang DTO
+     */
+    @Query(DTO_SELECT)
+    List<PromotionDTO> findAllAsDTO();
+    
+    /**
+     * Lấy khuyến mãi theo trạng thái dạng DTO
+     * FEATURE 16: Projection trực tiếp sang DTO
+     */
+    @Query(DTO_SELECT + " WHERE p.status = :status")
+    List<PromotionDTO> findAsDTOByStatus(@Param("status") PromotionEntity.PromotionStatus status);
+    
+    /**
+     * Lấy khuyến mãi dạng DTO sắp xếp theo tên
+     * FEATURE 16: Projection trực tiếp sang DTO
+     */
+    @Query(DTO_SELECT + " ORDER BY p.name ASC")
+    List<PromotionDTO> findAllAsDTOOrderByName();
+    
+    /**
+     * Lấy khuyến mãi dạng DTO sắp xếp theo ngày bắt đầu
+     * FEATURE 16: Projection trực tiếp sang DTO
+     */
+    @Query(DTO_SELECT + " ORDER BY p.startDate ASC")
+    List<PromotionDTO> findAllAsDTOOrderByStartDate();
+    
+    /**
+     * Lấy khuyến mãi dạng DTO sắp xếp theo ngày kết thúc
+     * FEATURE 16: Projection trực tiếp sang DTO
+     */
+    @Query(DTO_SELECT + " ORDER BY p.endDate ASC")
+    List<PromotionDTO> findAllAsDTOOrderByEndDate();
+    
+    /**
+     * Lấy khuyến mãi dạng DTO với phân trang
+     * FEATURE 16: Projection trực tiếp sang DTO
+     */
+    @Query(value = DTO_SELECT, countQuery = "SELECT COUNT(p) FROM PromotionEntity p")
+    Page<PromotionDTO> findAllAsDTO(Pageable pageable);
+    
+    /**
+     * Lấy khuyến mãi dạng DTO theo trạng thái với phân trang
+     * FEATURE 16: Projection trực tiếp sang DTO
+     */
+    @Query(value = DTO_SELECT + " WHERE p.status = :status",
+           countQuery = "SELECT COUNT(p) FROM PromotionEntity p WHERE p.status = :status")
+    Page<PromotionDTO> findAsDTOByStatus(@Param("status") PromotionEntity.PromotionStatus status, Pageable pageable);
+    
+    // ========================================
+    // FEATURE 18: Nhập khuyến mãi hàng loạt
+    // ========================================
+    
+    /**
+     * Lấy các tên đã tồn tại trong một lô (một truy vấn cho cả lô thay vì existsByName từng dòng)
+     * FEATURE 18: Nhập khuyến mãi hàng loạt
+     */
+    @Query("SELECT p.name FROM PromotionEntity p WHERE p.name IN :names")
+    List<String> findExistingNames(@Param("names") Collection<String> names);
+    
+    /**
+     * Lấy các khuyến mãi vừa nhập theo tên dạng DTO
+     * FEATURE 18: Nhập khuyến mãi hàng loạt
+     */
+    @Query(DTO_SELECT + " WHERE p.name IN :names")
+    List<PromotionDTO> findAsDTOByNameIn(@Param("names") Collection<String> names);
+    
+    // ========================================
+    // FEATURE 19: Xuất khuyến mãi dạng luồng
+    // ========================================
+    
+    /** Số dòng mỗi lần đọc của streamAllAsDTO */
+    int STREAM_FETCH_SIZE = 1000;
+    
+    /**
+     * Đọc tất cả khuyến mãi dạng luồng chỉ-tiến (forward-only)
+     * Fetch size dương để mọi driver đều nhận (H2 từ chối Integer.MIN_VALUE); với MySQL, useCursorFetch=true
+     * trong URL biến fetch size thành cursor phía server, mỗi lần chỉ đọc STREAM_FETCH_SIZE dòng.
+     * Kết quả là DTO nên persistence context không lớn dần theo số dòng
+     * FEATURE 19: Xuất khuyến mãi dạng luồng
+     * - Phải được tiêu thụ trong transaction và đóng sau khi dùng
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + STREAM_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(DTO_SELECT + " ORDER BY p.idPromotion")
+    Stream<PromotionDTO> streamAllAsDTO();
+    
+    // ========================================
+    // FEATURE 20: Vòng đời khuyến mãi tự động
+    // ========================================
+    
+    /**
+     * UPCOMING -> ACTIVE cho các khuyến mãi đã tới ngày bắt đầu và chưa hết hạn
+     * FEATURE 20: Chuyển trạng thái hàng loạt bằng một câu UPDATE
+     */
+    @Modifying
+    @Query("UPDATE PromotionEntity p SET p.status = :active, " +
+           "p.version = p.version + 1, p.updatedAt = LOCAL DATETIME " +
+           "WHERE p.status = :upcoming AND p.startDate <= :today AND p.endDate >= :today")
+    int activateStartedPromotions(@Param("today") LocalDate today,
+                                  @Param("upcoming") PromotionEntity.PromotionStatus upcoming,
+                                  @Param("active") PromotionEntity.PromotionStatus active);
+    
+    /**
+     * UPCOMING/ACTIVE -> EXPIRED cho các khuyến mãi đã qua ngày kết thúc
+     * FEATURE 20: Chuyển trạng thái hàng loạt bằng một câu UPDATE
+     */
+    @Modifying
+    @Query("UPDATE PromotionEntity p SET p.status = :expired, " +
+           "p.version = p.version + 1, p.updatedAt = LOCAL DATETIME " +
+           "WHERE p.status IN :statuses AND p.endDate < :today")
+    int expireEndedPromotions(@Param("today") LocalDate today,
+                              @Param("statuses") Collection<PromotionEntity.PromotionStatus> statuses,
+                              @Param("expired") PromotionEntity.PromotionStatus expired);
+    
+    /**
+     * Ngày bắt đầu sớm nhất của các khuyến mãi đang chờ kích hoạt
+     * FEATURE 20: Mốc chuyển trạng thái tiếp theo
+     */
+    @Query("SELECT MIN(p.startDate) FROM PromotionEntity p WHERE p.status = :upcoming")
+    LocalDate findEarliestStartDate(@Param("upcoming") PromotionEntity.PromotionStatus upcoming);
+    
+    /**
+     * Ngày kết thúc sớm nhất của các khuyến mãi chưa hết hạn
+     * FEATURE 20: Mốc chuyển trạng thái tiếp theo
+     */
+    @Query("SELECT MIN(p.endDate) FROM PromotionEntity p WHERE p.status IN :statuses")
+    LocalDate findEarliestEndDate(@Param("statuses") Collection<PromotionEntity.PromotionStatus> statuses);
 }
\ No newline at end of file
@@ -0,0 +1,29 @@
+package com.example.salonmanagement.repository;
+
+import com.example.salonmanagement.entity.RevenueRollupEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Repository interface cho RevenueRollupEntity (chỉ đọc; ghi bằng JDBC batch trong RevenueRollups)
+ *
+ * FEATURE 31: Tổng hợp doanh thu tăng dần
+ */
+@Repository
+public interface RevenueRollupRepository extends JpaRepository<RevenueRollupEntity, RevenueRollupEntity.Key> {
+    
+    /**
+     * Dòng ngày của mọi ID trong một chiều, trong khoảng [from, to]
+     */
+    List<RevenueRollupEntity> findByDimensionAndBucketDateBetweenOrderByBucketDateAsc(
+            RevenueRollupEntity.Dimension dimension, LocalDate from, LocalDate to);
+    
+    /**
+     * Dòng ngày của một ID trong một chiều, trong khoảng [from, to]
+     */
+    List<RevenueRollupEntity> findByDimensionAndDimensionIdAndBucketDateBetweenOrderByBucketDateAsc(
+            RevenueRollupEntity.Dimension dimension, Integer dimensionId, LocalDate from, LocalDate to);
+}
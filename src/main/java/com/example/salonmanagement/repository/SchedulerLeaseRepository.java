@@ -0,0 +1,38 @@
+package com.example.salonmanagement.repository;
+
+import com.example.salonmanagement.entity.SchedulerLeaseEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+
+/**
+ * Repository interface cho SchedulerLeaseEntity
+ * 
+ * FEATURE 20: Vòng đời khuyến mãi tự động
+ * - Giành / trả lease bằng một câu UPDATE có điều kiện (nguyên tử trên database)
+ */
+@Repository
+public interface SchedulerLeaseRepository extends JpaRepository<SchedulerLeaseEntity, String> {
+    
+    /**
+     * Giành lease nếu đang trống, đã hết hạn hoặc đã thuộc về owner này
+     * @return 1 nếu giành được, 0 nếu node khác đang giữ
+     */
+    @Modifying
+    @Query("UPDATE SchedulerLeaseEntity l SET l.owner = :owner, l.leaseUntil = :until " +
+           "WHERE l.name = :name AND (l.owner IS NULL OR l.owner = :owner OR l.leaseUntil < :now)")
+    int tryAcquire(@Param("name") String name, @Param("owner") String owner,
+                   @Param("now") Instant now, @Param("until") Instant until);
+    
+    /**
+     * Trả lease sớm để node khác không phải chờ hết hạn
+     */
+    @Modifying
+    @Query("UPDATE SchedulerLeaseEntity l SET l.owner = NULL, l.leaseUntil = :now " +
+           "WHERE l.name = :name AND l.owner = :owner")
+    int release(@Param("name") String name, @Param("owner") String owner, @Param("now") Instant now);
+}
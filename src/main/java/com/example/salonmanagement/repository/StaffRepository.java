@@ -1,4 +1,26 @@
 package com.example.salonmanagement.repository;
 
-public class StaffRepository {
+import com.example.salonmanagement.entity.StaffEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Repository interface cho StaffEntity
+ *
+ * FEATURE 29: Chỉ mục lịch làm việc của nhân viên
+ */
+@Repository
+public interface StaffRepository extends JpaRepository<StaffEntity, Integer> {
+    
+    /**
+     * Lấy nhân viên theo trạng thái (nạp chỉ mục: chỉ nhân viên ACTIVE)
+     */
+    List<StaffEntity> findByStatus(StaffEntity.StaffStatus status);
+    
+    /**
+     * Lấy nhân viên của một chi nhánh, sắp xếp theo tên
+     */
+    List<StaffEntity> findByIdBranchOrderByFullNameAsc(Integer idBranch);
 }
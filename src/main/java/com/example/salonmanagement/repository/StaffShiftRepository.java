@@ -0,0 +1,37 @@
+package com.example.salonmanagement.repository;
+
+import com.example.salonmanagement.entity.StaffShiftEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repository interface cho StaffShiftEntity
+ *
+ * FEATURE 29: Chỉ mục lịch làm việc của nhân viên
+ */
+@Repository
+public interface StaffShiftRepository extends JpaRepository<StaffShiftEntity, Integer> {
+    
+    /**
+     * Ca làm của một nhân viên theo thứ rồi giờ bắt đầu
+     */
+    List<StaffShiftEntity> findByIdStaffOrderByDayOfWeekAscStartTimeAsc(Integer idStaff);
+    
+    /**
+     * Ca làm của nhiều nhân viên trong một truy vấn (danh sách nhân viên theo chi nhánh)
+     */
+    List<StaffShiftEntity> findByIdStaffIn(Collection<Integer> idStaffs);
+    
+    /**
+     * Xóa mọi ca làm của nhân viên (thay toàn bộ lịch làm việc)
+     */
+    @Modifying
+    @Query("DELETE FROM StaffShiftEntity s WHERE s.idStaff = :idStaff")
+    int deleteByIdStaff(@Param("idStaff") Integer idStaff);
+}
@@ -0,0 +1,311 @@
+package com.example.salonmanagement.service.impl;
+
+import com.example.salonmanagement.entity.BookingSlotEntity;
+import com.example.salonmanagement.repository.BookingRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Lịch đặt chỗ trong bộ nhớ: mỗi (nhân viên, ngày) là một bitmap các khung giờ đã đặt
+ *
+ * FEATURE 27: Lịch đặt chỗ dạng bitmap
+ * - Khung giờ dài app.booking.slot-minutes (5 hoặc 15 phút...), cả ngày chỉ vài word long
+ * - Ngày được nạp từ database ở lần dùng đầu tiên (một truy vấn cho mọi nhân viên),
+ *   các ngày đã qua được bỏ khỏi bộ nhớ mỗi đêm
+ * - Giữ chỗ là compare-and-set trên bitmap bất biến (copy-on-write): hai quầy lễ tân
+ *   giành cùng khung giờ thì chỉ một CAS thành công, không cần khóa
+ * - Người đọc lấy bitmap hiện tại không khóa
+ */
+@Component
+public class BookingCalendar {
+
+    private static final int MINUTES_PER_DAY = 24 * 60;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Value("${app.booking.slot-minutes:15}")
+    private int slotMinutes;
+
+    @Value("${app.booking.opening-time:08:00}")
+    private LocalTime openingTime;
+
+    @Value("${app.booking.closing-time:21:00}")
+    private LocalTime closingTime;
+
+    private int slotsPerDay;
+    private long[] openSlots;
+    private long[] closedSlots;
+    private long[] emptySlots;
+    private LocalTime[] slotTimes;
+
+    private final Map<Long, Day> days = new ConcurrentHashMap<>();
+
+    /**
+     * Kiểm tra cấu hình và dựng sẵn bitmap giờ mở cửa
+     */
+    @PostConstruct
+    void init() {
+        // Khung giờ phải gồm trọn các đơn vị của booking_slot (FEATURE 28)
+        if (slotMinutes < BookingSlotEntity.UNIT_MINUTES || slotMinutes % BookingSlotEntity.UNIT_MINUTES != 0
+                || MINUTES_PER_DAY % slotMinutes != 0) {
+            throw new IllegalArgumentException("app.booking.slot-minutes phải là bội số của "
+                    + BookingSlotEntity.UNIT_MINUTES + " và chia hết cho 1440");
+        }
+        if (!openingTime.isBefore(closingTime)) {
+            throw new IllegalArgumentException("app.booking.opening-time phải trước app.booking.closing-time");
+        }
+        slotsPerDay = MINUTES_PER_DAY / slotMinutes;
+        int open = slotFloor(openingTime);
+        openSlots = SlotBitmap.range(slotsPerDay, open, slotCeil(closingTime) - open);
+        closedSlots = new long[openSlots.length];
+        for (int i = 0; i < openSlots.length; i++) {
+            closedSlots[i] = ~openSlots[i];
+        }
+        emptySlots = new long[SlotBitmap.words(slotsPerDay)];
+        slotTimes = new LocalTime[slotsPerDay];
+        for (int slot = 0; slot < slotsPerDay; slot++) {
+            slotTimes[slot] = LocalTime.ofSecondOfDay((long) slot * slotMinutes * 60);
+        }
+    }
+
+    /**
+     * Cấu hình trực tiếp, dùng khi chạy ngoài Spring (benchmark, kiểm thử)
+     */
+    void configure(int slotMinutes, LocalTime openingTime, LocalTime closingTime) {
+        this.slotMinutes = slotMinutes;
+        this.openingTime = openingTime;
+        this.closingTime = closingTime;
+        init();
+    }
+
+    public int getSlotMinutes() {
+        return slotMinutes;
+    }
+
+    public int getSlotsPerDay() {
+        return slotsPerDay;
+    }
+
+    /**
+     * Khung giờ chứa thời điểm time
+     */
+    public int slotFloor(LocalTime time) {
+        return time.toSecondOfDay() / 60 / slotMinutes;
+    }
+
+    /**
+     * Khung giờ đầu tiên bắt đầu từ time trở đi (dùng cho giờ kết thúc)
+     * LocalTime.MIDNIGHT được hiểu là hết ngày
+     */
+    public int slotCeil(LocalTime time) {
+        if (time.equals(LocalTime.MIDNIGHT)) {
+            return slotsPerDay;
+        }
+        return (time.toSecondOfDay() + slotMinutes * 60 - 1) / 60 / slotMinutes;
+    }
+
+    /**
+     * Số khung giờ cần cho dịch vụ dài durationMinutes phút (làm tròn lên)
+     */
+    public int slotsFor(int durationMinutes) {
+        return (durationMinutes + slotMinutes - 1) / slotMinutes;
+    }
+
+    /**
+     * Giờ bắt đầu của khung giờ slot (slot == số khung giờ trong ngày là nửa đêm)
+     */
+    public LocalTime timeOf(int slot) {
+        return slot >= slotsPerDay ? LocalTime.MIDNIGHT : slotTimes[slot];
+    }
+
+    /**
+     * Khung giờ [from, from + count) có nằm trọn trong giờ mở cửa hay không
+     */
+    public boolean isWithinOpeningHours(int from, int count) {
+        if (from < 0 || count <= 0 || from + count > slotsPerDay) {
+            return false;
+        }
+        return !SlotBitmap.anySet(closedSlots, from, count);
+    }
+
+    /**
+     * Giữ khung giờ [from, from + count) của nhân viên bằng CAS
+     * FEATURE 27: Lịch đặt chỗ dạng bitmap
+     *
+     * @return false nếu có khung giờ trong khoảng đã được đặt
+     */
+    public boolean tryReserve(int idStaff, LocalDate date, int from, int count) {
+        AtomicReference<long[]> slots = day(date).slots(idStaff, emptySlots);
+        while (true) {
+            long[] current = slots.get();
+            if (SlotBitmap.anySet(current, from, count)) {
+                return false;
+            }
+            long[] next = current.clone();
+            SlotBitmap.set(next, from, count);
+            if (slots.compareAndSet(current, next)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Khung giờ [from, from + count) của nhân viên chưa có lịch hẹn hay giữ chỗ (đọc không khóa)
+     * FEATURE 29: Chỉ mục lịch làm việc của nhân viên
+     */
+    public boolean isFree(int idStaff, LocalDate date, int from, int count) {
+        return !SlotBitmap.anySet(day(date).snapshot(idStaff, emptySlots), from, count);
+    }
+
+    /**
+     * Trả khung giờ (hủy lịch hẹn hoặc transaction ghi bị rollback)
+     * FEATURE 27: Lịch đặt chỗ dạng bitmap
+     */
+    public void release(int idStaff, LocalDate date, int from, int count) {
+        // Ngày chưa nạp sẽ đọc trạng thái mới từ database, không có gì để trả
+        Day day = days.get(date.toEpochDay());
+        if (day == null || !day.loaded) {
+            return;
+        }
+        AtomicReference<long[]> slots = day.slots(idStaff, emptySlots);
+        while (true) {
+            long[] current = slots.get();
+            long[] next = current.clone();
+            SlotBitmap.clear(next, from, count);
+            if (slots.compareAndSet(current, next)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Nạp lại bitmap của một nhân viên trong ngày từ database (khi phát hiện lịch hẹn do node khác ghi)
+     * Bitmap mới là lịch hẹn trong database cộng với held (các giữ chỗ còn sống của nhân viên trong ngày),
+     * nên giữ chỗ của khách khác đang chờ xác nhận không bị mất; nhân viên khác trong ngày không bị động đến
+     * Người gọi phải giữ khóa của (idStaff, date) trong BookingReservations
+     * FEATURE 28: Giữ chỗ và đặt lịch song song
+     *
+     * @return bitmap các khung giờ có lịch hẹn trong database
+     */
+    public long[] reload(int idStaff, LocalDate date, long[] held) {
+        Day day = day(date);
+        long[] booked = emptySlots.clone();
+        for (BookingRepository.OccupiedSlot occupied : bookingRepository.findOccupiedSlots(date)) {
+            if (occupied.getIdStaff() != idStaff) {
+                continue;
+            }
+            int from = slotFloor(occupied.getStartTime());
+            int to = slotCeil(occupied.getEndTime());
+            if (to > from) {
+                SlotBitmap.set(booked, from, to - from);
+            }
+        }
+        long[] next = booked.clone();
+        for (int i = 0; i < next.length; i++) {
+            next[i] |= held[i];
+        }
+        day.slots(idStaff, emptySlots).set(next);
+        return booked;
+    }
+
+    /**
+     * Các giờ bắt đầu mà nhân viên còn trống đủ slotCount khung giờ liên tiếp, trong giờ mở cửa,
+     * không sớm hơn khung giờ notBefore
+     * FEATURE 27: Lịch đặt chỗ dạng bitmap
+     */
+    public void findFreeStarts(int idStaff, LocalDate date, int slotCount, int notBefore, List<LocalTime> sink) {
+        findFreeStarts(idStaff, date, slotCount, notBefore, null, sink);
+    }
+
+    /**
+     * Như trên nhưng chỉ trong các khung giờ của workingSlots (ca làm của nhân viên, null = cả giờ mở cửa)
+     * FEATURE 29: Chỉ mục lịch làm việc của nhân viên
+     */
+    public void findFreeStarts(int idStaff, LocalDate date, int slotCount, int notBefore, long[] workingSlots,
+                               List<LocalTime> sink) {
+        long[] free = SlotBitmap.free(openSlots, day(date).snapshot(idStaff, emptySlots));
+        if (workingSlots != null) {
+            for (int i = 0; i < free.length; i++) {
+                free[i] &= workingSlots[i];
+            }
+        }
+        if (notBefore > 0) {
+            SlotBitmap.clear(free, 0, Math.min(notBefore, slotsPerDay));
+        }
+        long[] starts = SlotBitmap.runStarts(free, slotCount);
+        for (int slot = SlotBitmap.nextSetBit(starts, 0); slot >= 0; slot = SlotBitmap.nextSetBit(starts, slot + 1)) {
+            sink.add(slotTimes[slot]);
+        }
+    }
+
+    /**
+     * Nạp trước các ngày (một truy vấn mỗi ngày chưa có trong bộ nhớ)
+     */
+    public void preload(Collection<LocalDate> dates) {
+        for (LocalDate date : dates) {
+            day(date);
+        }
+    }
+
+    /**
+     * Bỏ các ngày đã qua khỏi bộ nhớ, chạy lúc 00:05 mỗi ngày
+     */
+    @Scheduled(cron = "0 5 0 * * *")
+    public void evictPastDays() {
+        long today = LocalDate.now().toEpochDay();
+        days.keySet().removeIf(day -> day < today);
+    }
+
+    /**
+     * Đánh dấu ngày đã nạp mà không đọc database (dùng ngoài Spring)
+     */
+    void markLoaded(LocalDate date) {
+        days.computeIfAbsent(date.toEpochDay(), key -> new Day()).loaded = true;
+    }
+
+    private Day day(LocalDate date) {
+        Day day = days.computeIfAbsent(date.toEpochDay(), key -> new Day());
+        if (!day.loaded) {
+            synchronized (day) {
+                if (!day.loaded) {
+                    for (BookingRepository.OccupiedSlot occupied : bookingRepository.findOccupiedSlots(date)) {
+                        int from = slotFloor(occupied.getStartTime());
+                        int to = slotCeil(occupied.getEndTime());
+                        if (to > from) {
+                            long[] slots = day.slots(occupied.getIdStaff(), emptySlots).get();
+                            SlotBitmap.set(slots, from, to - from);
+                        }
+                    }
+                    day.loaded = true;
+                }
+            }
+        }
+        return day;
+    }
+
+    private static final class Day {
+        final Map<Integer, AtomicReference<long[]>> staff = new ConcurrentHashMap<>();
+        volatile boolean loaded;
+
+        AtomicReference<long[]> slots(int idStaff, long[] empty) {
+            return staff.computeIfAbsent(idStaff, key -> new AtomicReference<>(empty.clone()));
+        }
+
+        long[] snapshot(int idStaff, long[] empty) {
+            AtomicReference<long[]> slots = staff.get(idStaff);
+            return slots == null ? empty : slots.get();
+        }
+    }
+}
@@ -0,0 +1,303 @@
+package com.example.salonmanagement.service.impl;
+
+import com.example.salonmanagement.dto.BookingDTO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Giữ chỗ trong bộ nhớ trong lúc khách xác nhận
+ *
+ * FEATURE 28: Giữ chỗ và đặt lịch song song
+ * - Mỗi (nhân viên, ngày) thuộc một trong nhiều khóa (lock striping): các thao tác giữ/xác nhận/
+ *   trả/hết hạn của cùng một nhân viên trong cùng ngày chạy tuần tự, còn nhân viên hoặc ngày
+ *   khác nhau gần như không bao giờ tranh cùng khóa
+ * - Giữ chỗ = đặt bit trên BookingCalendar nên giờ đang giữ không hiện ở tìm giờ trống;
+ *   quá app.booking.hold-ttl mà chưa xác nhận thì bit được trả lại
+ * - Xác nhận chuyển hold sang CLAIMED dưới khóa, sau đó việc ghi database chạy ngoài khóa;
+ *   transaction kết thúc thì complete() xóa hold (commit) hoặc trả khung giờ (rollback)
+ * - Database từ chối khung giờ (node khác đã đặt): khi trả, bitmap của nhân viên trong ngày được
+ *   nạp lại từ database cộng các hold còn sống, không bỏ cả ngày và không làm mất giữ chỗ khác
+ */
+@Component
+public class BookingReservations {
+
+    @Autowired
+    private BookingCalendar bookingCalendar;
+
+    @Value("${app.booking.hold-ttl:PT5M}")
+    private Duration holdTtl;
+
+    private final ReentrantLock[] stripes = newStripes(Runtime.getRuntime().availableProcessors() * 16);
+
+    private final Map<String, Hold> holds = new ConcurrentHashMap<>();
+
+    /**
+     * Cấu hình trực tiếp, dùng khi chạy ngoài Spring (benchmark, kiểm thử)
+     */
+    void configure(BookingCalendar bookingCalendar, Duration holdTtl) {
+        this.bookingCalendar = bookingCalendar;
+        this.holdTtl = holdTtl;
+    }
+
+    /**
+     * Giữ khung giờ [from, from + count) của nhân viên
+     *
+     * @return null nếu có khung giờ trong khoảng đã được đặt hoặc đang giữ
+     */
+    public Hold hold(int idStaff, LocalDate date, int from, int count, BookingDTO request) {
+        // Nạp ngày (truy vấn database) trước khi lấy khóa
+        bookingCalendar.preload(List.of(date));
+        ReentrantLock lock = stripe(idStaff, date);
+        lock.lock();
+        try {
+            if (!bookingCalendar.tryReserve(idStaff, date, from, count)) {
+                return null;
+            }
+            Hold hold = new Hold(newToken(), idStaff, date, from, count,
+                    System.currentTimeMillis() + holdTtl.toMillis(), request);
+            holds.put(hold.token, hold);
+            return hold;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Nhận hold để ghi lịch hẹn; mỗi hold chỉ nhận được một lần
+     *
+     * @return null nếu token không tồn tại, đã hết hạn hoặc đang được xác nhận
+     */
+    public Hold claim(String token) {
+        Hold hold = holds.get(token);
+        if (hold == null) {
+            return null;
+        }
+        ReentrantLock lock = stripe(hold.idStaff, hold.date);
+        lock.lock();
+        try {
+            if (hold.state != State.HELD) {
+                return null;
+            }
+            if (hold.isExpired(System.currentTimeMillis())) {
+                expire(hold);
+                return null;
+            }
+            hold.state = State.CLAIMED;
+            return hold;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Kết thúc hold đã nhận: commit thì khung giờ thuộc lịch hẹn, rollback thì trả khung giờ
+     */
+    public void complete(Hold hold, boolean committed) {
+        ReentrantLock lock = stripe(hold.idStaff, hold.date);
+        lock.lock();
+        try {
+            if (hold.state != State.CLAIMED) {
+                return;
+            }
+            hold.state = State.DONE;
+            holds.remove(hold.token);
+            if (!committed) {
+                release(hold);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Khách bỏ giữ chỗ
+     *
+     * @return false nếu token không tồn tại hoặc hold đã được xác nhận
+     */
+    public boolean cancel(String token) {
+        Hold hold = holds.get(token);
+        if (hold == null) {
+            return false;
+        }
+        ReentrantLock lock = stripe(hold.idStaff, hold.date);
+        lock.lock();
+        try {
+            if (hold.state != State.HELD) {
+                return false;
+            }
+            expire(hold);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Trả khung giờ của các hold quá hạn, chạy mỗi 10 giây
+     *
+     * @return số hold đã hết hạn
+     */
+    @Scheduled(fixedDelay = 10_000)
+    public int expireHolds() {
+        long now = System.currentTimeMillis();
+        int expired = 0;
+        for (Hold hold : holds.values()) {
+            if (!hold.isExpired(now)) {
+                continue;
+            }
+            ReentrantLock lock = stripe(hold.idStaff, hold.date);
+            lock.lock();
+            try {
+                if (hold.state == State.HELD) {
+                    expire(hold);
+                    expired++;
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+        return expired;
+    }
+
+    /**
+     * Số hold đang giữ hoặc đang xác nhận
+     */
+    public int activeHolds() {
+        return holds.size();
+    }
+
+    // Gọi khi đang giữ khóa của hold
+    private void expire(Hold hold) {
+        hold.state = State.DONE;
+        holds.remove(hold.token);
+        release(hold);
+    }
+
+    // Gọi khi đang giữ khóa của hold, sau khi hold đã bị bỏ khỏi holds
+    private void release(Hold hold) {
+        if (!hold.stale) {
+            bookingCalendar.release(hold.idStaff, hold.date, hold.from, hold.count);
+            return;
+        }
+        // Database có lịch hẹn bitmap chưa biết (do node khác ghi): xóa bit của hold có thể xóa luôn
+        // bit của lịch hẹn đó, nên nạp lại nhân viên trong ngày từ database cộng các hold còn sống
+        List<Hold> live = new ArrayList<>();
+        long[] held = new long[SlotBitmap.words(bookingCalendar.getSlotsPerDay())];
+        for (Hold other : holds.values()) {
+            // Hold cùng (nhân viên, ngày) chỉ được thêm/bỏ dưới khóa đang giữ
+            if (other.idStaff == hold.idStaff && other.date.equals(hold.date)) {
+                live.add(other);
+                SlotBitmap.set(held, other.from, other.count);
+            }
+        }
+        long[] booked = bookingCalendar.reload(hold.idStaff, hold.date, held);
+        for (Hold other : live) {
+            // Hold được cấp trên bitmap cũ và trùng lịch hẹn vừa thấy: khi trả cũng phải nạp lại
+            if (SlotBitmap.anySet(booked, other.from, other.count)) {
+                other.markStale();
+            }
+        }
+    }
+
+    private ReentrantLock stripe(int idStaff, LocalDate date) {
+        long key = ((long) idStaff << 32) ^ date.toEpochDay();
+        int hash = Long.hashCode(key * 0x9E3779B97F4A7C15L);
+        return stripes[(hash ^ (hash >>> 16)) & (stripes.length - 1)];
+    }
+
+    // Token 128 bit ngẫu nhiên; ThreadLocalRandom để các luồng không tranh nhau một bộ sinh số
+    private static String newToken() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return Long.toHexString(random.nextLong() | Long.MIN_VALUE) + Long.toHexString(random.nextLong() | Long.MIN_VALUE);
+    }
+
+    private static ReentrantLock[] newStripes(int minimum) {
+        int size = Integer.highestOneBit(Math.max(64, minimum) - 1) << 1;
+        ReentrantLock[] locks = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            locks[i] = new ReentrantLock();
+        }
+        return locks;
+    }
+
+    private enum State {
+        HELD,     // Đang giữ chờ xác nhận
+        CLAIMED,  // Đang ghi lịch hẹn
+        DONE      // Đã xong (commit, rollback, hủy hoặc hết hạn)
+    }
+
+    /**
+     * Một khung giờ đang giữ; state chỉ đổi khi giữ khóa của (idStaff, date)
+     */
+    public static final class Hold {
+        private final String token;
+        private final int idStaff;
+        private final LocalDate date;
+        private final int from;
+        private final int count;
+        private final long expiresAtMillis;
+        private final BookingDTO request;
+        private State state = State.HELD;
+        private volatile boolean stale;
+
+        Hold(String token, int idStaff, LocalDate date, int from, int count, long expiresAtMillis, BookingDTO request) {
+            this.token = token;
+            this.idStaff = idStaff;
+            this.date = date;
+            this.from = from;
+            this.count = count;
+            this.expiresAtMillis = expiresAtMillis;
+            this.request = request;
+        }
+
+        public String getToken() {
+            return token;
+        }
+
+        public int getIdStaff() {
+            return idStaff;
+        }
+
+        public LocalDate getDate() {
+            return date;
+        }
+
+        public int getFrom() {
+            return from;
+        }
+
+        public int getCount() {
+            return count;
+        }
+
+        public long getExpiresAtMillis() {
+            return expiresAtMillis;
+        }
+
+        public BookingDTO getRequest() {
+            return request;
+        }
+
+        /**
+         * Đánh dấu database đã từ chối khung giờ: khi trả sẽ nạp lại nhân viên trong ngày thay vì chỉ trả bit
+         */
+        public void markStale() {
+            stale = true;
+        }
+
+        boolean isExpired(long now) {
+            return now >= expiresAtMillis;
+        }
+    }
+}
@@ -1,4 +1,332 @@
 package com.example.salonmanagement.service.impl;
 
+import com.example.salonmanagement.dto.BookingAvailabilityDTO;
+import com.example.salonmanagement.dto.BookingDTO;
+import com.example.salonmanagement.dto.BookingHoldDTO;
+import com.example.salonmanagement.entity.BookingEntity;
+import com.example.salonmanagement.repository.BookingRepository;
+import com.example.salonmanagement.util.CodeGenerator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * Service class cho Booking
+ * Cung cấp các phương thức xử lý business logic cho lịch hẹn
+ *
+ * FEATURE 27: Lịch đặt chỗ dạng bitmap
+ * - Tìm giờ trống của nhiều nhân viên trong nhiều ngày chỉ bằng phép toán bit trên BookingCalendar
+ * - Tạo lịch hẹn: giữ khung giờ bằng CAS trong bộ nhớ, kiểm tra lại trên database rồi mới ghi;
+ *   transaction rollback thì khung giờ được trả lại
+ *
+ * FEATURE 28: Giữ chỗ và đặt lịch song song
+ * - Khách giữ khung giờ (BookingReservations, khóa theo từng nhân viên - ngày) rồi xác nhận trong
+ *   app.booking.hold-ttl; tạo lịch hẹn trực tiếp là giữ chỗ và xác nhận ngay
+ * - Ghi lịch hẹn kèm các dòng booking_slot trong cùng transaction: trùng khóa chính nghĩa là
+ *   node khác đã đặt khung giờ đó, transaction rollback và trả 409
+ *
+ * FEATURE 29: Chỉ mục lịch làm việc của nhân viên
+ * - Giờ trống và lịch hẹn mới chỉ nằm trong ca làm của nhân viên đang ACTIVE (StaffScheduleIndex)
+ */
+@Service
+@Transactional
 public class BookingService {
+    
+    // Số ngày tối đa của một lần tìm giờ trống
+    public static final int MAX_AVAILABILITY_DAYS = 14;
+    
+    @Autowired
+    private BookingRepository bookingRepository;
+    
+    @Autowired
+    private BookingCalendar bookingCalendar;
+    
+    @Autowired
+    private BookingReservations bookingReservations;
+    
+    @Autowired
+    private StaffScheduleIndex staffScheduleIndex;
+    
+    @Autowired
+    private CodeGenerator codeGenerator;
+    
+    // Chỉ nhận đặt lịch trong khoảng này tính từ hôm nay
+    @Value("${app.booking.horizon:P60D}")
+    private Duration horizon;
+    
+    /**
+     * Lấy lịch hẹn theo ID
+     * FEATURE 27: Lịch đặt chỗ dạng bitmap
+     */
+    @Transactional(readOnly = true)
+    public Optional<BookingDTO> getBookingById(Integer id) {
+        return bookingRepository.findById(id).map(this::convertToDTO);
+    }
+    
+    /**
+     * Lấy lịch hẹn theo mã (không phân biệt hoa thường)
+     * FEATURE 27: Lịch đặt chỗ dạng bitmap
+     */
+    @Transactional(readOnly = true)
+    public Optional<BookingDTO> getBookingByCode(String code) {
+        return bookingRepository.findByCode(code.trim().toUpperCase()).map(this::convertToDTO);
+    }
+    
+    /**
+     * Lấy lịch hẹn trong ngày
+     * FEATURE 27: Lịch đặt chỗ dạng bitmap
+     */
+    @Transactional(readOnly = true)
+    public List<BookingDTO> getBookingsByDate(LocalDate date) {
+        return bookingRepository.findByBookingDateOrderByIdStaffAscStartTimeAsc(date).stream()
+                .map(this::convertToDTO)
+                .collect(Collectors.toList());
+    }
+    
+    /**
+     * Tìm giờ bắt đầu còn trống cho dịch vụ dài durationMinutes phút,
+     * với mỗi nhân viên trong staffIds và mỗi ngày từ fromDate trong days ngày
+     * Ngày hôm nay chỉ trả về các giờ chưa qua
+     * FEATURE 27: Lịch đặt chỗ dạng bitmap
+     *
+     * FEATURE 29: Chỉ mục lịch làm việc của nhân viên
+     * - staffIds rỗng thì lấy nhân viên theo chuyên môn/chi nhánh từ StaffScheduleIndex
+     * - Chỉ các giờ nằm trong ca làm của nhân viên; nhân viên không ACTIVE không có giờ trống
+     */
+    @Transactional(readOnly = true)
+    public List<BookingAvailabilityDTO> findAvailability(Collection<Integer> staffIds, String specialty, Integer idBranch,
+                                                         LocalDate fromDate, int days, int durationMinutes) {
+        if (days < 1 || days > MAX_AVAILABILITY_DAYS) {
+            throw new IllegalArgumentException("Số ngày phải từ 1 đến " + MAX_AVAILABILITY_DAYS);
+        }
+        if (durationMinutes < 1) {
+            throw new IllegalArgumentException("Thời lượng dịch vụ phải lớn hơn 0");
+        }
+        Collection<Integer> candidates = staffIds == null || staffIds.isEmpty()
+                ? staffScheduleIndex.findStaffIds(specialty, idBranch)
+                : staffIds;
+        int slotCount = bookingCalendar.slotsFor(durationMinutes);
+        LocalDateTime now = LocalDateTime.now();
+        LocalDate today = now.toLocalDate();
+        
+        List<BookingAvailabilityDTO> result = new ArrayList<>();
+        for (int d = 0; d < days; d++) {
+            LocalDate date = fromDate.plusDays(d);
+            if (date.isBefore(today)) {
+                continue;
+            }
+            int notBefore = date.equals(today) ? bookingCalendar.slotCeil(now.toLocalTime()) : 0;
+            for (Integer idStaff : candidates) {
+                long[] working = staffScheduleIndex.workingSlots(idStaff, date);
+                if (working == null) {
+                    continue;
+                }
+                List<LocalTime> starts = new ArrayList<>();
+                bookingCalendar.findFreeStarts(idStaff, date, slotCount, notBefore, working, starts);
+                if (!starts.isEmpty()) {
+                    result.add(new BookingAvailabilityDTO(idStaff, date, starts));
+                }
+            }
+        }
+        return result;
+    }
+    
+    /**
+     * Giữ khung giờ chờ khách xác nhận
+     * FEATURE 28: Giữ chỗ và đặt lịch song song
+     *
+     * @throws IllegalArgumentException dữ liệu không hợp lệ
+     * @throws IllegalStateException khung giờ đã có lịch hẹn khác hoặc đang được giữ
+     */
+    @Transactional(readOnly = true)
+    public BookingHoldDTO holdBooking(BookingDTO bookingDTO) {
+        BookingReservations.Hold hold = reserve(bookingDTO);
+        return new BookingHoldDTO(hold.getToken(), hold.getIdStaff(), hold.getDate(),
+                bookingCalendar.timeOf(hold.getFrom()), bookingCalendar.timeOf(hold.getFrom() + hold.getCount()),
+                LocalDateTime.ofInstant(Instant.ofEpochMilli(hold.getExpiresAtMillis()), ZoneId.systemDefault()));
+    }
+    
+    /**
+     * Xác nhận khung giờ đang giữ thành lịch hẹn
+     * FEATURE 28: Giữ chỗ và đặt lịch song song
+     *
+     * @throws NoSuchElementException token không tồn tại hoặc đã hết hạn
+     * @throws IllegalStateException khung giờ đã được node khác đặt
+     */
+    public BookingDTO confirmHold(String token) {
+        BookingReservations.Hold hold = bookingReservations.claim(token);
+        if (hold == null) {
+            throw new NoSuchElementException("Giữ chỗ không tồn tại hoặc đã hết hạn");
+        }
+        return persist(hold);
+    }
+    
+    /**
+     * Bỏ giữ chỗ
+     * FEATURE 28: Giữ chỗ và đặt lịch song song
+     */
+    @Transactional(readOnly = true)
+    public boolean releaseHold(String token) {
+        return bookingReservations.cancel(token);
+    }
+    
+    /**
+     * Tạo lịch hẹn mới (giữ chỗ và xác nhận ngay)
+     * FEATURE 27: Lịch đặt chỗ dạng bitmap
+     *
+     * @throws IllegalArgumentException dữ liệu không hợp lệ
+     * @throws IllegalStateException khung giờ đã có lịch hẹn khác
+     */
+    public BookingDTO createBooking(BookingDTO bookingDTO) {
+        BookingReservations.Hold hold = bookingReservations.claim(reserve(bookingDTO).getToken());
+        if (hold == null) {
+            // Chỉ xảy ra khi app.booking.hold-ttl bằng 0
+            throw new IllegalStateException("Khung giờ đã có lịch hẹn khác");
+        }
+        return persist(hold);
+    }
+    
+    /**
+     * Hủy lịch hẹn, trả khung giờ sau khi transaction commit
+     * FEATURE 27: Lịch đặt chỗ dạng bitmap
+     */
+    public Optional<BookingDTO> cancelBooking(Integer id) {
+        Optional<BookingEntity> found = bookingRepository.findById(id);
+        if (found.isEmpty()) {
+            return Optional.empty();
+        }
+        BookingEntity entity = found.get();
+        if (entity.getStatus() != BookingEntity.BookingStatus.CONFIRMED) {
+            throw new IllegalArgumentException("Chỉ hủy được lịch hẹn đang CONFIRMED");
+        }
+        entity.setStatus(BookingEntity.BookingStatus.CANCELLED);
+        BookingEntity saved = bookingRepository.save(entity);
+        bookingRepository.releaseSlots(saved.getIdBooking());
+        
+        int idStaff = saved.getIdStaff();
+        LocalDate date = saved.getBookingDate();
+        int from = bookingCalendar.slotFloor(saved.getStartTime());
+        int count = bookingCalendar.slotCeil(saved.getEndTime()) - from;
+        afterCommit(() -> bookingCalendar.release(idStaff, date, from, count));
+        return Optional.of(convertToDTO(saved));
+    }
+    
+    /**
+     * Chuyển đổi Entity sang DTO
+     */
+    BookingDTO convertToDTO(BookingEntity entity) {
+        BookingDTO dto = new BookingDTO();
+        dto.setIdBooking(entity.getIdBooking());
+        dto.setCode(entity.getCode());
+        dto.setIdCustomer(entity.getIdCustomer());
+        dto.setIdStaff(entity.getIdStaff());
+        dto.setIdService(entity.getIdService());
+        dto.setBookingDate(entity.getBookingDate());
+        dto.setStartTime(entity.getStartTime());
+        dto.setEndTime(entity.getEndTime());
+        dto.setDurationMinutes((int) Duration.between(entity.getStartTime(), entity.getEndTime()).toMinutes());
+        dto.setStatus(entity.getStatus());
+        dto.setNote(entity.getNote());
+        return dto;
+    }
+    
+    /**
+     * Kiểm tra dữ liệu và giữ khung giờ trong bộ nhớ
+     */
+    private BookingReservations.Hold reserve(BookingDTO bookingDTO) {
+        LocalDate date = bookingDTO.getBookingDate();
+        LocalDate today = LocalDate.now();
+        if (date.isBefore(today) || date.isAfter(today.plusDays(horizon.toDays()))) {
+            throw new IllegalArgumentException("Chỉ nhận đặt lịch từ hôm nay đến " + horizon.toDays() + " ngày tới");
+        }
+        int from = bookingCalendar.slotFloor(bookingDTO.getStartTime());
+        if (!bookingCalendar.timeOf(from).equals(bookingDTO.getStartTime())) {
+            throw new IllegalArgumentException("Giờ bắt đầu phải tròn " + bookingCalendar.getSlotMinutes() + " phút");
+        }
+        if (date.equals(today) && bookingDTO.getStartTime().isBefore(LocalTime.now())) {
+            throw new IllegalArgumentException("Giờ bắt đầu đã qua");
+        }
+        int count = bookingCalendar.slotsFor(bookingDTO.getDurationMinutes());
+        if (!bookingCalendar.isWithinOpeningHours(from, count)) {
+            throw new IllegalArgumentException("Lịch hẹn phải nằm trong giờ mở cửa");
+        }
+        // FEATURE 29: Nhân viên phải đang làm việc và trong ca suốt thời gian hẹn
+        if (!staffScheduleIndex.isOnShift(bookingDTO.getIdStaff(), date, from, count)) {
+            throw new IllegalArgumentException("Nhân viên không làm việc trong khung giờ này");
+        }
+        BookingReservations.Hold hold = bookingReservations.hold(bookingDTO.getIdStaff(), date, from, count, bookingDTO);
+        if (hold == null) {
+            throw new IllegalStateException("Khung giờ đã có lịch hẹn khác");
+        }
+        return hold;
+    }
+    
+    /**
+     * Ghi lịch hẹn của hold đã nhận cùng các dòng booking_slot
+     * Hold được kết thúc khi transaction kết thúc: commit thì giữ bit, rollback thì trả bit
+     */
+    private BookingDTO persist(BookingReservations.Hold hold) {
+        completeAfterTransaction(hold);
+        BookingDTO request = hold.getRequest();
+        LocalTime startTime = bookingCalendar.timeOf(hold.getFrom());
+        LocalTime endTime = bookingCalendar.timeOf(hold.getFrom() + hold.getCount());
+        BookingEntity entity = new BookingEntity(codeGenerator.nextCode(CodeGenerator.PREFIX_BOOKING),
+                request.getIdCustomer(), hold.getIdStaff(), request.getIdService(), hold.getDate(),
+                startTime, endTime, BookingEntity.BookingStatus.CONFIRMED, request.getNote());
+        BookingEntity saved = bookingRepository.saveAndFlush(entity);
+        try {
+            bookingRepository.claimSlots(saved.getIdBooking(), hold.getIdStaff(), hold.getDate(), startTime, endTime);
+        } catch (DataIntegrityViolationException e) {
+            // Lịch hẹn do node khác ghi không có trong bitmap của node này
+            hold.markStale();
+            throw new IllegalStateException("Khung giờ đã có lịch hẹn khác");
+        }
+        return convertToDTO(saved);
+    }
+    
+    private void completeAfterTransaction(BookingReservations.Hold hold) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    bookingReservations.complete(hold, status == STATUS_COMMITTED);
+                }
+            });
+        } else {
+            bookingReservations.complete(hold, true);
+        }
+    }
+    
+    /**
+     * Chạy action sau khi transaction commit thành công (hoặc ngay nếu không có transaction)
+     */
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
 }
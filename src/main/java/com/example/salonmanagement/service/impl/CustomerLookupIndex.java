@@ -0,0 +1,261 @@
+package com.example.salonmanagement.service.impl;
+
+import com.example.salonmanagement.dto.CustomerDTO;
+import com.example.salonmanagement.util.FormatUtil;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.function.BiPredicate;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Chỉ mục tra cứu khách hàng cho ô gợi ý ở quầy lễ tân (thay cho LIKE '%x%')
+ * Tìm theo đầu hoặc đuôi số điện thoại, theo đầu họ tên hoặc đầu một từ trong họ tên (không dấu)
+ *
+ * FEATURE 34: Gợi ý khách hàng theo số điện thoại / họ tên
+ * - Bốn tập khóa đã sắp xếp (ConcurrentSkipListSet): số điện thoại, số điện thoại đảo ngược (tìm theo
+ *   đuôi số), họ tên chuẩn hóa, và các phần họ tên bắt đầu từ từ thứ hai ("thi lan", "lan")
+ * - Tra cứu = duyệt khoảng khóa bắt đầu bằng từ khóa của từng tập theo thứ tự hạng và dừng khi đủ
+ *   limit khách hàng: chi phí O(log n + limit), không phụ thuộc số khách hàng khớp
+ * - Được nạp khi khởi động và cập nhật sau khi transaction tạo/sửa khách hàng commit; kết quả được
+ *   kiểm tra lại với bản ghi hiện tại nên khóa cũ trong lúc đang cập nhật không gây kết quả sai
+ * - Nạp lại dựng snapshot mới rồi mới thay (như PromotionSearchIndex), thay đổi đến trong lúc nạp
+ *   được áp dụng lại lên snapshot mới
+ */
+@Component
+public class CustomerLookupIndex {
+
+    private volatile Snapshot snapshot = new Snapshot();
+    private volatile boolean loaded;
+
+    // Chỉ một lần nạp lại tại một thời điểm
+    private final Object rebuildLock = new Object();
+    // Các thay đổi put/remove trong lúc đang nạp lại (null khi không nạp), chỉ truy cập trong khối synchronized(this)
+    private List<Consumer<Snapshot>> pending;
+
+    /**
+     * Nạp lại toàn bộ chỉ mục từ danh sách khách hàng
+     * FEATURE 34: Gợi ý khách hàng theo số điện thoại / họ tên
+     */
+    public void rebuild(Collection<CustomerDTO> customers) {
+        rebuild(() -> customers);
+    }
+
+    /**
+     * Nạp lại toàn bộ chỉ mục: dựng snapshot mới từ loader rồi công bố qua tham chiếu volatile,
+     * người tra cứu luôn thấy trọn vẹn chỉ mục cũ hoặc mới
+     * FEATURE 34: Gợi ý khách hàng theo số điện thoại / họ tên
+     * - put/remove đến trong lúc loader đang đọc database được ghi lại và áp dụng lên snapshot mới
+     *   trước khi công bố, nên khách hàng vừa tạo/sửa không bị mất
+     */
+    public void rebuild(Supplier<? extends Collection<CustomerDTO>> loader) {
+        synchronized (rebuildLock) {
+            synchronized (this) {
+                pending = new ArrayList<>();
+            }
+            Snapshot fresh = new Snapshot();
+            try {
+                for (CustomerDTO customer : loader.get()) {
+                    fresh.index(new Document(customer));
+                }
+            } catch (RuntimeException e) {
+                synchronized (this) {
+                    pending = null;
+                }
+                throw e;
+            }
+            synchronized (this) {
+                for (Consumer<Snapshot> change : pending) {
+                    change.accept(fresh);
+                }
+                pending = null;
+                snapshot = fresh;
+                loaded = true;
+            }
+        }
+    }
+
+    /**
+     * Thêm hoặc cập nhật một khách hàng trong chỉ mục
+     * FEATURE 34: Gợi ý khách hàng theo số điện thoại / họ tên
+     */
+    public synchronized void put(CustomerDTO customer) {
+        Document document = new Document(customer);
+        apply(target -> {
+            target.unindex(customer.getIdCustomer());
+            target.index(document);
+        });
+    }
+
+    /**
+     * Xóa khách hàng khỏi chỉ mục
+     * FEATURE 34: Gợi ý khách hàng theo số điện thoại / họ tên
+     */
+    public synchronized void remove(Integer idCustomer) {
+        apply(target -> target.unindex(idCustomer));
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    public int size() {
+        return snapshot.documents.size();
+    }
+
+    /**
+     * Tối đa limit khách hàng khớp nhất với từ khóa
+     * FEATURE 34: Gợi ý khách hàng theo số điện thoại / họ tên
+     * - Từ khóa chỉ gồm chữ số (cho phép +, dấu cách, dấu chấm, gạch ngang): tìm theo đầu rồi đuôi số điện thoại
+     * - Ngược lại: tìm theo đầu họ tên rồi đầu một từ trong họ tên, không phân biệt hoa thường và dấu
+     */
+    public List<CustomerDTO> lookup(String keyword, int limit) {
+        Snapshot current = snapshot;
+        Map<Integer, CustomerDTO> hits = new LinkedHashMap<>();
+        if (isPhoneQuery(keyword)) {
+            // Đầu số +84 gõ dở ("+84 91") chưa đủ độ dài để normalizePhone nhận ra
+            String trimmed = keyword.trim();
+            String phone = FormatUtil.normalizePhone(trimmed.startsWith("+84") ? "0" + trimmed.substring(3) : trimmed);
+            current.collect(current.phones, phone, (document, query) -> document.phone.startsWith(query), hits, limit);
+            current.collect(current.reversedPhones, reverse(phone),
+                    (document, query) -> document.reversedPhone.startsWith(query), hits, limit);
+        } else {
+            String name = FormatUtil.normalizeForSearch(keyword);
+            current.collect(current.names, name, (document, query) -> document.name.startsWith(query), hits, limit);
+            current.collect(current.nameWords, name, (document, query) -> document.name.contains(" " + query),
+                    hits, limit);
+        }
+        return new ArrayList<>(hits.values());
+    }
+
+    // Gọi trong khối synchronized(this): sửa snapshot hiện tại và ghi lại cho snapshot đang dựng
+    private void apply(Consumer<Snapshot> change) {
+        change.accept(snapshot);
+        if (pending != null) {
+            pending.add(change);
+        }
+    }
+
+    /**
+     * Từ khóa chỉ gồm chữ số và ký tự ngăn cách của số điện thoại
+     */
+    static boolean isPhoneQuery(String keyword) {
+        boolean digit = false;
+        for (int i = 0; i < keyword.length(); i++) {
+            char c = keyword.charAt(i);
+            if (Character.isDigit(c)) {
+                digit = true;
+            } else if (c != '+' && c != ' ' && c != '.' && c != '-') {
+                return false;
+            }
+        }
+        return digit;
+    }
+
+    private static String reverse(String text) {
+        return new StringBuilder(text).reverse().toString();
+    }
+
+    /**
+     * Một bản chỉ mục; các tập là concurrent để put/remove sửa tại chỗ trong lúc đang có người đọc
+     */
+    private static final class Snapshot {
+        final Map<Integer, Document> documents = new ConcurrentHashMap<>();
+
+        // Thứ tự xếp hạng: đầu số điện thoại > đuôi số điện thoại; đầu họ tên > đầu một từ trong họ tên
+        final NavigableSet<Term> phones = new ConcurrentSkipListSet<>();
+        final NavigableSet<Term> reversedPhones = new ConcurrentSkipListSet<>();
+        final NavigableSet<Term> names = new ConcurrentSkipListSet<>();
+        final NavigableSet<Term> nameWords = new ConcurrentSkipListSet<>();
+
+        private void collect(NavigableSet<Term> terms, String query, BiPredicate<Document, String> matches,
+                             Map<Integer, CustomerDTO> hits, int limit) {
+            if (query.isEmpty()) {
+                return;
+            }
+            Term from = new Term(query, Integer.MIN_VALUE);
+            Term to = new Term(query + Character.MAX_VALUE, Integer.MIN_VALUE);
+            for (Term term : terms.subSet(from, true, to, false)) {
+                if (hits.size() >= limit) {
+                    return;
+                }
+                Document document = documents.get(term.idCustomer);
+                if (document != null && matches.test(document, query)) {
+                    hits.putIfAbsent(term.idCustomer, document.customer);
+                }
+            }
+        }
+
+        private void index(Document document) {
+            int id = document.customer.getIdCustomer();
+            documents.put(id, document);
+            phones.add(new Term(document.phone, id));
+            reversedPhones.add(new Term(document.reversedPhone, id));
+            names.add(new Term(document.name, id));
+            for (Term term : document.wordTerms()) {
+                nameWords.add(term);
+            }
+        }
+
+        private void unindex(Integer idCustomer) {
+            Document previous = documents.remove(idCustomer);
+            if (previous == null) {
+                return;
+            }
+            phones.remove(new Term(previous.phone, idCustomer));
+            reversedPhones.remove(new Term(previous.reversedPhone, idCustomer));
+            names.remove(new Term(previous.name, idCustomer));
+            for (Term term : previous.wordTerms()) {
+                nameWords.remove(term);
+            }
+        }
+    }
+
+    private static final class Document {
+        final CustomerDTO customer;
+        final String phone;
+        final String reversedPhone;
+        final String name;
+
+        Document(CustomerDTO customer) {
+            this.customer = customer;
+            this.phone = FormatUtil.normalizePhone(customer.getPhone());
+            this.reversedPhone = reverse(phone);
+            this.name = FormatUtil.normalizeForSearch(customer.getFullName());
+        }
+
+        // "nguyen thi lan" -> "thi lan", "lan"
+        List<Term> wordTerms() {
+            List<Term> terms = new ArrayList<>();
+            for (int space = name.indexOf(' '); space >= 0; space = name.indexOf(' ', space + 1)) {
+                terms.add(new Term(name.substring(space + 1), customer.getIdCustomer()));
+            }
+            return terms;
+        }
+    }
+
+    // Sắp theo (khóa, ID) để nhiều khách hàng trùng khóa (cùng họ tên) vẫn là các phần tử khác nhau
+    private static final class Term implements Comparable<Term> {
+        final String text;
+        final int idCustomer;
+
+        Term(String text, int idCustomer) {
+            this.text = text;
+            this.idCustomer = idCustomer;
+        }
+
+        @Override
+        public int compareTo(Term other) {
+            int byText = text.compareTo(other.text);
+            return byText != 0 ? byText : Integer.compare(idCustomer, other.idCustomer);
+        }
+    }
+}
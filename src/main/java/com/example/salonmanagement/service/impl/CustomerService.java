@@ -1,4 +1,263 @@
 package com.example.salonmanagement.service.impl;
 
+import com.example.salonmanagement.dto.CustomerDTO;
+import com.example.salonmanagement.dto.LoyaltyAccrualDTO;
+import com.example.salonmanagement.entity.CustomerEntity;
+import com.example.salonmanagement.repository.CustomerRepository;
+import com.example.salonmanagement.repository.LoyaltyAccrualRepository;
+import com.example.salonmanagement.util.FormatUtil;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * Service class cho Customer
+ * Cung cấp các phương thức quản lý khách hàng và tra cứu điểm tích lũy
+ *
+ * FEATURE 33: Tích điểm thành viên
+ * - Điểm được cộng từ thanh toán bởi LoyaltyPoints, không có phương thức nào ở đây đổi điểm hoặc hạng
+ * - Số điện thoại được chuẩn hóa (FormatUtil.normalizePhone) trước khi lưu và tìm
+ *
+ * FEATURE 34: Gợi ý khách hàng theo số điện thoại / họ tên
+ * - Gợi ý đọc CustomerLookupIndex trong bộ nhớ; tạo/sửa khách hàng cập nhật chỉ mục sau khi commit
+ * - Khách hàng do node khác tạo/sửa được đọc theo updatedAt mỗi app.customer.lookup-refresh
+ */
+@Service
+@Transactional
 public class CustomerService {
+    
+    @Autowired
+    private CustomerRepository customerRepository;
+    
+    @Autowired
+    private LoyaltyAccrualRepository loyaltyAccrualRepository;
+    
+    @Autowired
+    private CustomerLookupIndex customerLookupIndex;
+    
+    // Đọc lùi thêm khoảng này so với lần đọc trước: dòng commit muộn hơn updatedAt của nó
+    // hoặc đồng hồ các node lệch nhau vẫn được nhận ra
+    @Value("${app.customer.lookup-overlap:PT1M}")
+    private Duration lookupOverlap;
+    
+    // Thời điểm bắt đầu lần đọc chỉ mục gần nhất (null khi chưa nạp)
+    private volatile LocalDateTime lookupReadAt;
+    
+    /**
+     * Lấy danh sách khách hàng với phân trang, theo thứ tự tạo
+     * FEATURE 33: Tích điểm thành viên
+     */
+    @Transactional(readOnly = true)
+    public Page<CustomerDTO> getCustomersWithPagination(int page, int size) {
+        return customerRepository.findAll(PageRequest.of(page, size, Sort.by("idCustomer")))
+                .map(this::convertToDTO);
+    }
+    
+    /**
+     * Lấy khách hàng theo ID, kèm điểm đang chờ cộng
+     * FEATURE 33: Tích điểm thành viên
+     */
+    @Transactional(readOnly = true)
+    public Optional<CustomerDTO> getCustomerById(Integer id) {
+        return customerRepository.findById(id).map(this::convertToDetailDTO);
+    }
+    
+    /**
+     * Lấy khách hàng theo số điện thoại (nhận mọi cách viết: +84, dấu cách, dấu chấm)
+     * FEATURE 33: Tích điểm thành viên
+     */
+    @Transactional(readOnly = true)
+    public Optional<CustomerDTO> getCustomerByPhone(String phone) {
+        return customerRepository.findByPhone(FormatUtil.normalizePhone(phone)).map(this::convertToDetailDTO);
+    }
+    
+    /**
+     * Thêm khách hàng mới (hạng MEMBER, 0 điểm)
+     * FEATURE 33: Tích điểm thành viên
+     *
+     * @throws IllegalArgumentException số điện thoại không hợp lệ hoặc đã được dùng
+     */
+    public CustomerDTO createCustomer(CustomerDTO customerDTO) {
+        String phone = validatePhone(customerDTO.getPhone());
+        if (customerRepository.findByPhone(phone).isPresent()) {
+            throw new IllegalArgumentException("Số điện thoại đã được dùng cho khách hàng khác: " + phone);
+        }
+        CustomerEntity entity = new CustomerEntity(customerDTO.getFullName().trim(), phone, trimToNull(customerDTO.getEmail()));
+        return reindexAfterCommit(convertToDTO(saveUniquePhone(entity)));
+    }
+    
+    /**
+     * Sửa họ tên, số điện thoại, email (điểm và hạng không đổi)
+     * FEATURE 33: Tích điểm thành viên
+     *
+     * @throws IllegalArgumentException số điện thoại không hợp lệ hoặc đã được dùng
+     */
+    public Optional<CustomerDTO> updateCustomer(Integer id, CustomerDTO customerDTO) {
+        Optional<CustomerEntity> existing = customerRepository.findById(id);
+        if (existing.isEmpty()) {
+            return Optional.empty();
+        }
+        String phone = validatePhone(customerDTO.getPhone());
+        if (customerRepository.existsByPhoneAndIdCustomerNot(phone, id)) {
+            throw new IllegalArgumentException("Số điện thoại đã được dùng cho khách hàng khác: " + phone);
+        }
+        CustomerEntity entity = existing.get();
+        entity.setFullName(customerDTO.getFullName().trim());
+        entity.setPhone(phone);
+        entity.setEmail(trimToNull(customerDTO.getEmail()));
+        return Optional.of(reindexAfterCommit(convertToDetailDTO(saveUniquePhone(entity))));
+    }
+    
+    /**
+     * Lịch sử điểm gần nhất của khách hàng
+     * FEATURE 33: Tích điểm thành viên
+     *
+     * @return empty nếu không có khách hàng với ID này
+     */
+    @Transactional(readOnly = true)
+    public Optional<List<LoyaltyAccrualDTO>> getPointHistory(Integer id) {
+        if (!customerRepository.existsById(id)) {
+            return Optional.empty();
+        }
+        return Optional.of(loyaltyAccrualRepository.findTop50ByIdCustomerOrderByAccruedAtDesc(id)
+                .stream()
+                .map(a -> new LoyaltyAccrualDTO(a.getPaymentCode(), a.getPoints(), a.getAccruedAt(), a.isApplied()))
+                .collect(Collectors.toList()));
+    }
+    
+    /**
+     * Gợi ý tối đa limit khách hàng theo đầu/đuôi số điện thoại hoặc đầu họ tên / đầu một từ trong họ tên
+     * FEATURE 34: Gợi ý khách hàng theo số điện thoại / họ tên
+     */
+    @Transactional(readOnly = true)
+    public List<CustomerDTO> lookupCustomers(String keyword, int limit) {
+        if (customerLookupIndex.isLoaded()) {
+            return customerLookupIndex.lookup(keyword, limit);
+        }
+        // Chỉ mục chưa nạp xong (ngay sau khởi động): chỉ tìm theo đầu số điện thoại hoặc họ tên chứa từ khóa
+        List<CustomerEntity> found = CustomerLookupIndex.isPhoneQuery(keyword)
+                ? customerRepository.findTop50ByPhoneStartingWithOrderByPhoneAsc(FormatUtil.normalizePhone(keyword))
+                : customerRepository.findTop50ByFullNameContainingOrderByFullNameAsc(keyword.trim());
+        return found.stream()
+                .limit(limit)
+                .map(this::convertToDTO)
+                .collect(Collectors.toList());
+    }
+    
+    /**
+     * Nạp chỉ mục gợi ý khi ứng dụng khởi động xong
+     * FEATURE 34: Gợi ý khách hàng theo số điện thoại / họ tên
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void loadCustomerIndex() {
+        LocalDateTime readAt = LocalDateTime.now();
+        customerLookupIndex.rebuild(customerRepository::findAllForLookup);
+        lookupReadAt = readAt;
+    }
+    
+    /**
+     * Đưa vào chỉ mục các khách hàng được tạo/sửa từ lần đọc trước (kể cả trên node khác)
+     * FEATURE 34: Gợi ý khách hàng theo số điện thoại / họ tên
+     */
+    @Scheduled(fixedDelayString = "${app.customer.lookup-refresh:PT30S}")
+    @Transactional(readOnly = true)
+    public void refreshCustomerIndex() {
+        LocalDateTime since = lookupReadAt;
+        if (since == null) {
+            return;
+        }
+        LocalDateTime readAt = LocalDateTime.now();
+        for (CustomerDTO customer : customerRepository.findForLookupUpdatedSince(since.minus(lookupOverlap))) {
+            customerLookupIndex.put(customer);
+        }
+        lookupReadAt = readAt;
+    }
+    
+    private String validatePhone(String raw) {
+        String phone = FormatUtil.normalizePhone(raw);
+        if (phone.length() < 9 || phone.length() > 15) {
+            throw new IllegalArgumentException("Số điện thoại không hợp lệ: " + raw);
+        }
+        return phone;
+    }
+    
+    /**
+     * Lưu ngay để ràng buộc uk_customer_phone được kiểm tra khi hai request cùng dùng một số điện thoại
+     */
+    private CustomerEntity saveUniquePhone(CustomerEntity entity) {
+        try {
+            return customerRepository.saveAndFlush(entity);
+        } catch (DataIntegrityViolationException e) {
+            throw new IllegalArgumentException("Số điện thoại đã được dùng cho khách hàng khác: " + entity.getPhone());
+        }
+    }
+    
+    private CustomerDTO reindexAfterCommit(CustomerDTO customer) {
+        CustomerDTO indexed = new CustomerDTO(customer.getIdCustomer(), customer.getFullName(),
+                customer.getPhone(), customer.getEmail());
+        afterCommit(() -> customerLookupIndex.put(indexed));
+        return customer;
+    }
+    
+    /**
+     * Chạy action sau khi transaction commit thành công (hoặc ngay nếu không có transaction)
+     * để chỉ mục trong bộ nhớ không chứa dữ liệu của transaction bị rollback
+     */
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+    
+    private static String trimToNull(String text) {
+        return text == null || text.isBlank() ? null : text.trim();
+    }
+    
+    /**
+     * Convert CustomerEntity sang CustomerDTO kèm điểm đang chờ cộng (một truy vấn theo chỉ mục)
+     */
+    private CustomerDTO convertToDetailDTO(CustomerEntity entity) {
+        CustomerDTO dto = convertToDTO(entity);
+        dto.setPendingPoints(loyaltyAccrualRepository.sumPendingPoints(entity.getIdCustomer()));
+        return dto;
+    }
+    
+    /**
+     * Convert CustomerEntity sang CustomerDTO
+     */
+    private CustomerDTO convertToDTO(CustomerEntity entity) {
+        CustomerDTO dto = new CustomerDTO();
+        dto.setIdCustomer(entity.getIdCustomer());
+        dto.setFullName(entity.getFullName());
+        dto.setPhone(entity.getPhone());
+        dto.setEmail(entity.getEmail());
+        dto.setPoints(entity.getPoints());
+        dto.setTier(entity.getTier());
+        dto.setCreatedAt(entity.getCreatedAt());
+        return dto;
+    }
 }
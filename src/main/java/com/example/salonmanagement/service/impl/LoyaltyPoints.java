@@ -0,0 +1,243 @@
+package com.example.salonmanagement.service.impl;
+
+import com.example.salonmanagement.dto.PaymentDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Bộ máy tích điểm: nhật ký điểm theo mã bút toán, cộng điểm theo lô và xét hạng hằng đêm
+ *
+ * FEATURE 33: Tích điểm thành viên
+ * - record() chạy trong transaction ghi bút toán của PaymentLedger: mỗi bút toán có khách hàng sinh
+ *   một dòng loyalty_accrual khóa theo mã bút toán, ghi lại bao nhiêu lần cũng chỉ có một dòng
+ * - applyPending() định kỳ lấy một lô dòng chưa cộng, gộp theo khách hàng trong bộ nhớ rồi ghi một
+ *   câu UPDATE customer cho mỗi khách hàng (theo thứ tự ID), đánh dấu đã cộng trong cùng transaction:
+ *   khách hàng thanh toán nhiều lần chỉ bị khóa dòng một lần mỗi lô, và không dòng nào bị cộng hai lần
+ * - recalculateTiers() xét lại hạng của mọi khách hàng bằng câu UPDATE ... JOIN theo từng khoảng ID,
+ *   database tự tính tổng điểm trong cửa sổ xét hạng; không nạp khách hàng nào lên ứng dụng
+ */
+@Component
+public class LoyaltyPoints {
+
+    private static final Logger log = LoggerFactory.getLogger(LoyaltyPoints.class);
+
+    private static final String RECORD_SQL = "INSERT INTO loyalty_accrual " +
+            "(payment_code, id_customer, points, accrued_at, applied) VALUES (?, ?, ?, ?, FALSE) " +
+            "ON DUPLICATE KEY UPDATE payment_code = payment_code";
+
+    // SKIP LOCKED: các node cùng cộng điểm lấy các lô khác nhau thay vì chờ nhau
+    private static final String CLAIM_SQL = "SELECT payment_code, id_customer, points FROM loyalty_accrual " +
+            "WHERE applied = FALSE LIMIT ? FOR UPDATE SKIP LOCKED";
+
+    private static final String APPLY_SQL = "UPDATE customer SET points = points + ? WHERE id_customer = ?";
+
+    private static final String TIER_SQL = "UPDATE customer c " +
+            "LEFT JOIN (SELECT id_customer, SUM(points) AS earned FROM loyalty_accrual " +
+            "           WHERE id_customer BETWEEN ? AND ? AND accrued_at >= ? GROUP BY id_customer) a " +
+            "       ON a.id_customer = c.id_customer " +
+            "SET c.tier = CASE WHEN COALESCE(a.earned, 0) >= ? THEN 'DIAMOND' " +
+            "                  WHEN COALESCE(a.earned, 0) >= ? THEN 'GOLD' " +
+            "                  WHEN COALESCE(a.earned, 0) >= ? THEN 'SILVER' " +
+            "                  ELSE 'MEMBER' END " +
+            "WHERE c.id_customer BETWEEN ? AND ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // Số tiền khách trả (VND, amount đã trừ giảm giá) cho một điểm
+    @Value("${app.loyalty.point-value:10000}")
+    private BigDecimal pointValue;
+
+    @Value("${app.loyalty.apply-batch-size:1000}")
+    private int applyBatchSize;
+
+    @Value("${app.loyalty.tier-window:P365D}")
+    private Duration tierWindow;
+
+    @Value("${app.loyalty.tier-chunk-size:5000}")
+    private int tierChunkSize;
+
+    @Value("${app.loyalty.silver-points:500}")
+    private long silverPoints;
+
+    @Value("${app.loyalty.gold-points:2000}")
+    private long goldPoints;
+
+    @Value("${app.loyalty.diamond-points:5000}")
+    private long diamondPoints;
+
+    /**
+     * Ghi nhật ký điểm cho các bút toán mới; phải gọi trong transaction ghi bút toán
+     * FEATURE 33: Tích điểm thành viên
+     */
+    public void record(Collection<PaymentDTO> payments) {
+        List<Accrual> accruals = accruals(payments, pointValue);
+        if (accruals.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(RECORD_SQL, accruals, accruals.size(), (statement, accrual) -> {
+            statement.setString(1, accrual.paymentCode);
+            statement.setInt(2, accrual.idCustomer);
+            statement.setLong(3, accrual.points);
+            statement.setTimestamp(4, Timestamp.valueOf(accrual.accruedAt));
+        });
+    }
+
+    /**
+     * Cộng các dòng nhật ký chưa cộng vào điểm của khách hàng, từng lô đến khi hết
+     * FEATURE 33: Tích điểm thành viên
+     *
+     * @return số dòng nhật ký đã cộng
+     */
+    @Scheduled(fixedDelayString = "${app.loyalty.apply-interval:PT10S}")
+    public synchronized int applyPending() {
+        int total = 0;
+        try {
+            int applied;
+            do {
+                applied = applyBatch();
+                total += applied;
+            } while (applied == applyBatchSize);
+        } catch (RuntimeException e) {
+            log.error("Applying loyalty accruals failed after {} rows, retrying on the next run", total, e);
+        }
+        return total;
+    }
+
+    /**
+     * Xét lại hạng thành viên theo tổng điểm trong cửa sổ app.loyalty.tier-window
+     * FEATURE 33: Tích điểm thành viên
+     * - Mỗi khoảng app.loyalty.tier-chunk-size ID là một câu UPDATE (tự commit) để không giữ khóa
+     *   trên cả bảng customer; chạy lại hoặc chạy trên nhiều node cùng lúc đều cho cùng kết quả
+     *
+     * @return số khách hàng đã xét
+     */
+    @Scheduled(cron = "${app.loyalty.tier-cron:0 30 2 * * *}")
+    public int recalculateTiers() {
+        if (silverPoints > goldPoints || goldPoints > diamondPoints) {
+            throw new IllegalStateException("Ngưỡng hạng thành viên phải tăng dần: SILVER <= GOLD <= DIAMOND");
+        }
+        Map<String, Object> bounds = jdbcTemplate.queryForMap(
+                "SELECT MIN(id_customer) AS lo, MAX(id_customer) AS hi FROM customer");
+        if (bounds.get("lo") == null) {
+            return 0;
+        }
+        long lo = ((Number) bounds.get("lo")).longValue();
+        long hi = ((Number) bounds.get("hi")).longValue();
+        Timestamp since = Timestamp.valueOf(LocalDateTime.now().minus(tierWindow));
+        long started = System.nanoTime();
+        int matched = 0;
+        for (long from = lo; from <= hi; from += tierChunkSize) {
+            long to = Math.min(from + tierChunkSize - 1, hi);
+            matched += jdbcTemplate.update(TIER_SQL, from, to, since, diamondPoints, goldPoints, silverPoints, from, to);
+        }
+        log.info("Recalculated membership tiers of {} customers in {} ms", matched,
+                Duration.ofNanos(System.nanoTime() - started).toMillis());
+        return matched;
+    }
+
+    /**
+     * Một transaction: giữ một lô dòng chưa cộng, một UPDATE customer cho mỗi khách hàng, đánh dấu đã cộng
+     */
+    private int applyBatch() {
+        Integer applied = new TransactionTemplate(transactionManager).execute(status -> {
+            List<Accrual> claimed = jdbcTemplate.query(CLAIM_SQL,
+                    (rs, row) -> new Accrual(rs.getString("payment_code"), rs.getInt("id_customer"),
+                            rs.getLong("points"), null),
+                    applyBatchSize);
+            if (claimed.isEmpty()) {
+                return 0;
+            }
+            Map<Integer, Long> byCustomer = coalesce(claimed);
+            if (!byCustomer.isEmpty()) {
+                List<Object[]> rows = new ArrayList<>(byCustomer.size());
+                byCustomer.forEach((idCustomer, points) -> rows.add(new Object[]{points, idCustomer}));
+                int[] updated = jdbcTemplate.batchUpdate(APPLY_SQL, rows);
+                for (int i = 0; i < updated.length; i++) {
+                    if (updated[i] == 0) {
+                        log.warn("Loyalty points for missing customer {} were dropped", rows.get(i)[1]);
+                    }
+                }
+            }
+            String placeholders = String.join(", ", Collections.nCopies(claimed.size(), "?"));
+            jdbcTemplate.update("UPDATE loyalty_accrual SET applied = TRUE WHERE payment_code IN (" + placeholders + ")",
+                    claimed.stream().map(a -> a.paymentCode).toArray());
+            return claimed.size();
+        });
+        return applied != null ? applied : 0;
+    }
+
+    /**
+     * Dòng điểm của các bút toán có khách hàng và khác 0 điểm
+     */
+    static List<Accrual> accruals(Collection<PaymentDTO> payments, BigDecimal pointValue) {
+        List<Accrual> accruals = new ArrayList<>(payments.size());
+        for (PaymentDTO payment : payments) {
+            if (payment.getIdCustomer() == null) {
+                continue;
+            }
+            long points = pointsFor(payment, pointValue);
+            if (points != 0) {
+                accruals.add(new Accrual(payment.getCode(), payment.getIdCustomer(), points, payment.getPaidAt()));
+            }
+        }
+        return accruals;
+    }
+
+    /**
+     * Điểm của một bút toán: số tiền khách trả (amount, đã trừ giảm giá) chia pointValue, làm tròn về 0,
+     * nên bút toán hoàn tiền trừ đúng số điểm bút toán gốc đã cộng
+     */
+    static long pointsFor(PaymentDTO payment, BigDecimal pointValue) {
+        return payment.getAmount().divide(pointValue, 0, RoundingMode.DOWN).longValueExact();
+    }
+
+    /**
+     * Gộp điểm theo khách hàng, sắp theo ID để các node cùng cộng điểm không deadlock;
+     * khách hàng có tổng bằng 0 trong lô (thanh toán rồi hoàn tiền) không cần UPDATE
+     */
+    static Map<Integer, Long> coalesce(List<Accrual> accruals) {
+        Map<Integer, Long> byCustomer = new TreeMap<>();
+        for (Accrual accrual : accruals) {
+            byCustomer.merge(accrual.idCustomer, accrual.points, Long::sum);
+        }
+        byCustomer.values().removeIf(points -> points == 0);
+        return byCustomer;
+    }
+
+    static final class Accrual {
+        final String paymentCode;
+        final int idCustomer;
+        final long points;
+        final LocalDateTime accruedAt;
+
+        Accrual(String paymentCode, int idCustomer, long points, LocalDateTime accruedAt) {
+            this.paymentCode = paymentCode;
+            this.idCustomer = idCustomer;
+            this.points = points;
+            this.accruedAt = accruedAt;
+        }
+    }
+}
@@ -0,0 +1,433 @@
+package com.example.salonmanagement.service.impl;
+
+import com.example.salonmanagement.dto.PaymentDTO;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Đường ghi của sổ cái thanh toán: write-ahead log → hàng đợi giới hạn → JDBC batch
+ *
+ * FEATURE 30: Sổ cái thanh toán ghi theo lô
+ * - append() trả về ngay khi bản ghi đã được fsync trong PaymentWal, không chờ database
+ * - Một luồng nền gom các bản ghi thành lô (tối đa app.payment.batch-size, chờ thêm tối đa
+ *   app.payment.linger) và ghi bằng một JDBC batch trong một transaction (group commit);
+ *   database lỗi thì thử lại cùng lô, không bỏ bản ghi nào
+ * - Lô vi phạm ràng buộc dữ liệu (DataIntegrityViolationException, thử lại cũng không qua) được chia đôi
+ *   tới khi tách được dòng hỏng; dòng đó được ghi vào file dead letter của WAL để xử lý tay,
+ *   các dòng còn lại vẫn vào database và luồng ghi không bị kẹt
+ * - Hàng đợi giới hạn app.payment.queue-capacity bản ghi chưa vào database; đầy quá
+ *   app.payment.accept-timeout thì từ chối (503) thay vì để bộ nhớ phình ra
+ * - Khởi động: phát lại các segment WAL còn sót qua cùng đường ghi; INSERT theo mã thanh toán
+ *   là idempotent nên bản ghi đã vào database trước khi sập không bị ghi hai lần
+ *
+ * FEATURE 31: Tổng hợp doanh thu tăng dần
+ * - Mỗi lô cộng dồn doanh thu của các bút toán mới vào revenue_rollup trong cùng transaction
+ *
+ * FEATURE 33: Tích điểm thành viên
+ * - Mỗi lô ghi nhật ký điểm của các bút toán mới vào loyalty_accrual trong cùng transaction
+ */
+@Component
+public class PaymentLedger implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(PaymentLedger.class);
+
+    // Tên cột vật lý theo CamelCaseToUnderscoresNamingStrategy mặc định của Spring Boot
+    private static final String INSERT_SQL = "INSERT INTO payment " +
+            "(code, entry_type, method, amount, discount_amount, id_booking, id_customer, id_staff, id_service, " +
+            "id_promotion, refund_of, note, paid_at, recorded_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, CURRENT_TIMESTAMP) " +
+            "ON DUPLICATE KEY UPDATE code = code";
+
+    private static final Duration MAX_RETRY_DELAY = Duration.ofSeconds(30);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private RevenueRollups revenueRollups;
+
+    @Autowired
+    private LoyaltyPoints loyaltyPoints;
+
+    @Value("${app.payment.wal-dir:data/payment-wal}")
+    private Path walDirectory;
+
+    @Value("${app.payment.segment-size:64MB}")
+    private DataSize segmentSize;
+
+    @Value("${app.payment.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${app.payment.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.payment.linger:PT0.02S}")
+    private Duration linger;
+
+    @Value("${app.payment.accept-timeout:PT1S}")
+    private Duration acceptTimeout;
+
+    private PaymentWal wal;
+    private BlockingQueue<Entry> queue;
+    private Semaphore capacity;
+    private Consumer<List<PaymentDTO>> batchWriter;
+    private Thread flusher;
+
+    // Bút toán đã nhận nhưng chưa vào database, theo mã (đọc ngay sau khi ghi)
+    private final Map<String, PaymentDTO> unrecorded = new ConcurrentHashMap<>();
+
+    private final AtomicLong recordedCount = new AtomicLong();
+    private final AtomicLong batchCount = new AtomicLong();
+    private final AtomicLong deadLetterCount = new AtomicLong();
+    private volatile boolean accepting;
+    private volatile boolean stopping;
+
+    /**
+     * Mở WAL, khởi động luồng ghi database rồi phát lại các segment còn sót
+     * FEATURE 30: Sổ cái thanh toán ghi theo lô
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() throws IOException {
+        Gauge.builder("payment.ledger.pending", this, PaymentLedger::pendingCount)
+                .description("Payments durable in the WAL and waiting for the database")
+                .register(meterRegistry);
+        Gauge.builder("payment.ledger.recorded", recordedCount, AtomicLong::get)
+                .description("Payments written to the database since startup")
+                .register(meterRegistry);
+        Gauge.builder("payment.ledger.dead-lettered", deadLetterCount, AtomicLong::get)
+                .description("Payments the database rejected permanently, parked in the WAL dead-letter file")
+                .register(meterRegistry);
+        open(new PaymentWal(walDirectory, segmentSize.toBytes()), this::insertBatch);
+    }
+
+    /**
+     * Khởi động với WAL và bộ ghi cho trước (dùng ngoài Spring: kiểm thử, benchmark)
+     */
+    void open(PaymentWal wal, Consumer<List<PaymentDTO>> batchWriter) throws IOException {
+        this.wal = wal;
+        this.batchWriter = batchWriter;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.capacity = new Semaphore(queueCapacity);
+        flusher = new Thread(this::runFlusher, "payment-ledger-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+        replay();
+        accepting = true;
+    }
+
+    /**
+     * Cấu hình trực tiếp, dùng khi chạy ngoài Spring (kiểm thử, benchmark)
+     */
+    void configure(int queueCapacity, int batchSize, Duration linger, Duration acceptTimeout) {
+        this.queueCapacity = queueCapacity;
+        this.batchSize = batchSize;
+        this.linger = linger;
+        this.acceptTimeout = acceptTimeout;
+    }
+
+    /**
+     * Ghi nhận bút toán: trả về khi bút toán đã bền vững trong WAL
+     * FEATURE 30: Sổ cái thanh toán ghi theo lô
+     *
+     * @throws RejectedExecutionException sổ cái chưa sẵn sàng, đang dừng hoặc hàng đợi đầy
+     * @throws UncheckedIOException lỗi ghi WAL (sổ cái ngừng nhận bút toán)
+     */
+    public PaymentDTO append(PaymentDTO payment) {
+        if (!accepting || !wal.isHealthy()) {
+            throw new RejectedExecutionException("Sổ cái thanh toán chưa sẵn sàng");
+        }
+        try {
+            if (!capacity.tryAcquire(acceptTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                throw new RejectedExecutionException("Sổ cái thanh toán đang quá tải, vui lòng thử lại");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("Bị gián đoạn khi chờ sổ cái thanh toán");
+        }
+        PaymentWal.Position position;
+        try {
+            position = wal.append(PaymentWal.encode(payment));
+        } catch (IOException e) {
+            capacity.release();
+            log.error("Payment WAL append failed, the ledger stops accepting payments", e);
+            throw new UncheckedIOException(e);
+        }
+        unrecorded.put(payment.getCode(), payment);
+        queue.add(new Entry(payment, position));
+        return payment;
+    }
+
+    /**
+     * Bút toán đã nhận nhưng chưa vào database
+     */
+    public PaymentDTO findUnrecorded(String code) {
+        return unrecorded.get(code);
+    }
+
+    /**
+     * Số bút toán đang chờ ghi vào database
+     */
+    public int pendingCount() {
+        return unrecorded.size();
+    }
+
+    /**
+     * Sổ cái còn nhận bút toán hay không (false trước khi khởi động xong, khi đang dừng hoặc sau lỗi WAL)
+     */
+    public boolean isHealthy() {
+        return accepting && wal.isHealthy();
+    }
+
+    public long getRecordedCount() {
+        return recordedCount.get();
+    }
+
+    public long getBatchCount() {
+        return batchCount.get();
+    }
+
+    /**
+     * Số bút toán database từ chối vĩnh viễn, đã chuyển vào file dead letter
+     */
+    public long getDeadLetterCount() {
+        return deadLetterCount.get();
+    }
+
+    /**
+     * Ngừng nhận bút toán, ghi nốt hàng đợi vào database (tối đa 30 giây) rồi đóng WAL;
+     * phần chưa ghi kịp còn trong WAL và được phát lại ở lần khởi động sau
+     */
+    @Override
+    public void destroy() throws IOException, InterruptedException {
+        accepting = false;
+        stopping = true;
+        if (flusher != null) {
+            flusher.join(30_000);
+            flusher.interrupt();
+        }
+        if (wal != null) {
+            wal.close();
+        }
+    }
+
+    /**
+     * Đưa các bản ghi trong segment WAL còn sót vào hàng đợi; segment bị xóa khi đã ghi hết
+     */
+    private void replay() throws IOException {
+        for (Path file : wal.leftoverSegments()) {
+            List<PaymentDTO> payments = new ArrayList<>();
+            PaymentWal.read(file, payload -> payments.add(PaymentWal.decode(payload)));
+            PaymentWal.Segment segment = wal.adopt(file, payments.size());
+            for (PaymentDTO payment : payments) {
+                capacity.acquireUninterruptibly();
+                unrecorded.put(payment.getCode(), payment);
+                queue.add(new Entry(payment, PaymentWal.positionIn(segment)));
+            }
+            log.info("Replaying {} payments from WAL segment {}", payments.size(), file.getFileName());
+        }
+    }
+
+    private void runFlusher() {
+        List<Entry> batch = new ArrayList<>(batchSize);
+        while (true) {
+            try {
+                Entry first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    if (stopping) {
+                        return;
+                    }
+                    continue;
+                }
+                batch.add(first);
+                // Gom thêm trong thời gian linger: lúc cao điểm lô đầy ngay, lúc vắng chỉ trễ tối đa linger
+                long deadline = System.nanoTime() + linger.toNanos();
+                while (batch.size() < batchSize) {
+                    if (queue.drainTo(batch, batchSize - batch.size()) > 0) {
+                        continue;
+                    }
+                    long remaining = deadline - System.nanoTime();
+                    Entry next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : null;
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                writeWithRetry(batch);
+                batch.clear();
+            } catch (InterruptedException e) {
+                // destroy() hết thời gian chờ: phần còn lại nằm trong WAL
+                return;
+            }
+        }
+    }
+
+    private void writeWithRetry(List<Entry> batch) throws InterruptedException {
+        long delay = 100;
+        while (true) {
+            try {
+                write(batch);
+                break;
+            } catch (DataIntegrityViolationException e) {
+                if (batch.size() == 1) {
+                    deadLetter(batch.get(0), e);
+                    return;
+                }
+                // Chia đôi để tách dòng hỏng; mỗi nửa được ghi (và thử lại) riêng
+                int middle = batch.size() / 2;
+                writeWithRetry(batch.subList(0, middle));
+                writeWithRetry(batch.subList(middle, batch.size()));
+                return;
+            } catch (RuntimeException e) {
+                log.error("Writing {} payments to the database failed, retrying in {} ms", batch.size(), delay, e);
+                Thread.sleep(delay);
+                delay = Math.min(delay * 2, MAX_RETRY_DELAY.toMillis());
+            }
+        }
+        for (Entry entry : batch) {
+            wal.committed(entry.position);
+            unrecorded.remove(entry.payment.getCode());
+        }
+        capacity.release(batch.size());
+        recordedCount.addAndGet(batch.size());
+        batchCount.incrementAndGet();
+    }
+
+    private void write(List<Entry> batch) {
+        List<PaymentDTO> payments = new ArrayList<>(batch.size());
+        for (Entry entry : batch) {
+            payments.add(entry.payment);
+        }
+        batchWriter.accept(payments);
+    }
+
+    /**
+     * Chuyển bút toán database từ chối vĩnh viễn sang file dead letter; nếu không ghi được file thì
+     * bản ghi không được báo committed, segment WAL chứa nó được giữ lại để phát lại ở lần khởi động sau
+     */
+    private void deadLetter(Entry entry, DataIntegrityViolationException cause) {
+        PaymentDTO payment = entry.payment;
+        try {
+            wal.deadLetter(PaymentWal.encode(payment));
+            wal.committed(entry.position);
+            deadLetterCount.incrementAndGet();
+            log.error("Payment {} was rejected by the database, moved to {}", payment.getCode(), wal.deadLetterFile(), cause);
+        } catch (IOException e) {
+            log.error("Payment {} was rejected by the database and could not be dead-lettered, keeping it in the WAL",
+                    payment.getCode(), e);
+        }
+        unrecorded.remove(payment.getCode());
+        capacity.release();
+    }
+
+    /**
+     * Một lô = một câu INSERT nhiều dòng (rewriteBatchedStatements) trong một transaction,
+     * cùng với phần cộng dồn doanh thu và nhật ký điểm của các bút toán mới trong lô
+     */
+    private void insertBatch(List<PaymentDTO> payments) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            List<PaymentDTO> fresh = withoutRecorded(payments);
+            if (fresh.isEmpty()) {
+                return;
+            }
+            jdbcTemplate.batchUpdate(INSERT_SQL, fresh, fresh.size(), (statement, payment) -> {
+                statement.setString(1, payment.getCode());
+                statement.setString(2, payment.getEntryType().name());
+                statement.setString(3, payment.getMethod().name());
+                statement.setBigDecimal(4, payment.getAmount());
+                statement.setBigDecimal(5, payment.getDiscountAmount());
+                setInteger(statement, 6, payment.getIdBooking());
+                setInteger(statement, 7, payment.getIdCustomer());
+                setInteger(statement, 8, payment.getIdStaff());
+                setInteger(statement, 9, payment.getIdService());
+                setInteger(statement, 10, payment.getIdPromotion());
+                statement.setString(11, payment.getRefundOf());
+                statement.setString(12, payment.getNote());
+                statement.setTimestamp(13, Timestamp.valueOf(payment.getPaidAt()));
+            });
+            revenueRollups.add(fresh);
+            loyaltyPoints.record(fresh);
+        });
+    }
+
+    /**
+     * Bỏ các bút toán đã có trong database (phát lại WAL, thử lại sau khi commit thành công
+     * nhưng mất kết nối) để không cộng doanh thu hai lần
+     * FEATURE 31: Tổng hợp doanh thu tăng dần
+     */
+    private List<PaymentDTO> withoutRecorded(List<PaymentDTO> payments) {
+        String placeholders = String.join(", ", Collections.nCopies(payments.size(), "?"));
+        Set<String> existing = new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT code FROM payment WHERE code IN (" + placeholders + ")", String.class,
+                payments.stream().map(PaymentDTO::getCode).toArray()));
+        if (existing.isEmpty()) {
+            return payments;
+        }
+        List<PaymentDTO> fresh = new ArrayList<>(payments.size());
+        for (PaymentDTO payment : payments) {
+            if (existing.add(payment.getCode())) {
+                fresh.add(payment);
+            }
+        }
+        return fresh;
+    }
+
+    private static void setInteger(PreparedStatement statement, int index, Integer value) throws SQLException {
+        if (value == null) {
+            statement.setNull(index, Types.INTEGER);
+        } else {
+            statement.setInt(index, value);
+        }
+    }
+
+    private static final class Entry {
+        final PaymentDTO payment;
+        final PaymentWal.Position position;
+
+        Entry(PaymentDTO payment, PaymentWal.Position position) {
+            this.payment = payment;
+            this.position = position;
+        }
+    }
+}
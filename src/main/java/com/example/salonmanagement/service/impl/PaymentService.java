@@ -1,4 +1,179 @@
 package com.example.salonmanagement.service.impl;
 
+import com.example.salonmanagement.dto.PaymentDTO;
+import com.example.salonmanagement.entity.PaymentEntity;
+import com.example.salonmanagement.repository.PaymentRepository;
+import com.example.salonmanagement.util.CodeGenerator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * Service class cho Payment
+ * Cung cấp các phương thức ghi nhận thanh toán, hoàn tiền và tra cứu sổ cái
+ *
+ * FEATURE 30: Sổ cái thanh toán ghi theo lô
+ * - Sổ cái chỉ thêm: hoàn tiền là một bút toán REFUND số tiền âm, không sửa bút toán gốc
+ * - Ghi nhận trả về khi bút toán đã fsync vào WAL; PaymentLedger ghi vào database theo lô
+ * - Tra cứu theo mã thấy ngay bút toán vừa ghi nhận dù chưa vào database
+ */
+@Service
+@Transactional(readOnly = true)
 public class PaymentService {
+    
+    // Hậu tố mã bút toán hoàn tiền: mỗi thanh toán hoàn tối đa một lần, mã trùng bị database bỏ qua
+    private static final String REFUND_SUFFIX = "R";
+    
+    @Autowired
+    private PaymentRepository paymentRepository;
+    
+    @Autowired
+    private PaymentLedger paymentLedger;
+    
+    @Autowired
+    private CodeGenerator codeGenerator;
+    
+    /**
+     * Ghi nhận thanh toán
+     * FEATURE 30: Sổ cái thanh toán ghi theo lô
+     *
+     * @return bút toán đã nhận (recorded = false cho tới khi vào database)
+     */
+    public PaymentDTO recordPayment(PaymentDTO paymentDTO) {
+        PaymentDTO payment = new PaymentDTO();
+        payment.setCode(codeGenerator.nextCode(CodeGenerator.PREFIX_PAYMENT));
+        payment.setEntryType(PaymentEntity.EntryType.PAYMENT);
+        payment.setMethod(paymentDTO.getMethod());
+        payment.setAmount(paymentDTO.getAmount());
+        payment.setDiscountAmount(paymentDTO.getDiscountAmount() != null ? paymentDTO.getDiscountAmount() : BigDecimal.ZERO);
+        payment.setIdBooking(paymentDTO.getIdBooking());
+        payment.setIdCustomer(paymentDTO.getIdCustomer());
+        payment.setIdStaff(paymentDTO.getIdStaff());
+        payment.setIdService(paymentDTO.getIdService());
+        payment.setIdPromotion(paymentDTO.getIdPromotion());
+        payment.setNote(paymentDTO.getNote());
+        payment.setPaidAt(LocalDateTime.now());
+        // amount là số tiền đã trừ giảm giá: giảm giá lớn hơn amount (trên 50%) vẫn hợp lệ
+        return paymentLedger.append(payment);
+    }
+    
+    /**
+     * Hoàn toàn bộ một thanh toán
+     * FEATURE 30: Sổ cái thanh toán ghi theo lô
+     *
+     * @return empty nếu không có thanh toán với mã này
+     * @throws IllegalArgumentException ghi chú dài quá cột payment.note
+     * @throws IllegalStateException thanh toán đã được hoàn hoặc là bút toán hoàn tiền
+     */
+    public Optional<PaymentDTO> refundPayment(String code, String note) {
+        // Kiểm tra trước khi vào WAL: dòng không ghi được vào database sẽ bị chuyển sang dead letter
+        if (note != null && note.length() > PaymentDTO.NOTE_MAX_LENGTH) {
+            throw new IllegalArgumentException("Ghi chú không được vượt quá " + PaymentDTO.NOTE_MAX_LENGTH + " ký tự");
+        }
+        Optional<PaymentDTO> original = getPaymentByCode(code);
+        if (original.isEmpty()) {
+            return Optional.empty();
+        }
+        PaymentDTO paid = original.get();
+        if (paid.getEntryType() != PaymentEntity.EntryType.PAYMENT) {
+            throw new IllegalStateException("Không thể hoàn tiền cho bút toán hoàn tiền");
+        }
+        String refundCode = paid.getCode() + REFUND_SUFFIX;
+        if (getPaymentByCode(refundCode).isPresent()) {
+            throw new IllegalStateException("Thanh toán " + code + " đã được hoàn tiền");
+        }
+        PaymentDTO refund = new PaymentDTO();
+        refund.setCode(refundCode);
+        refund.setEntryType(PaymentEntity.EntryType.REFUND);
+        refund.setMethod(paid.getMethod());
+        refund.setAmount(paid.getAmount().negate());
+        refund.setDiscountAmount(paid.getDiscountAmount().negate());
+        refund.setIdBooking(paid.getIdBooking());
+        refund.setIdCustomer(paid.getIdCustomer());
+        refund.setIdStaff(paid.getIdStaff());
+        refund.setIdService(paid.getIdService());
+        refund.setIdPromotion(paid.getIdPromotion());
+        refund.setRefundOf(paid.getCode());
+        refund.setNote(note);
+        refund.setPaidAt(LocalDateTime.now());
+        return Optional.of(paymentLedger.append(refund));
+    }
+    
+    /**
+     * Lấy bút toán theo mã, kể cả bút toán chưa vào database
+     * FEATURE 30: Sổ cái thanh toán ghi theo lô
+     */
+    public Optional<PaymentDTO> getPaymentByCode(String code) {
+        PaymentDTO unrecorded = paymentLedger.findUnrecorded(code);
+        if (unrecorded != null) {
+            return Optional.of(unrecorded);
+        }
+        return paymentRepository.findByCode(code).map(this::convertToDTO);
+    }
+    
+    /**
+     * Bút toán đã vào database trong một ngày, theo thời điểm thanh toán
+     * FEATURE 30: Sổ cái thanh toán ghi theo lô
+     */
+    public List<PaymentDTO> getPaymentsByDate(LocalDate date) {
+        return paymentRepository.findByPaidAtGreaterThanEqualAndPaidAtLessThanOrderByPaidAtAsc(
+                        date.atStartOfDay(), date.plusDays(1).atStartOfDay())
+                .stream()
+                .map(this::convertToDTO)
+                .collect(Collectors.toList());
+    }
+    
+    /**
+     * Bút toán của một lịch hẹn
+     * FEATURE 30: Sổ cái thanh toán ghi theo lô
+     */
+    public List<PaymentDTO> getPaymentsByBooking(Integer idBooking) {
+        return paymentRepository.findByIdBookingOrderByPaidAtAsc(idBooking)
+                .stream()
+                .map(this::convertToDTO)
+                .collect(Collectors.toList());
+    }
+    
+    /**
+     * Trạng thái đường ghi: số bút toán chờ ghi, đã ghi, số lô, số bút toán bị chuyển sang dead letter
+     */
+    public Map<String, Object> getLedgerStatus() {
+        return Map.of(
+                "pending", paymentLedger.pendingCount(),
+                "recorded", paymentLedger.getRecordedCount(),
+                "batches", paymentLedger.getBatchCount(),
+                "deadLettered", paymentLedger.getDeadLetterCount(),
+                "healthy", paymentLedger.isHealthy());
+    }
+    
+    /**
+     * Convert PaymentEntity sang PaymentDTO
+     */
+    private PaymentDTO convertToDTO(PaymentEntity entity) {
+        PaymentDTO dto = new PaymentDTO();
+        dto.setIdPayment(entity.getIdPayment());
+        dto.setCode(entity.getCode());
+        dto.setEntryType(entity.getEntryType());
+        dto.setMethod(entity.getMethod());
+        dto.setAmount(entity.getAmount());
+        dto.setDiscountAmount(entity.getDiscountAmount());
+        dto.setIdBooking(entity.getIdBooking());
+        dto.setIdCustomer(entity.getIdCustomer());
+        dto.setIdStaff(entity.getIdStaff());
+        dto.setIdService(entity.getIdService());
+        dto.setIdPromotion(entity.getIdPromotion());
+        dto.setRefundOf(entity.getRefundOf());
+        dto.setNote(entity.getNote());
+        dto.setPaidAt(entity.getPaidAt());
+        dto.setRecorded(true);
+        return dto;
+    }
 }
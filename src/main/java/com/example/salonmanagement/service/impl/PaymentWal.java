@@ -0,0 +1,468 @@
+package com.example.salonmanagement.service.impl;
+
+import com.example.salonmanagement.dto.PaymentDTO;
+import com.example.salonmanagement.entity.PaymentEntity;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Write-ahead log của sổ cái thanh toán: các file segment chỉ ghi thêm trên đĩa cục bộ
+ *
+ * FEATURE 30: Sổ cái thanh toán ghi theo lô
+ * - Mỗi bản ghi là [độ dài][CRC32][dữ liệu]; bản ghi cuối bị cắt dở khi sập máy được bỏ qua
+ *   khi đọc lại (request của nó chưa từng nhận phản hồi)
+ * - Ghi dưới khóa, fsync ngoài khóa theo kiểu group commit: luồng fsync đầu tiên đẩy xuống đĩa
+ *   mọi thứ đã ghi, các luồng chờ sau nó thấy bản ghi của mình đã bền vững thì trả về ngay
+ * - Segment đầy thì chuyển sang file mới; segment đã đóng được xóa khi mọi bản ghi trong đó
+ *   đã vào database (committed)
+ * - Lỗi ghi hoặc fsync làm WAL ngừng nhận bản ghi: một bản ghi ghi dở ở giữa file sẽ che mất
+ *   mọi bản ghi sau nó khi phát lại
+ */
+public final class PaymentWal implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(PaymentWal.class);
+
+    static final String FILE_PREFIX = "payments-";
+    static final String FILE_SUFFIX = ".wal";
+    // Bút toán không bao giờ ghi được vào database; cùng định dạng bản ghi nhưng không bao giờ được phát lại
+    static final String DEAD_LETTER_FILE = "dead-letter" + FILE_SUFFIX;
+
+    private static final int HEADER_BYTES = 8;
+    private static final int MAX_RECORD_BYTES = 64 * 1024;
+    private static final byte FORMAT_VERSION = 1;
+
+    private final Path directory;
+    private final long segmentBytes;
+    private final List<Path> leftovers;
+    private final ReentrantLock appendLock = new ReentrantLock();
+    private final ReentrantLock deadLetterLock = new ReentrantLock();
+
+    // Chỉ truy cập khi giữ appendLock
+    private long nextSegmentId;
+    private Segment active;
+    private boolean closed;
+
+    private volatile IOException failure;
+
+    /**
+     * Mở thư mục WAL; các segment có sẵn (từ lần chạy trước) được giữ nguyên để phát lại,
+     * bản ghi mới luôn vào segment mới
+     */
+    public PaymentWal(Path directory, long segmentBytes) throws IOException {
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        Files.createDirectories(directory);
+        try (Stream<Path> files = Files.list(directory)) {
+            leftovers = files.filter(PaymentWal::isSegmentFile)
+                    .sorted((a, b) -> Long.compare(segmentId(a), segmentId(b)))
+                    .toList();
+        }
+        nextSegmentId = leftovers.isEmpty() ? 1 : segmentId(leftovers.get(leftovers.size() - 1)) + 1;
+    }
+
+    /**
+     * Các segment còn lại từ lần chạy trước (cần phát lại vào database), theo thứ tự ghi
+     */
+    public List<Path> leftoverSegments() {
+        return leftovers;
+    }
+
+    /**
+     * Ghi một bản ghi và chờ tới khi nó đã được fsync
+     *
+     * @return vị trí bản ghi, dùng để báo committed sau khi đã ghi vào database
+     */
+    public Position append(byte[] payload) throws IOException {
+        if (payload.length == 0 || payload.length > MAX_RECORD_BYTES) {
+            throw new IllegalArgumentException("Bản ghi WAL phải từ 1 đến " + MAX_RECORD_BYTES + " byte");
+        }
+        ByteBuffer frame = ByteBuffer.allocate(HEADER_BYTES + payload.length);
+        frame.putInt(payload.length).putInt(crc(payload)).put(payload).flip();
+
+        Position position;
+        appendLock.lock();
+        try {
+            if (closed) {
+                throw new IOException("WAL đã đóng");
+            }
+            if (failure != null) {
+                throw new IOException("WAL ngừng nhận bản ghi sau lỗi ghi đĩa", failure);
+            }
+            Segment segment;
+            try {
+                if (active == null || active.written + frame.remaining() > segmentBytes) {
+                    roll();
+                }
+                segment = active;
+                while (frame.hasRemaining()) {
+                    segment.channel.write(frame);
+                }
+            } catch (IOException e) {
+                failure = e;
+                throw e;
+            }
+            segment.written += HEADER_BYTES + payload.length;
+            segment.appended.incrementAndGet();
+            position = new Position(segment, segment.written);
+        } finally {
+            appendLock.unlock();
+        }
+        sync(position);
+        return position;
+    }
+
+    /**
+     * Bản ghi tại position đã nằm trong database; segment đã đóng và đã commit hết thì bị xóa
+     */
+    public void committed(Position position) {
+        position.segment.committed.incrementAndGet();
+        deleteIfDone(position.segment);
+    }
+
+    /**
+     * Nhận một segment cũ đã đọc xong (records bản ghi) để xóa khi các bản ghi đó được commit
+     */
+    public Segment adopt(Path file, int records) {
+        Segment segment = new Segment(file, null);
+        segment.appended.set(records);
+        segment.sealed = true;
+        deleteIfDone(segment);
+        return segment;
+    }
+
+    /**
+     * Vị trí của một bản ghi đọc từ segment đã nhận bằng adopt
+     */
+    public static Position positionIn(Segment segment) {
+        return new Position(segment, 0);
+    }
+
+    /**
+     * Ghi thêm (và fsync) một bản ghi vào file dead letter của thư mục WAL, đọc lại được bằng read()
+     */
+    public void deadLetter(byte[] payload) throws IOException {
+        ByteBuffer frame = ByteBuffer.allocate(HEADER_BYTES + payload.length);
+        frame.putInt(payload.length).putInt(crc(payload)).put(payload).flip();
+        deadLetterLock.lock();
+        try (FileChannel channel = FileChannel.open(deadLetterFile(),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            while (frame.hasRemaining()) {
+                channel.write(frame);
+            }
+            channel.force(false);
+        } finally {
+            deadLetterLock.unlock();
+        }
+    }
+
+    /**
+     * File chứa các bút toán bị loại khỏi đường ghi database
+     */
+    public Path deadLetterFile() {
+        return directory.resolve(DEAD_LETTER_FILE);
+    }
+
+    /**
+     * WAL còn nhận bản ghi hay không (false sau lỗi ghi hoặc fsync)
+     */
+    public boolean isHealthy() {
+        return failure == null;
+    }
+
+    /**
+     * Số byte đã ghi vào segment hiện tại
+     */
+    public long activeSegmentBytes() {
+        appendLock.lock();
+        try {
+            return active == null ? 0 : active.written;
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    /**
+     * Đóng WAL; segment hiện tại bị xóa nếu mọi bản ghi đã commit, nếu không để lại cho lần phát lại sau
+     */
+    @Override
+    public void close() throws IOException {
+        appendLock.lock();
+        try {
+            closed = true;
+            if (active != null) {
+                seal(active);
+                active = null;
+            }
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    /**
+     * Đọc tuần tự các bản ghi của một file segment, dừng ở bản ghi hỏng hoặc bị cắt dở đầu tiên
+     *
+     * @return số bản ghi hợp lệ đã đọc
+     */
+    public static int read(Path file, Consumer<byte[]> sink) throws IOException {
+        int count = 0;
+        try (InputStream stream = Files.newInputStream(file);
+             DataInputStream input = new DataInputStream(new BufferedInputStream(stream))) {
+            while (true) {
+                int length;
+                try {
+                    length = input.readInt();
+                } catch (EOFException e) {
+                    break;
+                }
+                if (length <= 0 || length > MAX_RECORD_BYTES) {
+                    log.warn("Payment WAL {}: invalid record length {} after {} records, ignoring the rest",
+                            file.getFileName(), length, count);
+                    break;
+                }
+                byte[] payload;
+                int checksum;
+                try {
+                    checksum = input.readInt();
+                    payload = input.readNBytes(length);
+                } catch (EOFException e) {
+                    payload = null;
+                    checksum = 0;
+                }
+                if (payload == null || payload.length < length || crc(payload) != checksum) {
+                    log.warn("Payment WAL {}: torn or corrupt record after {} records, ignoring the rest",
+                            file.getFileName(), count);
+                    break;
+                }
+                sink.accept(payload);
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Mã hóa một bút toán thành bản ghi WAL
+     */
+    public static byte[] encode(PaymentDTO payment) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        try (DataOutputStream output = new DataOutputStream(bytes)) {
+            output.writeByte(FORMAT_VERSION);
+            output.writeUTF(payment.getCode());
+            output.writeUTF(payment.getEntryType().name());
+            output.writeUTF(payment.getMethod().name());
+            output.writeUTF(payment.getAmount().toPlainString());
+            output.writeUTF(payment.getDiscountAmount().toPlainString());
+            writeInteger(output, payment.getIdBooking());
+            writeInteger(output, payment.getIdCustomer());
+            writeInteger(output, payment.getIdStaff());
+            writeInteger(output, payment.getIdService());
+            writeInteger(output, payment.getIdPromotion());
+            writeString(output, payment.getRefundOf());
+            writeString(output, payment.getNote());
+            output.writeUTF(payment.getPaidAt().toString());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Giải mã bản ghi WAL thành bút toán
+     */
+    public static PaymentDTO decode(byte[] payload) {
+        try (DataInputStream input = new DataInputStream(new ByteArrayInputStream(payload))) {
+            byte version = input.readByte();
+            if (version != FORMAT_VERSION) {
+                throw new IllegalArgumentException("Phiên bản bản ghi WAL không hỗ trợ: " + version);
+            }
+            PaymentDTO payment = new PaymentDTO();
+            payment.setCode(input.readUTF());
+            payment.setEntryType(PaymentEntity.EntryType.valueOf(input.readUTF()));
+            payment.setMethod(PaymentEntity.PaymentMethod.valueOf(input.readUTF()));
+            payment.setAmount(new BigDecimal(input.readUTF()));
+            payment.setDiscountAmount(new BigDecimal(input.readUTF()));
+            payment.setIdBooking(readInteger(input));
+            payment.setIdCustomer(readInteger(input));
+            payment.setIdStaff(readInteger(input));
+            payment.setIdService(readInteger(input));
+            payment.setIdPromotion(readInteger(input));
+            payment.setRefundOf(readString(input));
+            payment.setNote(readString(input));
+            payment.setPaidAt(LocalDateTime.parse(input.readUTF()));
+            return payment;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Gọi khi giữ appendLock
+    private void roll() throws IOException {
+        if (active != null) {
+            seal(active);
+        }
+        Path file = directory.resolve(FILE_PREFIX + String.format("%012d", nextSegmentId++) + FILE_SUFFIX);
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        syncDirectory();
+        active = new Segment(file, channel);
+    }
+
+    // Gọi khi giữ appendLock: fsync phần còn lại rồi đóng file, các luồng đang chờ sync thấy đã bền vững
+    private void seal(Segment segment) throws IOException {
+        segment.syncLock.lock();
+        try {
+            if (segment.synced < segment.written) {
+                segment.channel.force(false);
+                segment.synced = segment.written;
+            }
+            segment.channel.close();
+            segment.sealed = true;
+        } finally {
+            segment.syncLock.unlock();
+        }
+        deleteIfDone(segment);
+    }
+
+    private void sync(Position position) throws IOException {
+        Segment segment = position.segment;
+        if (segment.synced >= position.end) {
+            return;
+        }
+        segment.syncLock.lock();
+        try {
+            if (segment.synced >= position.end) {
+                // Luồng fsync trước đã đẩy bản ghi này xuống đĩa
+                return;
+            }
+            long target = segment.written;
+            try {
+                segment.channel.force(false);
+            } catch (IOException e) {
+                failure = e;
+                throw e;
+            }
+            segment.synced = target;
+        } finally {
+            segment.syncLock.unlock();
+        }
+    }
+
+    private void deleteIfDone(Segment segment) {
+        if (segment.sealed && segment.committed.get() >= segment.appended.get()
+                && segment.deleted.compareAndSet(false, true)) {
+            try {
+                Files.deleteIfExists(segment.file);
+            } catch (IOException e) {
+                log.warn("Could not delete committed payment WAL segment {}", segment.file, e);
+            }
+        }
+    }
+
+    // File mới chỉ bền vững khi mục của nó trong thư mục cũng đã được fsync (không hỗ trợ trên Windows)
+    private void syncDirectory() {
+        try (FileChannel dir = FileChannel.open(directory, StandardOpenOption.READ)) {
+            dir.force(true);
+        } catch (IOException e) {
+            // Bỏ qua
+        }
+    }
+
+    private static boolean isSegmentFile(Path file) {
+        String name = file.getFileName().toString();
+        return name.startsWith(FILE_PREFIX) && name.endsWith(FILE_SUFFIX);
+    }
+
+    private static long segmentId(Path file) {
+        String name = file.getFileName().toString();
+        return Long.parseLong(name.substring(FILE_PREFIX.length(), name.length() - FILE_SUFFIX.length()));
+    }
+
+    private static int crc(byte[] payload) {
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+
+    private static void writeInteger(DataOutputStream output, Integer value) throws IOException {
+        output.writeBoolean(value != null);
+        if (value != null) {
+            output.writeInt(value);
+        }
+    }
+
+    private static Integer readInteger(DataInputStream input) throws IOException {
+        return input.readBoolean() ? input.readInt() : null;
+    }
+
+    private static void writeString(DataOutputStream output, String value) throws IOException {
+        output.writeBoolean(value != null);
+        if (value != null) {
+            output.writeUTF(value);
+        }
+    }
+
+    private static String readString(DataInputStream input) throws IOException {
+        return input.readBoolean() ? input.readUTF() : null;
+    }
+
+    /**
+     * Một file segment
+     */
+    public static final class Segment {
+        private final Path file;
+        private final FileChannel channel;
+        private final AtomicInteger appended = new AtomicInteger();
+        private final AtomicInteger committed = new AtomicInteger();
+        private final AtomicBoolean deleted = new AtomicBoolean();
+        // Khóa group commit; ReentrantLock thay cho synchronized để luồng fsync và các luồng chờ
+        // (virtual thread) không ghim carrier thread trong lúc chờ đĩa
+        private final ReentrantLock syncLock = new ReentrantLock();
+        // Chỉ ghi khi giữ appendLock
+        private volatile long written;
+        // Chỉ ghi khi giữ syncLock
+        private volatile long synced;
+        private volatile boolean sealed;
+
+        private Segment(Path file, FileChannel channel) {
+            this.file = file;
+            this.channel = channel;
+        }
+    }
+
+    /**
+     * Vị trí một bản ghi: segment chứa nó và offset ngay sau nó
+     */
+    public static final class Position {
+        private final Segment segment;
+        private final long end;
+
+        private Position(Segment segment, long end) {
+            this.segment = segment;
+            this.end = end;
+        }
+    }
+}
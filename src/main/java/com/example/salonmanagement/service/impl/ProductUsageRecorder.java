@@ -0,0 +1,257 @@
+package com.example.salonmanagement.service.impl;
+
+import com.example.salonmanagement.entity.ProductUsageEntity;
+import com.example.salonmanagement.event.ProductLowStockEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bộ đếm lượng sản phẩm đã dùng trong bộ nhớ, ghi vào database theo lô định kỳ
+ *
+ * FEATURE 32: Theo dõi sản phẩm tiêu hao
+ * - Ghi nhận sử dụng chỉ cộng vào LongAdder theo (sản phẩm, dịch vụ): không khóa, không truy vấn
+ *   database, nên sản phẩm dùng nhiều (dầu gội) không thành dòng bị tranh khóa
+ * - Mỗi app.product-usage.flush-interval, lượng dùng của mọi lần ghi nhận được gộp thành một câu
+ *   UPDATE tồn kho cho mỗi sản phẩm và một dòng product_usage cho mỗi (ngày, sản phẩm, dịch vụ)
+ * - Chỉ trừ bộ đếm đúng lượng đã ghi sau khi transaction commit: flush lỗi thì lần sau ghi lại,
+ *   lượng ghi nhận trong lúc flush được giữ cho lần sau; dừng ứng dụng thì flush lần cuối
+ * - Tồn kho xuống bằng hoặc dưới ngưỡng sau một lần flush thì ghi log và phát ProductLowStockEvent
+ */
+@Component
+public class ProductUsageRecorder implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductUsageRecorder.class);
+
+    private static final String STOCK_SQL = "UPDATE product SET stock_quantity = stock_quantity - ?, " +
+            "total_used = total_used + ?, updated_at = CURRENT_TIMESTAMP WHERE id_product = ?";
+
+    private static final String USAGE_SQL = "INSERT INTO product_usage " +
+            "(usage_date, id_product, id_service, quantity, use_count) VALUES (?, ?, ?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE quantity = quantity + VALUES(quantity), use_count = use_count + VALUES(use_count)";
+
+    private static final Comparator<Drain> KEY_ORDER = Comparator
+            .comparingInt((Drain d) -> d.counter.idProduct)
+            .thenComparingInt(d -> d.counter.idService);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    // (sản phẩm, dịch vụ) → bộ đếm; khóa không bao giờ bị xóa nên luồng ghi nhận không cần khóa
+    private final Map<Long, Counter> counters = new ConcurrentHashMap<>();
+
+    // Sản phẩm → lượng đã ghi nhận nhưng chưa flush (để đọc tồn kho mới nhất)
+    private final Map<Integer, LongAdder> pendingByProduct = new ConcurrentHashMap<>();
+
+    // Sản phẩm đã biết tồn tại, tránh truy vấn database mỗi lần ghi nhận
+    private final Set<Integer> knownProducts = ConcurrentHashMap.newKeySet();
+
+    // Sản phẩm đã cảnh báo tồn kho thấp, chưa nhập thêm hàng
+    private final Set<Integer> alerted = ConcurrentHashMap.newKeySet();
+
+    private UsageWriter writer = this::writeUsage;
+
+    /**
+     * Ghi lượng dùng vào database, trả về các sản phẩm có tồn kho bằng hoặc dưới ngưỡng sau khi ghi
+     */
+    interface UsageWriter {
+        List<ProductLowStockEvent> write(List<Drain> drains, LocalDate date);
+    }
+
+    /**
+     * Cấu hình trực tiếp, dùng khi chạy ngoài Spring (kiểm thử, benchmark)
+     */
+    void configure(UsageWriter writer, ApplicationEventPublisher eventPublisher) {
+        this.writer = writer;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Ghi nhận lượng sản phẩm đã dùng
+     * FEATURE 32: Theo dõi sản phẩm tiêu hao
+     *
+     * @param idService null nếu không gắn dịch vụ
+     */
+    public void record(int idProduct, Integer idService, long quantity) {
+        int service = idService != null ? idService : ProductUsageEntity.NO_SERVICE;
+        long key = ((long) idProduct << 32) | (service & 0xFFFFFFFFL);
+        Counter counter = counters.get(key);
+        if (counter == null) {
+            counter = counters.computeIfAbsent(key, k -> new Counter(idProduct, service));
+        }
+        counter.quantity.add(quantity);
+        counter.uses.increment();
+        LongAdder pending = pendingByProduct.get(idProduct);
+        if (pending == null) {
+            pending = pendingByProduct.computeIfAbsent(idProduct, k -> new LongAdder());
+        }
+        pending.add(quantity);
+    }
+
+    /**
+     * Lượng đã ghi nhận nhưng chưa flush của một sản phẩm
+     */
+    public long pendingUsage(int idProduct) {
+        LongAdder pending = pendingByProduct.get(idProduct);
+        return pending == null ? 0 : pending.sum();
+    }
+
+    public boolean isKnownProduct(int idProduct) {
+        return knownProducts.contains(idProduct);
+    }
+
+    public void registerProduct(int idProduct) {
+        knownProducts.add(idProduct);
+    }
+
+    /**
+     * Tồn kho hoặc ngưỡng đã đổi (nhập hàng, sửa ngưỡng): cho phép cảnh báo lại khi xuống ngưỡng
+     */
+    public void stockChanged(int idProduct) {
+        alerted.remove(idProduct);
+    }
+
+    /**
+     * Ghi lượng dùng đang tích lũy vào database
+     * FEATURE 32: Theo dõi sản phẩm tiêu hao
+     *
+     * @return số dòng (sản phẩm, dịch vụ) đã ghi; 0 nếu không có gì hoặc ghi lỗi
+     */
+    @Scheduled(fixedDelayString = "${app.product-usage.flush-interval:PT5S}")
+    public synchronized int flush() {
+        List<Drain> drains = new ArrayList<>();
+        for (Counter counter : counters.values()) {
+            long quantity = counter.quantity.sum();
+            long uses = counter.uses.sum();
+            if (quantity != 0 || uses != 0) {
+                drains.add(new Drain(counter, quantity, uses));
+            }
+        }
+        if (drains.isEmpty()) {
+            return 0;
+        }
+        drains.sort(KEY_ORDER);
+        List<ProductLowStockEvent> lowStock;
+        try {
+            lowStock = writer.write(drains, LocalDate.now());
+        } catch (RuntimeException e) {
+            log.error("Flushing usage of {} products failed, keeping the counters for the next run", drains.size(), e);
+            return 0;
+        }
+        Set<Integer> flushedProducts = new HashSet<>();
+        for (Drain drain : drains) {
+            // Chỉ trừ đúng lượng đã ghi: lượng ghi nhận trong lúc flush còn lại cho lần sau
+            drain.counter.quantity.add(-drain.quantity);
+            drain.counter.uses.add(-drain.uses);
+            pendingByProduct.get(drain.counter.idProduct).add(-drain.quantity);
+            flushedProducts.add(drain.counter.idProduct);
+        }
+        raiseAlerts(flushedProducts, lowStock);
+        return drains.size();
+    }
+
+    /**
+     * Flush lần cuối khi dừng ứng dụng
+     */
+    @Override
+    public void destroy() {
+        flush();
+    }
+
+    private void raiseAlerts(Set<Integer> flushedProducts, List<ProductLowStockEvent> lowStock) {
+        Set<Integer> low = new HashSet<>();
+        for (ProductLowStockEvent event : lowStock) {
+            low.add(event.getIdProduct());
+            if (alerted.add(event.getIdProduct())) {
+                log.warn("Product {} ({}) is low on stock: {} left, threshold {}", event.getIdProduct(),
+                        event.getName(), event.getStockQuantity(), event.getLowStockThreshold());
+                eventPublisher.publishEvent(event);
+            }
+        }
+        for (Integer idProduct : flushedProducts) {
+            if (!low.contains(idProduct)) {
+                alerted.remove(idProduct);
+            }
+        }
+    }
+
+    /**
+     * Một transaction: một UPDATE tồn kho cho mỗi sản phẩm (theo thứ tự ID để các node không deadlock),
+     * một dòng product_usage cho mỗi (sản phẩm, dịch vụ), rồi đọc lại tồn kho của các sản phẩm vừa ghi
+     */
+    private List<ProductLowStockEvent> writeUsage(List<Drain> drains, LocalDate date) {
+        Map<Integer, Long> byProduct = new TreeMap<>();
+        List<Object[]> usageRows = new ArrayList<>(drains.size());
+        Date usageDate = Date.valueOf(date);
+        for (Drain drain : drains) {
+            byProduct.merge(drain.counter.idProduct, drain.quantity, Long::sum);
+            usageRows.add(new Object[]{usageDate, drain.counter.idProduct, drain.counter.idService,
+                    drain.quantity, drain.uses});
+        }
+        List<Object[]> stockRows = new ArrayList<>(byProduct.size());
+        byProduct.forEach((idProduct, quantity) -> stockRows.add(new Object[]{quantity, quantity, idProduct}));
+        String placeholders = String.join(", ", Collections.nCopies(byProduct.size(), "?"));
+        return new TransactionTemplate(transactionManager).execute(status -> {
+            jdbcTemplate.batchUpdate(STOCK_SQL, stockRows);
+            jdbcTemplate.batchUpdate(USAGE_SQL, usageRows);
+            return jdbcTemplate.query("SELECT id_product, name, stock_quantity, low_stock_threshold FROM product " +
+                            "WHERE id_product IN (" + placeholders + ") AND stock_quantity <= low_stock_threshold",
+                    (rs, row) -> new ProductLowStockEvent(rs.getInt("id_product"), rs.getString("name"),
+                            rs.getLong("stock_quantity"), rs.getLong("low_stock_threshold")),
+                    byProduct.keySet().toArray());
+        });
+    }
+
+    static final class Counter {
+        final int idProduct;
+        final int idService;
+        final LongAdder quantity = new LongAdder();
+        final LongAdder uses = new LongAdder();
+
+        Counter(int idProduct, int idService) {
+            this.idProduct = idProduct;
+            this.idService = idService;
+        }
+    }
+
+    /**
+     * Lượng đọc từ một bộ đếm trong một lần flush
+     */
+    static final class Drain {
+        final Counter counter;
+        final long quantity;
+        final long uses;
+
+        Drain(Counter counter, long quantity, long uses) {
+            this.counter = counter;
+            this.quantity = quantity;
+            this.uses = uses;
+        }
+    }
+}
@@ -1,4 +1,201 @@
 package com.example.salonmanagement.service.impl;
 
+import com.example.salonmanagement.dto.ProductDTO;
+import com.example.salonmanagement.dto.ProductUsageDTO;
+import com.example.salonmanagement.entity.ProductEntity;
+import com.example.salonmanagement.entity.ProductUsageEntity;
+import com.example.salonmanagement.repository.ProductRepository;
+import com.example.salonmanagement.repository.ProductUsageRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * Service class cho ProductUsage
+ * Cung cấp các phương thức quản lý sản phẩm tiêu hao, ghi nhận lượng dùng và cảnh báo tồn kho
+ *
+ * FEATURE 32: Theo dõi sản phẩm tiêu hao
+ * - Ghi nhận lượng dùng chỉ cộng bộ đếm trong ProductUsageRecorder, không chạm database
+ * - Tồn kho trả về đã trừ lượng dùng chưa flush
+ */
+@Service
+@Transactional
 public class ProductUsageService {
+    
+    // Giới hạn khoảng báo cáo lượng dùng
+    private static final long MAX_RANGE_DAYS = 366;
+    
+    @Autowired
+    private ProductRepository productRepository;
+    
+    @Autowired
+    private ProductUsageRepository productUsageRepository;
+    
+    @Autowired
+    private ProductUsageRecorder productUsageRecorder;
+    
+    /**
+     * Ghi nhận lượng sản phẩm đã dùng (thường khi hoàn thành một dịch vụ)
+     * FEATURE 32: Theo dõi sản phẩm tiêu hao
+     *
+     * @return số dòng đã ghi nhận
+     */
+    @Transactional(readOnly = true)
+    public int recordUsage(List<ProductUsageDTO> usages) {
+        for (ProductUsageDTO usage : usages) {
+            if (usage.getIdProduct() == null) {
+                throw new IllegalArgumentException("Sản phẩm không được để trống");
+            }
+            if (usage.getQuantity() == null || usage.getQuantity() <= 0) {
+                throw new IllegalArgumentException("Lượng dùng phải lớn hơn 0");
+            }
+            if (!productUsageRecorder.isKnownProduct(usage.getIdProduct())) {
+                if (!productRepository.existsById(usage.getIdProduct())) {
+                    throw new IllegalArgumentException("Không tìm thấy sản phẩm với ID: " + usage.getIdProduct());
+                }
+                productUsageRecorder.registerProduct(usage.getIdProduct());
+            }
+        }
+        // Kiểm tra hết rồi mới ghi nhận: một dòng sai thì không dòng nào được tính
+        for (ProductUsageDTO usage : usages) {
+            productUsageRecorder.record(usage.getIdProduct(), usage.getIdService(), usage.getQuantity());
+        }
+        return usages.size();
+    }
+    
+    /**
+     * Lấy danh sách sản phẩm theo tên, tồn kho đã trừ lượng dùng chưa flush
+     * FEATURE 32: Theo dõi sản phẩm tiêu hao
+     */
+    @Transactional(readOnly = true)
+    public List<ProductDTO> getAllProducts() {
+        return productRepository.findAllByOrderByNameAsc()
+                .stream()
+                .map(this::convertToDTO)
+                .collect(Collectors.toList());
+    }
+    
+    /**
+     * Lấy sản phẩm theo ID
+     * FEATURE 32: Theo dõi sản phẩm tiêu hao
+     */
+    @Transactional(readOnly = true)
+    public Optional<ProductDTO> getProductById(Integer id) {
+        return productRepository.findById(id).map(this::convertToDTO);
+    }
+    
+    /**
+     * Sản phẩm có tồn kho (đã trừ lượng dùng chưa flush) bằng hoặc dưới ngưỡng cảnh báo
+     * FEATURE 32: Theo dõi sản phẩm tiêu hao
+     */
+    @Transactional(readOnly = true)
+    public List<ProductDTO> getLowStockProducts() {
+        return getAllProducts().stream()
+                .filter(ProductDTO::isLowStock)
+                .collect(Collectors.toList());
+    }
+    
+    /**
+     * Thêm sản phẩm mới
+     * FEATURE 32: Theo dõi sản phẩm tiêu hao
+     */
+    public ProductDTO createProduct(ProductDTO productDTO) {
+        long stock = productDTO.getStockQuantity() != null ? productDTO.getStockQuantity() : 0;
+        ProductEntity saved = productRepository.save(new ProductEntity(productDTO.getName().trim(),
+                productDTO.getUnit().trim(), stock, productDTO.getLowStockThreshold()));
+        productUsageRecorder.registerProduct(saved.getIdProduct());
+        return convertToDTO(saved);
+    }
+    
+    /**
+     * Sửa tên, đơn vị, ngưỡng cảnh báo (tồn kho chỉ đổi bằng nhập hàng)
+     * FEATURE 32: Theo dõi sản phẩm tiêu hao
+     */
+    public Optional<ProductDTO> updateProduct(Integer id, ProductDTO productDTO) {
+        Optional<ProductEntity> existing = productRepository.findById(id);
+        if (existing.isEmpty()) {
+            return Optional.empty();
+        }
+        ProductEntity entity = existing.get();
+        entity.setName(productDTO.getName().trim());
+        entity.setUnit(productDTO.getUnit().trim());
+        entity.setLowStockThreshold(productDTO.getLowStockThreshold());
+        ProductEntity saved = productRepository.save(entity);
+        productUsageRecorder.stockChanged(id);
+        return Optional.of(convertToDTO(saved));
+    }
+    
+    /**
+     * Nhập thêm hàng
+     * FEATURE 32: Theo dõi sản phẩm tiêu hao
+     *
+     * @return empty nếu không có sản phẩm với ID này
+     */
+    public Optional<ProductDTO> restockProduct(Integer id, long quantity) {
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("Số lượng nhập phải lớn hơn 0");
+        }
+        if (productRepository.restock(id, quantity) == 0) {
+            return Optional.empty();
+        }
+        productUsageRecorder.stockChanged(id);
+        return productRepository.findById(id).map(this::convertToDTO);
+    }
+    
+    /**
+     * Lượng dùng theo ngày, sản phẩm và dịch vụ trong khoảng [from, to] (đã flush)
+     * FEATURE 32: Theo dõi sản phẩm tiêu hao
+     *
+     * @param idProduct null = mọi sản phẩm
+     */
+    @Transactional(readOnly = true)
+    public List<ProductUsageDTO> getUsage(Integer idProduct, LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("Ngày bắt đầu phải trước hoặc bằng ngày kết thúc");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= MAX_RANGE_DAYS) {
+            throw new IllegalArgumentException("Khoảng báo cáo không được vượt quá " + MAX_RANGE_DAYS + " ngày");
+        }
+        List<ProductUsageEntity> rows = idProduct != null
+                ? productUsageRepository.findByIdProductAndUsageDateBetweenOrderByUsageDateAsc(idProduct, from, to)
+                : productUsageRepository.findByUsageDateBetweenOrderByUsageDateAscIdProductAsc(from, to);
+        return rows.stream()
+                .map(this::convertToDTO)
+                .collect(Collectors.toList());
+    }
+    
+    /**
+     * Convert ProductEntity sang ProductDTO (tồn kho trừ lượng dùng chưa flush)
+     */
+    private ProductDTO convertToDTO(ProductEntity entity) {
+        long pending = productUsageRecorder.pendingUsage(entity.getIdProduct());
+        ProductDTO dto = new ProductDTO();
+        dto.setIdProduct(entity.getIdProduct());
+        dto.setName(entity.getName());
+        dto.setUnit(entity.getUnit());
+        dto.setStockQuantity(entity.getStockQuantity() - pending);
+        dto.setLowStockThreshold(entity.getLowStockThreshold());
+        dto.setTotalUsed(entity.getTotalUsed() + pending);
+        dto.setPendingUsage(pending);
+        dto.setLowStock(dto.getStockQuantity() <= entity.getLowStockThreshold());
+        return dto;
+    }
+    
+    /**
+     * Convert ProductUsageEntity sang ProductUsageDTO
+     */
+    private ProductUsageDTO convertToDTO(ProductUsageEntity entity) {
+        ProductUsageDTO dto = new ProductUsageDTO(entity.getIdProduct(),
+                entity.getIdService() == ProductUsageEntity.NO_SERVICE ? null : entity.getIdService(),
+                entity.getQuantity());
+        dto.setUsageDate(entity.getUsageDate());
+        dto.setUseCount(entity.getUseCount());
+        return dto;
+    }
 }
@@ -0,0 +1,233 @@
+package com.example.salonmanagement.service.impl;
+
+import com.example.salonmanagement.event.PromotionChangedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Phát thay đổi khuyến mãi tới các client SSE (GET /api/promotions/stream)
+ *
+ * FEATURE 24: Luồng thay đổi khuyến mãi (Server-Sent Events)
+ * - Một broadcaster duy nhất nhận PromotionChangedEvent (sau commit) và chia cho mọi subscriber
+ * - Mỗi subscriber có hàng đợi giới hạn, được gửi trên thread của task executor, không gửi trên thread ghi;
+ *   subscriber đọc chậm làm đầy hàng đợi sẽ bị ngắt và tự kết nối lại với Last-Event-ID
+ * - Lịch sử vòng (ring buffer) các sự kiện gần nhất để client tiếp tục từ sự kiện cuối đã nhận;
+ *   nếu sự kiện đó đã bị ghi đè (hoặc server đã khởi động lại) thì client nhận sự kiện "reset" và tải lại
+ */
+@Component
+public class PromotionChangeBroadcaster {
+
+    public static final String EVENT_CHANGE = "promotion";
+    public static final String EVENT_RESET = "reset";
+    public static final String EVENT_READY = "ready";
+
+    static final int HISTORY_SIZE = 1024;
+    static final int SUBSCRIBER_BUFFER = 256;
+    private static final long EMITTER_TIMEOUT = TimeUnit.MINUTES.toMillis(30);
+
+    private static final Entry HEARTBEAT = new Entry(-1, null);
+    private static final Entry RESET = new Entry(-1, null);
+
+    @Autowired
+    @Qualifier("applicationTaskExecutor")
+    private TaskExecutor taskExecutor;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // Id sự kiện có dạng "<epoch>-<sequence>", epoch đổi mỗi lần khởi động
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+
+    // Chỉ truy cập trong khối synchronized(this)
+    private final Entry[] history = new Entry[HISTORY_SIZE];
+    private long sequence;
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+    @PostConstruct
+    void registerMetrics() {
+        meterRegistry.gaugeCollectionSize("promotion.stream.subscribers", Tags.empty(), subscribers);
+    }
+
+    /**
+     * Ghi sự kiện vào lịch sử và chia cho các subscriber
+     * FEATURE 24: Luồng thay đổi khuyến mãi
+     */
+    @EventListener
+    public void onPromotionChanged(PromotionChangedEvent event) {
+        // Lần chạy của bộ lập lịch không đổi gì thì không cần báo client
+        if (event.getType() == PromotionChangedEvent.Type.STATUS_TRANSITION && event.getAffectedCount() == 0) {
+            return;
+        }
+        Entry entry;
+        synchronized (this) {
+            entry = new Entry(++sequence, event);
+            history[(int) (entry.sequence % HISTORY_SIZE)] = entry;
+        }
+        for (Subscriber subscriber : subscribers) {
+            subscriber.offer(entry);
+        }
+    }
+
+    /**
+     * Đăng ký một client, phát lại các sự kiện sau lastEventId nếu có
+     * FEATURE 24: Luồng thay đổi khuyến mãi
+     */
+    public SseEmitter subscribe(String lastEventId) {
+        SseEmitter emitter = new SseEmitter(EMITTER_TIMEOUT);
+        Subscriber subscriber = new Subscriber(emitter);
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(error -> subscriber.close());
+
+        // Phát lại và đăng ký trong cùng khối khóa: không mất và không lặp sự kiện nào ở giữa
+        synchronized (this) {
+            if (lastEventId != null && !lastEventId.isBlank()) {
+                long after = parseSequence(lastEventId.trim());
+                if (after < 0 || after > sequence || after < sequence - HISTORY_SIZE) {
+                    subscriber.offer(RESET);
+                } else {
+                    for (long next = after + 1; next <= sequence; next++) {
+                        subscriber.offer(history[(int) (next % HISTORY_SIZE)]);
+                    }
+                }
+            }
+            // Đặt Last-Event-ID của client ngay cả khi chưa có thay đổi nào, để lần kết nối lại không bỏ lỡ sự kiện
+            subscriber.offer(new Entry(sequence, null));
+            subscribers.add(subscriber);
+        }
+        return emitter;
+    }
+
+    /**
+     * Comment giữ kết nối qua proxy và phát hiện client đã ngắt
+     */
+    @Scheduled(fixedRate = 20_000)
+    public void heartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.offer(HEARTBEAT);
+        }
+    }
+
+    @PreDestroy
+    void closeAll() {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.close();
+            subscriber.emitter.complete();
+        }
+    }
+
+    // -1 nếu id không thuộc epoch hiện tại hoặc sai định dạng
+    private long parseSequence(String eventId) {
+        int dash = eventId.lastIndexOf('-');
+        if (dash <= 0 || !eventId.substring(0, dash).equals(epoch)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(eventId.substring(dash + 1));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static final class Entry {
+        final long sequence;
+        final PromotionChangedEvent event;
+
+        Entry(long sequence, PromotionChangedEvent event) {
+            this.sequence = sequence;
+            this.event = event;
+        }
+    }
+
+    /**
+     * Một client: hàng đợi giới hạn, được xả bởi nhiều nhất một task tại một thời điểm
+     */
+    private final class Subscriber implements Runnable {
+        final SseEmitter emitter;
+        final BlockingQueue<Entry> queue = new ArrayBlockingQueue<>(SUBSCRIBER_BUFFER);
+        final AtomicBoolean draining = new AtomicBoolean();
+        volatile boolean closed;
+
+        Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        void offer(Entry entry) {
+            if (closed) {
+                return;
+            }
+            if (!queue.offer(entry)) {
+                // Backpressure: client quá chậm, ngắt để nó kết nối lại và phát lại từ lịch sử
+                close();
+                emitter.complete();
+                return;
+            }
+            if (draining.compareAndSet(false, true)) {
+                taskExecutor.execute(this);
+            }
+        }
+
+        void close() {
+            closed = true;
+            subscribers.remove(this);
+            queue.clear();
+        }
+
+        @Override
+        public void run() {
+            try {
+                Entry entry;
+                while (!closed && (entry = queue.poll()) != null) {
+                    send(entry);
+                }
+            } catch (IOException | IllegalStateException e) {
+                // Client đã ngắt hoặc emitter đã hoàn tất
+                close();
+                return;
+            } finally {
+                draining.set(false);
+            }
+            // Sự kiện đến sau lần poll cuối nhưng trước khi bỏ cờ draining
+            if (!closed && !queue.isEmpty() && draining.compareAndSet(false, true)) {
+                taskExecutor.execute(this);
+            }
+        }
+
+        private void send(Entry entry) throws IOException {
+            if (entry == HEARTBEAT) {
+                emitter.send(SseEmitter.event().comment("heartbeat"));
+            } else if (entry == RESET) {
+                emitter.send(SseEmitter.event().name(EVENT_RESET).data("{}", MediaType.APPLICATION_JSON));
+            } else if (entry.event == null) {
+                emitter.send(SseEmitter.event()
+                        .id(epoch + "-" + entry.sequence)
+                        .name(EVENT_READY)
+                        .data("{}", MediaType.APPLICATION_JSON));
+            } else {
+                emitter.send(SseEmitter.event()
+                        .id(epoch + "-" + entry.sequence)
+                        .name(EVENT_CHANGE)
+                        .data(entry.event, MediaType.APPLICATION_JSON));
+            }
+        }
+    }
+}
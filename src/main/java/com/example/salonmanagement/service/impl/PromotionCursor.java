@@ -0,0 +1,120 @@
+package com.example.salonmanagement.service.impl;
+
+import com.example.salonmanagement.dto.PromotionDTO;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Con trỏ phân trang keyset cho khuyến mãi: (khóa sắp xếp, giá trị, idPromotion)
+ * được mã hóa Base64 URL-safe để client chỉ việc gửi lại nguyên văn
+ *
+ * FEATURE 14: Phân trang theo con trỏ (keyset)
+ */
+final class PromotionCursor {
+
+    // Giá trị nhỏ hơn mọi dữ liệu thật, dùng cho lát đầu tiên (idPromotion luôn > 0)
+    static final LocalDate MIN_DATE = LocalDate.of(1000, 1, 1);
+
+    /**
+     * Các khóa sắp xếp được hỗ trợ, cùng tên với các endpoint /sorted/*
+     */
+    enum SortKey {
+        ID("id"),
+        NAME("name"),
+        START_DATE("start-date"),
+        END_DATE("end-date");
+
+        private final String param;
+
+        SortKey(String param) {
+            this.param = param;
+        }
+
+        static SortKey fromParam(String param) {
+            if (param == null || param.isBlank()) {
+                return ID;
+            }
+            for (SortKey key : values()) {
+                if (key.param.equalsIgnoreCase(param.trim())) {
+                    return key;
+                }
+            }
+            throw new IllegalArgumentException("Khóa sắp xếp không hợp lệ: " + param);
+        }
+    }
+
+    final SortKey sortKey;
+    final String value;
+    final int afterId;
+
+    private PromotionCursor(SortKey sortKey, String value, int afterId) {
+        this.sortKey = sortKey;
+        this.value = value;
+        this.afterId = afterId;
+    }
+
+    /**
+     * Con trỏ bắt đầu (trước phần tử đầu tiên)
+     */
+    static PromotionCursor first(SortKey sortKey) {
+        return new PromotionCursor(sortKey, sortKey == SortKey.NAME ? "" : MIN_DATE.toString(), 0);
+    }
+
+    /**
+     * Con trỏ trỏ sau khuyến mãi cuối cùng của lát hiện tại
+     */
+    static PromotionCursor after(SortKey sortKey, PromotionDTO last) {
+        String value;
+        switch (sortKey) {
+            case NAME:
+                value = last.getName();
+                break;
+            case START_DATE:
+                value = last.getStartDate().toString();
+                break;
+            case END_DATE:
+                value = last.getEndDate().toString();
+                break;
+            default:
+                value = "";
+        }
+        return new PromotionCursor(sortKey, value, last.getIdPromotion());
+    }
+
+    /**
+     * Giải mã con trỏ client gửi lên; con trỏ phải được tạo với cùng khóa sắp xếp
+     */
+    static PromotionCursor decode(String token, SortKey expectedSortKey) {
+        PromotionCursor cursor;
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\n", 3);
+            if (parts.length != 3) {
+                throw new IllegalArgumentException(raw);
+            }
+            cursor = new PromotionCursor(SortKey.valueOf(parts[0]), parts[2], Integer.parseInt(parts[1]));
+            if (cursor.sortKey == SortKey.START_DATE || cursor.sortKey == SortKey.END_DATE) {
+                cursor.dateValue();
+            }
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            // NumberFormatException và lỗi Base64 cũng là IllegalArgumentException
+            throw new IllegalArgumentException("Con trỏ phân trang không hợp lệ", e);
+        }
+        if (cursor.sortKey != expectedSortKey) {
+            throw new IllegalArgumentException("Con trỏ phân trang không khớp với khóa sắp xếp");
+        }
+        return cursor;
+    }
+
+    String encode() {
+        String raw = sortKey.name() + "\n" + afterId + "\n" + value;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    LocalDate dateValue() {
+        return LocalDate.parse(value);
+    }
+}
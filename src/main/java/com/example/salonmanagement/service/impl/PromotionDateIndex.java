@@ -0,0 +1,262 @@
+package com.example.salonmanagement.service.impl;
+
+import com.example.salonmanagement.dto.PromotionDTO;
+import com.example.salonmanagement.entity.PromotionEntity;
+import com.example.salonmanagement.util.DiscountUtil;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Chỉ mục khoảng thời gian (interval tree) cho các khuyến mãi đang ACTIVE
+ * Trả lời "đang hoạt động tại ngày D" và "hết hạn trong N ngày" trong O(log n + k)
+ * mà không cần truy vấn database
+ *
+ * FEATURE 12: Chỉ mục khuyến mãi theo ngày
+ * - Snapshot bất biến, được dựng lại khi thêm/sửa/xóa (ghi rất ít, đọc rất nhiều)
+ * - Người đọc chỉ đọc tham chiếu volatile nên không cần khóa
+ *
+ * FEATURE 25: Bộ tính giảm giá
+ * - Bảng giảm giá được biên dịch cùng snapshot nên luôn khớp với chỉ mục
+ * - Chỉ mục giữ cả khuyến mãi UPCOMING cho bảng giảm giá (dòng giỏ hàng ghi ngày tương lai),
+ *   cây khoảng và danh sách theo ngày kết thúc vẫn chỉ gồm khuyến mãi ACTIVE
+ */
+@Component
+public class PromotionDateIndex {
+
+    private static final Snapshot EMPTY = new Snapshot(null, new Entry[0], DiscountUtil.compile(List.of()));
+
+    // Các khuyến mãi ACTIVE và UPCOMING theo ID, chỉ truy cập trong khối synchronized
+    private final Map<Integer, Entry> entries = new HashMap<>();
+
+    private volatile Snapshot snapshot = EMPTY;
+    private volatile boolean loaded;
+
+    /**
+     * Nạp lại toàn bộ chỉ mục từ danh sách khuyến mãi
+     * FEATURE 12: Chỉ mục khuyến mãi theo ngày
+     */
+    public synchronized void rebuild(Collection<PromotionDTO> promotions) {
+        entries.clear();
+        for (PromotionDTO promotion : promotions) {
+            if (isIndexable(promotion)) {
+                entries.put(promotion.getIdPromotion(), new Entry(promotion));
+            }
+        }
+        publish();
+        loaded = true;
+    }
+
+    /**
+     * Thêm hoặc cập nhật một khuyến mãi trong chỉ mục
+     * FEATURE 12: Chỉ mục khuyến mãi theo ngày
+     */
+    public synchronized void put(PromotionDTO promotion) {
+        Entry previous = isIndexable(promotion)
+                ? entries.put(promotion.getIdPromotion(), new Entry(promotion))
+                : entries.remove(promotion.getIdPromotion());
+        if (previous != null || isIndexable(promotion)) {
+            publish();
+        }
+    }
+
+    /**
+     * Xóa khuyến mãi khỏi chỉ mục
+     * FEATURE 12: Chỉ mục khuyến mãi theo ngày
+     */
+    public synchronized void remove(Integer idPromotion) {
+        if (entries.remove(idPromotion) != null) {
+            publish();
+        }
+    }
+
+    /**
+     * Chỉ mục đã được nạp dữ liệu từ database hay chưa
+     */
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * Lấy các khuyến mãi ACTIVE có startDate <= date <= endDate
+     * FEATURE 12: Chỉ mục khuyến mãi theo ngày
+     */
+    public List<PromotionDTO> findActiveAt(LocalDate date) {
+        long day = date.toEpochDay();
+        List<PromotionDTO> result = new ArrayList<>();
+        Node node = snapshot.root;
+        while (node != null) {
+            if (day < node.center) {
+                // Mọi khoảng ở nút này đều kết thúc >= center > day, chỉ cần xét startDate
+                for (Entry entry : node.byStart) {
+                    if (entry.start > day) {
+                        break;
+                    }
+                    result.add(entry.promotion);
+                }
+                node = node.left;
+            } else if (day > node.center) {
+                // Mọi khoảng ở nút này đều bắt đầu <= center < day, chỉ cần xét endDate
+                for (Entry entry : node.byEndDesc) {
+                    if (entry.end < day) {
+                        break;
+                    }
+                    result.add(entry.promotion);
+                }
+                node = node.right;
+            } else {
+                for (Entry entry : node.byStart) {
+                    result.add(entry.promotion);
+                }
+                break;
+            }
+        }
+        result.sort(Comparator.comparing(PromotionDTO::getIdPromotion));
+        return result;
+    }
+
+    /**
+     * Lấy các khuyến mãi ACTIVE có from <= endDate <= to
+     * FEATURE 12: Chỉ mục khuyến mãi theo ngày
+     */
+    public List<PromotionDTO> findEndingBetween(LocalDate from, LocalDate to) {
+        long fromDay = from.toEpochDay();
+        long toDay = to.toEpochDay();
+        Entry[] byEnd = snapshot.byEnd;
+        List<PromotionDTO> result = new ArrayList<>();
+        for (int i = lowerBoundByEnd(byEnd, fromDay); i < byEnd.length && byEnd[i].end <= toDay; i++) {
+            result.add(byEnd[i].promotion);
+        }
+        return result;
+    }
+
+    /**
+     * Bảng giảm giá đã biên dịch từ các khuyến mãi ACTIVE và UPCOMING hiện tại
+     * FEATURE 25: Bộ tính giảm giá
+     */
+    public DiscountUtil.DiscountTable discountTable() {
+        return snapshot.discounts;
+    }
+
+    private static boolean isIndexable(PromotionDTO promotion) {
+        return DiscountUtil.isPriced(promotion.getStatus())
+                && promotion.getStartDate() != null
+                && promotion.getEndDate() != null;
+    }
+
+    private void publish() {
+        List<Entry> active = new ArrayList<>(entries.size());
+        List<PromotionDTO> promotions = new ArrayList<>(entries.size());
+        for (Entry entry : entries.values()) {
+            if (entry.promotion.getStatus() == PromotionEntity.PromotionStatus.ACTIVE) {
+                active.add(entry);
+            }
+            promotions.add(entry.promotion);
+        }
+        Entry[] all = active.toArray(new Entry[0]);
+        Entry[] byEnd = all.clone();
+        Arrays.sort(byEnd, Comparator.comparingLong((Entry e) -> e.end)
+                .thenComparing(e -> e.promotion.getIdPromotion()));
+        snapshot = new Snapshot(buildNode(all), byEnd, DiscountUtil.compile(promotions));
+    }
+
+    private static int lowerBoundByEnd(Entry[] byEnd, long day) {
+        int low = 0;
+        int high = byEnd.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (byEnd[mid].end < day) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Dựng cây khoảng tâm (centered interval tree): mỗi nút giữ các khoảng chứa điểm tâm,
+     * các khoảng nằm hoàn toàn bên trái/phải được đẩy xuống cây con tương ứng
+     */
+    private static Node buildNode(Entry[] intervals) {
+        if (intervals.length == 0) {
+            return null;
+        }
+        long[] points = new long[intervals.length * 2];
+        for (int i = 0; i < intervals.length; i++) {
+            points[2 * i] = intervals[i].start;
+            points[2 * i + 1] = intervals[i].end;
+        }
+        Arrays.sort(points);
+        long center = points[points.length / 2];
+
+        List<Entry> left = new ArrayList<>();
+        List<Entry> right = new ArrayList<>();
+        List<Entry> overlapping = new ArrayList<>();
+        for (Entry entry : intervals) {
+            if (entry.end < center) {
+                left.add(entry);
+            } else if (entry.start > center) {
+                right.add(entry);
+            } else {
+                overlapping.add(entry);
+            }
+        }
+
+        Entry[] byStart = overlapping.toArray(new Entry[0]);
+        Arrays.sort(byStart, Comparator.comparingLong(e -> e.start));
+        Entry[] byEndDesc = overlapping.toArray(new Entry[0]);
+        Arrays.sort(byEndDesc, Comparator.comparingLong((Entry e) -> e.end).reversed());
+
+        return new Node(center, byStart, byEndDesc,
+                buildNode(left.toArray(new Entry[0])),
+                buildNode(right.toArray(new Entry[0])));
+    }
+
+    private static final class Entry {
+        final long start;
+        final long end;
+        final PromotionDTO promotion;
+
+        Entry(PromotionDTO promotion) {
+            this.start = promotion.getStartDate().toEpochDay();
+            this.end = promotion.getEndDate().toEpochDay();
+            this.promotion = promotion;
+        }
+    }
+
+    private static final class Node {
+        final long center;
+        final Entry[] byStart;
+        final Entry[] byEndDesc;
+        final Node left;
+        final Node right;
+
+        Node(long center, Entry[] byStart, Entry[] byEndDesc, Node left, Node right) {
+            this.center = center;
+            this.byStart = byStart;
+            this.byEndDesc = byEndDesc;
+            this.left = left;
+            this.right = right;
+        }
+    }
+
+    private static final class Snapshot {
+        final Node root;
+        final Entry[] byEnd;
+        final DiscountUtil.DiscountTable discounts;
+
+        Snapshot(Node root, Entry[] byEnd, DiscountUtil.DiscountTable discounts) {
+            this.root = root;
+            this.byEnd = byEnd;
+            this.discounts = discounts;
+        }
+    }
+}
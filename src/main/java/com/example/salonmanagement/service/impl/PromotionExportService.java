@@ -0,0 +1,106 @@
+package com.example.salonmanagement.service.impl;
+
+import com.example.salonmanagement.dto.PromotionDTO;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Service xuất khuyến mãi ra CSV hoặc NDJSON, ghi thẳng vào output stream của response
+ *
+ * FEATURE 19: Xuất khuyến mãi dạng luồng
+ * - Bộ nhớ dùng không đổi: mỗi dòng được đọc từ result set streaming, ghi ra rồi bỏ đi
+ * - CSV dùng cùng tiêu đề với chức năng nhập (FEATURE 18) để có thể nhập lại
+ */
+@Service
+public class PromotionExportService {
+
+    private static final String CSV_HEADER = "idPromotion,name,discountPercent,startDate,endDate,description,status";
+
+    @Autowired
+    private PromotionService promotionService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * Ghi tất cả khuyến mãi dạng CSV (UTF-8)
+     * FEATURE 19: Xuất khuyến mãi dạng luồng
+     */
+    public void writeCsv(OutputStream output) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+        writer.write(CSV_HEADER);
+        writer.write('\n');
+        try {
+            promotionService.exportPromotions(promotion -> {
+                try {
+                    writer.write(String.valueOf(promotion.getIdPromotion()));
+                    writer.write(',');
+                    writer.write(csvEscape(promotion.getName()));
+                    writer.write(',');
+                    writer.write(promotion.getDiscountPercent().toPlainString());
+                    writer.write(',');
+                    writer.write(promotion.getStartDate().toString());
+                    writer.write(',');
+                    writer.write(promotion.getEndDate().toString());
+                    writer.write(',');
+                    writer.write(csvEscape(promotion.getDescription()));
+                    writer.write(',');
+                    writer.write(promotion.getStatus().name());
+                    writer.write('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.flush();
+    }
+
+    /**
+     * Ghi tất cả khuyến mãi dạng NDJSON (mỗi dòng một object JSON)
+     * FEATURE 19: Xuất khuyến mãi dạng luồng
+     */
+    public void writeNdjson(OutputStream output) throws IOException {
+        // Tắt flush sau mỗi giá trị, buffer của generator tự flush khi đầy
+        ObjectWriter writer = objectMapper.writerFor(PromotionDTO.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        JsonGenerator generator = objectMapper.createGenerator(output)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        try {
+            promotionService.exportPromotions(promotion -> {
+                try {
+                    writer.writeValue(generator, promotion);
+                    generator.writeRaw('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        generator.flush();
+    }
+
+    private static String csvEscape(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,395 @@
+package com.example.salonmanagement.service.impl;
+
+import com.example.salonmanagement.dto.PromotionDTO;
+import com.example.salonmanagement.dto.PromotionImportResultDTO;
+import com.example.salonmanagement.entity.PromotionEntity;
+import com.example.salonmanagement.repository.PromotionRepository;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Service nhập khuyến mãi hàng loạt từ JSON array hoặc CSV
+ *
+ * FEATURE 18: Nhập khuyến mãi hàng loạt
+ * - Đọc dữ liệu dạng luồng, mỗi lần chỉ giữ một lô (CHUNK_SIZE dòng) trong bộ nhớ
+ * - Validation song song trong lô, kiểm tra trùng tên bằng một truy vấn IN cho cả lô;
+ *   chỉ mục duy nhất uk_promotion_name chặn trùng tên giữa các lần nhập chạy đồng thời
+ * - Ghi bằng JDBC batch (IDENTITY khiến Hibernate tắt insert batching),
+ *   mỗi lô một transaction nên lô lỗi không làm mất các lô đã nhập
+ */
+@Service
+public class PromotionImportService {
+
+    static final int CHUNK_SIZE = 500;
+
+    // Tên cột vật lý theo CamelCaseToUnderscoresNamingStrategy mặc định của Spring Boot
+    private static final String INSERT_SQL = "INSERT INTO promotion " +
+            "(name, discount_percent, start_date, end_date, description, status, version, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, 0, CURRENT_TIMESTAMP)";
+
+    private static final List<String> CSV_COLUMNS =
+            List.of("name", "discountPercent", "startDate", "endDate", "description", "status");
+
+    @Autowired
+    private PromotionService promotionService;
+
+    @Autowired
+    private PromotionValidator promotionValidator;
+
+    @Autowired
+    private PromotionRepository promotionRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private PromotionMetrics promotionMetrics;
+
+    /**
+     * Nhập từ JSON array: [{"name": ..., "discountPercent": ..., ...}, ...]
+     * FEATURE 18: Nhập khuyến mãi hàng loạt
+     */
+    public PromotionImportResultDTO importJson(InputStream input) throws IOException {
+        ImportRun run = new ImportRun();
+        try (JsonParser parser = objectMapper.createParser(input)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IllegalArgumentException("Dữ liệu JSON phải là một mảng khuyến mãi");
+            }
+            int rowNumber = 0;
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                rowNumber++;
+                // Đọc trọn object thành cây trước, lỗi chuyển kiểu chỉ ảnh hưởng dòng này
+                JsonNode node = parser.readValueAsTree();
+                try {
+                    run.add(rowNumber, objectMapper.treeToValue(node, PromotionDTO.class));
+                } catch (JsonProcessingException e) {
+                    run.reject(rowNumber, node.path("name").asText(null), "Dữ liệu không đúng định dạng: " + e.getOriginalMessage());
+                }
+            }
+        }
+        return run.finish();
+    }
+
+    /**
+     * Nhập từ CSV có dòng tiêu đề: name,discountPercent,startDate,endDate,description,status
+     * FEATURE 18: Nhập khuyến mãi hàng loạt
+     */
+    public PromotionImportResultDTO importCsv(InputStream input) throws IOException {
+        ImportRun run = new ImportRun();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            String header = readCsvRecord(reader);
+            if (header == null) {
+                throw new IllegalArgumentException("File CSV không có dòng tiêu đề");
+            }
+            Map<String, Integer> columns = csvHeader(header);
+
+            String record;
+            int rowNumber = 0;
+            while ((record = readCsvRecord(reader)) != null) {
+                if (record.isBlank()) {
+                    continue;
+                }
+                rowNumber++;
+                List<String> fields = parseCsvLine(record);
+                try {
+                    run.add(rowNumber, fromCsv(fields, columns));
+                } catch (RuntimeException e) {
+                    run.reject(rowNumber, csvField(fields, columns, "name"), "Dữ liệu không đúng định dạng: " + e.getMessage());
+                }
+            }
+        }
+        return run.finish();
+    }
+
+    /**
+     * Trạng thái của một lần nhập: lô hiện tại, tên đã gặp và báo cáo kết quả
+     * Tên được so sánh không phân biệt hoa thường, như collation của cột name và existsByName
+     */
+    private class ImportRun {
+
+        private final PromotionImportResultDTO result = new PromotionImportResultDTO();
+        private final Set<String> seenNames = new HashSet<>();
+        private final List<Row> chunk = new ArrayList<>(CHUNK_SIZE);
+
+        void add(int rowNumber, PromotionDTO promotion) {
+            result.setTotalRows(result.getTotalRows() + 1);
+            chunk.add(new Row(rowNumber, promotion));
+            if (chunk.size() >= CHUNK_SIZE) {
+                flush();
+            }
+        }
+
+        void reject(int rowNumber, String name, String message) {
+            result.setTotalRows(result.getTotalRows() + 1);
+            result.addError(rowNumber, name, message);
+        }
+
+        PromotionImportResultDTO finish() {
+            flush();
+            return result;
+        }
+
+        private void flush() {
+            if (chunk.isEmpty()) {
+                return;
+            }
+
+            // Validation song song, không truy cập database (PromotionValidator không mở transaction)
+            chunk.parallelStream().forEach(row -> row.error = validate(row.promotion));
+
+            // Trùng tên trong chính dữ liệu nhập
+            List<Row> valid = new ArrayList<>(chunk.size());
+            for (Row row : chunk) {
+                if (row.error == null && !seenNames.add(nameKey(row.promotion.getName()))) {
+                    row.error = "Tên khuyến mãi bị trùng trong dữ liệu nhập";
+                    promotionMetrics.validationRejected("name.duplicate-in-payload", PromotionMetrics.SOURCE_IMPORT);
+                }
+                if (row.error == null) {
+                    valid.add(row);
+                } else {
+                    result.addError(row.rowNumber, row.promotion.getName(), row.error);
+                }
+            }
+            chunk.clear();
+            if (valid.isEmpty()) {
+                return;
+            }
+
+            List<Row> duplicates = new ArrayList<>();
+            try {
+                int inserted;
+                try {
+                    inserted = writeChunk(valid, duplicates);
+                } catch (DuplicateKeyException e) {
+                    // Lần nhập đồng thời khác vừa commit cùng tên (uk_promotion_name) và lô đã rollback:
+                    // ghi lại một lần, truy vấn tên đã tồn tại lúc này thấy các tên đó
+                    duplicates.clear();
+                    inserted = writeChunk(valid, duplicates);
+                }
+                result.setImportedRows(result.getImportedRows() + inserted);
+                for (Row row : duplicates) {
+                    result.addError(row.rowNumber, row.promotion.getName(), "Tên khuyến mãi đã tồn tại");
+                    promotionMetrics.validationRejected("name.duplicate", PromotionMetrics.SOURCE_IMPORT);
+                }
+            } catch (RuntimeException e) {
+                for (Row row : valid) {
+                    result.addError(row.rowNumber, row.promotion.getName(), "Lỗi ghi database: " + e.getMessage());
+                }
+            }
+        }
+
+        private int writeChunk(List<Row> valid, List<Row> duplicates) {
+            TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+            Integer inserted = transaction.execute(status -> {
+                // Trùng tên với dữ liệu đã có: một truy vấn IN cho cả lô
+                Set<String> names = valid.stream().map(row -> row.promotion.getName()).collect(Collectors.toSet());
+                Set<String> existing = promotionRepository.findExistingNames(names).stream()
+                        .map(PromotionImportService::nameKey)
+                        .collect(Collectors.toSet());
+
+                List<PromotionDTO> toInsert = new ArrayList<>(valid.size());
+                for (Row row : valid) {
+                    if (existing.contains(nameKey(row.promotion.getName()))) {
+                        duplicates.add(row);
+                    } else {
+                        toInsert.add(row.promotion);
+                    }
+                }
+                if (toInsert.isEmpty()) {
+                    return 0;
+                }
+
+                jdbcTemplate.batchUpdate(INSERT_SQL, toInsert, toInsert.size(), (statement, promotion) -> {
+                    statement.setString(1, promotion.getName());
+                    statement.setBigDecimal(2, promotion.getDiscountPercent());
+                    statement.setDate(3, Date.valueOf(promotion.getStartDate()));
+                    statement.setDate(4, Date.valueOf(promotion.getEndDate()));
+                    statement.setString(5, promotion.getDescription());
+                    statement.setString(6, promotion.getStatus().name());
+                });
+
+                List<String> insertedNames = toInsert.stream().map(PromotionDTO::getName).collect(Collectors.toList());
+                promotionService.onPromotionsImported(promotionRepository.findAsDTOByNameIn(insertedNames));
+                return toInsert.size();
+            });
+            return inserted == null ? 0 : inserted;
+        }
+    }
+
+    /**
+     * Kiểm tra một dòng với cùng quy tắc như POST /api/promotions, trả về thông báo lỗi hoặc null
+     */
+    private String validate(PromotionDTO promotion) {
+        Set<ConstraintViolation<PromotionDTO>> violations = validator.validate(promotion);
+        if (!violations.isEmpty()) {
+            ConstraintViolation<PromotionDTO> violation = violations.iterator().next();
+            promotionMetrics.validationRejected(PromotionMetrics.rule(violation), PromotionMetrics.SOURCE_IMPORT);
+            return violation.getMessage();
+        }
+        String businessRule = promotion.findBusinessRuleViolation();
+        if (businessRule != null) {
+            promotionMetrics.validationRejected(businessRule, PromotionMetrics.SOURCE_IMPORT);
+            return "Dữ liệu khuyến mãi không hợp lệ theo quy tắc nghiệp vụ";
+        }
+        try {
+            promotionValidator.validate(promotion, PromotionMetrics.SOURCE_IMPORT);
+        } catch (IllegalArgumentException e) {
+            return e.getMessage();
+        }
+        return null;
+    }
+
+    private static Map<String, Integer> csvHeader(String header) {
+        List<String> names = parseCsvLine(header.startsWith("\uFEFF") ? header.substring(1) : header);
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < names.size(); i++) {
+            columns.put(names.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        for (String column : CSV_COLUMNS) {
+            if (!column.equals("description") && !columns.containsKey(column.toLowerCase(Locale.ROOT))) {
+                throw new IllegalArgumentException("File CSV thiếu cột " + column);
+            }
+        }
+        return columns;
+    }
+
+    private static PromotionDTO fromCsv(List<String> fields, Map<String, Integer> columns) {
+        PromotionDTO promotion = new PromotionDTO();
+        promotion.setName(csvField(fields, columns, "name"));
+        String discount = csvField(fields, columns, "discountPercent");
+        promotion.setDiscountPercent(discount == null ? null : new BigDecimal(discount.trim()));
+        String startDate = csvField(fields, columns, "startDate");
+        promotion.setStartDate(startDate == null ? null : LocalDate.parse(startDate.trim()));
+        String endDate = csvField(fields, columns, "endDate");
+        promotion.setEndDate(endDate == null ? null : LocalDate.parse(endDate.trim()));
+        promotion.setDescription(csvField(fields, columns, "description"));
+        String status = csvField(fields, columns, "status");
+        promotion.setStatus(status == null ? null
+                : PromotionEntity.PromotionStatus.valueOf(status.trim().toUpperCase(Locale.ROOT)));
+        return promotion;
+    }
+
+    private static String csvField(List<String> fields, Map<String, Integer> columns, String column) {
+        Integer index = columns.get(column.toLowerCase(Locale.ROOT));
+        if (index == null || index >= fields.size() || fields.get(index).isEmpty()) {
+            return null;
+        }
+        return fields.get(index);
+    }
+
+    private static String nameKey(String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Đọc một bản ghi CSV (RFC 4180): trường trong dấu nháy kép có thể chứa xuống dòng,
+     * khi đó bản ghi kéo dài qua nhiều dòng (xuống dòng trong trường được chuẩn hóa thành \n)
+     *
+     * @return bản ghi, null khi hết dữ liệu
+     */
+    static String readCsvRecord(BufferedReader reader) throws IOException {
+        String line = reader.readLine();
+        if (line == null) {
+            return null;
+        }
+        boolean quoted = insideQuotes(line, false);
+        if (!quoted) {
+            return line;
+        }
+        StringBuilder record = new StringBuilder(line);
+        while (quoted && (line = reader.readLine()) != null) {
+            record.append('\n').append(line);
+            quoted = insideQuotes(line, true);
+        }
+        return record.toString();
+    }
+
+    // "" trong trường có nháy đổi trạng thái hai lần nên không cần xử lý riêng
+    private static boolean insideQuotes(String line, boolean quoted) {
+        for (int i = 0; i < line.length(); i++) {
+            if (line.charAt(i) == '"') {
+                quoted = !quoted;
+            }
+        }
+        return quoted;
+    }
+
+    /**
+     * Tách một bản ghi CSV (RFC 4180): hỗ trợ trường trong dấu nháy kép và "" để biểu diễn dấu nháy
+     */
+    static List<String> parseCsvLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        fields.add(current.toString());
+        return fields;
+    }
+
+    private static final class Row {
+        final int rowNumber;
+        final PromotionDTO promotion;
+        volatile String error;
+
+        Row(int rowNumber, PromotionDTO promotion) {
+            this.rowNumber = rowNumber;
+            this.promotion = promotion;
+        }
+    }
+}
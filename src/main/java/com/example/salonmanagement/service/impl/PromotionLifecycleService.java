@@ -0,0 +1,201 @@
+package com.example.salonmanagement.service.impl;
+
+import com.example.salonmanagement.entity.PromotionEntity;
+import com.example.salonmanagement.entity.SchedulerLeaseEntity;
+import com.example.salonmanagement.event.PromotionChangedEvent;
+import com.example.salonmanagement.repository.PromotionRepository;
+import com.example.salonmanagement.repository.SchedulerLeaseRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bộ lập lịch vòng đời khuyến mãi: UPCOMING -> ACTIVE -> EXPIRED
+ *
+ * FEATURE 20: Vòng đời khuyến mãi tự động
+ * - Chuyển trạng thái bằng hai câu UPDATE hàng loạt, không lưu từng entity
+ * - Chỉ thức dậy ở mốc tiếp theo (ngày bắt đầu/kết thúc sớm nhất, lấy bằng MIN trên database,
+ *   dùng chỉ mục (status, startDate) / (status, endDate) của bảng promotion),
+ *   tính lại mốc trên thread của bộ lập lịch khi có khuyến mãi được thêm/sửa; không quét định kỳ
+ * - Khi chạy nhiều node, lease trong bảng scheduler_lease đảm bảo mỗi lúc chỉ một node chạy UPDATE;
+ *   các câu UPDATE có điều kiện theo trạng thái nên chạy lại cũng không sao (idempotent)
+ */
+@Service
+public class PromotionLifecycleService {
+
+    private static final Logger log = LoggerFactory.getLogger(PromotionLifecycleService.class);
+
+    static final String LEASE_NAME = "promotion-lifecycle";
+
+    private static final List<PromotionEntity.PromotionStatus> UNEXPIRED =
+            List.of(PromotionEntity.PromotionStatus.UPCOMING, PromotionEntity.PromotionStatus.ACTIVE);
+
+    @Autowired
+    private PromotionRepository promotionRepository;
+
+    @Autowired
+    private SchedulerLeaseRepository schedulerLeaseRepository;
+
+    @Autowired
+    private PromotionService promotionService;
+
+    @Autowired
+    private TaskScheduler taskScheduler;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // Thời hạn lease; node không giành được lease sẽ thử lại sau khoảng này
+    @Value("${app.promotion.lifecycle.lease-duration:PT1M}")
+    private Duration leaseDuration;
+
+    // Khoảng nghỉ tối đa, để nhận thay đổi do node khác ghi
+    @Value("${app.promotion.lifecycle.max-idle:P1D}")
+    private Duration maxIdle;
+
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private ScheduledFuture<?> nextRun;
+
+    private final AtomicBoolean rescheduleRequested = new AtomicBoolean();
+
+    // ReentrantLock thay cho synchronized: giữ trong lúc truy vấn, không ghim carrier của virtual thread
+    private final ReentrantLock scheduleLock = new ReentrantLock();
+
+    /**
+     * Khởi động: tạo dòng lease nếu chưa có và xử lý ngay các chuyển trạng thái còn tồn đọng
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!schedulerLeaseRepository.existsById(LEASE_NAME)) {
+            try {
+                schedulerLeaseRepository.save(new SchedulerLeaseEntity(LEASE_NAME, null, Instant.EPOCH));
+            } catch (DataIntegrityViolationException e) {
+                // Node khác vừa tạo dòng lease
+            }
+        }
+        runTransitions();
+    }
+
+    /**
+     * Khuyến mãi thay đổi có thể tạo ra mốc sớm hơn mốc đang chờ: tính lại lịch trên thread của bộ lập lịch
+     * - Sự kiện được phát trong afterCommit trên thread của request ghi; truy vấn MIN không chạy ở đó
+     * - Nhiều thay đổi liên tiếp (nhập hàng loạt) chỉ sinh một lần tính lại đang chờ
+     */
+    @EventListener
+    public void onPromotionChanged(PromotionChangedEvent event) {
+        if (event.getType() != PromotionChangedEvent.Type.STATUS_TRANSITION
+                && rescheduleRequested.compareAndSet(false, true)) {
+            taskScheduler.schedule(this::reschedule, Instant.now());
+        }
+    }
+
+    /**
+     * Chạy các chuyển trạng thái đến hạn nếu giành được lease, rồi lên lịch cho mốc tiếp theo
+     * FEATURE 20: Vòng đời khuyến mãi tự động
+     */
+    public void runTransitions() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        try {
+            Instant now = Instant.now();
+            Integer acquired = transaction.execute(status ->
+                    schedulerLeaseRepository.tryAcquire(LEASE_NAME, nodeId, now, now.plus(leaseDuration)));
+            if (acquired == null || acquired == 0) {
+                schedule(Instant.now().plus(leaseDuration));
+                return;
+            }
+
+            try {
+                transaction.executeWithoutResult(status -> {
+                    LocalDate today = LocalDate.now();
+                    int activated = promotionRepository.activateStartedPromotions(today,
+                            PromotionEntity.PromotionStatus.UPCOMING, PromotionEntity.PromotionStatus.ACTIVE);
+                    int expired = promotionRepository.expireEndedPromotions(today,
+                            UNEXPIRED, PromotionEntity.PromotionStatus.EXPIRED);
+                    if (activated + expired > 0) {
+                        log.info("Promotion lifecycle: {} activated, {} expired", activated, expired);
+                    }
+                    // Luôn làm mới chỉ mục cục bộ: node khác có thể đã chạy UPDATE ở mốc này
+                    promotionService.onStatusTransition(activated + expired);
+                });
+            } finally {
+                transaction.executeWithoutResult(status ->
+                        schedulerLeaseRepository.release(LEASE_NAME, nodeId, Instant.now()));
+            }
+        } catch (RuntimeException e) {
+            log.error("Promotion lifecycle run failed, retrying in {}", leaseDuration, e);
+            schedule(Instant.now().plus(leaseDuration));
+            return;
+        }
+        scheduleNext();
+    }
+
+    private void reschedule() {
+        rescheduleRequested.set(false);
+        try {
+            scheduleNext();
+        } catch (RuntimeException e) {
+            log.error("Promotion lifecycle rescheduling failed, retrying in {}", leaseDuration, e);
+            schedule(Instant.now().plus(leaseDuration));
+        }
+    }
+
+    /**
+     * Tính mốc tiếp theo: ngày bắt đầu sớm nhất của UPCOMING, hoặc ngày sau ngày kết thúc sớm nhất
+     * của UPCOMING/ACTIVE; mốc đã qua nghĩa là cần chạy ngay
+     */
+    private void scheduleNext() {
+        // Hai lần tính song song có thể đặt lịch theo kết quả cũ hơn sau kết quả mới: tính lần lượt
+        scheduleLock.lock();
+        try {
+            scheduleAtNextBoundary();
+        } finally {
+            scheduleLock.unlock();
+        }
+    }
+
+    private void scheduleAtNextBoundary() {
+        LocalDate earliestStart = promotionRepository.findEarliestStartDate(PromotionEntity.PromotionStatus.UPCOMING);
+        LocalDate earliestEnd = promotionRepository.findEarliestEndDate(UNEXPIRED);
+
+        LocalDate boundary = earliestStart;
+        if (earliestEnd != null && (boundary == null || earliestEnd.plusDays(1).isBefore(boundary))) {
+            boundary = earliestEnd.plusDays(1);
+        }
+
+        Instant now = Instant.now();
+        Instant wakeAt = now.plus(maxIdle);
+        if (boundary != null) {
+            Instant boundaryAt = boundary.atStartOfDay(ZoneId.systemDefault()).toInstant();
+            if (boundaryAt.isBefore(wakeAt)) {
+                wakeAt = boundaryAt.isBefore(now) ? now : boundaryAt;
+            }
+        }
+        schedule(wakeAt);
+    }
+
+    private synchronized void schedule(Instant wakeAt) {
+        if (nextRun != null) {
+            nextRun.cancel(false);
+        }
+        nextRun = taskScheduler.schedule(this::runTransitions, wakeAt);
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.salonmanagement.service.impl;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.validation.ConstraintViolation;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.validation.FieldError;
+
+/**
+ * Metrics nghiệp vụ cho khuyến mãi (xuất qua /actuator/prometheus)
+ *
+ * FEATURE 21: Metrics cho khuyến mãi
+ * - promotion.validation.rejections{rule, source}: số lần dữ liệu bị từ chối theo từng quy tắc
+ * - Thời gian endpoint (http.server.requests) và repository (spring.data.repository.invocations)
+ *   do Spring Boot ghi sẵn, xem PromotionRepositoryMetricsAspect cho kích thước kết quả và truy vấn chậm
+ */
+@Component
+public class PromotionMetrics {
+
+    public static final String VALIDATION_REJECTIONS = "promotion.validation.rejections";
+
+    public static final String SOURCE_API = "api";
+    public static final String SOURCE_IMPORT = "import";
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /**
+     * Ghi nhận một lần từ chối theo quy tắc
+     * FEATURE 21: Metrics cho khuyến mãi
+     */
+    public void validationRejected(String rule, String source) {
+        meterRegistry.counter(VALIDATION_REJECTIONS, "rule", rule, "source", source).increment();
+    }
+
+    /**
+     * Ghi nhận và tạo exception cho quy tắc bị vi phạm trong validatePromotionData
+     */
+    IllegalArgumentException rejection(String rule, String source, String message) {
+        validationRejected(rule, source);
+        return new IllegalArgumentException(message);
+    }
+
+    // Tên quy tắc cho lỗi Bean Validation, ví dụ "name.NotBlank"
+    public static String rule(FieldError error) {
+        return error.getField() + "." + error.getCode();
+    }
+
+    public static String rule(ConstraintViolation<?> violation) {
+        return violation.getPropertyPath() + "."
+                + violation.getConstraintDescriptor().getAnnotation().annotationType().getSimpleName();
+    }
+}
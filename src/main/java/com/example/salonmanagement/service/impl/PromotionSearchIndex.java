@@ -0,0 +1,230 @@
+package com.example.salonmanagement.service.impl;
+
+import com.example.salonmanagement.dto.PromotionDTO;
+import com.example.salonmanagement.util.FormatUtil;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Chỉ mục tìm kiếm trigram cho khuyến mãi (thay cho LIKE '%keyword%')
+ * Tìm kiếm không phân biệt hoa thường và dấu tiếng Việt trên tên và mô tả
+ *
+ * FEATURE 13: Tìm kiếm khuyến mãi bằng chỉ mục n-gram
+ * - Inverted index trigram -> tập ID, được nạp khi khởi động và cập nhật khi ghi
+ * - Ứng viên lấy từ posting list nhỏ nhất rồi kiểm tra lại bằng contains(),
+ *   nên posting list cũ trong lúc đang cập nhật không gây kết quả sai
+ * - Nạp lại dựng bộ map mới rồi công bố qua một tham chiếu volatile (như PromotionDateIndex),
+ *   người đang tìm kiếm luôn thấy trọn vẹn chỉ mục cũ hoặc chỉ mục mới, không bao giờ thấy chỉ mục rỗng
+ * - put/remove sửa snapshot hiện tại trong cùng khóa với rebuild nên không rơi vào bộ map sắp bị thay
+ */
+@Component
+public class PromotionSearchIndex {
+
+    private static final int GRAM = 3;
+
+    // Thứ tự xếp hạng: tên trùng khớp > tên bắt đầu bằng từ khóa > từ trong tên > tên chứa > mô tả chứa
+    private static final int RANK_EXACT = 0;
+    private static final int RANK_PREFIX = 1;
+    private static final int RANK_WORD = 2;
+    private static final int RANK_NAME = 3;
+    private static final int RANK_DESCRIPTION = 4;
+
+    private volatile Snapshot snapshot = new Snapshot();
+    private volatile boolean loaded;
+
+    /**
+     * Nạp lại toàn bộ chỉ mục
+     * FEATURE 13: Tìm kiếm khuyến mãi bằng chỉ mục n-gram
+     */
+    public synchronized void rebuild(Collection<PromotionDTO> promotions) {
+        Snapshot fresh = new Snapshot();
+        for (PromotionDTO promotion : promotions) {
+            fresh.index(new Document(promotion));
+        }
+        snapshot = fresh;
+        loaded = true;
+    }
+
+    /**
+     * Thêm hoặc cập nhật một khuyến mãi trong chỉ mục
+     * FEATURE 13: Tìm kiếm khuyến mãi bằng chỉ mục n-gram
+     */
+    public synchronized void put(PromotionDTO promotion) {
+        snapshot.unindex(promotion.getIdPromotion());
+        snapshot.index(new Document(promotion));
+    }
+
+    /**
+     * Xóa khuyến mãi khỏi chỉ mục
+     * FEATURE 13: Tìm kiếm khuyến mãi bằng chỉ mục n-gram
+     */
+    public synchronized void remove(Integer idPromotion) {
+        snapshot.unindex(idPromotion);
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * Tìm kiếm và xếp hạng toàn bộ kết quả
+     * FEATURE 13: Tìm kiếm khuyến mãi bằng chỉ mục n-gram
+     */
+    public List<PromotionDTO> search(String keyword) {
+        String query = FormatUtil.normalizeForSearch(keyword);
+        Snapshot current = snapshot;
+
+        List<Hit> hits = new ArrayList<>();
+        if (query.isEmpty()) {
+            // Từ khóa chỉ có khoảng trắng / dấu câu: như LIKE '%%' cũ, trả về tất cả theo tên
+            for (Document document : current.documents.values()) {
+                hits.add(new Hit(document, RANK_EXACT));
+            }
+        } else {
+            for (Document document : current.candidates(query)) {
+                int rank = document.rank(query);
+                if (rank >= 0) {
+                    hits.add(new Hit(document, rank));
+                }
+            }
+        }
+        hits.sort(Comparator.comparingInt((Hit hit) -> hit.rank)
+                .thenComparing(hit -> hit.document.name)
+                .thenComparing(hit -> hit.document.promotion.getIdPromotion()));
+
+        List<PromotionDTO> result = new ArrayList<>(hits.size());
+        for (Hit hit : hits) {
+            result.add(hit.document.promotion);
+        }
+        return result;
+    }
+
+    /**
+     * Tìm kiếm với phân trang trên kết quả đã xếp hạng
+     * FEATURE 13: Tìm kiếm khuyến mãi bằng chỉ mục n-gram
+     */
+    public Page<PromotionDTO> search(String keyword, int page, int size) {
+        List<PromotionDTO> ranked = search(keyword);
+        int from = (int) Math.min((long) page * size, ranked.size());
+        int to = Math.min(from + size, ranked.size());
+        return new PageImpl<>(new ArrayList<>(ranked.subList(from, to)), PageRequest.of(page, size), ranked.size());
+    }
+
+    private static Set<String> grams(String text) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM <= text.length(); i++) {
+            grams.add(text.substring(i, i + GRAM));
+        }
+        return grams;
+    }
+
+    /**
+     * Một bản chỉ mục; các map là concurrent để put/remove sửa tại chỗ trong lúc đang có người đọc
+     */
+    private static final class Snapshot {
+        final Map<Integer, Document> documents = new ConcurrentHashMap<>();
+        final Map<String, Set<Integer>> postings = new ConcurrentHashMap<>();
+
+        private Collection<Document> candidates(String query) {
+            // Từ khóa ngắn hơn một trigram: duyệt toàn bộ tài liệu trong bộ nhớ
+            if (query.length() < GRAM) {
+                return documents.values();
+            }
+
+            Set<Integer> smallest = null;
+            for (String gram : grams(query)) {
+                Set<Integer> ids = postings.get(gram);
+                if (ids == null) {
+                    return List.of();
+                }
+                if (smallest == null || ids.size() < smallest.size()) {
+                    smallest = ids;
+                }
+            }
+
+            List<Document> result = new ArrayList<>(smallest.size());
+            for (Integer id : smallest) {
+                Document document = documents.get(id);
+                if (document != null) {
+                    result.add(document);
+                }
+            }
+            return result;
+        }
+
+        private void index(Document document) {
+            Integer id = document.promotion.getIdPromotion();
+            documents.put(id, document);
+            for (String gram : document.grams()) {
+                postings.computeIfAbsent(gram, key -> ConcurrentHashMap.newKeySet()).add(id);
+            }
+        }
+
+        private void unindex(Integer idPromotion) {
+            Document previous = documents.remove(idPromotion);
+            if (previous == null) {
+                return;
+            }
+            for (String gram : previous.grams()) {
+                Set<Integer> ids = postings.get(gram);
+                if (ids != null) {
+                    ids.remove(idPromotion);
+                    if (ids.isEmpty()) {
+                        postings.remove(gram);
+                    }
+                }
+            }
+        }
+    }
+
+    private static final class Document {
+        final PromotionDTO promotion;
+        final String name;
+        final String description;
+
+        Document(PromotionDTO promotion) {
+            this.promotion = promotion;
+            this.name = FormatUtil.normalizeForSearch(promotion.getName());
+            this.description = FormatUtil.normalizeForSearch(promotion.getDescription());
+        }
+
+        Set<String> grams() {
+            Set<String> grams = PromotionSearchIndex.grams(name);
+            grams.addAll(PromotionSearchIndex.grams(description));
+            return grams;
+        }
+
+        // Trả về hạng của tài liệu với từ khóa, -1 nếu không khớp
+        int rank(String query) {
+            int position = name.indexOf(query);
+            if (position == 0) {
+                return name.length() == query.length() ? RANK_EXACT : RANK_PREFIX;
+            }
+            if (position > 0) {
+                return name.contains(" " + query) ? RANK_WORD : RANK_NAME;
+            }
+            return description.contains(query) ? RANK_DESCRIPTION : -1;
+        }
+    }
+
+    private static final class Hit {
+        final Document document;
+        final int rank;
+
+        Hit(Document document, int rank) {
+            this.document = document;
+            this.rank = rank;
+        }
+    }
+}
@@ -1,19 +1,41 @@
 package com.example.salonmanagement.service.impl;
 
+import com.example.salonmanagement.config.CacheConfig;
+import com.example.salonmanagement.dto.CartQuoteDTO;
 import com.example.salonmanagement.dto.PromotionDTO;
+import com.example.salonmanagement.dto.PromotionSliceDTO;
+import com.example.salonmanagement.dto.RevenueDTO;
 import com.example.salonmanagement.entity.PromotionEntity;
+import com.example.salonmanagement.entity.RevenueRollupEntity;
+import com.example.salonmanagement.event.PromotionChangedEvent;
 import com.example.salonmanagement.repository.PromotionRepository;
+import com.example.salonmanagement.util.DiscountUtil;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Service class cho Promotion
@@ -21,6 +43,9 @@ import java.util.stream.Collectors;
  * 
  * FEATURE 1: Lấy danh sách khuyến mãi
  * - Tất cả methods getAll*, getPromotionsBy*
+ * 
+ * FEATURE 17: Các phương thức đọc chạy trong transaction readOnly
+ * - Hibernate bỏ qua flush/dirty-checking và có thể định tuyến sang replica
  */
 @Service
 @Transactional
@@ -29,43 +54,100 @@ public class PromotionService {
     @Autowired
     private PromotionRepository promotionRepository;
     
+    @Autowired
+    private PromotionDateIndex promotionDateIndex;
+    
+    @Autowired
+    private PromotionSearchIndex promotionSearchIndex;
+    
+    @Autowired
+    private CacheManager cacheManager;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Autowired
+    private PromotionMetrics promotionMetrics;
+    
+    @Autowired
+    private PromotionValidator promotionValidator;
+    
+    @Autowired
+    private PromotionVersionTracker promotionVersionTracker;
+    
+    @Autowired
+    private RevenueService revenueService;
+    
+    // Proxy của chính service: gọi phương thức @Transactional từ callback afterCommit / listener
+    @Lazy
+    @Autowired
+    private PromotionService self;
+    
     /**
      * Lấy danh sách tất cả khuyến mãi
      * FEATURE 1: Lấy danh sách khuyến mãi
+     * FEATURE 15: Cache đọc, trả về danh sách bất biến
      */
+    @Cacheable(cacheNames = CacheConfig.PROMOTIONS_ALL,
+            cacheResolver = CacheConfig.VERSIONED_PROMOTION_CACHE_RESOLVER, sync = true)
+    @Transactional(readOnly = true)
     public List<PromotionDTO> getAllPromotions() {
-        List<PromotionEntity> entities = promotionRepository.findAll();
-        return entities.stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        // FEATURE 16: Projection trực tiếp sang DTO, không nạp entity
+        return List.copyOf(promotionRepository.findAllAsDTO());
     }
     
     /**
      * Lấy khuyến mãi theo ID
      * FEATURE 1: Lấy danh sách khuyến mãi
+     * FEATURE 15: Cache đọc theo ID
      */
+    @Cacheable(cacheNames = CacheConfig.PROMOTIONS_BY_ID, key = "#id",
+            cacheResolver = CacheConfig.VERSIONED_PROMOTION_CACHE_RESOLVER, sync = true)
+    @Transactional(readOnly = true)
     public Optional<PromotionDTO> getPromotionById(Integer id) {
         Optional<PromotionEntity> entity = promotionRepository.findById(id);
         return entity.map(this::convertToDTO);
     }
     
+    /**
+     * Doanh thu và tổng giảm giá đã áp dụng của một khuyến mãi theo ngày/tuần/tháng
+     * FEATURE 31: Tổng hợp doanh thu tăng dần
+     *
+     * @return empty nếu không có khuyến mãi với ID này
+     */
+    @Transactional(readOnly = true)
+    public Optional<List<RevenueDTO>> getPromotionRevenue(Integer id, RevenueDTO.Granularity granularity,
+                                                          LocalDate from, LocalDate to) {
+        if (!promotionRepository.existsById(id)) {
+            return Optional.empty();
+        }
+        return Optional.of(revenueService.getRevenue(RevenueRollupEntity.Dimension.PROMOTION, id, granularity, from, to));
+    }
+    
     /**
      * Lấy danh sách khuyến mãi theo trạng thái
      * FEATURE 1: Lấy danh sách khuyến mãi
+     * FEATURE 15: Cache đọc theo trạng thái, trả về danh sách bất biến
      */
+    @Cacheable(cacheNames = CacheConfig.PROMOTIONS_BY_STATUS, key = "#status",
+            cacheResolver = CacheConfig.VERSIONED_PROMOTION_CACHE_RESOLVER, sync = true)
+    @Transactional(readOnly = true)
     public List<PromotionDTO> getPromotionsByStatus(PromotionEntity.PromotionStatus status) {
-        List<PromotionEntity> entities = promotionRepository.findByStatus(status);
-        return entities.stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        // FEATURE 16: Projection trực tiếp sang DTO, không nạp entity
+        return List.copyOf(promotionRepository.findAsDTOByStatus(status));
     }
     
     /**
      * Lấy danh sách khuyến mãi đang hoạt động
      * FEATURE 1: Lấy danh sách khuyến mãi
      */
+    @Transactional(readOnly = true)
     public List<PromotionDTO> getActivePromotions() {
         LocalDate currentDate = LocalDate.now();
+        // FEATURE 12: Trả lời từ chỉ mục trong bộ nhớ, không truy vấn database
+        if (promotionDateIndex.isLoaded()) {
+            return promotionDateIndex.findActiveAt(currentDate);
+        }
         List<PromotionEntity> entities = promotionRepository.findActivePromotions(currentDate);
         return entities.stream()
                 .map(this::convertToDTO)
@@ -76,9 +158,14 @@ public class PromotionService {
      * Lấy danh sách khuyến mãi sắp hết hạn
      * FEATURE 1: Lấy danh sách khuyến mãi
      */
+    @Transactional(readOnly = true)
     public List<PromotionDTO> getPromotionsExpiringSoon() {
         LocalDate currentDate = LocalDate.now();
         LocalDate futureDate = currentDate.plusDays(7);
+        // FEATURE 12: Trả lời từ chỉ mục trong bộ nhớ, không truy vấn database
+        if (promotionDateIndex.isLoaded()) {
+            return promotionDateIndex.findEndingBetween(currentDate, futureDate);
+        }
         List<PromotionEntity> entities = promotionRepository.findPromotionsExpiringSoon(currentDate, futureDate);
         return entities.stream()
                 .map(this::convertToDTO)
@@ -92,34 +179,40 @@ public class PromotionService {
     /**
      * Sắp xếp danh sách khuyến mãi theo tên
      * FEATURE 3: Sắp xếp danh sách khuyến mãi
+     * FEATURE 15: Cache đọc, trả về danh sách bất biến
      */
+    @Cacheable(cacheNames = CacheConfig.PROMOTIONS_SORTED, key = "'name'",
+            cacheResolver = CacheConfig.VERSIONED_PROMOTION_CACHE_RESOLVER, sync = true)
+    @Transactional(readOnly = true)
     public List<PromotionDTO> getPromotionsSortedByName() {
-        List<PromotionEntity> entities = promotionRepository.findAllByOrderByNameAsc();
-        return entities.stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        // FEATURE 16: Projection trực tiếp sang DTO, không nạp entity
+        return List.copyOf(promotionRepository.findAllAsDTOOrderByName());
     }
     
     /**
      * Sắp xếp danh sách khuyến mãi theo ngày bắt đầu
      * FEATURE 3: Sắp xếp danh sách khuyến mãi
+     * FEATURE 15: Cache đọc, trả về danh sách bất biến
      */
+    @Cacheable(cacheNames = CacheConfig.PROMOTIONS_SORTED, key = "'start-date'",
+            cacheResolver = CacheConfig.VERSIONED_PROMOTION_CACHE_RESOLVER, sync = true)
+    @Transactional(readOnly = true)
     public List<PromotionDTO> getPromotionsSortedByStartDate() {
-        List<PromotionEntity> entities = promotionRepository.findAllByOrderByStartDateAsc();
-        return entities.stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        // FEATURE 16: Projection trực tiếp sang DTO, không nạp entity
+        return List.copyOf(promotionRepository.findAllAsDTOOrderByStartDate());
     }
     
     /**
      * Sắp xếp danh sách khuyến mãi theo ngày kết thúc
      * FEATURE 3: Sắp xếp danh sách khuyến mãi
+     * FEATURE 15: Cache đọc, trả về danh sách bất biến
      */
+    @Cacheable(cacheNames = CacheConfig.PROMOTIONS_SORTED, key = "'end-date'",
+            cacheResolver = CacheConfig.VERSIONED_PROMOTION_CACHE_RESOLVER, sync = true)
+    @Transactional(readOnly = true)
     public List<PromotionDTO> getPromotionsSortedByEndDate() {
-        List<PromotionEntity> entities = promotionRepository.findAllByOrderByEndDateAsc();
-        return entities.stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        // FEATURE 16: Projection trực tiếp sang DTO, không nạp entity
+        return List.copyOf(promotionRepository.findAllAsDTOOrderByEndDate());
     }
     
     // ========================================
@@ -130,21 +223,76 @@ public class PromotionService {
      * Lấy danh sách khuyến mãi với phân trang
      * FEATURE 4: Phân trang danh sách khuyến mãi
      */
+    @Transactional(readOnly = true)
     public Page<PromotionDTO> getAllPromotionsWithPagination(int page, int size) {
         Pageable pageable = PageRequest.of(page, size);
-        Page<PromotionEntity> entityPage = promotionRepository.findAll(pageable);
-        return entityPage.map(this::convertToDTO);
+        // FEATURE 16: Projection trực tiếp sang DTO, không nạp entity
+        return promotionRepository.findAllAsDTO(pageable);
     }
     
     /**
      * Lấy danh sách khuyến mãi theo trạng thái với phân trang
      * FEATURE 4: Phân trang danh sách khuyến mãi
      */
+    @Transactional(readOnly = true)
     public Page<PromotionDTO> getPromotionsByStatusWithPagination(PromotionEntity.PromotionStatus status, 
                                                                  int page, int size) {
         Pageable pageable = PageRequest.of(page, size);
-        Page<PromotionEntity> entityPage = promotionRepository.findByStatus(status, pageable);
-        return entityPage.map(this::convertToDTO);
+        // FEATURE 16: Projection trực tiếp sang DTO, không nạp entity
+        return promotionRepository.findAsDTOByStatus(status, pageable);
+    }
+    
+    // ========================================
+    // FEATURE 14: Phân trang theo con trỏ (keyset)
+    // ========================================
+    
+    /**
+     * Lấy lát khuyến mãi tiếp theo sau con trỏ, sắp xếp theo (sortKey, idPromotion)
+     * Chi phí mỗi lát như nhau dù ở sâu đến đâu và không có truy vấn COUNT(*)
+     * FEATURE 14: Phân trang theo con trỏ
+     * 
+     * @param status trạng thái cần lọc, null để lấy tất cả
+     * @param sort   id | name | start-date | end-date
+     * @param after  con trỏ nextCursor của lát trước, null/rỗng cho lát đầu tiên
+     */
+    @Transactional(readOnly = true)
+    public PromotionSliceDTO getPromotionsAfterCursor(PromotionEntity.PromotionStatus status, String sort,
+                                                       String after, int size) {
+        PromotionCursor.SortKey sortKey = PromotionCursor.SortKey.fromParam(sort);
+        PromotionCursor cursor = (after == null || after.isBlank())
+                ? PromotionCursor.first(sortKey)
+                : PromotionCursor.decode(after.trim(), sortKey);
+        Pageable limit = PageRequest.of(0, size);
+        
+        // FEATURE 16: Projection trực tiếp sang DTO, không nạp entity
+        Slice<PromotionDTO> slice;
+        switch (sortKey) {
+            case NAME:
+                slice = status == null
+                        ? promotionRepository.findNextByName(cursor.value, cursor.afterId, limit)
+                        : promotionRepository.findNextByStatusAndName(status, cursor.value, cursor.afterId, limit);
+                break;
+            case START_DATE:
+                slice = status == null
+                        ? promotionRepository.findNextByStartDate(cursor.dateValue(), cursor.afterId, limit)
+                        : promotionRepository.findNextByStatusAndStartDate(status, cursor.dateValue(), cursor.afterId, limit);
+                break;
+            case END_DATE:
+                slice = status == null
+                        ? promotionRepository.findNextByEndDate(cursor.dateValue(), cursor.afterId, limit)
+                        : promotionRepository.findNextByStatusAndEndDate(status, cursor.dateValue(), cursor.afterId, limit);
+                break;
+            default:
+                slice = status == null
+                        ? promotionRepository.findNextById(cursor.afterId, limit)
+                        : promotionRepository.findNextByStatusAndId(status, cursor.afterId, limit);
+        }
+        
+        List<PromotionDTO> content = slice.getContent();
+        String nextCursor = slice.hasNext() && !content.isEmpty()
+                ? PromotionCursor.after(sortKey, content.get(content.size() - 1)).encode()
+                : null;
+        return new PromotionSliceDTO(content, nextCursor, slice.hasNext(), content.size());
     }
     
     // ========================================
@@ -161,82 +309,54 @@ public class PromotionService {
         
         // Kiểm tra trùng tên
         if (promotionRepository.existsByName(promotionDTO.getName())) {
-            throw new IllegalArgumentException("Tên khuyến mãi đã tồn tại");
+            throw promotionMetrics.rejection("name.duplicate", PromotionMetrics.SOURCE_API, "Tên khuyến mãi đã tồn tại");
         }
         
         // Kiểm tra ngày hợp lệ
         if (promotionDTO.getEndDate().isBefore(promotionDTO.getStartDate())) {
-            throw new IllegalArgumentException("Ngày kết thúc phải sau ngày bắt đầu");
+            throw promotionMetrics.rejection("date.end-before-start", PromotionMetrics.SOURCE_API, "Ngày kết thúc phải sau ngày bắt đầu");
         }
         
         PromotionEntity entity = convertToEntity(promotionDTO);
-        PromotionEntity savedEntity = promotionRepository.save(entity);
+        PromotionEntity savedEntity = saveUniqueName(entity);
+        PromotionDTO indexed = convertToDTO(savedEntity);
+        PromotionVersionTracker.Version version = promotionVersionTracker.recordChange();
+        afterCommit(() -> {
+            promotionDateIndex.put(indexed);
+            promotionSearchIndex.put(indexed);
+            evictPromotionCaches(version, indexed.getIdPromotion(), indexed.getStatus());
+            eventPublisher.publishEvent(new PromotionChangedEvent(
+                    PromotionChangedEvent.Type.CREATED, indexed.getIdPromotion(), indexed, 1));
+        });
         return convertToDTO(savedEntity);
     }
     
+    /**
+     * Ghi ngay (flush) để request đồng thời cùng tên vừa lọt qua existsByName bị uk_promotion_name
+     * từ chối bằng lỗi 400 như kiểm tra trùng tên, thay vì lỗi khi commit
+     * FEATURE 18: Nhập khuyến mãi hàng loạt
+     */
+    private PromotionEntity saveUniqueName(PromotionEntity entity) {
+        try {
+            return promotionRepository.saveAndFlush(entity);
+        } catch (DataIntegrityViolationException e) {
+            throw promotionMetrics.rejection("name.duplicate", PromotionMetrics.SOURCE_API, "Tên khuyến mãi đã tồn tại");
+        }
+    }
+    
     /**
      * Validation dữ liệu khuyến mãi
      * FEATURE 5: Validation cho thêm khuyến mãi mới
      */
-    private void validatePromotionData(PromotionDTO promotionDTO) {
-        // Kiểm tra null pointer
-        if (promotionDTO == null) {
-            throw new IllegalArgumentException("Dữ liệu khuyến mãi không được null");
-        }
-        
-        // Validation tên khuyến mãi
-        if (promotionDTO.getName() == null || promotionDTO.getName().trim().isEmpty()) {
-            throw new IllegalArgumentException("Tên khuyến mãi không được để trống");
-        }
-        
-        // Kiểm tra tên chỉ chứa khoảng trắng
-        if (promotionDTO.getName().trim().length() == 0) {
-            throw new IllegalArgumentException("Tên khuyến mãi không được chỉ chứa khoảng trắng");
-        }
-        
-        // Kiểm tra tên quá ngắn (ít nhất 2 ký tự)
-        if (promotionDTO.getName().trim().length() < 2) {
-            throw new IllegalArgumentException("Tên khuyến mãi phải có ít nhất 2 ký tự");
-        }
-        
-        // Validation phần trăm giảm giá
-        if (promotionDTO.getDiscountPercent() == null) {
-            throw new IllegalArgumentException("Phần trăm giảm giá không được để trống");
-        }
-        
-        if (promotionDTO.getDiscountPercent().compareTo(java.math.BigDecimal.ZERO) <= 0) {
-            throw new IllegalArgumentException("Phần trăm giảm giá phải lớn hơn 0");
-        }
-        
-        if (promotionDTO.getDiscountPercent().compareTo(new java.math.BigDecimal("100")) > 0) {
-            throw new IllegalArgumentException("Phần trăm giảm giá không được vượt quá 100%");
-        }
-        
-        // Validation ngày tháng
-        if (promotionDTO.getStartDate() == null) {
-            throw new IllegalArgumentException("Ngày bắt đầu không được để trống");
-        }
-        
-        if (promotionDTO.getEndDate() == null) {
-            throw new IllegalArgumentException("Ngày kết thúc không được để trống");
-        }
-        
-        // Kiểm tra ngày kết thúc phải sau ngày bắt đầu
-        if (promotionDTO.getEndDate().isBefore(promotionDTO.getStartDate())) {
-            throw new IllegalArgumentException("Ngày kết thúc phải sau ngày bắt đầu");
-        }
-        
-        // Validation trạng thái
-        if (promotionDTO.getStatus() == null) {
-            throw new IllegalArgumentException("Trạng thái không được để trống");
-        }
+    void validatePromotionData(PromotionDTO promotionDTO) {
+        promotionValidator.validate(promotionDTO, PromotionMetrics.SOURCE_API);
     }
     
     /**
      * Chuyển đổi từ Entity sang DTO
      * FEATURE 1, 3, 4, 5: Hỗ trợ lấy danh sách khuyến mãi, sắp xếp, phân trang và thêm mới
      */
-    private PromotionDTO convertToDTO(PromotionEntity entity) {
+    PromotionDTO convertToDTO(PromotionEntity entity) {
         return new PromotionDTO(
                 entity.getIdPromotion(),
                 entity.getName(),
@@ -283,17 +403,33 @@ public class PromotionService {
         
         // Kiểm tra trùng tên (trừ khuyến mãi hiện tại)
         if (promotionRepository.existsByNameAndIdPromotionNot(promotionDTO.getName(), id)) {
-            throw new IllegalArgumentException("Tên khuyến mãi đã tồn tại");
+            throw promotionMetrics.rejection("name.duplicate", PromotionMetrics.SOURCE_API, "Tên khuyến mãi đã tồn tại");
         }
         
         // Kiểm tra ngày hợp lệ
         if (promotionDTO.getEndDate().isBefore(promotionDTO.getStartDate())) {
-            throw new IllegalArgumentException("Ngày kết thúc phải sau ngày bắt đầu");
+            throw promotionMetrics.rejection("date.end-before-start", PromotionMetrics.SOURCE_API, "Ngày kết thúc phải sau ngày bắt đầu");
         }
         
-        PromotionEntity entity = convertToEntity(promotionDTO);
-        entity.setIdPromotion(id);
-        PromotionEntity savedEntity = promotionRepository.save(entity);
+        // FEATURE 23: Sửa entity đã nạp để Hibernate tăng version (merge entity mới sẽ lệch version)
+        PromotionEntity entity = existingEntity.get();
+        PromotionEntity.PromotionStatus previousStatus = entity.getStatus();
+        entity.setName(promotionDTO.getName());
+        entity.setDiscountPercent(promotionDTO.getDiscountPercent());
+        entity.setStartDate(promotionDTO.getStartDate());
+        entity.setEndDate(promotionDTO.getEndDate());
+        entity.setDescription(promotionDTO.getDescription());
+        entity.setStatus(promotionDTO.getStatus());
+        PromotionEntity savedEntity = saveUniqueName(entity);
+        PromotionDTO indexed = convertToDTO(savedEntity);
+        PromotionVersionTracker.Version version = promotionVersionTracker.recordChange();
+        afterCommit(() -> {
+            promotionDateIndex.put(indexed);
+            promotionSearchIndex.put(indexed);
+            evictPromotionCaches(version, id, previousStatus, indexed.getStatus());
+            eventPublisher.publishEvent(new PromotionChangedEvent(
+                    PromotionChangedEvent.Type.UPDATED, id, indexed, 1));
+        });
         return convertToDTO(savedEntity);
     }
     
@@ -306,8 +442,18 @@ public class PromotionService {
      * FEATURE 9: Xóa khuyến mãi
      */
     public boolean deletePromotion(Integer id) {
-        if (promotionRepository.existsById(id)) {
-            promotionRepository.deleteById(id);
+        Optional<PromotionEntity> existingEntity = promotionRepository.findById(id);
+        if (existingEntity.isPresent()) {
+            PromotionEntity.PromotionStatus previousStatus = existingEntity.get().getStatus();
+            promotionRepository.delete(existingEntity.get());
+            PromotionVersionTracker.Version version = promotionVersionTracker.recordChange();
+            afterCommit(() -> {
+                promotionDateIndex.remove(id);
+                promotionSearchIndex.remove(id);
+                evictPromotionCaches(version, id, previousStatus);
+                eventPublisher.publishEvent(new PromotionChangedEvent(
+                        PromotionChangedEvent.Type.DELETED, id, null, 1));
+            });
             return true;
         }
         return false;
@@ -321,7 +467,12 @@ public class PromotionService {
      * Tìm kiếm khuyến mãi theo từ khóa
      * FEATURE 11: Tìm kiếm khuyến mãi
      */
+    @Transactional(readOnly = true)
     public List<PromotionDTO> searchPromotions(String keyword) {
+        // FEATURE 13: Tìm kiếm bằng chỉ mục trigram thay cho LIKE '%keyword%'
+        if (promotionSearchIndex.isLoaded()) {
+            return promotionSearchIndex.search(keyword);
+        }
         List<PromotionEntity> entities = promotionRepository.searchPromotions(keyword);
         return entities.stream()
                 .map(this::convertToDTO)
@@ -332,9 +483,226 @@ public class PromotionService {
      * Tìm kiếm khuyến mãi với phân trang
      * FEATURE 11: Tìm kiếm khuyến mãi với phân trang
      */
+    @Transactional(readOnly = true)
     public Page<PromotionDTO> searchPromotionsWithPagination(String keyword, int page, int size) {
+        // FEATURE 13: Tìm kiếm bằng chỉ mục trigram thay cho LIKE '%keyword%'
+        if (promotionSearchIndex.isLoaded()) {
+            return promotionSearchIndex.search(keyword, page, size);
+        }
         Pageable pageable = PageRequest.of(page, size);
         Page<PromotionEntity> entityPage = promotionRepository.searchPromotionsWithPagination(keyword, pageable);
         return entityPage.map(this::convertToDTO);
     }
+    
+    // ========================================
+    // FEATURE 19: Xuất khuyến mãi dạng luồng
+    // ========================================
+    
+    /**
+     * Duyệt tất cả khuyến mãi theo thứ tự ID và đẩy từng khuyến mãi cho sink,
+     * không tạo danh sách trong bộ nhớ
+     * FEATURE 19: Xuất khuyến mãi dạng luồng
+     */
+    @Transactional(readOnly = true)
+    public void exportPromotions(Consumer<PromotionDTO> sink) {
+        try (Stream<PromotionDTO> promotions = promotionRepository.streamAllAsDTO()) {
+            promotions.forEach(sink);
+        }
+    }
+    
+    // ========================================
+    // FEATURE 25: Bộ tính giảm giá
+    // ========================================
+    
+    /**
+     * Báo giá giỏ hàng: mỗi dòng nhận khuyến mãi tốt nhất có hiệu lực tại ngày của dòng
+     * (dòng không ghi ngày dùng ngày của giỏ, mặc định hôm nay), giảm giá làm tròn tới đồng
+     * Khuyến mãi UPCOMING cũng được xét nên dòng ghi ngày tương lai nhận khuyến mãi sẽ chạy hôm đó
+     * FEATURE 25: Bộ tính giảm giá
+     */
+    @Transactional(readOnly = true)
+    public CartQuoteDTO quoteCart(CartQuoteDTO cart) {
+        // Dùng bảng đã biên dịch sẵn cùng chỉ mục ngày, chỉ biên dịch tại chỗ khi chỉ mục chưa nạp
+        DiscountUtil.DiscountTable table = promotionDateIndex.isLoaded()
+                ? promotionDateIndex.discountTable()
+                : DiscountUtil.compile(promotionRepository.findAllAsDTO());
+        
+        List<CartQuoteDTO.Item> items = cart.getItems();
+        int count = items.size();
+        long[] days = new long[count];
+        long[] amounts = new long[count];
+        long[] discounts = new long[count];
+        int[] promotionIds = new int[count];
+        LocalDate defaultDate = cart.getDate() != null ? cart.getDate() : LocalDate.now();
+        long subtotal = 0;
+        try {
+            for (int i = 0; i < count; i++) {
+                CartQuoteDTO.Item item = items.get(i);
+                if (item.getUnitPrice() == null || item.getUnitPrice().signum() < 0 || item.getQuantity() < 1) {
+                    throw new IllegalArgumentException("Dòng " + (i + 1) + " có đơn giá hoặc số lượng không hợp lệ");
+                }
+                days[i] = (item.getDate() != null ? item.getDate() : defaultDate).toEpochDay();
+                amounts[i] = Math.multiplyExact(DiscountUtil.toVnd(item.getUnitPrice()), (long) item.getQuantity());
+                subtotal = Math.addExact(subtotal, amounts[i]);
+            }
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Tổng tiền giỏ hàng vượt quá giới hạn cho phép");
+        }
+        
+        long totalDiscount = table.price(days, amounts, count, discounts, promotionIds);
+        
+        for (int i = 0; i < count; i++) {
+            CartQuoteDTO.Item item = items.get(i);
+            item.setDate(LocalDate.ofEpochDay(days[i]));
+            item.setAmount(amounts[i]);
+            item.setDiscountAmount(discounts[i]);
+            item.setTotal(amounts[i] - discounts[i]);
+            if (promotionIds[i] != DiscountUtil.NO_PROMOTION) {
+                item.setIdPromotion(promotionIds[i]);
+                item.setDiscountPercent(BigDecimal.valueOf(table.basisPointsAt(days[i]), 2));
+            } else {
+                item.setIdPromotion(null);
+                item.setDiscountPercent(BigDecimal.ZERO);
+            }
+        }
+        cart.setDate(defaultDate);
+        cart.setSubtotal(subtotal);
+        cart.setTotalDiscount(totalDiscount);
+        cart.setTotal(subtotal - totalDiscount);
+        return cart;
+    }
+    
+    // ========================================
+    // FEATURE 12, 13: Chỉ mục khuyến mãi trong bộ nhớ
+    // ========================================
+    
+    /**
+     * Nạp chỉ mục theo ngày và chỉ mục tìm kiếm khi ứng dụng khởi động xong
+     * FEATURE 12: Chỉ mục khuyến mãi theo ngày
+     * FEATURE 13: Tìm kiếm khuyến mãi bằng chỉ mục n-gram
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void loadPromotionIndexes() {
+        List<PromotionDTO> promotions = promotionRepository.findAllAsDTO();
+        promotionDateIndex.rebuild(promotions);
+        promotionSearchIndex.rebuild(promotions);
+    }
+    
+    /**
+     * Nạp lại chỉ mục sau một lần ghi đã commit (chuyển trạng thái hàng loạt, ghi trên node khác)
+     * FEATURE 12: Chỉ mục khuyến mãi theo ngày
+     * FEATURE 13: Tìm kiếm khuyến mãi bằng chỉ mục n-gram
+     * - Transaction mới, không readOnly: đọc từ primary vì replica có thể chưa có dữ liệu vừa ghi,
+     *   và không tham gia transaction vừa commit khi được gọi trong afterCommit
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void reloadPromotionIndexes() {
+        List<PromotionDTO> promotions = promotionRepository.findAllAsDTO();
+        promotionDateIndex.rebuild(promotions);
+        promotionSearchIndex.rebuild(promotions);
+    }
+    
+    /**
+     * Nạp lại chỉ mục khi node khác đã ghi khuyến mãi; cache tự hết hiệu lực vì phiên bản đã đổi
+     * FEATURE 23: HTTP conditional GET
+     */
+    @EventListener
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void onRemoteChange(PromotionChangedEvent event) {
+        if (event.getType() == PromotionChangedEvent.Type.REMOTE) {
+            self.reloadPromotionIndexes();
+        }
+    }
+    
+    /**
+     * Cập nhật chỉ mục và cache cho các khuyến mãi vừa được nhập hàng loạt bằng JDBC,
+     * sau khi transaction của lô commit
+     * FEATURE 18: Nhập khuyến mãi hàng loạt
+     */
+    public void onPromotionsImported(List<PromotionDTO> imported) {
+        PromotionEntity.PromotionStatus[] statuses = imported.stream()
+                .map(PromotionDTO::getStatus)
+                .distinct()
+                .toArray(PromotionEntity.PromotionStatus[]::new);
+        PromotionVersionTracker.Version version = promotionVersionTracker.recordChange();
+        afterCommit(() -> {
+            for (PromotionDTO promotion : imported) {
+                promotionDateIndex.put(promotion);
+                promotionSearchIndex.put(promotion);
+            }
+            evictPromotionCaches(version, null, statuses);
+            eventPublisher.publishEvent(new PromotionChangedEvent(
+                    PromotionChangedEvent.Type.IMPORTED, null, null, imported.size()));
+        });
+    }
+    
+    /**
+     * Làm mới chỉ mục và cache sau khi bộ lập lịch chuyển trạng thái hàng loạt bằng câu UPDATE
+     * (bỏ qua entity nên không thể cập nhật từng khuyến mãi)
+     * FEATURE 20: Vòng đời khuyến mãi tự động
+     */
+    public void onStatusTransition(int affectedCount) {
+        // Lần chạy không đổi gì không tăng phiên bản dùng chung
+        PromotionVersionTracker.Version version = affectedCount > 0 ? promotionVersionTracker.recordChange() : null;
+        afterCommit(() -> {
+            self.reloadPromotionIndexes();
+            for (String name : new String[]{CacheConfig.PROMOTIONS_ALL, CacheConfig.PROMOTIONS_BY_ID,
+                    CacheConfig.PROMOTIONS_BY_STATUS, CacheConfig.PROMOTIONS_SORTED}) {
+                Cache cache = cacheManager.getCache(name);
+                if (cache != null) {
+                    cache.clear();
+                }
+            }
+            if (version != null) {
+                promotionVersionTracker.changed(version);
+            }
+            eventPublisher.publishEvent(new PromotionChangedEvent(
+                    PromotionChangedEvent.Type.STATUS_TRANSITION, null, null, affectedCount));
+        });
+    }
+    
+    /**
+     * Xóa chính xác các mục cache bị ảnh hưởng bởi một lần ghi:
+     * mục theo ID, danh sách của các trạng thái liên quan, danh sách tất cả và danh sách đã sắp xếp
+     * FEATURE 15: Cache đọc khuyến mãi
+     */
+    private void evictPromotionCaches(PromotionVersionTracker.Version version, Integer id,
+                                      PromotionEntity.PromotionStatus... statuses) {
+        Cache byId = cacheManager.getCache(CacheConfig.PROMOTIONS_BY_ID);
+        if (byId != null && id != null) {
+            byId.evict(id);
+        }
+        Cache byStatus = cacheManager.getCache(CacheConfig.PROMOTIONS_BY_STATUS);
+        if (byStatus != null) {
+            for (PromotionEntity.PromotionStatus status : statuses) {
+                byStatus.evict(status);
+            }
+        }
+        for (String name : new String[]{CacheConfig.PROMOTIONS_ALL, CacheConfig.PROMOTIONS_SORTED}) {
+            Cache cache = cacheManager.getCache(name);
+            if (cache != null) {
+                cache.clear();
+            }
+        }
+        // FEATURE 23: Đổi ETag sau cùng, khi chỉ mục và cache đã phản ánh lần ghi
+        promotionVersionTracker.changed(version);
+    }
+    
+    /**
+     * Chạy action sau khi transaction commit thành công (hoặc ngay nếu không có transaction)
+     * để chỉ mục trong bộ nhớ không chứa dữ liệu của transaction bị rollback
+     */
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
 }
\ No newline at end of file
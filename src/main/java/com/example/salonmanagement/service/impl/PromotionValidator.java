@@ -0,0 +1,82 @@
+package com.example.salonmanagement.service.impl;
+
+import com.example.salonmanagement.dto.PromotionDTO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+
+/**
+ * Quy tắc kiểm tra dữ liệu khuyến mãi dùng chung cho API và nhập hàng loạt
+ *
+ * FEATURE 5: Validation cho thêm khuyến mãi mới
+ * FEATURE 18: Nhập khuyến mãi hàng loạt
+ * - Không phải bean @Transactional: nhập hàng loạt gọi song song cho từng dòng trên common pool
+ *   mà không mượn connection hay mở transaction (PromotionService có @Transactional ở mức lớp)
+ */
+@Component
+public class PromotionValidator {
+
+    @Autowired
+    private PromotionMetrics promotionMetrics;
+
+    /**
+     * Kiểm tra dữ liệu, đếm số lần từ chối theo quy tắc và nguồn dữ liệu
+     * FEATURE 21: Metrics cho khuyến mãi
+     *
+     * @throws IllegalArgumentException quy tắc đầu tiên bị vi phạm
+     */
+    public void validate(PromotionDTO promotionDTO, String source) {
+        // Kiểm tra null pointer
+        if (promotionDTO == null) {
+            throw promotionMetrics.rejection("promotion.null", source, "Dữ liệu khuyến mãi không được null");
+        }
+
+        // Validation tên khuyến mãi
+        if (promotionDTO.getName() == null || promotionDTO.getName().trim().isEmpty()) {
+            throw promotionMetrics.rejection("name.blank", source, "Tên khuyến mãi không được để trống");
+        }
+
+        // Kiểm tra tên chỉ chứa khoảng trắng
+        if (promotionDTO.getName().trim().length() == 0) {
+            throw promotionMetrics.rejection("name.whitespace", source, "Tên khuyến mãi không được chỉ chứa khoảng trắng");
+        }
+
+        // Kiểm tra tên quá ngắn (ít nhất 2 ký tự)
+        if (promotionDTO.getName().trim().length() < 2) {
+            throw promotionMetrics.rejection("name.too-short", source, "Tên khuyến mãi phải có ít nhất 2 ký tự");
+        }
+
+        // Validation phần trăm giảm giá
+        if (promotionDTO.getDiscountPercent() == null) {
+            throw promotionMetrics.rejection("discount.missing", source, "Phần trăm giảm giá không được để trống");
+        }
+
+        if (promotionDTO.getDiscountPercent().compareTo(BigDecimal.ZERO) <= 0) {
+            throw promotionMetrics.rejection("discount.not-positive", source, "Phần trăm giảm giá phải lớn hơn 0");
+        }
+
+        if (promotionDTO.getDiscountPercent().compareTo(new BigDecimal("100")) > 0) {
+            throw promotionMetrics.rejection("discount.over-100", source, "Phần trăm giảm giá không được vượt quá 100%");
+        }
+
+        // Validation ngày tháng
+        if (promotionDTO.getStartDate() == null) {
+            throw promotionMetrics.rejection("start-date.missing", source, "Ngày bắt đầu không được để trống");
+        }
+
+        if (promotionDTO.getEndDate() == null) {
+            throw promotionMetrics.rejection("end-date.missing", source, "Ngày kết thúc không được để trống");
+        }
+
+        // Kiểm tra ngày kết thúc phải sau ngày bắt đầu
+        if (promotionDTO.getEndDate().isBefore(promotionDTO.getStartDate())) {
+            throw promotionMetrics.rejection("date.end-before-start", source, "Ngày kết thúc phải sau ngày bắt đầu");
+        }
+
+        // Validation trạng thái
+        if (promotionDTO.getStatus() == null) {
+            throw promotionMetrics.rejection("status.missing", source, "Trạng thái không được để trống");
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.example.salonmanagement.service.impl;
+
+import com.example.salonmanagement.event.PromotionChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Phiên bản của cả tập khuyến mãi, lưu trong bảng promotion_catalog_version dùng chung cho mọi node
+ * Dùng làm ETag / Last-Modified cho các GET /api/promotions/** mà không cần truy vấn database trên request
+ *
+ * FEATURE 23: HTTP conditional GET
+ * - recordChange() tăng phiên bản trong transaction ghi, changed() công bố phiên bản đó sau khi
+ *   chỉ mục và cache cục bộ đã được cập nhật
+ * - refresh() đọc lại phiên bản mỗi app.promotion.version-refresh trên thread của bộ lập lịch:
+ *   thay đổi do node khác ghi làm ETag đổi sau tối đa một chu kỳ và được phát thành sự kiện REMOTE
+ *   để node này làm mới chỉ mục
+ * - ETag = phiên bản + Last-Modified, nên database được tạo lại cũng không trùng ETag cũ
+ */
+@Component
+public class PromotionVersionTracker {
+
+    private static final Logger log = LoggerFactory.getLogger(PromotionVersionTracker.class);
+
+    private static final String SEED_SQL = "INSERT IGNORE INTO promotion_catalog_version " +
+            "(id, version, last_modified) VALUES (1, 0, 0)";
+
+    private static final String BUMP_SQL = "UPDATE promotion_catalog_version " +
+            "SET version = version + 1, last_modified = GREATEST(?, last_modified + 1000) WHERE id = 1";
+
+    private static final String READ_SQL = "SELECT version, last_modified FROM promotion_catalog_version WHERE id = 1";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    private volatile Version current = new Version(0, System.currentTimeMillis());
+
+    // Chỉ truy cập trong khối synchronized(this)
+    private long observed = -1;
+    // Các phiên bản do node này ghi mà refresh() chưa đọc tới
+    private final NavigableSet<Long> localVersions = new ConcurrentSkipListSet<>();
+
+    /**
+     * Cấu hình trực tiếp, dùng khi chạy ngoài Spring (kiểm thử)
+     */
+    void configure(JdbcTemplate jdbcTemplate, ApplicationEventPublisher eventPublisher) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Tăng phiên bản; phải gọi trong transaction ghi khuyến mãi, sau các câu lệnh ghi
+     * để khóa dòng phiên bản được giữ ngắn nhất
+     * FEATURE 23: HTTP conditional GET
+     *
+     * @return phiên bản mới, chỉ có hiệu lực khi transaction commit
+     */
+    public Version recordChange() {
+        if (jdbcTemplate.update(BUMP_SQL, System.currentTimeMillis()) == 0) {
+            jdbcTemplate.update(SEED_SQL);
+            jdbcTemplate.update(BUMP_SQL, System.currentTimeMillis());
+        }
+        return read();
+    }
+
+    /**
+     * Công bố phiên bản đã commit; gọi sau khi chỉ mục và cache đã được cập nhật
+     * FEATURE 23: HTTP conditional GET
+     */
+    public synchronized void changed(Version written) {
+        if (written.version > observed) {
+            localVersions.add(written.version);
+        }
+        if (written.version > current.version) {
+            current = written;
+        }
+    }
+
+    /**
+     * Đọc phiên bản trong database, phát PromotionChangedEvent REMOTE nếu có phiên bản không do node này ghi
+     * FEATURE 23: HTTP conditional GET
+     */
+    @Scheduled(fixedDelayString = "${app.promotion.version-refresh:PT1S}")
+    public void refresh() {
+        Version latest;
+        try {
+            latest = read();
+        } catch (DataAccessException e) {
+            log.warn("Reading the promotion catalog version failed, keeping {}", current.version, e);
+            return;
+        }
+        if (latest == null) {
+            // Chưa có lần ghi nào: phiên bản 0, để lần ghi đầu tiên của node khác cũng được nhận ra
+            latest = new Version(0, current.lastModified);
+        }
+        // Phiên bản cục bộ đã commit nhưng chưa changed() bị tính là của node khác: chỉ nạp lại chỉ mục thừa
+        long remoteChanges = 0;
+        synchronized (this) {
+            if (observed >= 0 && latest.version > observed) {
+                NavigableSet<Long> seen = localVersions.subSet(observed, false, latest.version, true);
+                remoteChanges = latest.version - observed - seen.size();
+            }
+            localVersions.headSet(latest.version, true).clear();
+            observed = Math.max(observed, latest.version);
+            if (latest.version > current.version) {
+                current = latest;
+            }
+        }
+        if (remoteChanges > 0) {
+            eventPublisher.publishEvent(new PromotionChangedEvent(
+                    PromotionChangedEvent.Type.REMOTE, null, null, (int) Math.min(remoteChanges, Integer.MAX_VALUE)));
+        }
+    }
+
+    /**
+     * ETag mạnh của phiên bản hiện tại
+     */
+    public String eTag() {
+        Version version = current;
+        return "\"" + version.version + "-" + Long.toString(version.lastModified, 36) + "\"";
+    }
+
+    public long lastModified() {
+        return current.lastModified;
+    }
+
+    private Version read() {
+        List<Version> rows = jdbcTemplate.query(READ_SQL,
+                (rs, row) -> new Version(rs.getLong("version"), rs.getLong("last_modified")));
+        return rows.isEmpty() ? null : rows.get(0);
+    }
+
+    /**
+     * Một phiên bản của tập khuyến mãi
+     */
+    public static final class Version {
+        final long version;
+        final long lastModified;
+
+        public Version(long version, long lastModified) {
+            this.version = version;
+            this.lastModified = lastModified;
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.salonmanagement.service.impl;
+
+import com.example.salonmanagement.dto.PaymentDTO;
+import com.example.salonmanagement.entity.PaymentEntity;
+import com.example.salonmanagement.entity.RevenueRollupEntity;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Cộng dồn bút toán mới vào bảng revenue_rollup
+ *
+ * FEATURE 31: Tổng hợp doanh thu tăng dần
+ * - Một lô bút toán được gộp trong bộ nhớ thành delta theo (ngày, chiều, ID) rồi ghi bằng một
+ *   JDBC batch "INSERT ... ON DUPLICATE KEY UPDATE cột = cột + delta": mỗi dòng tổng chỉ bị
+ *   chạm một lần mỗi lô dù lô có bao nhiêu bút toán
+ * - Chạy trong transaction ghi bút toán nên tổng luôn khớp với bảng payment
+ * - Delta được ghi theo thứ tự khóa để các node cùng ghi không deadlock
+ */
+@Component
+public class RevenueRollups {
+
+    private static final String UPSERT_SQL = "INSERT INTO revenue_rollup " +
+            "(bucket_date, dimension, dimension_id, gross_amount, refund_amount, discount_amount, payment_count, refund_count) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE gross_amount = gross_amount + VALUES(gross_amount), " +
+            "refund_amount = refund_amount + VALUES(refund_amount), " +
+            "discount_amount = discount_amount + VALUES(discount_amount), " +
+            "payment_count = payment_count + VALUES(payment_count), " +
+            "refund_count = refund_count + VALUES(refund_count)";
+
+    private static final Comparator<Delta> KEY_ORDER = Comparator
+            .comparing((Delta d) -> d.date)
+            .thenComparing(d -> d.dimension)
+            .thenComparingInt(d -> d.dimensionId);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Cộng các bút toán (mới ghi, chưa từng được cộng) vào bảng tổng; phải gọi trong transaction ghi bút toán
+     * FEATURE 31: Tổng hợp doanh thu tăng dần
+     */
+    public void add(Collection<PaymentDTO> payments) {
+        List<Delta> deltas = aggregate(payments);
+        if (deltas.isEmpty()) {
+            return;
+        }
+        List<Object[]> rows = new ArrayList<>(deltas.size());
+        for (Delta delta : deltas) {
+            rows.add(new Object[]{Date.valueOf(delta.date), delta.dimension.name(), delta.dimensionId,
+                    delta.gross, delta.refund, delta.discount, delta.payments, delta.refunds});
+        }
+        jdbcTemplate.batchUpdate(UPSERT_SQL, rows);
+    }
+
+    /**
+     * Gộp bút toán thành delta theo (ngày thanh toán, chiều, ID), sắp theo khóa
+     */
+    static List<Delta> aggregate(Collection<PaymentDTO> payments) {
+        Map<Delta, Delta> deltas = new HashMap<>();
+        for (PaymentDTO payment : payments) {
+            LocalDate date = payment.getPaidAt().toLocalDate();
+            accumulate(deltas, date, RevenueRollupEntity.Dimension.TOTAL, RevenueRollupEntity.TOTAL_ID, payment);
+            accumulate(deltas, date, RevenueRollupEntity.Dimension.STAFF, payment.getIdStaff(), payment);
+            accumulate(deltas, date, RevenueRollupEntity.Dimension.SERVICE, payment.getIdService(), payment);
+            accumulate(deltas, date, RevenueRollupEntity.Dimension.PROMOTION, payment.getIdPromotion(), payment);
+        }
+        List<Delta> sorted = new ArrayList<>(deltas.keySet());
+        sorted.sort(KEY_ORDER);
+        return sorted;
+    }
+
+    private static void accumulate(Map<Delta, Delta> deltas, LocalDate date, RevenueRollupEntity.Dimension dimension,
+                                   Integer dimensionId, PaymentDTO payment) {
+        if (dimensionId == null) {
+            return;
+        }
+        Delta key = new Delta(date, dimension, dimensionId);
+        Delta delta = deltas.computeIfAbsent(key, k -> k);
+        if (payment.getEntryType() == PaymentEntity.EntryType.REFUND) {
+            // Bút toán hoàn tiền mang số tiền âm
+            delta.refund = delta.refund.subtract(payment.getAmount());
+            delta.refunds++;
+        } else {
+            delta.gross = delta.gross.add(payment.getAmount());
+            delta.payments++;
+        }
+        delta.discount = delta.discount.add(payment.getDiscountAmount());
+    }
+
+    /**
+     * Thay đổi của một dòng tổng; equals/hashCode chỉ theo khóa (ngày, chiều, ID)
+     */
+    static final class Delta {
+        final LocalDate date;
+        final RevenueRollupEntity.Dimension dimension;
+        final int dimensionId;
+        BigDecimal gross = BigDecimal.ZERO;
+        BigDecimal refund = BigDecimal.ZERO;
+        BigDecimal discount = BigDecimal.ZERO;
+        int payments;
+        int refunds;
+
+        Delta(LocalDate date, RevenueRollupEntity.Dimension dimension, int dimensionId) {
+            this.date = date;
+            this.dimension = dimension;
+            this.dimensionId = dimensionId;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Delta other && date.equals(other.date)
+                    && dimension == other.dimension && dimensionId == other.dimensionId;
+        }
+
+        @Override
+        public int hashCode() {
+            return (date.hashCode() * 31 + dimension.hashCode()) * 31 + dimensionId;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.salonmanagement.service.impl;
+
+import com.example.salonmanagement.dto.RevenueDTO;
+import com.example.salonmanagement.entity.RevenueRollupEntity;
+import com.example.salonmanagement.repository.RevenueRollupRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Service class cho báo cáo doanh thu
+ * Đọc bảng revenue_rollup (tổng theo ngày) và gộp thành ô ngày/tuần/tháng
+ *
+ * FEATURE 31: Tổng hợp doanh thu tăng dần
+ * - Không đọc bảng payment: chi phí theo số ngày × số ID trong khoảng, không theo số bút toán
+ * - Tuần bắt đầu từ thứ Hai; ô đầu/cuối có thể chỉ gồm một phần tuần/tháng nếu khoảng cắt ngang
+ */
+@Service
+@Transactional(readOnly = true)
+public class RevenueService {
+    
+    // Giới hạn khoảng báo cáo để một request không đọc quá nhiều dòng ngày
+    private static final long MAX_RANGE_DAYS = 3 * 366;
+    
+    private static final Comparator<RevenueDTO> BUCKET_ORDER = Comparator
+            .comparing(RevenueDTO::getBucketStart)
+            .thenComparing(RevenueDTO::getDimensionId);
+    
+    @Autowired
+    private RevenueRollupRepository revenueRollupRepository;
+    
+    /**
+     * Doanh thu theo chiều trong khoảng [from, to], gộp theo granularity
+     * FEATURE 31: Tổng hợp doanh thu tăng dần
+     *
+     * @param dimensionId null = mọi ID của chiều (bỏ qua với TOTAL)
+     */
+    public List<RevenueDTO> getRevenue(RevenueRollupEntity.Dimension dimension, Integer dimensionId,
+                                       RevenueDTO.Granularity granularity, LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("Ngày bắt đầu phải trước hoặc bằng ngày kết thúc");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= MAX_RANGE_DAYS) {
+            throw new IllegalArgumentException("Khoảng báo cáo không được vượt quá " + MAX_RANGE_DAYS + " ngày");
+        }
+        if (dimension == RevenueRollupEntity.Dimension.TOTAL) {
+            dimensionId = RevenueRollupEntity.TOTAL_ID;
+        }
+        List<RevenueRollupEntity> days = dimensionId != null
+                ? revenueRollupRepository.findByDimensionAndDimensionIdAndBucketDateBetweenOrderByBucketDateAsc(
+                        dimension, dimensionId, from, to)
+                : revenueRollupRepository.findByDimensionAndBucketDateBetweenOrderByBucketDateAsc(
+                        dimension, from, to);
+        return merge(days, granularity);
+    }
+    
+    /**
+     * Gộp dòng ngày thành ô theo granularity, sắp theo (ngày bắt đầu ô, ID)
+     */
+    static List<RevenueDTO> merge(List<RevenueRollupEntity> days, RevenueDTO.Granularity granularity) {
+        Map<RevenueRollupEntity.Key, RevenueDTO> buckets = new HashMap<>();
+        for (RevenueRollupEntity day : days) {
+            LocalDate start = bucketStart(day.getBucketDate(), granularity);
+            buckets.computeIfAbsent(new RevenueRollupEntity.Key(start, day.getDimension(), day.getDimensionId()),
+                            key -> new RevenueDTO(start, granularity, day.getDimension(), day.getDimensionId()))
+                    .add(day);
+        }
+        List<RevenueDTO> result = new ArrayList<>(buckets.values());
+        result.sort(BUCKET_ORDER);
+        return result;
+    }
+    
+    static LocalDate bucketStart(LocalDate date, RevenueDTO.Granularity granularity) {
+        return switch (granularity) {
+            case DAY -> date;
+            case WEEK -> date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case MONTH -> date.withDayOfMonth(1);
+        };
+    }
+}
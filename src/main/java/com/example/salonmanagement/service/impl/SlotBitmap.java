@@ -0,0 +1,140 @@
+package com.example.salonmanagement.service.impl;
+
+/**
+ * Các phép toán trên bitmap khung giờ trong ngày: bit i của long[] tương ứng khung giờ thứ i
+ * (bit i nằm ở word i / 64, vị trí i % 64)
+ *
+ * FEATURE 27: Lịch đặt chỗ dạng bitmap
+ * - Mọi phép kiểm tra/đặt/xóa một khoảng khung giờ làm trên cả word 64 bit bằng mặt nạ,
+ *   không duyệt từng khung giờ
+ */
+public final class SlotBitmap {
+
+    private SlotBitmap() {}
+
+    /**
+     * Số word cần cho slotCount khung giờ
+     */
+    public static int words(int slotCount) {
+        return (slotCount + 63) >>> 6;
+    }
+
+    /**
+     * Có khung giờ nào trong [from, from + count) đã được đặt bit hay không
+     */
+    public static boolean anySet(long[] bits, int from, int count) {
+        int end = from + count;
+        for (int word = from >>> 6; word < words(end); word++) {
+            if ((bits[word] & mask(word, from, end)) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Đặt bit cho các khung giờ [from, from + count)
+     */
+    public static void set(long[] bits, int from, int count) {
+        int end = from + count;
+        for (int word = from >>> 6; word < words(end); word++) {
+            bits[word] |= mask(word, from, end);
+        }
+    }
+
+    /**
+     * Xóa bit của các khung giờ [from, from + count)
+     */
+    public static void clear(long[] bits, int from, int count) {
+        int end = from + count;
+        for (int word = from >>> 6; word < words(end); word++) {
+            bits[word] &= ~mask(word, from, end);
+        }
+    }
+
+    /**
+     * Bitmap có các khung giờ [from, from + count) được đặt bit
+     */
+    public static long[] range(int slotCount, int from, int count) {
+        long[] bits = new long[words(slotCount)];
+        if (count > 0) {
+            set(bits, from, count);
+        }
+        return bits;
+    }
+
+    /**
+     * Các vị trí bắt đầu có length khung giờ liên tiếp đều trống:
+     * bit s của kết quả bật khi free[s .. s + length - 1] đều bật
+     * Mỗi bước AND bitmap với chính nó dịch đi "độ dài đã có", nên chỉ cần O(log length) lượt trên các word
+     *
+     * @param free bitmap khung giờ trống (đã loại giờ đóng cửa và khung giờ đã đặt)
+     */
+    public static long[] runStarts(long[] free, int length) {
+        long[] runs = free.clone();
+        int covered = 1;
+        while (covered < length) {
+            int step = Math.min(covered, length - covered);
+            long[] shifted = shiftDown(runs, step);
+            for (int i = 0; i < runs.length; i++) {
+                runs[i] &= shifted[i];
+            }
+            covered += step;
+        }
+        return runs;
+    }
+
+    /**
+     * free = open & ~busy, tạo mảng mới
+     */
+    public static long[] free(long[] open, long[] busy) {
+        long[] free = new long[open.length];
+        for (int i = 0; i < open.length; i++) {
+            free[i] = open[i] & ~busy[i];
+        }
+        return free;
+    }
+
+    /**
+     * Vị trí bit bật đầu tiên từ from trở đi, -1 nếu không còn
+     */
+    public static int nextSetBit(long[] bits, int from) {
+        int word = from >>> 6;
+        if (word >= bits.length) {
+            return -1;
+        }
+        long current = bits[word] & (-1L << from);
+        while (true) {
+            if (current != 0) {
+                return (word << 6) + Long.numberOfTrailingZeros(current);
+            }
+            if (++word == bits.length) {
+                return -1;
+            }
+            current = bits[word];
+        }
+    }
+
+    // Kết quả bit i = bits[i + shift], các bit vượt quá cuối mảng là 0
+    private static long[] shiftDown(long[] bits, int shift) {
+        long[] result = new long[bits.length];
+        int wordShift = shift >>> 6;
+        int bitShift = shift & 63;
+        for (int i = 0; i + wordShift < bits.length; i++) {
+            long low = bits[i + wordShift] >>> bitShift;
+            long high = bitShift == 0 || i + wordShift + 1 >= bits.length
+                    ? 0
+                    : bits[i + wordShift + 1] << (64 - bitShift);
+            result[i] = low | high;
+        }
+        return result;
+    }
+
+    // Mặt nạ các bit của word nằm trong [from, end)
+    private static long mask(int word, int from, int end) {
+        int low = Math.max(from - (word << 6), 0);
+        int high = Math.min(end - (word << 6), 64);
+        long upper = high == 64 ? -1L : (1L << high) - 1;
+        return upper & (-1L << low);
+    }
+}
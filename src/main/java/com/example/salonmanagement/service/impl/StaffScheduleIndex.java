@@ -0,0 +1,258 @@
+package com.example.salonmanagement.service.impl;
+
+import com.example.salonmanagement.dto.StaffDTO;
+import com.example.salonmanagement.dto.StaffShiftDTO;
+import com.example.salonmanagement.entity.StaffEntity;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Chỉ mục (chuyên môn, chi nhánh) → nhân viên → bitmap ca làm theo thứ trong tuần
+ * Trả lời "nhân viên nào có chuyên môn X, đang trong ca và còn trống lúc T" chỉ bằng
+ * phép toán bit, không join nhân viên - ca làm - lịch hẹn trên database
+ *
+ * FEATURE 29: Chỉ mục lịch làm việc của nhân viên
+ * - Bitmap ca làm dùng cùng khung giờ với BookingCalendar nên giao được trực tiếp với bitmap lịch hẹn
+ * - Snapshot bất biến; thêm/sửa một nhân viên chỉ dựng lại bitmap của nhân viên đó,
+ *   các nhóm (chuyên môn, chi nhánh) chỉ sao chép tham chiếu
+ * - Người đọc chỉ đọc tham chiếu volatile nên không cần khóa
+ */
+@Component
+public class StaffScheduleIndex {
+
+    private static final String ANY = "*";
+    private static final Entry[] NONE = new Entry[0];
+    private static final Snapshot EMPTY = new Snapshot(Map.of(), Map.of());
+
+    @Autowired
+    private BookingCalendar bookingCalendar;
+
+    // Nhân viên ACTIVE theo ID, chỉ truy cập trong khối synchronized
+    private final Map<Integer, Entry> entries = new HashMap<>();
+
+    private volatile Snapshot snapshot = EMPTY;
+    private volatile boolean loaded;
+
+    /**
+     * Cấu hình trực tiếp, dùng khi chạy ngoài Spring (benchmark, kiểm thử)
+     */
+    void configure(BookingCalendar bookingCalendar) {
+        this.bookingCalendar = bookingCalendar;
+    }
+
+    /**
+     * Nạp lại toàn bộ chỉ mục
+     * FEATURE 29: Chỉ mục lịch làm việc của nhân viên
+     */
+    public synchronized void rebuild(Collection<StaffDTO> staff) {
+        entries.clear();
+        for (StaffDTO dto : staff) {
+            if (dto.getStatus() == StaffEntity.StaffStatus.ACTIVE) {
+                entries.put(dto.getIdStaff(), new Entry(dto, compileShifts(dto.getShifts())));
+            }
+        }
+        publish();
+        loaded = true;
+    }
+
+    /**
+     * Thêm hoặc cập nhật một nhân viên (nhân viên không ACTIVE bị bỏ khỏi chỉ mục)
+     * FEATURE 29: Chỉ mục lịch làm việc của nhân viên
+     */
+    public synchronized void put(StaffDTO staff) {
+        if (staff.getStatus() == StaffEntity.StaffStatus.ACTIVE) {
+            entries.put(staff.getIdStaff(), new Entry(staff, compileShifts(staff.getShifts())));
+            publish();
+        } else if (entries.remove(staff.getIdStaff()) != null) {
+            publish();
+        }
+    }
+
+    /**
+     * Xóa nhân viên khỏi chỉ mục
+     * FEATURE 29: Chỉ mục lịch làm việc của nhân viên
+     */
+    public synchronized void remove(Integer idStaff) {
+        if (entries.remove(idStaff) != null) {
+            publish();
+        }
+    }
+
+    /**
+     * Chỉ mục đã được nạp dữ liệu từ database hay chưa
+     */
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * Chuẩn hóa mã chuyên môn: bỏ khoảng trắng, viết hoa; rỗng thành null
+     */
+    public static String normalizeSpecialty(String specialty) {
+        if (specialty == null || specialty.isBlank()) {
+            return null;
+        }
+        return specialty.trim().toUpperCase(Locale.ROOT);
+    }
+
+    /**
+     * ID nhân viên ACTIVE có chuyên môn (null = mọi chuyên môn) ở chi nhánh (null = mọi chi nhánh),
+     * tăng dần
+     * FEATURE 29: Chỉ mục lịch làm việc của nhân viên
+     */
+    public List<Integer> findStaffIds(String specialty, Integer idBranch) {
+        Entry[] group = snapshot.groups.getOrDefault(groupKey(normalizeSpecialty(specialty), idBranch), NONE);
+        List<Integer> ids = new ArrayList<>(group.length);
+        for (Entry entry : group) {
+            ids.add(entry.idStaff);
+        }
+        return ids;
+    }
+
+    /**
+     * Bitmap các khung giờ nhân viên làm việc trong ngày date (không được sửa mảng trả về)
+     *
+     * @return null nếu nhân viên không có trong chỉ mục (không tồn tại hoặc đã nghỉ)
+     */
+    public long[] workingSlots(int idStaff, LocalDate date) {
+        Entry entry = snapshot.byId.get(idStaff);
+        return entry == null ? null : entry.working[dayIndex(date)];
+    }
+
+    /**
+     * Khung giờ [from, from + count) có nằm trọn trong ca làm của nhân viên hay không
+     * FEATURE 29: Chỉ mục lịch làm việc của nhân viên
+     */
+    public boolean isOnShift(int idStaff, LocalDate date, int from, int count) {
+        Entry entry = snapshot.byId.get(idStaff);
+        return entry != null && !SlotBitmap.anySet(entry.offShift[dayIndex(date)], from, count);
+    }
+
+    /**
+     * Nhân viên có chuyên môn, thuộc chi nhánh, đang trong ca và chưa có lịch hẹn/giữ chỗ
+     * trong khung giờ [from, from + count) của ngày date
+     * FEATURE 29: Chỉ mục lịch làm việc của nhân viên
+     */
+    public List<StaffDTO> findFreeStaff(String specialty, Integer idBranch, LocalDate date, int from, int count) {
+        Entry[] group = snapshot.groups.getOrDefault(groupKey(normalizeSpecialty(specialty), idBranch), NONE);
+        int day = dayIndex(date);
+        List<StaffDTO> result = new ArrayList<>();
+        for (Entry entry : group) {
+            if (!SlotBitmap.anySet(entry.offShift[day], from, count)
+                    && bookingCalendar.isFree(entry.idStaff, date, from, count)) {
+                result.add(entry.staff);
+            }
+        }
+        return result;
+    }
+
+    private static int dayIndex(LocalDate date) {
+        return date.getDayOfWeek().getValue() - 1;
+    }
+
+    private static String groupKey(String specialty, Integer idBranch) {
+        return (specialty == null ? ANY : specialty) + "@" + (idBranch == null ? ANY : idBranch.toString());
+    }
+
+    /**
+     * Dựng bitmap giờ làm cho 7 ngày trong tuần; chỉ các khung giờ nằm trọn trong ca được tính
+     */
+    private long[][] compileShifts(List<StaffShiftDTO> shifts) {
+        int slotsPerDay = bookingCalendar.getSlotsPerDay();
+        long[][] working = new long[7][SlotBitmap.words(slotsPerDay)];
+        if (shifts == null) {
+            return working;
+        }
+        for (StaffShiftDTO shift : shifts) {
+            int from = bookingCalendar.slotCeil(shift.getStartTime());
+            int to = shift.getEndTime().equals(LocalTime.MIDNIGHT)
+                    ? slotsPerDay
+                    : bookingCalendar.slotFloor(shift.getEndTime());
+            if (to > from) {
+                SlotBitmap.set(working[shift.getDayOfWeek() - 1], from, to - from);
+            }
+        }
+        return working;
+    }
+
+    private void publish() {
+        Entry[] all = entries.values().toArray(NONE);
+        Arrays.sort(all, Comparator.comparingInt((Entry e) -> e.idStaff));
+        Map<Integer, Entry> byId = new HashMap<>(all.length * 2);
+        Map<String, List<Entry>> groups = new HashMap<>();
+        for (Entry entry : all) {
+            byId.put(entry.idStaff, entry);
+            String branch = entry.staff.getIdBranch() == null ? null : entry.staff.getIdBranch().toString();
+            addToGroup(groups, ANY + "@" + ANY, entry);
+            if (branch != null) {
+                addToGroup(groups, ANY + "@" + branch, entry);
+            }
+            for (String specialty : entry.specialties) {
+                addToGroup(groups, specialty + "@" + ANY, entry);
+                if (branch != null) {
+                    addToGroup(groups, specialty + "@" + branch, entry);
+                }
+            }
+        }
+        Map<String, Entry[]> frozen = new HashMap<>(groups.size() * 2);
+        groups.forEach((key, list) -> frozen.put(key, list.toArray(NONE)));
+        snapshot = new Snapshot(byId, frozen);
+    }
+
+    private static void addToGroup(Map<String, List<Entry>> groups, String key, Entry entry) {
+        groups.computeIfAbsent(key, k -> new ArrayList<>()).add(entry);
+    }
+
+    private static final class Entry {
+        final int idStaff;
+        final StaffDTO staff;
+        final List<String> specialties;
+        final long[][] working;
+        final long[][] offShift;
+
+        Entry(StaffDTO staff, long[][] working) {
+            this.idStaff = staff.getIdStaff();
+            this.staff = staff;
+            List<String> normalized = new ArrayList<>();
+            if (staff.getSpecialties() != null) {
+                for (String specialty : staff.getSpecialties()) {
+                    String code = normalizeSpecialty(specialty);
+                    if (code != null && !normalized.contains(code)) {
+                        normalized.add(code);
+                    }
+                }
+            }
+            this.specialties = normalized;
+            this.working = working;
+            this.offShift = new long[7][];
+            for (int day = 0; day < 7; day++) {
+                long[] off = new long[working[day].length];
+                for (int i = 0; i < off.length; i++) {
+                    off[i] = ~working[day][i];
+                }
+                offShift[day] = off;
+            }
+        }
+    }
+
+    private static final class Snapshot {
+        final Map<Integer, Entry> byId;
+        final Map<String, Entry[]> groups;
+
+        Snapshot(Map<Integer, Entry> byId, Map<String, Entry[]> groups) {
+            this.byId = byId;
+            this.groups = groups;
+        }
+    }
+}
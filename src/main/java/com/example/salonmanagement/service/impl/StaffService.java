@@ -1,4 +1,287 @@
 package com.example.salonmanagement.service.impl;
 
+import com.example.salonmanagement.dto.StaffDTO;
+import com.example.salonmanagement.dto.StaffShiftDTO;
+import com.example.salonmanagement.entity.StaffEntity;
+import com.example.salonmanagement.entity.StaffShiftEntity;
+import com.example.salonmanagement.repository.StaffRepository;
+import com.example.salonmanagement.repository.StaffShiftRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Service class cho Staff
+ * Cung cấp các phương thức xử lý business logic cho nhân viên và ca làm
+ *
+ * FEATURE 29: Chỉ mục lịch làm việc của nhân viên
+ * - Mọi lần ghi cập nhật StaffScheduleIndex cho đúng nhân viên đó sau khi transaction commit
+ * - Tìm nhân viên rảnh theo chuyên môn/chi nhánh chỉ đọc chỉ mục và BookingCalendar
+ */
+@Service
+@Transactional
 public class StaffService {
+    
+    // Mã chuyên môn: chữ hoa, số, dấu gạch dưới
+    private static final Pattern SPECIALTY_CODE = Pattern.compile("[A-Z0-9_]{1,30}");
+    
+    @Autowired
+    private StaffRepository staffRepository;
+    
+    @Autowired
+    private StaffShiftRepository staffShiftRepository;
+    
+    @Autowired
+    private StaffScheduleIndex staffScheduleIndex;
+    
+    @Autowired
+    private BookingCalendar bookingCalendar;
+    
+    /**
+     * Lấy nhân viên (kèm ca làm), lọc theo chi nhánh nếu có
+     * FEATURE 29: Chỉ mục lịch làm việc của nhân viên
+     */
+    @Transactional(readOnly = true)
+    public List<StaffDTO> getAllStaff(Integer idBranch) {
+        List<StaffEntity> staff = idBranch != null
+                ? staffRepository.findByIdBranchOrderByFullNameAsc(idBranch)
+                : staffRepository.findAll(Sort.by("fullName"));
+        Map<Integer, List<StaffShiftDTO>> shifts = groupShifts(idBranch != null
+                ? staffShiftRepository.findByIdStaffIn(staff.stream().map(StaffEntity::getIdStaff).toList())
+                : staffShiftRepository.findAll());
+        return staff.stream()
+                .map(entity -> convertToDTO(entity, shifts.getOrDefault(entity.getIdStaff(), new ArrayList<>())))
+                .collect(Collectors.toList());
+    }
+    
+    /**
+     * Lấy nhân viên theo ID (kèm ca làm)
+     * FEATURE 29: Chỉ mục lịch làm việc của nhân viên
+     */
+    @Transactional(readOnly = true)
+    public Optional<StaffDTO> getStaffById(Integer id) {
+        return staffRepository.findById(id).map(entity -> convertToDTO(entity, loadShifts(id)));
+    }
+    
+    /**
+     * Tạo nhân viên mới cùng ca làm
+     * FEATURE 29: Chỉ mục lịch làm việc của nhân viên
+     *
+     * @throws IllegalArgumentException chuyên môn hoặc ca làm không hợp lệ
+     */
+    public StaffDTO createStaff(StaffDTO staffDTO) {
+        StaffEntity entity = new StaffEntity();
+        applyFields(entity, staffDTO);
+        if (entity.getStatus() == null) {
+            entity.setStatus(StaffEntity.StaffStatus.ACTIVE);
+        }
+        StaffEntity saved = staffRepository.save(entity);
+        return reindexAfterCommit(convertToDTO(saved, saveShifts(saved.getIdStaff(), staffDTO.getShifts())));
+    }
+    
+    /**
+     * Cập nhật nhân viên và thay toàn bộ ca làm
+     * FEATURE 29: Chỉ mục lịch làm việc của nhân viên
+     *
+     * @throws IllegalArgumentException chuyên môn hoặc ca làm không hợp lệ
+     */
+    public Optional<StaffDTO> updateStaff(Integer id, StaffDTO staffDTO) {
+        Optional<StaffEntity> found = staffRepository.findById(id);
+        if (found.isEmpty()) {
+            return Optional.empty();
+        }
+        StaffEntity entity = found.get();
+        applyFields(entity, staffDTO);
+        StaffEntity saved = staffRepository.save(entity);
+        staffShiftRepository.deleteByIdStaff(id);
+        return Optional.of(reindexAfterCommit(convertToDTO(saved, saveShifts(id, staffDTO.getShifts()))));
+    }
+    
+    /**
+     * Cho nhân viên nghỉ (INACTIVE): giữ lại dữ liệu vì lịch hẹn cũ vẫn tham chiếu tới
+     * FEATURE 29: Chỉ mục lịch làm việc của nhân viên
+     */
+    public boolean deactivateStaff(Integer id) {
+        Optional<StaffEntity> found = staffRepository.findById(id);
+        if (found.isEmpty()) {
+            return false;
+        }
+        StaffEntity entity = found.get();
+        entity.setStatus(StaffEntity.StaffStatus.INACTIVE);
+        staffRepository.save(entity);
+        afterCommit(() -> staffScheduleIndex.remove(id));
+        return true;
+    }
+    
+    /**
+     * Nhân viên có chuyên môn specialty (null = mọi chuyên môn), thuộc chi nhánh idBranch
+     * (null = mọi chi nhánh), đang trong ca và còn trống durationMinutes phút từ thời điểm at
+     * FEATURE 29: Chỉ mục lịch làm việc của nhân viên
+     */
+    @Transactional(readOnly = true)
+    public List<StaffDTO> findAvailableStaff(String specialty, Integer idBranch, LocalDateTime at, int durationMinutes) {
+        if (durationMinutes < 1) {
+            throw new IllegalArgumentException("Thời lượng dịch vụ phải lớn hơn 0");
+        }
+        LocalDate date = at.toLocalDate();
+        LocalTime time = at.toLocalTime();
+        int from = bookingCalendar.slotFloor(time);
+        if (!bookingCalendar.timeOf(from).equals(time)) {
+            throw new IllegalArgumentException("Thời điểm phải tròn " + bookingCalendar.getSlotMinutes() + " phút");
+        }
+        int count = bookingCalendar.slotsFor(durationMinutes);
+        if (!bookingCalendar.isWithinOpeningHours(from, count)) {
+            return List.of();
+        }
+        return staffScheduleIndex.findFreeStaff(specialty, idBranch, date, from, count);
+    }
+    
+    /**
+     * Nạp chỉ mục lịch làm việc khi ứng dụng khởi động xong (hai truy vấn: nhân viên ACTIVE và ca làm)
+     * FEATURE 29: Chỉ mục lịch làm việc của nhân viên
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void loadStaffIndex() {
+        Map<Integer, List<StaffShiftDTO>> shifts = groupShifts(staffShiftRepository.findAll());
+        List<StaffDTO> staff = staffRepository.findByStatus(StaffEntity.StaffStatus.ACTIVE).stream()
+                .map(entity -> convertToDTO(entity, shifts.getOrDefault(entity.getIdStaff(), new ArrayList<>())))
+                .collect(Collectors.toList());
+        staffScheduleIndex.rebuild(staff);
+    }
+    
+    /**
+     * Chuyển đổi Entity sang DTO
+     */
+    StaffDTO convertToDTO(StaffEntity entity, List<StaffShiftDTO> shifts) {
+        StaffDTO dto = new StaffDTO();
+        dto.setIdStaff(entity.getIdStaff());
+        dto.setFullName(entity.getFullName());
+        dto.setPhone(entity.getPhone());
+        dto.setPosition(entity.getPosition());
+        dto.setIdBranch(entity.getIdBranch());
+        dto.setSpecialties(entity.getSpecialties() == null || entity.getSpecialties().isEmpty()
+                ? new ArrayList<>()
+                : new ArrayList<>(Arrays.asList(entity.getSpecialties().split(","))));
+        dto.setSalary(entity.getSalary());
+        dto.setStatus(entity.getStatus());
+        dto.setShifts(shifts);
+        return dto;
+    }
+    
+    private void applyFields(StaffEntity entity, StaffDTO dto) {
+        entity.setFullName(dto.getFullName().trim());
+        entity.setPhone(dto.getPhone());
+        entity.setPosition(dto.getPosition());
+        entity.setIdBranch(dto.getIdBranch());
+        entity.setSpecialties(joinSpecialties(dto.getSpecialties()));
+        entity.setSalary(dto.getSalary());
+        if (dto.getStatus() != null) {
+            entity.setStatus(dto.getStatus());
+        }
+    }
+    
+    /**
+     * Chuẩn hóa, bỏ trùng và ghép mã chuyên môn thành chuỗi lưu database
+     */
+    private static String joinSpecialties(Collection<String> specialties) {
+        if (specialties == null) {
+            return null;
+        }
+        List<String> codes = new ArrayList<>();
+        for (String specialty : specialties) {
+            String code = StaffScheduleIndex.normalizeSpecialty(specialty);
+            if (code == null) {
+                continue;
+            }
+            if (!SPECIALTY_CODE.matcher(code).matches()) {
+                throw new IllegalArgumentException("Mã chuyên môn không hợp lệ: " + specialty);
+            }
+            if (!codes.contains(code)) {
+                codes.add(code);
+            }
+        }
+        String joined = String.join(",", codes);
+        if (joined.length() > 255) {
+            throw new IllegalArgumentException("Danh sách chuyên môn quá dài");
+        }
+        return joined;
+    }
+    
+    private List<StaffShiftDTO> saveShifts(Integer idStaff, List<StaffShiftDTO> shifts) {
+        List<StaffShiftEntity> entities = new ArrayList<>();
+        if (shifts != null) {
+            for (StaffShiftDTO shift : shifts) {
+                if (!shift.getEndTime().equals(LocalTime.MIDNIGHT) && !shift.getStartTime().isBefore(shift.getEndTime())) {
+                    throw new IllegalArgumentException("Giờ bắt đầu ca phải trước giờ kết thúc ca");
+                }
+                entities.add(new StaffShiftEntity(idStaff, shift.getDayOfWeek(), shift.getStartTime(), shift.getEndTime()));
+            }
+        }
+        return staffShiftRepository.saveAll(entities).stream()
+                .map(StaffService::convertShift)
+                .collect(Collectors.toList());
+    }
+    
+    private List<StaffShiftDTO> loadShifts(Integer idStaff) {
+        return staffShiftRepository.findByIdStaffOrderByDayOfWeekAscStartTimeAsc(idStaff).stream()
+                .map(StaffService::convertShift)
+                .collect(Collectors.toList());
+    }
+    
+    private static Map<Integer, List<StaffShiftDTO>> groupShifts(List<StaffShiftEntity> shifts) {
+        Map<Integer, List<StaffShiftDTO>> grouped = new HashMap<>();
+        for (StaffShiftEntity shift : shifts) {
+            grouped.computeIfAbsent(shift.getIdStaff(), key -> new ArrayList<>()).add(convertShift(shift));
+        }
+        for (List<StaffShiftDTO> list : grouped.values()) {
+            list.sort(Comparator.comparing(StaffShiftDTO::getDayOfWeek).thenComparing(StaffShiftDTO::getStartTime));
+        }
+        return grouped;
+    }
+    
+    private static StaffShiftDTO convertShift(StaffShiftEntity entity) {
+        return new StaffShiftDTO(entity.getDayOfWeek(), entity.getStartTime(), entity.getEndTime());
+    }
+    
+    private StaffDTO reindexAfterCommit(StaffDTO staff) {
+        afterCommit(() -> staffScheduleIndex.put(staff));
+        return staff;
+    }
+    
+    /**
+     * Chạy action sau khi transaction commit thành công (hoặc ngay nếu không có transaction)
+     * để chỉ mục trong bộ nhớ không chứa dữ liệu của transaction bị rollback
+     */
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
 }
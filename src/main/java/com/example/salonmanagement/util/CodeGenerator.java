@@ -1,4 +1,177 @@
 package com.example.salonmanagement.util;
 
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Sinh mã cho lịch hẹn, thanh toán, khuyến mãi: duy nhất giữa nhiều node, không cần truy vấn database
+ *
+ * FEATURE 26: Sinh mã không trùng
+ * - ID 63 bit kiểu Snowflake: 41 bit mili giây từ 2024-01-01, 10 bit node, 12 bit sequence
+ * - Mã hiển thị là tiền tố + 13 ký tự Crockford base-32 cố định độ dài, nên sắp xếp theo chuỗi
+ *   cũng là sắp xếp theo thời gian sinh
+ * - Mỗi luồng giữ một khối sequence riêng, chỉ CAS trạng thái chung khi hết khối hoặc sang mili giây mới
+ * - Đồng hồ lùi hoặc hết sequence trong một mili giây: tiếp tục từ thời gian logic (mượn mili giây kế tiếp),
+ *   không chờ và không bao giờ sinh lại ID cũ
+ */
 public class CodeGenerator {
+
+    /** Mốc thời gian của ID: 2024-01-01T00:00:00Z */
+    public static final long EPOCH_MILLIS = 1_704_067_200_000L;
+
+    public static final int NODE_BITS = 10;
+    public static final int SEQUENCE_BITS = 12;
+    public static final int MAX_NODE_ID = (1 << NODE_BITS) - 1;
+
+    /** Số ký tự base-32 của một ID 63 bit */
+    public static final int CODE_LENGTH = 13;
+
+    // Tiền tố mã theo loại
+    public static final String PREFIX_BOOKING = "BK";
+    public static final String PREFIX_PAYMENT = "PM";
+    public static final String PREFIX_PROMOTION = "KM";
+
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+
+    // Số sequence mỗi luồng lấy một lần, là ước của 4096 nên khối không vắt qua hai mili giây
+    private static final int BLOCK_SIZE = 16;
+
+    // Crockford base-32: bỏ I, L, O, U để mã dễ đọc và khó gõ nhầm
+    private static final char[] ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+    private static final byte[] DECODE = new byte[128];
+
+    static {
+        Arrays.fill(DECODE, (byte) -1);
+        for (int i = 0; i < ALPHABET.length; i++) {
+            DECODE[ALPHABET[i]] = (byte) i;
+            DECODE[Character.toLowerCase(ALPHABET[i])] = (byte) i;
+        }
+        // Ký tự dễ nhầm khi khách đọc mã qua điện thoại
+        DECODE['O'] = DECODE['o'] = 0;
+        DECODE['I'] = DECODE['i'] = DECODE['L'] = DECODE['l'] = 1;
+    }
+
+    private final long node;
+    private final LongSupplier clock;
+
+    // (mili giây từ EPOCH_MILLIS) << SEQUENCE_BITS | sequence kế tiếp chưa cấp phát
+    // Sequence tràn 4096 tự cộng dồn sang mili giây kế tiếp, nên trạng thái chỉ tăng
+    private final AtomicLong state = new AtomicLong();
+
+    private final ThreadLocal<Block> blocks = ThreadLocal.withInitial(Block::new);
+
+    public CodeGenerator(int nodeId) {
+        this(nodeId, System::currentTimeMillis);
+    }
+
+    CodeGenerator(int nodeId, LongSupplier clock) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("Node id phải nằm trong khoảng 0.." + MAX_NODE_ID);
+        }
+        this.node = (long) nodeId << SEQUENCE_BITS;
+        this.clock = clock;
+    }
+
+    /**
+     * Sinh ID mới, tăng dần trong mỗi luồng và duy nhất trong node
+     * FEATURE 26: Sinh mã không trùng
+     */
+    public long nextId() {
+        Block block = blocks.get();
+        long now = clock.getAsLong() - EPOCH_MILLIS;
+        // Lấy khối mới khi hết khối hoặc khối thuộc mili giây đã qua, để thời gian trong ID không bị cũ
+        if (block.next == block.end || (block.next >>> SEQUENCE_BITS) < now) {
+            reserve(block, now);
+        }
+        long slot = block.next++;
+        return (slot >>> SEQUENCE_BITS) << (NODE_BITS + SEQUENCE_BITS) | node | (slot & SEQUENCE_MASK);
+    }
+
+    /**
+     * Sinh mã hiển thị: tiền tố + 13 ký tự base-32, ví dụ "BK0PX3K9R2M40GQ"
+     * FEATURE 26: Sinh mã không trùng
+     */
+    public String nextCode(String prefix) {
+        return encode(prefix, nextId());
+    }
+
+    /**
+     * Số mili giây thời gian logic đang đi trước đồng hồ hệ thống
+     * (lớn hơn 0 khi đồng hồ bị chỉnh lùi hoặc khi sinh quá 4096 ID trong một mili giây)
+     */
+    public long clockDriftMillis() {
+        long logical = state.get() >>> SEQUENCE_BITS;
+        return Math.max(0, logical - (clock.getAsLong() - EPOCH_MILLIS));
+    }
+
+    /**
+     * Mã hóa ID thành tiền tố + CODE_LENGTH ký tự base-32
+     */
+    public static String encode(String prefix, long id) {
+        int prefixLength = prefix == null ? 0 : prefix.length();
+        char[] chars = new char[prefixLength + CODE_LENGTH];
+        if (prefixLength > 0) {
+            prefix.getChars(0, prefixLength, chars, 0);
+        }
+        for (int i = chars.length - 1; i >= prefixLength; i--) {
+            chars[i] = ALPHABET[(int) (id & 31)];
+            id >>>= 5;
+        }
+        return new String(chars);
+    }
+
+    /**
+     * Giải mã CODE_LENGTH ký tự cuối của mã về ID (không phân biệt hoa thường, chấp nhận O/I/L)
+     */
+    public static long decode(String code) {
+        if (code == null || code.length() < CODE_LENGTH) {
+            throw new IllegalArgumentException("Mã không hợp lệ: " + code);
+        }
+        long id = 0;
+        for (int i = code.length() - CODE_LENGTH; i < code.length(); i++) {
+            char c = code.charAt(i);
+            int value = c < DECODE.length ? DECODE[c] : -1;
+            // 13 ký tự chứa 65 bit, ký tự đầu chỉ được dùng 3 bit để ID vừa 63 bit
+            if (value < 0 || (id >>> 58) != 0) {
+                throw new IllegalArgumentException("Mã không hợp lệ: " + code);
+            }
+            id = (id << 5) | value;
+        }
+        return id;
+    }
+
+    /**
+     * Thời điểm sinh (epoch millis) của ID
+     */
+    public static long timestampOf(long id) {
+        return (id >>> (NODE_BITS + SEQUENCE_BITS)) + EPOCH_MILLIS;
+    }
+
+    /**
+     * Node đã sinh ID
+     */
+    public static int nodeOf(long id) {
+        return (int) ((id >>> SEQUENCE_BITS) & MAX_NODE_ID);
+    }
+
+    private void reserve(Block block, long now) {
+        long floor = now << SEQUENCE_BITS;
+        while (true) {
+            long current = state.get();
+            // Không bao giờ lùi về trước trạng thái đã cấp phát, kể cả khi đồng hồ hệ thống lùi
+            long start = Math.max(current, floor);
+            if (state.compareAndSet(current, start + BLOCK_SIZE)) {
+                block.next = start;
+                block.end = start + BLOCK_SIZE;
+                return;
+            }
+        }
+    }
+
+    // Khối sequence của một luồng: [next, end) theo cùng cách đóng gói với state
+    private static final class Block {
+        long next;
+        long end;
+    }
 }
@@ -1,4 +1,262 @@
 package com.example.salonmanagement.util;
 
+import com.example.salonmanagement.dto.PromotionDTO;
+import com.example.salonmanagement.entity.PromotionEntity;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Các hàm tính giảm giá theo khuyến mãi
+ * Số tiền là long tính bằng đồng (VND không có đơn vị lẻ), phần trăm giảm là basis point (1% = 100)
+ *
+ * FEATURE 25: Bộ tính giảm giá
+ * - Tập khuyến mãi được biên dịch một lần thành bảng bất biến gồm các đoạn ngày liên tiếp,
+ *   mỗi đoạn giữ sẵn khuyến mãi tốt nhất (phần trăm cao nhất, bằng nhau thì ID nhỏ hơn)
+ * - Đường nóng chỉ tra cứu nhị phân và nhân/chia long, không tạo BigDecimal
+ */
 public class DiscountUtil {
+
+    /** 100% tính theo basis point */
+    public static final int FULL_BASIS_POINTS = 10_000;
+
+    /** ID trả về khi không có khuyến mãi nào áp dụng */
+    public static final int NO_PROMOTION = 0;
+
+    private static final BigDecimal HUNDRED = BigDecimal.valueOf(100);
+
+    private static final DiscountTable EMPTY = new DiscountTable(new long[0], new int[0], new int[0]);
+
+    // Khuyến mãi tốt hơn đứng trước: phần trăm cao hơn, rồi ID nhỏ hơn để kết quả ổn định
+    private static final Comparator<Rule> BETTER = Comparator.comparingInt((Rule rule) -> -rule.basisPoints)
+            .thenComparingInt(rule -> rule.idPromotion);
+
+    private DiscountUtil() {}
+
+    /**
+     * Đổi phần trăm (DECIMAL(5,2)) sang basis point, giới hạn trong [0, 100%]
+     * Ví dụ: 12.50 -> 1250
+     */
+    public static int toBasisPoints(BigDecimal percent) {
+        if (percent == null || percent.signum() <= 0) {
+            return 0;
+        }
+        if (percent.compareTo(HUNDRED) >= 0) {
+            return FULL_BASIS_POINTS;
+        }
+        return percent.movePointRight(2).setScale(0, RoundingMode.HALF_UP).intValueExact();
+    }
+
+    /**
+     * Đổi số tiền sang đồng, làm tròn nửa lên
+     */
+    public static long toVnd(BigDecimal amount) {
+        return amount.setScale(0, RoundingMode.HALF_UP).longValueExact();
+    }
+
+    /**
+     * Số tiền được giảm của amount đồng với basisPoints, làm tròn nửa lên tới đồng
+     * Tách amount = q * 10000 + r nên không tràn long với mọi amount không âm
+     */
+    public static long discountAmount(long amount, int basisPoints) {
+        long quotient = amount / FULL_BASIS_POINTS;
+        long remainder = amount % FULL_BASIS_POINTS;
+        return quotient * basisPoints + (remainder * basisPoints + FULL_BASIS_POINTS / 2) / FULL_BASIS_POINTS;
+    }
+
+    /**
+     * Biên dịch tập khuyến mãi thành bảng tra cứu
+     * Chỉ khuyến mãi ACTIVE hoặc UPCOMING, đã có ID, đủ ngày và phần trăm dương mới được đưa vào bảng;
+     * khoảng ngày của khuyến mãi quyết định dòng nào được áp dụng, nên dòng ghi ngày tương lai
+     * nhận được khuyến mãi sắp diễn ra
+     * FEATURE 25: Bộ tính giảm giá
+     */
+    public static DiscountTable compile(Collection<PromotionDTO> promotions) {
+        List<Rule> rules = new ArrayList<>();
+        for (PromotionDTO promotion : promotions) {
+            int basisPoints = toBasisPoints(promotion.getDiscountPercent());
+            if (isPriced(promotion.getStatus())
+                    && promotion.getIdPromotion() != null
+                    && promotion.getStartDate() != null
+                    && promotion.getEndDate() != null
+                    && !promotion.getEndDate().isBefore(promotion.getStartDate())
+                    && basisPoints > 0) {
+                rules.add(new Rule(promotion.getIdPromotion(), promotion.getStartDate().toEpochDay(),
+                        promotion.getEndDate().toEpochDay(), basisPoints));
+            }
+        }
+        if (rules.isEmpty()) {
+            return EMPTY;
+        }
+        rules.sort(Comparator.comparingLong(rule -> rule.start));
+
+        // Ranh giới đoạn: ngày bắt đầu và ngày ngay sau ngày kết thúc của mỗi khuyến mãi
+        long[] bounds = new long[rules.size() * 2];
+        for (int i = 0; i < rules.size(); i++) {
+            bounds[2 * i] = rules.get(i).start;
+            bounds[2 * i + 1] = rules.get(i).end + 1;
+        }
+        Arrays.sort(bounds);
+
+        // Quét theo ngày: heap giữ các khuyến mãi đã bắt đầu, khuyến mãi hết hạn bị bỏ khi lên đỉnh
+        PriorityQueue<Rule> active = new PriorityQueue<>(BETTER);
+        long[] from = new long[bounds.length];
+        int[] basisPoints = new int[bounds.length];
+        int[] promotionIds = new int[bounds.length];
+        int count = 0;
+        int next = 0;
+        for (int i = 0; i < bounds.length; i++) {
+            long day = bounds[i];
+            if (i > 0 && day == bounds[i - 1]) {
+                continue;
+            }
+            while (next < rules.size() && rules.get(next).start <= day) {
+                active.add(rules.get(next++));
+            }
+            while (!active.isEmpty() && active.peek().end < day) {
+                active.poll();
+            }
+            Rule best = active.peek();
+            int id = best == null ? NO_PROMOTION : best.idPromotion;
+            // Gộp các đoạn liền nhau có cùng khuyến mãi tốt nhất
+            if (count > 0 && promotionIds[count - 1] == id) {
+                continue;
+            }
+            from[count] = day;
+            basisPoints[count] = best == null ? 0 : best.basisPoints;
+            promotionIds[count] = id;
+            count++;
+        }
+        return new DiscountTable(Arrays.copyOf(from, count), Arrays.copyOf(basisPoints, count),
+                Arrays.copyOf(promotionIds, count));
+    }
+
+    /**
+     * Khuyến mãi ở trạng thái status có được đưa vào bảng giảm giá hay không (ACTIVE hoặc UPCOMING)
+     * FEATURE 25: Bộ tính giảm giá
+     */
+    public static boolean isPriced(PromotionEntity.PromotionStatus status) {
+        return status == PromotionEntity.PromotionStatus.ACTIVE || status == PromotionEntity.PromotionStatus.UPCOMING;
+    }
+
+    /**
+     * Bảng giảm giá đã biên dịch: đoạn i áp dụng từ ngày from[i] (epoch day) tới trước from[i + 1]
+     * Bất biến nên dùng chung giữa các luồng không cần khóa
+     * FEATURE 25: Bộ tính giảm giá
+     */
+    public static final class DiscountTable {
+        private final long[] from;
+        private final int[] basisPoints;
+        private final int[] promotionIds;
+
+        private DiscountTable(long[] from, int[] basisPoints, int[] promotionIds) {
+            this.from = from;
+            this.basisPoints = basisPoints;
+            this.promotionIds = promotionIds;
+        }
+
+        /**
+         * Số đoạn ngày trong bảng
+         */
+        public int size() {
+            return from.length;
+        }
+
+        /**
+         * Phần trăm giảm tốt nhất (basis point) tại ngày epochDay, 0 nếu không có khuyến mãi
+         */
+        public int basisPointsAt(long epochDay) {
+            int segment = segmentOf(epochDay);
+            return segment < 0 ? 0 : basisPoints[segment];
+        }
+
+        /**
+         * ID khuyến mãi tốt nhất tại ngày epochDay, NO_PROMOTION nếu không có
+         */
+        public int promotionIdAt(long epochDay) {
+            int segment = segmentOf(epochDay);
+            return segment < 0 ? NO_PROMOTION : promotionIds[segment];
+        }
+
+        /**
+         * Tính giảm giá cho cả giỏ hàng hoặc lô lịch hẹn trong một lần gọi
+         * Dòng i có ngày epochDays[i] và thành tiền amounts[i] (đồng, không âm);
+         * ghi số tiền giảm vào discounts[i], ID khuyến mãi vào promotionIds[i] (có thể null)
+         * Các dòng liên tiếp rơi vào cùng một đoạn dùng lại kết quả tra cứu trước đó
+         *
+         * @return tổng số tiền giảm
+         */
+        public long price(long[] epochDays, long[] amounts, int count, long[] discounts, int[] promotionIds) {
+            int segment = -1;
+            long segmentFrom = Long.MAX_VALUE;
+            long segmentTo = Long.MIN_VALUE;
+            long totalDiscount = 0;
+            for (int i = 0; i < count; i++) {
+                long day = epochDays[i];
+                if (day < segmentFrom || day >= segmentTo) {
+                    segment = segmentOf(day);
+                    segmentFrom = segment < 0 ? Long.MIN_VALUE : from[segment];
+                    segmentTo = segment + 1 < from.length ? from[segment + 1] : Long.MAX_VALUE;
+                }
+                long discount = segment < 0 ? 0 : discountAmount(amounts[i], basisPoints[segment]);
+                discounts[i] = discount;
+                if (promotionIds != null) {
+                    promotionIds[i] = segment < 0 ? NO_PROMOTION : this.promotionIds[segment];
+                }
+                totalDiscount += discount;
+            }
+            return totalDiscount;
+        }
+
+        /**
+         * Tính giảm giá cho các dòng cùng một ngày (ví dụ toàn bộ lịch hẹn trong ngày): chỉ tra cứu một lần
+         *
+         * @return tổng số tiền giảm
+         */
+        public long priceDay(long epochDay, long[] amounts, int count, long[] discounts) {
+            int rate = basisPointsAt(epochDay);
+            long totalDiscount = 0;
+            for (int i = 0; i < count; i++) {
+                long discount = discountAmount(amounts[i], rate);
+                discounts[i] = discount;
+                totalDiscount += discount;
+            }
+            return totalDiscount;
+        }
+
+        // Chỉ số đoạn cuối cùng có from <= epochDay, -1 nếu epochDay trước đoạn đầu tiên
+        private int segmentOf(long epochDay) {
+            int low = 0;
+            int high = from.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (from[mid] <= epochDay) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low - 1;
+        }
+    }
+
+    private static final class Rule {
+        final int idPromotion;
+        final long start;
+        final long end;
+        final int basisPoints;
+
+        Rule(int idPromotion, long start, long end, int basisPoints) {
+            this.idPromotion = idPromotion;
+            this.start = start;
+            this.end = end;
+            this.basisPoints = basisPoints;
+        }
+    }
 }
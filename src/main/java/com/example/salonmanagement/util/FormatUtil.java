@@ -1,4 +1,47 @@
 package com.example.salonmanagement.util;
 
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Các hàm tiện ích định dạng / chuẩn hóa chuỗi
+ */
 public class FormatUtil {
+
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern NON_DIGITS = Pattern.compile("\\D+");
+
+    private FormatUtil() {}
+
+    /**
+     * Chuẩn hóa chuỗi để tìm kiếm: chữ thường, bỏ dấu tiếng Việt, gộp khoảng trắng
+     * Ví dụ: "Khuyến Mãi  Đặc biệt" -> "khuyen mai dac biet"
+     */
+    public static String normalizeForSearch(String text) {
+        if (text == null || text.isEmpty()) {
+            return "";
+        }
+        String lower = text.toLowerCase(Locale.ROOT)
+                .replace('đ', 'd');
+        String decomposed = Normalizer.normalize(lower, Normalizer.Form.NFD);
+        String stripped = COMBINING_MARKS.matcher(decomposed).replaceAll("");
+        return WHITESPACE.matcher(stripped).replaceAll(" ").trim();
+    }
+
+    /**
+     * Chuẩn hóa số điện thoại: chỉ giữ chữ số, đầu số quốc tế 84 đổi thành 0
+     * Ví dụ: "+84 912.345.678" -> "0912345678"
+     */
+    public static String normalizePhone(String phone) {
+        if (phone == null || phone.isEmpty()) {
+            return "";
+        }
+        String digits = NON_DIGITS.matcher(phone).replaceAll("");
+        if (digits.startsWith("84") && digits.length() == 11) {
+            return "0" + digits.substring(2);
+        }
+        return digits;
+    }
 }
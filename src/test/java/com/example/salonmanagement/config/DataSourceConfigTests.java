@@ -0,0 +1,124 @@
+package com.example.salonmanagement.config;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.persistenceunit.PersistenceManagedTypes;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.EnableTransactionManagement;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Định tuyến đi qua cùng đường với ứng dụng: JpaTransactionManager + Hibernate + repository Spring Data
+ */
+@SpringJUnitConfig(DataSourceConfigTests.RoutingConfig.class)
+class DataSourceConfigTests {
+
+    @Autowired
+    private NodeInfoService nodeInfoService;
+
+    @Autowired
+    private NodeInfoRepository nodeInfoRepository;
+
+    @Test
+    void readOnlyTransactionsUseReplica() {
+        assertEquals("replica", nodeInfoService.readOnlyName());
+        // SimpleJpaRepository.findAll là @Transactional(readOnly = true)
+        assertEquals("replica", nodeInfoRepository.findAll().get(0).getName());
+    }
+
+    @Test
+    void readWriteTransactionsUsePrimary() {
+        assertEquals("primary", nodeInfoService.readWriteName());
+    }
+
+    @Entity
+    @Table(name = "node_info")
+    static class NodeInfo {
+
+        @Id
+        private String name;
+
+        String getName() {
+            return name;
+        }
+    }
+
+    interface NodeInfoRepository extends JpaRepository<NodeInfo, String> {
+    }
+
+    static class NodeInfoService {
+
+        @Autowired
+        private NodeInfoRepository nodeInfoRepository;
+
+        @Transactional(readOnly = true)
+        public String readOnlyName() {
+            return nodeInfoRepository.findAll().get(0).getName();
+        }
+
+        @Transactional
+        public String readWriteName() {
+            return nodeInfoRepository.findAll().get(0).getName();
+        }
+    }
+
+    @Configuration
+    @EnableTransactionManagement
+    @EnableJpaRepositories(considerNestedRepositories = true,
+            includeFilters = @ComponentScan.Filter(type = FilterType.ASSIGNABLE_TYPE, classes = NodeInfoRepository.class))
+    static class RoutingConfig {
+
+        @Bean
+        DataSource dataSource() {
+            return DataSourceConfig.readWriteRouting(h2("primary"), h2("replica"));
+        }
+
+        @Bean
+        LocalContainerEntityManagerFactoryBean entityManagerFactory(DataSource dataSource) {
+            LocalContainerEntityManagerFactoryBean factory = new LocalContainerEntityManagerFactoryBean();
+            factory.setDataSource(dataSource);
+            factory.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+            factory.setManagedTypes(PersistenceManagedTypes.of(NodeInfo.class.getName()));
+            return factory;
+        }
+
+        @Bean
+        PlatformTransactionManager transactionManager(EntityManagerFactory entityManagerFactory) {
+            return new JpaTransactionManager(entityManagerFactory);
+        }
+
+        @Bean
+        NodeInfoService nodeInfoService() {
+            return new NodeInfoService();
+        }
+    }
+
+    private static DataSource h2(String name) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:routing_" + name + ";DB_CLOSE_DELAY=-1");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("CREATE TABLE IF NOT EXISTS node_info (name VARCHAR(20) PRIMARY KEY)");
+        jdbc.update("MERGE INTO node_info (name) KEY (name) VALUES (?)", name);
+        return dataSource;
+    }
+}
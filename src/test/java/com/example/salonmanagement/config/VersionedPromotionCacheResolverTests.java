@@ -0,0 +1,97 @@
+package com.example.salonmanagement.config;
+
+import com.example.salonmanagement.dto.PromotionDTO;
+import com.example.salonmanagement.entity.PromotionEntity;
+import com.example.salonmanagement.service.impl.PromotionVersionTracker;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.cache.interceptor.CacheOperationInvocationContext;
+import org.springframework.cache.interceptor.CacheableOperation;
+
+import java.lang.reflect.Method;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class VersionedPromotionCacheResolverTests {
+
+    private final PromotionVersionTracker tracker = new PromotionVersionTracker();
+    private final ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager(CacheConfig.PROMOTIONS_BY_ID);
+    private final Cache cache = resolve(new VersionedPromotionCacheResolver(cacheManager, tracker));
+
+    @Test
+    void valueLoadedBeforeAWriteIsNeverServedAfterIt() {
+        AtomicInteger loads = new AtomicInteger();
+
+        // Đọc trượt cache, nạp bản cũ; trong lúc đó transaction ghi commit, evict rồi tăng phiên bản
+        PromotionDTO stale = cache.get(1, () -> {
+            cacheManager.getCache(CacheConfig.PROMOTIONS_BY_ID).evict(1);
+            tracker.changed(new PromotionVersionTracker.Version(1, System.currentTimeMillis()));
+            loads.incrementAndGet();
+            return promotion("Old");
+        });
+        assertEquals("Old", stale.getName());
+
+        assertNull(cache.get(1));
+        PromotionDTO fresh = cache.get(1, () -> {
+            loads.incrementAndGet();
+            return promotion("New");
+        });
+        assertEquals("New", fresh.getName());
+        assertSame(fresh, cache.get(1, () -> promotion("Unused")));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void cachedValuesAreReadOnlyCopies() {
+        PromotionDTO loaded = promotion("Summer");
+        PromotionDTO cached = cache.get(1, () -> loaded);
+        List<PromotionDTO> list = cache.get(2, () -> new ArrayList<>(List.of(promotion("Winter"))));
+
+        loaded.setName("Changed");
+        assertEquals("Summer", cached.getName());
+        assertThrows(UnsupportedOperationException.class, () -> cached.setName("Changed"));
+        assertThrows(UnsupportedOperationException.class, () -> list.get(0).setStatus(PromotionEntity.PromotionStatus.INACTIVE));
+        assertThrows(UnsupportedOperationException.class, () -> list.add(promotion("Spring")));
+    }
+
+    private static Cache resolve(VersionedPromotionCacheResolver resolver) {
+        CacheableOperation.Builder builder = new CacheableOperation.Builder();
+        builder.setCacheName(CacheConfig.PROMOTIONS_BY_ID);
+        CacheableOperation operation = builder.build();
+        return resolver.resolveCaches(new CacheOperationInvocationContext<CacheableOperation>() {
+            @Override
+            public CacheableOperation getOperation() {
+                return operation;
+            }
+
+            @Override
+            public Object getTarget() {
+                return null;
+            }
+
+            @Override
+            public Method getMethod() {
+                return null;
+            }
+
+            @Override
+            public Object[] getArgs() {
+                return new Object[0];
+            }
+        }).iterator().next();
+    }
+
+    private static PromotionDTO promotion(String name) {
+        return new PromotionDTO(1, name, new BigDecimal("10.00"), LocalDate.of(2026, 1, 1), LocalDate.of(2026, 2, 1),
+                null, PromotionEntity.PromotionStatus.ACTIVE);
+    }
+}
@@ -0,0 +1,147 @@
+package com.example.salonmanagement.service.impl;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BookingReservationsTests {
+
+    private static final int STAFF = 32;
+    private static final int DAYS = 4;
+    private static final LocalDate FIRST_DAY = LocalDate.of(2030, 1, 1);
+
+    private final BookingCalendar calendar = new BookingCalendar();
+    private final BookingReservations reservations = new BookingReservations();
+    private final int open;
+    private final int close;
+
+    BookingReservationsTests() {
+        calendar.configure(15, LocalTime.of(8, 0), LocalTime.of(21, 0));
+        reservations.configure(calendar, Duration.ofMinutes(5));
+        for (int d = 0; d < DAYS; d++) {
+            calendar.markLoaded(FIRST_DAY.plusDays(d));
+        }
+        open = calendar.slotFloor(LocalTime.of(8, 0));
+        close = calendar.slotFloor(LocalTime.of(21, 0));
+    }
+
+    @Test
+    void concurrentHoldsNeverOverlap() throws Exception {
+        int threads = Math.max(4, Runtime.getRuntime().availableProcessors());
+        AtomicIntegerArray occupancy = new AtomicIntegerArray(STAFF * DAYS * 96);
+        LongAdder overlaps = new LongAdder();
+
+        run(threads, 20_000, (random, hold) -> {
+            int base = (hold.getIdStaff() * DAYS + (int) (hold.getDate().toEpochDay() - FIRST_DAY.toEpochDay())) * 96;
+            for (int slot = hold.getFrom(); slot < hold.getFrom() + hold.getCount(); slot++) {
+                if (occupancy.getAndIncrement(base + slot) != 0) {
+                    overlaps.increment();
+                }
+            }
+            int outcome = random.nextInt(10);
+            if (outcome == 0) {
+                // Xác nhận thành công: khung giờ thuộc lịch hẹn mãi mãi
+                assertNotNull(reservations.claim(hold.getToken()));
+                reservations.complete(hold, true);
+                return;
+            }
+            // Trả bộ đếm trước khi trả bit để luồng khác giữ lại được mà không bị tính là trùng
+            for (int slot = hold.getFrom(); slot < hold.getFrom() + hold.getCount(); slot++) {
+                occupancy.decrementAndGet(base + slot);
+            }
+            if (outcome < 5) {
+                assertTrue(reservations.cancel(hold.getToken()));
+            } else {
+                assertNotNull(reservations.claim(hold.getToken()));
+                reservations.complete(hold, false);
+            }
+        });
+
+        assertEquals(0, overlaps.sum());
+        assertEquals(0, reservations.activeHolds());
+        // Bitmap khớp đúng với các lịch hẹn đã xác nhận
+        for (int staff = 0; staff < STAFF; staff++) {
+            for (int d = 0; d < DAYS; d++) {
+                LocalDate date = FIRST_DAY.plusDays(d);
+                for (int slot = open; slot < close; slot++) {
+                    int held = occupancy.get((staff * DAYS + d) * 96 + slot);
+                    assertEquals(held == 0, calendar.tryReserve(staff, date, slot, 1));
+                }
+            }
+        }
+    }
+
+    @Test
+    void holdAndCancelOnIncreasingThreadCountsLeavesNoHolds() throws Exception {
+        int cores = Runtime.getRuntime().availableProcessors();
+        int perThread = 200_000;
+        for (int threads = 1; threads <= cores; threads *= 2) {
+            run(threads, perThread, (random, hold) -> reservations.cancel(hold.getToken()));
+        }
+        assertEquals(0, reservations.activeHolds());
+    }
+
+    @Test
+    void expiredHoldReleasesSlotsAndCannotBeConfirmed() {
+        reservations.configure(calendar, Duration.ZERO);
+        BookingReservations.Hold first = reservations.hold(1, FIRST_DAY, open, 4, null);
+        BookingReservations.Hold second = reservations.hold(2, FIRST_DAY, open, 4, null);
+        assertNotNull(first);
+        assertNotNull(second);
+        assertNull(reservations.hold(1, FIRST_DAY, open + 2, 4, null));
+
+        assertEquals(2, reservations.expireHolds());
+        assertNull(reservations.claim(first.getToken()));
+        assertFalse(reservations.cancel(second.getToken()));
+        assertEquals(0, reservations.activeHolds());
+        assertTrue(calendar.tryReserve(1, FIRST_DAY, open, 4));
+    }
+
+    private interface HoldAction {
+        void accept(SplittableRandom random, BookingReservations.Hold hold);
+    }
+
+    // Mỗi luồng giữ ngẫu nhiên perThread lần (khung giờ 15 - 120 phút) và xử lý hold giữ được
+    private void run(int threads, int perThread, HoldAction action) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<CompletableFuture<Void>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                SplittableRandom random = new SplittableRandom(t);
+                futures.add(CompletableFuture.runAsync(() -> {
+                    for (int i = 0; i < perThread; i++) {
+                        int count = random.nextInt(1, 9);
+                        int staff = random.nextInt(STAFF);
+                        LocalDate date = FIRST_DAY.plusDays(random.nextInt(DAYS));
+                        int from = random.nextInt(open, close - count + 1);
+                        BookingReservations.Hold hold = reservations.hold(staff, date, from, count, null);
+                        if (hold != null) {
+                            action.accept(random, hold);
+                        }
+                    }
+                }, executor));
+            }
+            for (CompletableFuture<Void> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
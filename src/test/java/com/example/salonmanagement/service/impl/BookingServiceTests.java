@@ -0,0 +1,196 @@
+package com.example.salonmanagement.service.impl;
+
+import com.example.salonmanagement.dto.BookingDTO;
+import com.example.salonmanagement.dto.BookingHoldDTO;
+import com.example.salonmanagement.entity.BookingEntity;
+import com.example.salonmanagement.entity.BookingSlotEntity;
+import com.example.salonmanagement.repository.BookingRepository;
+import com.example.salonmanagement.util.CodeGenerator;
+import jakarta.persistence.EntityManagerFactory;
+import org.h2.jdbcx.JdbcDataSource;
+import org.hibernate.boot.model.naming.CamelCaseToUnderscoresNamingStrategy;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.convert.ApplicationConversionService;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.persistenceunit.PersistenceManagedTypes;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.EnableTransactionManagement;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Đường ghi database của đặt lịch: lịch hẹn do "node khác" ghi thẳng vào database (bitmap của node này
+ * không biết), claimSlots trùng khóa chính, transaction rollback rồi bitmap được nạp lại
+ */
+@SpringJUnitConfig(BookingServiceTests.BookingConfig.class)
+class BookingServiceTests {
+
+    private static final LocalDate DATE = LocalDate.now().plusDays(1);
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private BookingCalendar bookingCalendar;
+
+    @Autowired
+    private BookingReservations bookingReservations;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void rejectedSlotReloadsStaffWithoutDroppingOtherHolds() {
+        int staff = 1;
+        BookingHoldDTO waiting = bookingService.holdBooking(request(staff, LocalTime.of(10, 0), 30));
+        bookOnOtherNode(staff, LocalTime.of(11, 0), LocalTime.of(12, 0));
+
+        assertTrue(isFree(staff, LocalTime.of(11, 0), 60));
+        assertThrows(IllegalStateException.class,
+                () -> bookingService.createBooking(request(staff, LocalTime.of(11, 0), 30)));
+
+        // Lịch hẹn của node khác đã vào bitmap, giữ chỗ đang chờ vẫn còn và vẫn xác nhận được
+        assertFalse(isFree(staff, LocalTime.of(11, 0), 60));
+        assertFalse(isFree(staff, LocalTime.of(10, 0), 30));
+        assertTrue(isFree(staff, LocalTime.of(12, 0), 15));
+        assertEquals(1, bookingReservations.activeHolds());
+        assertEquals(LocalTime.of(10, 0), bookingService.confirmHold(waiting.getToken()).getStartTime());
+        assertEquals(2, bookingRepository.findOccupiedSlots(DATE).stream()
+                .filter(occupied -> occupied.getIdStaff() == staff).count());
+    }
+
+    @Test
+    void holdOverlappingOtherNodeBookingReloadsWhenReleased() {
+        int staff = 2;
+        BookingHoldDTO overlapping = bookingService.holdBooking(request(staff, LocalTime.of(13, 0), 30));
+        bookOnOtherNode(staff, LocalTime.of(13, 15), LocalTime.of(14, 0));
+
+        assertThrows(IllegalStateException.class,
+                () -> bookingService.createBooking(request(staff, LocalTime.of(13, 45), 15)));
+
+        // Trả bit của hold cũ không được xóa bit 13:15 của lịch hẹn trong database
+        assertTrue(bookingService.releaseHold(overlapping.getToken()));
+        assertTrue(isFree(staff, LocalTime.of(13, 0), 15));
+        assertFalse(isFree(staff, LocalTime.of(13, 15), 15));
+        assertEquals(0, bookingReservations.activeHolds());
+    }
+
+    private boolean isFree(int staff, LocalTime start, int minutes) {
+        return bookingCalendar.isFree(staff, DATE, bookingCalendar.slotFloor(start), bookingCalendar.slotsFor(minutes));
+    }
+
+    // Ghi lịch hẹn và booking_slot bằng repository, không qua BookingCalendar của node này
+    private void bookOnOtherNode(int staff, LocalTime startTime, LocalTime endTime) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            BookingEntity saved = bookingRepository.saveAndFlush(new BookingEntity("BK-OTHER-" + staff, null, staff,
+                    null, DATE, startTime, endTime, BookingEntity.BookingStatus.CONFIRMED, null));
+            bookingRepository.claimSlots(saved.getIdBooking(), staff, DATE, startTime, endTime);
+        });
+    }
+
+    private static BookingDTO request(int staff, LocalTime startTime, int minutes) {
+        BookingDTO request = new BookingDTO();
+        request.setIdStaff(staff);
+        request.setBookingDate(DATE);
+        request.setStartTime(startTime);
+        request.setDurationMinutes(minutes);
+        return request;
+    }
+
+    @Configuration
+    @EnableTransactionManagement
+    @EnableJpaRepositories(basePackageClasses = BookingRepository.class,
+            includeFilters = @ComponentScan.Filter(type = FilterType.ASSIGNABLE_TYPE, classes = BookingRepository.class))
+    static class BookingConfig {
+
+        // Duration của app.booking.hold-ttl / app.booking.horizon như khi chạy bằng Spring Boot
+        @Bean
+        ConversionService conversionService() {
+            return ApplicationConversionService.getSharedInstance();
+        }
+
+        @Bean
+        DataSource dataSource() {
+            JdbcDataSource dataSource = new JdbcDataSource();
+            dataSource.setURL("jdbc:h2:mem:booking;MODE=MySQL;DB_CLOSE_DELAY=-1");
+            return dataSource;
+        }
+
+        @Bean
+        JdbcTemplate jdbcTemplate(DataSource dataSource) {
+            return new JdbcTemplate(dataSource);
+        }
+
+        @Bean
+        LocalContainerEntityManagerFactoryBean entityManagerFactory(DataSource dataSource) {
+            LocalContainerEntityManagerFactoryBean factory = new LocalContainerEntityManagerFactoryBean();
+            factory.setDataSource(dataSource);
+            factory.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+            factory.setManagedTypes(PersistenceManagedTypes.of(
+                    BookingEntity.class.getName(), BookingSlotEntity.class.getName()));
+            factory.setJpaPropertyMap(Map.of(
+                    "hibernate.hbm2ddl.auto", "create-drop",
+                    "hibernate.physical_naming_strategy", CamelCaseToUnderscoresNamingStrategy.class.getName()));
+            return factory;
+        }
+
+        @Bean
+        PlatformTransactionManager transactionManager(EntityManagerFactory entityManagerFactory) {
+            return new JpaTransactionManager(entityManagerFactory);
+        }
+
+        @Bean
+        BookingService bookingService() {
+            return new BookingService();
+        }
+
+        @Bean
+        BookingCalendar bookingCalendar() {
+            return new BookingCalendar();
+        }
+
+        @Bean
+        BookingReservations bookingReservations() {
+            return new BookingReservations();
+        }
+
+        // Mọi nhân viên đều trong ca
+        @Bean
+        StaffScheduleIndex staffScheduleIndex() {
+            return new StaffScheduleIndex() {
+                @Override
+                public boolean isOnShift(int idStaff, LocalDate date, int from, int count) {
+                    return true;
+                }
+            };
+        }
+
+        @Bean
+        CodeGenerator codeGenerator() {
+            return new CodeGenerator(1);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.salonmanagement.service.impl;
+
+import com.example.salonmanagement.dto.CustomerDTO;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CustomerLookupIndexTests {
+
+    private final CustomerLookupIndex index = new CustomerLookupIndex();
+
+    @Test
+    void phoneMatchesPrefixBeforeSuffixAndNameIgnoresDiacritics() {
+        index.rebuild(List.of(
+                customer(1, "Nguyễn Thị Lan", "0912345678"),
+                customer(2, "Lê Lan Anh", "0987125678"),
+                customer(3, "Trần Văn Đức", "+84 912 000 111"),
+                customer(4, "Lan Phương", "0365678912")));
+
+        // Cùng hạng thì theo thứ tự khóa; +84 đã được chuẩn hóa thành 0
+        assertEquals(List.of(3, 1), ids(index.lookup("0912", 10)));
+        // Khách 4 chỉ chứa "5678" ở giữa số: không khớp đầu hay đuôi
+        assertEquals(List.of(2, 1), ids(index.lookup("5678", 10)));
+        assertEquals(List.of(3), ids(index.lookup("+84 912 0", 10)));
+
+        // Đầu họ tên trước, rồi đầu một từ trong họ tên
+        assertEquals(List.of(4, 1, 2), ids(index.lookup("LAN", 10)));
+        assertEquals(List.of(1), ids(index.lookup("thi la", 10)));
+        assertEquals(List.of(3), ids(index.lookup("duc", 10)));
+        assertEquals(List.of(4, 1), ids(index.lookup("lan", 2)));
+    }
+
+    @Test
+    void updatesReplaceOldKeys() {
+        index.rebuild(List.of(customer(1, "Nguyễn Thị Lan", "0912345678")));
+
+        index.put(customer(1, "Phạm Thị Hoa", "0909000111"));
+        index.put(customer(2, "Hoàng Lan", "0912999888"));
+
+        assertEquals(List.of(2), ids(index.lookup("0912", 10)));
+        assertEquals(List.of(2), ids(index.lookup("lan", 10)));
+        assertEquals(List.of(2, 1), ids(index.lookup("hoa", 10)));
+
+        index.remove(2);
+        assertEquals(List.of(), ids(index.lookup("0912", 10)));
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    void changesDuringRebuildAreKeptAndOldIndexServesUntilSwap() {
+        index.rebuild(List.of(customer(1, "Nguyễn Thị Lan", "0912345678")));
+
+        index.rebuild(() -> {
+            // Trong lúc đang đọc database: chỉ mục cũ vẫn trả lời, tạo/sửa/xóa sau commit vẫn đến
+            assertEquals(List.of(1), ids(index.lookup("lan", 10)));
+            index.put(customer(3, "Đỗ Minh Lan", "0933111222"));
+            index.put(customer(2, "Hoàng Hoa", "0977000111"));
+            index.remove(1);
+            return List.of(customer(1, "Nguyễn Thị Lan", "0912345678"), customer(2, "Hoàng Hoa", "0900000000"));
+        });
+
+        assertEquals(List.of(3), ids(index.lookup("lan", 10)));
+        assertEquals(List.of(2), ids(index.lookup("0977", 10)));
+        assertEquals(List.of(), ids(index.lookup("0900", 10)));
+        assertEquals(2, index.size());
+    }
+
+    private static List<Integer> ids(List<CustomerDTO> customers) {
+        return customers.stream().map(CustomerDTO::getIdCustomer).collect(Collectors.toList());
+    }
+
+    private static CustomerDTO customer(int id, String fullName, String phone) {
+        return new CustomerDTO(id, fullName, phone, null);
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.salonmanagement.service.impl;
+
+import com.example.salonmanagement.dto.PaymentDTO;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class LoyaltyPointsTests {
+
+    private static final BigDecimal POINT_VALUE = new BigDecimal("10000");
+    private static final LocalDateTime MORNING = LocalDateTime.of(2030, 1, 2, 9, 0);
+
+    @Test
+    void refundTakesBackExactlyThePointsOfItsPayment() {
+        PaymentDTO paid = payment("PM1", "355000", "30000", 7);
+        PaymentDTO refund = payment("PM1R", "-355000", "-30000", 7);
+
+        assertEquals(35, LoyaltyPoints.pointsFor(paid, POINT_VALUE));
+        assertEquals(-35, LoyaltyPoints.pointsFor(refund, POINT_VALUE));
+
+        // Khách vãng lai và bút toán dưới một điểm không sinh dòng nhật ký
+        List<LoyaltyPoints.Accrual> accruals = LoyaltyPoints.accruals(List.of(paid, refund,
+                payment("PM2", "500000", "0", null), payment("PM3", "9000", "0", 7)), POINT_VALUE);
+        assertEquals(2, accruals.size());
+        assertEquals("PM1R", accruals.get(1).paymentCode);
+        assertEquals(MORNING, accruals.get(1).accruedAt);
+    }
+
+    @Test
+    void accrualsAreCoalescedPerCustomerInIdOrder() {
+        Map<Integer, Long> byCustomer = LoyaltyPoints.coalesce(List.of(
+                accrual("PM1", 9, 40), accrual("PM2", 3, 10), accrual("PM3", 9, 5),
+                accrual("PM4", 5, 20), accrual("PM4R", 5, -20), accrual("PM5", 3, 1)));
+
+        assertEquals(List.of(3, 9), List.copyOf(byCustomer.keySet()));
+        assertEquals(Map.of(3, 11L, 9, 45L), byCustomer);
+    }
+
+    private static LoyaltyPoints.Accrual accrual(String code, int idCustomer, long points) {
+        return new LoyaltyPoints.Accrual(code, idCustomer, points, MORNING);
+    }
+
+    private static PaymentDTO payment(String code, String amount, String discount, Integer idCustomer) {
+        PaymentDTO payment = new PaymentDTO();
+        payment.setCode(code);
+        payment.setAmount(new BigDecimal(amount));
+        payment.setDiscountAmount(new BigDecimal(discount));
+        payment.setIdCustomer(idCustomer);
+        payment.setPaidAt(MORNING);
+        return payment;
+    }
+}
@@ -0,0 +1,213 @@
+package com.example.salonmanagement.service.impl;
+
+import com.example.salonmanagement.dto.PaymentDTO;
+import com.example.salonmanagement.entity.PaymentEntity;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PaymentWalTests {
+
+    private final Path directory;
+
+    PaymentWalTests() throws IOException {
+        directory = Files.createTempDirectory("payment-wal");
+    }
+
+    @Test
+    void concurrentAppendsAreDurableAndReadBack() throws Exception {
+        int threads = 8;
+        int perThread = 500;
+        // Segment nhỏ để buộc roll nhiều lần giữa các luồng ghi
+        try (PaymentWal wal = new PaymentWal(directory, 16 * 1024)) {
+            ExecutorService executor = Executors.newFixedThreadPool(threads);
+            try {
+                List<CompletableFuture<Void>> futures = new ArrayList<>();
+                for (int t = 0; t < threads; t++) {
+                    int thread = t;
+                    futures.add(CompletableFuture.runAsync(() -> {
+                        for (int i = 0; i < perThread; i++) {
+                            try {
+                                wal.append(PaymentWal.encode(payment("PM" + thread + "-" + i)));
+                            } catch (IOException e) {
+                                throw new RuntimeException(e);
+                            }
+                        }
+                    }, executor));
+                }
+                for (CompletableFuture<Void> future : futures) {
+                    future.get();
+                }
+            } finally {
+                executor.shutdownNow();
+            }
+            assertTrue(wal.isHealthy());
+        }
+
+        Set<String> codes = new HashSet<>();
+        List<Path> segments = segments();
+        assertTrue(segments.size() > 1, "segments: " + segments.size());
+        for (Path segment : segments) {
+            PaymentWal.read(segment, payload -> codes.add(PaymentWal.decode(payload).getCode()));
+        }
+        assertEquals(threads * perThread, codes.size());
+    }
+
+    @Test
+    void tornTailIsIgnored() throws Exception {
+        try (PaymentWal wal = new PaymentWal(directory, 1024 * 1024)) {
+            for (int i = 0; i < 3; i++) {
+                wal.append(PaymentWal.encode(payment("PM" + i)));
+            }
+        }
+        Path segment = segments().get(0);
+        // Bản ghi thứ tư chỉ ghi được header và một phần nội dung trước khi mất điện
+        byte[] torn = {0, 0, 0, 100, 1, 2, 3, 4, 9, 9};
+        Files.write(segment, torn, StandardOpenOption.APPEND);
+
+        List<PaymentDTO> read = new ArrayList<>();
+        assertEquals(3, PaymentWal.read(segment, payload -> read.add(PaymentWal.decode(payload))));
+        assertEquals("PM2", read.get(2).getCode());
+    }
+
+    @Test
+    void encodeDecodeRoundTrip() {
+        PaymentDTO payment = payment("PM0001");
+        payment.setEntryType(PaymentEntity.EntryType.REFUND);
+        payment.setAmount(new BigDecimal("-150000.50"));
+        payment.setIdCustomer(null);
+        payment.setRefundOf("PM0000");
+        payment.setNote("Hoàn tiền dịch vụ nhuộm");
+
+        PaymentDTO decoded = PaymentWal.decode(PaymentWal.encode(payment));
+        assertEquals(payment.getCode(), decoded.getCode());
+        assertEquals(payment.getEntryType(), decoded.getEntryType());
+        assertEquals(payment.getMethod(), decoded.getMethod());
+        assertEquals(payment.getAmount(), decoded.getAmount());
+        assertEquals(payment.getDiscountAmount(), decoded.getDiscountAmount());
+        assertEquals(payment.getIdBooking(), decoded.getIdBooking());
+        assertNull(decoded.getIdCustomer());
+        assertEquals(payment.getRefundOf(), decoded.getRefundOf());
+        assertEquals(payment.getNote(), decoded.getNote());
+        assertEquals(payment.getPaidAt(), decoded.getPaidAt());
+    }
+
+    @Test
+    void ledgerReplaysLeftoverSegmentsAndDeletesThemOnceRecorded() throws Exception {
+        // Lần chạy trước: 50 bút toán đã fsync nhưng chưa vào database khi tiến trình dừng
+        try (PaymentWal wal = new PaymentWal(directory, 1024 * 1024)) {
+            for (int i = 0; i < 50; i++) {
+                wal.append(PaymentWal.encode(payment("PM" + i)));
+            }
+        }
+        assertEquals(1, segments().size());
+
+        List<String> recorded = Collections.synchronizedList(new ArrayList<>());
+        AtomicInteger failures = new AtomicInteger();
+        PaymentLedger ledger = new PaymentLedger();
+        ledger.configure(100, 20, Duration.ofMillis(5), Duration.ofSeconds(1));
+        ledger.open(new PaymentWal(directory, 1024 * 1024), batch -> {
+            // Lô đầu tiên lỗi database: phải được thử lại, không mất bản ghi
+            if (failures.getAndIncrement() == 0) {
+                throw new IllegalStateException("database unavailable");
+            }
+            batch.forEach(payment -> recorded.add(payment.getCode()));
+        });
+        ledger.append(payment("PM-new"));
+
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (ledger.getRecordedCount() < 51 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(51, new HashSet<>(recorded).size());
+        assertNull(ledger.findUnrecorded("PM-new"));
+        assertEquals(0, ledger.pendingCount());
+        ledger.destroy();
+        // Mọi bản ghi đã vào database: không còn segment nào để phát lại
+        assertTrue(segments().isEmpty(), "segments: " + segments());
+        assertFalse(ledger.isHealthy());
+    }
+
+    @Test
+    void rowTheDatabaseRejectsIsDeadLetteredWithoutBlockingTheRest() throws Exception {
+        List<String> recorded = Collections.synchronizedList(new ArrayList<>());
+        PaymentLedger ledger = new PaymentLedger();
+        ledger.configure(100, 20, Duration.ofMillis(50), Duration.ofSeconds(1));
+        ledger.open(new PaymentWal(directory, 1024 * 1024), batch -> {
+            // Như ghi chú dài quá cột: lô chứa dòng này không bao giờ ghi được
+            if (batch.stream().anyMatch(payment -> payment.getCode().equals("PM-bad"))) {
+                throw new DataIntegrityViolationException("Data too long for column 'note'");
+            }
+            batch.forEach(payment -> recorded.add(payment.getCode()));
+        });
+        for (int i = 0; i < 10; i++) {
+            ledger.append(payment(i == 4 ? "PM-bad" : "PM" + i));
+        }
+
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while ((ledger.pendingCount() > 0 || ledger.getDeadLetterCount() == 0) && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(9, new HashSet<>(recorded).size());
+        assertFalse(recorded.contains("PM-bad"));
+        assertEquals(1, ledger.getDeadLetterCount());
+        assertNull(ledger.findUnrecorded("PM-bad"));
+
+        // Luồng ghi vẫn chạy
+        ledger.append(payment("PM-after"));
+        deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (!recorded.contains("PM-after") && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(recorded.contains("PM-after"));
+        ledger.destroy();
+
+        Path deadLetter = directory.resolve(PaymentWal.DEAD_LETTER_FILE);
+        List<String> parked = new ArrayList<>();
+        PaymentWal.read(deadLetter, payload -> parked.add(PaymentWal.decode(payload).getCode()));
+        assertEquals(List.of("PM-bad"), parked);
+        // Segment đã commit hết (kể cả dòng bị loại) nên không còn gì để phát lại
+        assertEquals(List.of(deadLetter), segments());
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.sorted().toList();
+        }
+    }
+
+    private static PaymentDTO payment(String code) {
+        PaymentDTO payment = new PaymentDTO();
+        payment.setCode(code);
+        payment.setEntryType(PaymentEntity.EntryType.PAYMENT);
+        payment.setMethod(PaymentEntity.PaymentMethod.CARD);
+        payment.setAmount(new BigDecimal("350000.00"));
+        payment.setDiscountAmount(new BigDecimal("35000.00"));
+        payment.setIdBooking(12);
+        payment.setIdCustomer(7);
+        payment.setPaidAt(LocalDateTime.of(2030, 1, 1, 10, 30, 15));
+        return payment;
+    }
+}
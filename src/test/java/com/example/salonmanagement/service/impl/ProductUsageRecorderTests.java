@@ -0,0 +1,100 @@
+package com.example.salonmanagement.service.impl;
+
+import com.example.salonmanagement.event.ProductLowStockEvent;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ProductUsageRecorderTests {
+
+    private final ProductUsageRecorder recorder = new ProductUsageRecorder();
+    private final List<Object> events = new ArrayList<>();
+
+    @Test
+    void concurrentUsageIsFlushedExactlyOnceWhileFlushingRuns() throws Exception {
+        Map<Integer, AtomicLong> stock = new ConcurrentHashMap<>();
+        AtomicLong failures = new AtomicLong();
+        recorder.configure((drains, date) -> {
+            // Thỉnh thoảng database lỗi: lượng dùng phải được giữ lại cho lần flush sau
+            if (failures.incrementAndGet() % 5 == 0) {
+                throw new IllegalStateException("database unavailable");
+            }
+            drains.forEach(d -> stock.computeIfAbsent(d.counter.idProduct, k -> new AtomicLong()).addAndGet(d.quantity));
+            return List.of();
+        }, events::add);
+
+        int threads = 8;
+        int perThread = 50_000;
+        AtomicBoolean done = new AtomicBoolean();
+        ExecutorService executor = Executors.newFixedThreadPool(threads + 1);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<?>> writers = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                writers.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < perThread; i++) {
+                        // Sản phẩm 1 là "dòng nóng": mọi luồng cùng dùng
+                        recorder.record(1, i % 3, 2);
+                        recorder.record(2 + i % 4, null, 1);
+                    }
+                    return null;
+                }));
+            }
+            Future<?> flusher = executor.submit(() -> {
+                while (!done.get()) {
+                    recorder.flush();
+                }
+            });
+            start.countDown();
+            for (Future<?> writer : writers) {
+                writer.get();
+            }
+            done.set(true);
+            flusher.get();
+        } finally {
+            executor.shutdownNow();
+        }
+        // Flush nốt phần còn lại; cứ năm lượt có một lượt lỗi
+        for (int i = 0; i < 5; i++) {
+            recorder.flush();
+        }
+
+        assertEquals(2L * threads * perThread, stock.get(1).get());
+        long others = 0;
+        for (int product = 2; product < 6; product++) {
+            others += stock.get(product).get();
+            assertEquals(0, recorder.pendingUsage(product));
+        }
+        assertEquals((long) threads * perThread, others);
+        assertEquals(0, recorder.pendingUsage(1));
+    }
+
+    @Test
+    void lowStockIsAlertedOnceUntilStockChanges() {
+        recorder.configure((drains, date) -> List.of(new ProductLowStockEvent(7, "Thuốc nhuộm", 40, 50)), events::add);
+
+        recorder.record(7, 3, 60);
+        recorder.flush();
+        recorder.record(7, 3, 10);
+        recorder.flush();
+        assertEquals(1, events.size());
+
+        recorder.stockChanged(7);
+        recorder.record(7, 3, 10);
+        recorder.flush();
+        assertEquals(2, events.size());
+        assertEquals(0, recorder.flush());
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.salonmanagement.service.impl;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class PromotionImportServiceTests {
+
+    @Test
+    void quotedFieldsMaySpanSeveralLines() throws IOException {
+        // Dạng PromotionExportService ghi ra khi mô tả có xuống dòng, dấu phẩy và dấu nháy
+        String csv = "name,discountPercent,startDate,endDate,description,status\n" +
+                "Hè,10.00,2026-06-01,2026-06-30,\"Dòng 1\r\nDòng \"\"2\"\", có phẩy\n\",ACTIVE\n" +
+                "\"Thu\n\",5.00,2026-09-01,2026-09-30,,UPCOMING\n";
+        BufferedReader reader = new BufferedReader(new StringReader(csv));
+
+        assertEquals(List.of("name", "discountPercent", "startDate", "endDate", "description", "status"),
+                PromotionImportService.parseCsvLine(PromotionImportService.readCsvRecord(reader)));
+        assertEquals(List.of("Hè", "10.00", "2026-06-01", "2026-06-30", "Dòng 1\nDòng \"2\", có phẩy\n", "ACTIVE"),
+                PromotionImportService.parseCsvLine(PromotionImportService.readCsvRecord(reader)));
+        assertEquals(List.of("Thu\n", "5.00", "2026-09-01", "2026-09-30", "", "UPCOMING"),
+                PromotionImportService.parseCsvLine(PromotionImportService.readCsvRecord(reader)));
+        assertNull(PromotionImportService.readCsvRecord(reader));
+    }
+}
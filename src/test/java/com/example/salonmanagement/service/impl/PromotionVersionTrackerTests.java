@@ -0,0 +1,68 @@
+package com.example.salonmanagement.service.impl;
+
+import com.example.salonmanagement.event.PromotionChangedEvent;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PromotionVersionTrackerTests {
+
+    private final JdbcTemplate jdbc = h2("promotion_version");
+
+    @Test
+    void writesOnAnotherNodeChangeTheETagAndAreReportedAsRemote() {
+        List<Object> eventsA = new ArrayList<>();
+        List<Object> eventsB = new ArrayList<>();
+        PromotionVersionTracker nodeA = node(eventsA);
+        PromotionVersionTracker nodeB = node(eventsB);
+        nodeA.refresh();
+        nodeB.refresh();
+        String before = nodeB.eTag();
+
+        // Node A ghi (transaction commit) rồi công bố phiên bản của mình
+        nodeA.changed(nodeA.recordChange());
+        assertEquals(before, nodeB.eTag());
+
+        nodeA.refresh();
+        nodeB.refresh();
+        assertNotEquals(before, nodeB.eTag());
+        assertEquals(nodeA.eTag(), nodeB.eTag());
+        assertEquals(nodeA.lastModified(), nodeB.lastModified());
+        assertEquals(List.of(), eventsA);
+        assertEquals(1, eventsB.size());
+        assertEquals(PromotionChangedEvent.Type.REMOTE, ((PromotionChangedEvent) eventsB.get(0)).getType());
+    }
+
+    @Test
+    void lastModifiedAdvancesAtLeastOneSecondPerWrite() {
+        PromotionVersionTracker tracker = node(new ArrayList<>());
+        PromotionVersionTracker.Version first = tracker.recordChange();
+        PromotionVersionTracker.Version second = tracker.recordChange();
+
+        assertEquals(first.version + 1, second.version);
+        assertTrue(second.lastModified >= first.lastModified + 1000);
+    }
+
+    private PromotionVersionTracker node(List<Object> events) {
+        PromotionVersionTracker tracker = new PromotionVersionTracker();
+        tracker.configure(jdbc, events::add);
+        return tracker;
+    }
+
+    private static JdbcTemplate h2(String name) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + name + ";MODE=MySQL;DB_CLOSE_DELAY=-1");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("DROP TABLE IF EXISTS promotion_catalog_version");
+        jdbc.execute("CREATE TABLE promotion_catalog_version " +
+                "(id INT PRIMARY KEY, version BIGINT NOT NULL, last_modified BIGINT NOT NULL)");
+        return jdbc;
+    }
+}
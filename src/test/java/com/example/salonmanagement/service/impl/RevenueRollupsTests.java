@@ -0,0 +1,67 @@
+package com.example.salonmanagement.service.impl;
+
+import com.example.salonmanagement.dto.PaymentDTO;
+import com.example.salonmanagement.dto.RevenueDTO;
+import com.example.salonmanagement.entity.PaymentEntity;
+import com.example.salonmanagement.entity.RevenueRollupEntity;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class RevenueRollupsTests {
+
+    private static final LocalDateTime MORNING = LocalDateTime.of(2030, 1, 2, 9, 0);
+
+    @Test
+    void batchIsFoldedIntoOneDeltaPerDayDimensionAndId() {
+        List<RevenueRollups.Delta> deltas = RevenueRollups.aggregate(List.of(
+                payment(PaymentEntity.EntryType.PAYMENT, "300000", "30000", 1, 10, 5, MORNING),
+                payment(PaymentEntity.EntryType.PAYMENT, "200000", "0", 1, 11, null, MORNING.plusHours(2)),
+                payment(PaymentEntity.EntryType.REFUND, "-300000", "-30000", 1, 10, 5, MORNING.plusHours(3)),
+                payment(PaymentEntity.EntryType.PAYMENT, "100000", "0", 2, 10, null, MORNING.plusDays(1))));
+
+        // Ngày 2: TOTAL, STAFF 1, SERVICE 10, SERVICE 11, PROMOTION 5; ngày 3: TOTAL, STAFF 2, SERVICE 10
+        assertEquals(8, deltas.size());
+        RevenueRollups.Delta total = deltas.get(0);
+        assertEquals(RevenueRollupEntity.Dimension.TOTAL, total.dimension);
+        assertEquals(new BigDecimal("500000"), total.gross);
+        assertEquals(new BigDecimal("300000"), total.refund);
+        assertEquals(new BigDecimal("0"), total.discount);
+        assertEquals(2, total.payments);
+        assertEquals(1, total.refunds);
+
+        RevenueRollups.Delta promotion = deltas.get(4);
+        assertEquals(RevenueRollupEntity.Dimension.PROMOTION, promotion.dimension);
+        assertEquals(5, promotion.dimensionId);
+        assertEquals(1, promotion.payments);
+        assertEquals(1, promotion.refunds);
+        assertEquals(MORNING.toLocalDate().plusDays(1), deltas.get(5).date);
+    }
+
+    @Test
+    void bucketStartsOnMondayAndFirstOfMonth() {
+        LocalDate sunday = LocalDate.of(2030, 3, 3);
+        assertEquals(LocalDate.of(2030, 2, 25), RevenueService.bucketStart(sunday, RevenueDTO.Granularity.WEEK));
+        assertEquals(LocalDate.of(2030, 3, 1), RevenueService.bucketStart(sunday, RevenueDTO.Granularity.MONTH));
+        assertEquals(sunday, RevenueService.bucketStart(sunday, RevenueDTO.Granularity.DAY));
+    }
+
+    private static PaymentDTO payment(PaymentEntity.EntryType type, String amount, String discount,
+                                      Integer idStaff, Integer idService, Integer idPromotion, LocalDateTime paidAt) {
+        PaymentDTO payment = new PaymentDTO();
+        payment.setEntryType(type);
+        payment.setMethod(PaymentEntity.PaymentMethod.CASH);
+        payment.setAmount(new BigDecimal(amount));
+        payment.setDiscountAmount(new BigDecimal(discount));
+        payment.setIdStaff(idStaff);
+        payment.setIdService(idService);
+        payment.setIdPromotion(idPromotion);
+        payment.setPaidAt(paidAt);
+        return payment;
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.salonmanagement.service.impl;
+
+import com.example.salonmanagement.dto.StaffDTO;
+import com.example.salonmanagement.dto.StaffShiftDTO;
+import com.example.salonmanagement.entity.StaffEntity;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StaffScheduleIndexTests {
+
+    // Thứ Hai
+    private static final LocalDate MONDAY = LocalDate.of(2030, 1, 7);
+
+    private final BookingCalendar calendar = new BookingCalendar();
+    private final StaffScheduleIndex index = new StaffScheduleIndex();
+
+    StaffScheduleIndexTests() {
+        calendar.configure(15, LocalTime.of(8, 0), LocalTime.of(21, 0));
+        calendar.markLoaded(MONDAY);
+        calendar.markLoaded(MONDAY.plusDays(1));
+        index.configure(calendar);
+        index.rebuild(List.of(
+                staff(1, 1, StaffEntity.StaffStatus.ACTIVE, List.of("color"), LocalTime.of(9, 0), LocalTime.of(17, 0)),
+                staff(2, 2, StaffEntity.StaffStatus.ACTIVE, List.of("CUT", " Color "), LocalTime.of(13, 0), LocalTime.of(21, 0)),
+                staff(3, 1, StaffEntity.StaffStatus.INACTIVE, List.of("COLOR"), LocalTime.of(8, 0), LocalTime.of(21, 0))));
+    }
+
+    @Test
+    void findsQualifiedStaffOnShiftAndFree() {
+        assertEquals(List.of(1), ids(index.findFreeStaff("COLOR", null, MONDAY, slot(10, 0), 4)));
+        assertEquals(List.of(1, 2), ids(index.findFreeStaff("color", null, MONDAY, slot(14, 0), 4)));
+        assertEquals(List.of(2), ids(index.findFreeStaff("COLOR", 2, MONDAY, slot(14, 0), 4)));
+        assertEquals(List.of(2), index.findStaffIds("cut", null));
+        assertEquals(List.of(1, 2), index.findStaffIds(null, null));
+
+        // Ca 09:00 - 17:00: 16:45 còn đúng một khung giờ
+        assertTrue(index.isOnShift(1, MONDAY, slot(16, 45), 1));
+        assertFalse(index.isOnShift(1, MONDAY, slot(16, 45), 2));
+        // Không có ca vào thứ Ba
+        assertFalse(index.isOnShift(1, MONDAY.plusDays(1), slot(10, 0), 1));
+
+        assertTrue(calendar.tryReserve(1, MONDAY, slot(14, 30), 2));
+        assertEquals(List.of(2), ids(index.findFreeStaff("COLOR", null, MONDAY, slot(14, 0), 4)));
+    }
+
+    @Test
+    void updatesOneStaffIncrementally() {
+        index.put(staff(2, 2, StaffEntity.StaffStatus.INACTIVE, List.of("CUT"), LocalTime.of(13, 0), LocalTime.of(21, 0)));
+        assertEquals(List.of(), index.findStaffIds("CUT", null));
+        assertNull(index.workingSlots(2, MONDAY));
+
+        index.put(staff(4, 2, StaffEntity.StaffStatus.ACTIVE, List.of("CUT"), LocalTime.of(8, 0), LocalTime.MIDNIGHT));
+        assertEquals(List.of(4), ids(index.findFreeStaff("CUT", 2, MONDAY, slot(20, 0), 4)));
+
+        index.remove(1);
+        assertEquals(List.of(4), index.findStaffIds(null, null));
+    }
+
+    private int slot(int hour, int minute) {
+        return calendar.slotFloor(LocalTime.of(hour, minute));
+    }
+
+    private static List<Integer> ids(List<StaffDTO> staff) {
+        return staff.stream().map(StaffDTO::getIdStaff).toList();
+    }
+
+    private static StaffDTO staff(int id, int branch, StaffEntity.StaffStatus status, List<String> specialties,
+                                  LocalTime start, LocalTime end) {
+        StaffDTO dto = new StaffDTO();
+        dto.setIdStaff(id);
+        dto.setFullName("Staff " + id);
+        dto.setIdBranch(branch);
+        dto.setStatus(status);
+        dto.setSpecialties(specialties);
+        dto.setShifts(List.of(new StaffShiftDTO(1, start, end)));
+        return dto;
+    }
+}
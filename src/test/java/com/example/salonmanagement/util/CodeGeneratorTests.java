@@ -0,0 +1,75 @@
+package com.example.salonmanagement.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CodeGeneratorTests {
+
+    @Test
+    void concurrentIdsAreUnique() throws Exception {
+        CodeGenerator generator = new CodeGenerator(7);
+        int threads = 8;
+        int perThread = 250_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<CompletableFuture<long[]>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(CompletableFuture.supplyAsync(() -> {
+                    long[] ids = new long[perThread];
+                    for (int i = 0; i < perThread; i++) {
+                        ids[i] = generator.nextId();
+                    }
+                    return ids;
+                }, executor));
+            }
+            long[] all = new long[threads * perThread];
+            for (int t = 0; t < threads; t++) {
+                System.arraycopy(futures.get(t).get(), 0, all, t * perThread, perThread);
+            }
+            Arrays.sort(all);
+            for (int i = 1; i < all.length; i++) {
+                assertTrue(all[i - 1] < all[i], "duplicate id " + all[i]);
+            }
+            assertEquals(7, CodeGenerator.nodeOf(all[0]));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void idsKeepIncreasingWhenClockMovesBackwards() {
+        AtomicLong now = new AtomicLong(CodeGenerator.EPOCH_MILLIS + 1_000_000);
+        CodeGenerator generator = new CodeGenerator(1, now::get);
+        long previous = generator.nextId();
+        for (int i = 0; i < 20_000; i++) {
+            if (i == 10_000) {
+                now.addAndGet(-5_000);
+            }
+            long id = generator.nextId();
+            assertTrue(id > previous);
+            previous = id;
+        }
+        assertTrue(generator.clockDriftMillis() >= 5_000);
+    }
+
+    @Test
+    void codesRoundTrip() {
+        CodeGenerator generator = new CodeGenerator(1023);
+        long id = generator.nextId();
+        String code = generator.nextCode(CodeGenerator.PREFIX_BOOKING);
+        assertEquals(CodeGenerator.PREFIX_BOOKING.length() + CodeGenerator.CODE_LENGTH, code.length());
+        assertEquals(id, CodeGenerator.decode(CodeGenerator.encode("", id)));
+        assertEquals(Long.MAX_VALUE, CodeGenerator.decode(CodeGenerator.encode("PM", Long.MAX_VALUE).toLowerCase()));
+        assertTrue(CodeGenerator.encode("", id).compareTo(code.substring(2)) < 0);
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.salonmanagement.util;
+
+import com.example.salonmanagement.dto.PromotionDTO;
+import com.example.salonmanagement.entity.PromotionEntity;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class DiscountUtilTests {
+
+    private static final LocalDate BASE_DATE = LocalDate.of(2024, 1, 1);
+
+    @Test
+    void discountAmountRoundsHalfUpWithoutOverflow() {
+        assertEquals(12_500, DiscountUtil.discountAmount(100_000, 1250));
+        assertEquals(1, DiscountUtil.discountAmount(10, 500));
+        assertEquals(0, DiscountUtil.discountAmount(9, 500));
+        assertEquals(Long.MAX_VALUE, DiscountUtil.discountAmount(Long.MAX_VALUE, DiscountUtil.FULL_BASIS_POINTS));
+        assertEquals(1250, DiscountUtil.toBasisPoints(new BigDecimal("12.50")));
+    }
+
+    @Test
+    void compiledTableMatchesNaiveBigDecimalEvaluation() {
+        SplittableRandom random = new SplittableRandom(7);
+        List<PromotionDTO> promotions = new ArrayList<>();
+        PromotionEntity.PromotionStatus[] statuses = PromotionEntity.PromotionStatus.values();
+        for (int i = 1; i <= 200; i++) {
+            LocalDate start = BASE_DATE.plusDays(random.nextInt(400));
+            promotions.add(new PromotionDTO(i, "KM " + i, BigDecimal.valueOf(random.nextInt(1, 2000), 2),
+                    start, start.plusDays(random.nextInt(60)), null, statuses[random.nextInt(statuses.length)]));
+        }
+        DiscountUtil.DiscountTable table = DiscountUtil.compile(promotions);
+
+        int count = 1000;
+        long[] days = new long[count];
+        long[] amounts = new long[count];
+        for (int i = 0; i < count; i++) {
+            days[i] = BASE_DATE.plusDays(random.nextInt(-10, 480)).toEpochDay();
+            amounts[i] = random.nextLong(0, 50_000_000);
+        }
+        long[] discounts = new long[count];
+        int[] promotionIds = new int[count];
+        long total = table.price(days, amounts, count, discounts, promotionIds);
+
+        long expectedTotal = 0;
+        for (int i = 0; i < count; i++) {
+            PromotionDTO best = naiveBest(promotions, LocalDate.ofEpochDay(days[i]));
+            long expected = best == null ? 0 : BigDecimal.valueOf(amounts[i])
+                    .multiply(best.getDiscountPercent())
+                    .divide(BigDecimal.valueOf(100), 0, RoundingMode.HALF_UP)
+                    .longValueExact();
+            assertEquals(expected, discounts[i]);
+            assertEquals(best == null ? DiscountUtil.NO_PROMOTION : best.getIdPromotion(), promotionIds[i]);
+            expectedTotal += expected;
+        }
+        assertEquals(expectedTotal, total);
+    }
+
+    @Test
+    void upcomingPromotionAppliesOnlyInsideItsDates() {
+        LocalDate start = BASE_DATE.plusDays(30);
+        DiscountUtil.DiscountTable table = DiscountUtil.compile(List.of(
+                new PromotionDTO(1, "Sắp diễn ra", new BigDecimal("20.00"), start, start.plusDays(6), null,
+                        PromotionEntity.PromotionStatus.UPCOMING),
+                new PromotionDTO(2, "Tạm dừng", new BigDecimal("50.00"), BASE_DATE, start.plusDays(6), null,
+                        PromotionEntity.PromotionStatus.INACTIVE)));
+
+        assertEquals(DiscountUtil.NO_PROMOTION, table.promotionIdAt(BASE_DATE.toEpochDay()));
+        assertEquals(1, table.promotionIdAt(start.toEpochDay()));
+        assertEquals(2000, table.basisPointsAt(start.plusDays(6).toEpochDay()));
+        assertEquals(DiscountUtil.NO_PROMOTION, table.promotionIdAt(start.plusDays(7).toEpochDay()));
+    }
+
+    private static PromotionDTO naiveBest(List<PromotionDTO> promotions, LocalDate date) {
+        PromotionDTO best = null;
+        for (PromotionDTO promotion : promotions) {
+            if (DiscountUtil.isPriced(promotion.getStatus())
+                    && !date.isBefore(promotion.getStartDate())
+                    && !date.isAfter(promotion.getEndDate())
+                    && (best == null || promotion.getDiscountPercent().compareTo(best.getDiscountPercent()) > 0)) {
+                best = promotion;
+            }
+        }
+        return best;
+    }
+}